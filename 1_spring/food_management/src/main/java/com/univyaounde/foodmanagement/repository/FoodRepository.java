@@ -1,10 +1,12 @@
 package com.univyaounde.foodmanagement.repository;
 
 import com.univyaounde.foodmanagement.model.Food;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -22,6 +24,10 @@ public interface FoodRepository extends JpaRepository<Food, Long> {
     @Query("SELECT f FROM Food f JOIN f.ingredients i WHERE i.nom = :ingredientNom")
     List<Food> findByIngredientNom(@Param("ingredientNom") String ingredientNom);
     
+    @Query("SELECT f FROM Food f JOIN f.ingredients i WHERE i.nom IN :noms "
+         + "GROUP BY f ORDER BY COUNT(i) DESC, SIZE(f.ingredients) ASC, f.id ASC")
+    List<Food> findByIngredientNomsParCouverture(@Param("noms") Collection<String> noms, Pageable pageable);
+    
     @Query("SELECT COUNT(f) FROM Food f WHERE f.personne.id = :personneId")
     Long countByPersonneId(@Param("personneId") Long personneId);
 }
\ No newline at end of file
@@ -5,12 +5,60 @@ import com.univyaounde.foodmanagement.model.Ingredient;
 import com.univyaounde.foodmanagement.model.Personne;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.text.Normalizer;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 public class ChatbotService {
     
+    private static final List<String> INTENTIONS = List.of(
+        "RECHERCHE_ALIMENT", "CONSEIL_NUTRITION", "PLANIFICATION", "RECETTE", "BUFFET", "CALORIES");
+    
+    /**
+     * Racines de mots-clés (sans accents) : indice de l'intention et poids
+     */
+    private static final Map<String, int[]> RACINES_INTENTIONS = new HashMap<>();
+    
+    private static final int LONGUEUR_RACINE_MAX = 9;
+    
+    /**
+     * Mots qui ne désignent jamais seuls un aliment ou un ingrédient
+     */
+    private static final Set<String> MOTS_IGNORES = Set.of(
+        "aliment", "aliments", "plat", "plats", "nourriture", "recette", "recettes", "calories", "calorie",
+        "avec", "pour", "dans", "sans", "quoi", "quel", "quelle", "infos", "faire", "cuisiner", "manger");
+    
+    private static final Map<String, Integer> NOMBRES_EN_LETTRES = Map.ofEntries(
+        Map.entry("deux", 2), Map.entry("trois", 3), Map.entry("quatre", 4), Map.entry("cinq", 5),
+        Map.entry("six", 6), Map.entry("sept", 7), Map.entry("huit", 8), Map.entry("neuf", 9),
+        Map.entry("dix", 10), Map.entry("douze", 12), Map.entry("quinze", 15), Map.entry("vingt", 20),
+        Map.entry("trente", 30), Map.entry("quarante", 40), Map.entry("cinquante", 50), Map.entry("cent", 100),
+        Map.entry("dizaine", 10), Map.entry("douzaine", 12), Map.entry("vingtaine", 20), Map.entry("centaine", 100));
+    
+    private static final int LONGUEUR_MIN_CORRECTION = 5;
+    
+    /**
+     * Noms du catalogue en mémoire, rechargés seulement quand le catalogue a changé
+     */
+    private volatile CatalogueNoms nomsAliments = new CatalogueNoms(-1, List.of());
+    private volatile CatalogueNoms nomsIngredients = new CatalogueNoms(-1, List.of());
+    
+    static {
+        ajouterRacines("RECHERCHE_ALIMENT", 2, "aliment");
+        ajouterRacines("RECHERCHE_ALIMENT", 1, "nourritur", "plat");
+        ajouterRacines("CONSEIL_NUTRITION", 2, "nutrition", "equilibr");
+        ajouterRacines("CONSEIL_NUTRITION", 1, "sante", "conseil", "regime");
+        ajouterRacines("PLANIFICATION", 2, "planifier", "planifica", "menu");
+        ajouterRacines("PLANIFICATION", 1, "plan", "semaine", "repas");
+        ajouterRacines("RECETTE", 2, "recette", "cuisiner");
+        ajouterRacines("RECETTE", 1, "ingredien");
+        ajouterRacines("BUFFET", 2, "buffet");
+        ajouterRacines("BUFFET", 1, "fete", "invite");
+        ajouterRacines("CALORIES", 2, "calorie", "kcal");
+        ajouterRacines("CALORIES", 1, "energie");
+    }
+    
     @Autowired
     private FoodService foodService;
     
@@ -35,7 +83,7 @@ public class ChatbotService {
         
         switch (intention) {
             case "RECHERCHE_ALIMENT":
-                response = rechercherAliment(extractNomAliment(messageLower));
+                response = rechercherAliment(extractNomAliment(message));
                 break;
             case "CONSEIL_NUTRITION":
                 response = donnerConseilNutrition(new HashMap<>());
@@ -44,13 +92,13 @@ public class ChatbotService {
                 response = aiderPlanification(userId);
                 break;
             case "RECETTE":
-                response = suggererRecette(extractIngredients(messageLower));
+                response = suggererRecette(extractIngredients(message));
                 break;
             case "BUFFET":
                 response = aiderBuffet(extractNombreInvites(messageLower));
                 break;
             case "CALORIES":
-                response = calculerCalories(extractNomAliment(messageLower));
+                response = calculerCalories(extractNomAliment(message));
                 break;
             default:
                 response = reponseGenerale(messageLower);
@@ -61,26 +109,37 @@ public class ChatbotService {
         return response;
     }
     
+    /**
+     * Intention du message : chaque mot (sans accents) dont le début est une racine
+     * connue ajoute le poids de la racine à son intention ; le meilleur score l'emporte,
+     * à égalité l'intention déclarée la première
+     */
     private String detecterIntention(String message) {
-        if (message.contains("aliment") || message.contains("nourriture") || message.contains("plat")) {
-            return "RECHERCHE_ALIMENT";
-        }
-        if (message.contains("nutrition") || message.contains("santé") || message.contains("équilibré")) {
-            return "CONSEIL_NUTRITION";
-        }
-        if (message.contains("plan") || message.contains("menu") || message.contains("semaine")) {
-            return "PLANIFICATION";
-        }
-        if (message.contains("recette") || message.contains("cuisiner") || message.contains("ingrédient")) {
-            return "RECETTE";
+        String texte = Normalizer.normalize(message, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        int[] scores = new int[INTENTIONS.size()];
+        for (String mot : texte.split("[^a-z0-9]+")) {
+            for (int longueur = Math.min(mot.length(), LONGUEUR_RACINE_MAX); longueur >= 3; longueur--) {
+                int[] racine = RACINES_INTENTIONS.get(mot.substring(0, longueur));
+                if (racine != null) {
+                    scores[racine[0]] += racine[1];
+                    break;
+                }
+            }
         }
-        if (message.contains("buffet") || message.contains("fête") || message.contains("invité")) {
-            return "BUFFET";
+
+        int meilleure = -1;
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] > 0 && (meilleure < 0 || scores[i] > scores[meilleure])) {
+                meilleure = i;
+            }
         }
-        if (message.contains("calorie") || message.contains("énergie")) {
-            return "CALORIES";
+        return meilleure < 0 ? "GENERAL" : INTENTIONS.get(meilleure);
+    }
+
+    private static void ajouterRacines(String intention, int poids, String... racines) {
+        for (String racine : racines) {
+            RACINES_INTENTIONS.put(racine, new int[] { INTENTIONS.indexOf(intention), poids });
         }
-        return "GENERAL";
     }
     
     private Map<String, Object> rechercherAliment(String nomAliment) {
@@ -174,17 +233,11 @@ public class ChatbotService {
         Map<String, Object> response = new HashMap<>();
         
         if (!ingredients.isEmpty()) {
-            // Rechercher des aliments contenant ces ingrédients
-            List<Food> foodsCorrespondants = new ArrayList<>();
-            
-            for (String ingredient : ingredients) {
-                List<Food> foods = foodService.searchFoodsByName(ingredient);
-                foodsCorrespondants.addAll(foods);
-            }
+            // Une seule requête : aliments classés par nombre d'ingrédients disponibles utilisés
+            List<Food> foodsCorrespondants = foodService.getFoodsByIngredients(ingredients, 3);
             
             response.put("message", "Avec ces ingrédients, voici ce que vous pouvez préparer :");
             response.put("recettes", foodsCorrespondants.stream()
-                .limit(3)
                 .map(food -> Map.of(
                     "nom", food.getNom(),
                     "description", food.getDescription(),
@@ -287,43 +340,167 @@ public class ChatbotService {
     
     // Méthodes utilitaires pour extraire des informations du message
     private String extractNomAliment(String message) {
-        // Logique simple pour extraire le nom d'un aliment
-        String[] mots = message.split(" ");
-        for (int i = 0; i < mots.length; i++) {
-            if (mots[i].equals("aliment") || mots[i].equals("plat") || mots[i].equals("nourriture")) {
-                if (i + 1 < mots.length) {
-                    return mots[i + 1];
-                }
+        List<String> noms = catalogueAliments().reconnaitre(message);
+        return noms.isEmpty() ? null : noms.get(0);
+    }
+    
+    private List<String> extractIngredients(String message) {
+        return catalogueIngredients().reconnaitre(message);
+    }
+    
+    private Integer extractNombreInvites(String message) {
+        // Premier nombre du message, en chiffres ou en lettres
+        for (String mot : normaliser(message).split(" ")) {
+            if (mot.matches("\\d{1,6}")) {
+                return Integer.parseInt(mot);
+            }
+            if (NOMBRES_EN_LETTRES.containsKey(mot)) {
+                return NOMBRES_EN_LETTRES.get(mot);
             }
         }
         return null;
     }
     
-    private List<String> extractIngredients(String message) {
-        // Logique pour extraire les ingrédients mentionnés
-        List<String> ingredients = new ArrayList<>();
-        List<Ingredient> tousIngredients = ingredientService.getAllIngredients();
+    private CatalogueNoms catalogueAliments() {
+        CatalogueNoms noms = nomsAliments;
+        long version = foodService.getVersionCatalogue();
+        if (noms.version != version) {
+            noms = new CatalogueNoms(version, foodService.getAllFoods().stream().map(Food::getNom).toList());
+            nomsAliments = noms;
+        }
+        return noms;
+    }
+    
+    private CatalogueNoms catalogueIngredients() {
+        CatalogueNoms noms = nomsIngredients;
+        long version = ingredientService.getVersionCatalogue();
+        if (noms.version != version) {
+            noms = new CatalogueNoms(version, ingredientService.getAllIngredients().stream().map(Ingredient::getNom).toList());
+            nomsIngredients = noms;
+        }
+        return noms;
+    }
+    
+    private static String normaliser(String texte) {
+        String sansAccents = Normalizer.normalize(texte.toLowerCase(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return sansAccents.replaceAll("[^a-z0-9]+", " ").trim();
+    }
+    
+    /**
+     * Noms d'aliments ou d'ingrédients : la plus longue suite de mots du message formant un nom
+     * est reconnue, sinon un mot qui appartient à un nom. Les mots inconnus sont d'abord corrigés
+     * (une lettre de différence) grâce à leurs variantes à une lettre supprimée.
+     */
+    private static class CatalogueNoms {
+        final long version;
+        final Map<String, String> parNomComplet = new HashMap<>();
+        final Map<String, String> parMot = new HashMap<>();
+        final Map<String, Set<String>> parSuppression = new HashMap<>();
+        int motsMax = 1;
         
-        for (Ingredient ingredient : tousIngredients) {
-            if (message.contains(ingredient.getNom().toLowerCase())) {
-                ingredients.add(ingredient.getNom());
+        CatalogueNoms(long version, List<String> noms) {
+            this.version = version;
+            for (String nom : noms) {
+                String cle = normaliser(nom);
+                if (cle.isEmpty()) {
+                    continue;
+                }
+                parNomComplet.putIfAbsent(cle, nom);
+                String[] mots = cle.split(" ");
+                motsMax = Math.max(motsMax, mots.length);
+                for (String mot : mots) {
+                    if (mot.length() >= 3 && !MOTS_IGNORES.contains(mot)) {
+                        // Nom le plus court qui contient le mot
+                        parMot.merge(mot, nom, (actuel, autre) -> autre.length() < actuel.length() ? autre : actuel);
+                    }
+                    for (String variante : suppressions(mot)) {
+                        parSuppression.computeIfAbsent(variante, v -> new HashSet<>()).add(mot);
+                    }
+                }
             }
         }
         
-        return ingredients;
-    }
-    
-    private Integer extractNombreInvites(String message) {
-        // Extraire un nombre du message
-        String[] mots = message.split(" ");
-        for (String mot : mots) {
-            try {
-                return Integer.parseInt(mot);
-            } catch (NumberFormatException e) {
-                // Continue
+        List<String> reconnaitre(String message) {
+            String[] mots = normaliser(message).split(" ");
+            for (int i = 0; i < mots.length; i++) {
+                mots[i] = corriger(mots[i]);
+            }
+            Set<String> trouves = new LinkedHashSet<>();
+            int i = 0;
+            while (i < mots.length) {
+                int lus = 0;
+                for (int longueur = Math.min(motsMax, mots.length - i); longueur >= 1 && lus == 0; longueur--) {
+                    String nom = parNomComplet.get(String.join(" ", Arrays.copyOfRange(mots, i, i + longueur)));
+                    if (nom != null) {
+                        trouves.add(nom);
+                        lus = longueur;
+                    }
+                }
+                if (lus == 0 && parMot.containsKey(mots[i])) {
+                    trouves.add(parMot.get(mots[i]));
+                }
+                i += Math.max(1, lus);
             }
+            return new ArrayList<>(trouves);
+        }
+        
+        private String corriger(String mot) {
+            boolean connu = parSuppression.getOrDefault(mot, Set.of()).contains(mot);
+            if (connu || mot.length() < LONGUEUR_MIN_CORRECTION || MOTS_IGNORES.contains(mot)) {
+                return mot;
+            }
+            for (String variante : suppressions(mot)) {
+                for (String candidat : parSuppression.getOrDefault(variante, Set.of())) {
+                    if (unEcart(mot, candidat)) {
+                        return candidat;
+                    }
+                }
+            }
+            return mot;
+        }
+        
+        /**
+         * Le mot et ses variantes à une lettre supprimée
+         */
+        private static Set<String> suppressions(String mot) {
+            Set<String> variantes = new HashSet<>();
+            variantes.add(mot);
+            for (int i = 0; i < mot.length(); i++) {
+                variantes.add(mot.substring(0, i) + mot.substring(i + 1));
+            }
+            return variantes;
+        }
+        
+        /**
+         * Au plus une lettre ajoutée, supprimée ou remplacée
+         */
+        private static boolean unEcart(String a, String b) {
+            if (Math.abs(a.length() - b.length()) > 1) {
+                return false;
+            }
+            int i = 0;
+            int j = 0;
+            int ecarts = 0;
+            while (i < a.length() && j < b.length()) {
+                if (a.charAt(i) == b.charAt(j)) {
+                    i++;
+                    j++;
+                    continue;
+                }
+                if (++ecarts > 1) {
+                    return false;
+                }
+                if (a.length() > b.length()) {
+                    i++;
+                } else if (a.length() < b.length()) {
+                    j++;
+                } else {
+                    i++;
+                    j++;
+                }
+            }
+            return ecarts + (a.length() - i) + (b.length() - j) <= 1;
         }
-        return null;
     }
     
     private List<String> suggererAlternatives(String nomAliment) {
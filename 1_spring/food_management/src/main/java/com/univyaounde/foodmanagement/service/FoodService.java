@@ -6,8 +6,10 @@ import com.univyaounde.foodmanagement.model.Ingredient;
 import com.univyaounde.foodmanagement.repository.FoodRepository;
 import com.univyaounde.foodmanagement.repository.IngredientRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,7 +26,10 @@ public class FoodService {
     @Autowired
     private IngredientRepository ingredientRepository;
     
+    private final VersionCatalogue versionCatalogue = new VersionCatalogue();
+    
     public Food createFood(Food food) {
+        versionCatalogue.incrementerApresCommit();
         // Vérifier et associer les ingrédients existants
         if (food.getIngredients() != null) {
             List<Ingredient> managedIngredients = food.getIngredients().stream()
@@ -50,6 +55,7 @@ public class FoodService {
     }
     
     public Food updateFood(Long id, Food foodDetails) {
+        versionCatalogue.incrementerApresCommit();
         Optional<Food> optionalFood = foodDAO.findById(id);
         if (optionalFood.isPresent()) {
             Food food = optionalFood.get();
@@ -77,6 +83,7 @@ public class FoodService {
     }
     
     public void deleteFood(Long id) {
+        versionCatalogue.incrementerApresCommit();
         if (foodDAO.findById(id).isPresent()) {
             foodDAO.deleteById(id);
         } else {
@@ -92,6 +99,13 @@ public class FoodService {
         return foodRepository.findByNomContainingIgnoreCase(nom);
     }
     
+    /**
+     * Aliments contenant le plus d'ingrédients de la liste, puis ceux qui en ont le moins au total
+     */
+    public List<Food> getFoodsByIngredients(Collection<String> nomsIngredients, int limite) {
+        return foodRepository.findByIngredientNomsParCouverture(nomsIngredients, PageRequest.of(0, limite));
+    }
+    
     public List<Food> getFoodsByPersonne(Long personneId) {
         return foodRepository.findByPersonneId(personneId);
     }
@@ -107,4 +121,8 @@ public class FoodService {
     public List<Food> searchFoodsAdvanced(String nom, String categorie, Double minCalories) {
         return foodDAO.findFoodsByMultipleCriteria(nom, categorie, minCalories);
     }
+    
+    public long getVersionCatalogue() {
+        return versionCatalogue.get();
+    }
 }
\ No newline at end of file
@@ -19,7 +19,10 @@ public class IngredientService {
     @Autowired
     private IngredientDAO ingredientDAO;
     
+    private final VersionCatalogue versionCatalogue = new VersionCatalogue();
+    
     public Ingredient createIngredient(Ingredient ingredient) {
+        versionCatalogue.incrementerApresCommit();
         if (ingredientRepository.existsByNom(ingredient.getNom())) {
             throw new RuntimeException("Un ingrédient avec ce nom existe déjà");
         }
@@ -36,9 +39,11 @@ public class IngredientService {
      
     // Sauvegarder un ingrédient (création ou mise à jour)
     public Ingredient saveIngredient(Ingredient ingredient) {
+        versionCatalogue.incrementerApresCommit();
         return ingredientRepository.save(ingredient);
     }
     public Ingredient updateIngredient(Long id, Ingredient ingredientDetails) {
+        versionCatalogue.incrementerApresCommit();
         Optional<Ingredient> optionalIngredient = ingredientDAO.findById(id);
         if (optionalIngredient.isPresent()) {
             Ingredient ingredient = optionalIngredient.get();
@@ -52,6 +57,7 @@ public class IngredientService {
     }
     
     public void deleteIngredient(Long id) {
+        versionCatalogue.incrementerApresCommit();
         if (ingredientDAO.findById(id).isPresent()) {
             ingredientDAO.deleteById(id);
         } else {
@@ -82,4 +88,8 @@ public class IngredientService {
     public List<Ingredient> searchIngredientsAdvanced(String type, String nom) {
         return ingredientDAO.findIngredientsByTypeAndName(type, nom);
     }
+    
+    public long getVersionCatalogue() {
+        return versionCatalogue.get();
+    }
 }
\ No newline at end of file
@@ -107,22 +107,25 @@ public class PlanificationService {
         Map<String, Map<String, List<Food>>> planning = 
             (Map<String, Map<String, List<Food>>>) plan.get("planning");
         
-        // Analyse par catégorie
+        // Analyse par catégorie, en un seul parcours du plan
         Map<String, Integer> repartitionCategories = new HashMap<>();
-        List<Food> tousLesAliments = planning.values().stream()
-            .flatMap(repasJour -> repasJour.values().stream())
-            .flatMap(List::stream)
-            .collect(Collectors.toList());
-        
         for (Food.CategorieAliment categorie : Food.CategorieAliment.values()) {
-            long count = tousLesAliments.stream()
-                .filter(food -> food.getCategorie() == categorie)
-                .count();
-            repartitionCategories.put(categorie.name(), (int) count);
+            repartitionCategories.put(categorie.name(), 0);
+        }
+        int nombreTotalAliments = 0;
+        for (Map<String, List<Food>> repasJour : planning.values()) {
+            for (List<Food> aliments : repasJour.values()) {
+                for (Food food : aliments) {
+                    if (food.getCategorie() != null) {
+                        repartitionCategories.merge(food.getCategorie().name(), 1, Integer::sum);
+                    }
+                    nombreTotalAliments++;
+                }
+            }
         }
         
         analyse.put("repartitionCategories", repartitionCategories);
-        analyse.put("nombreTotalAliments", tousLesAliments.size());
+        analyse.put("nombreTotalAliments", nombreTotalAliments);
         analyse.put("caloriesMoyennesParJour", (Double) plan.get("caloriesTotal") / 7);
         
         return analyse;
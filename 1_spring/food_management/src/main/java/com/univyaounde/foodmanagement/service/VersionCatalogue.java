@@ -0,0 +1,28 @@
+package com.univyaounde.foodmanagement.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Incrémentée après chaque écriture validée : le chatbot recharge ses noms du catalogue quand elle change
+class VersionCatalogue {
+    
+    private final AtomicLong version = new AtomicLong();
+    
+    long get() {
+        return version.get();
+    }
+    
+    void incrementerApresCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.foodmanagement.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration du cache en mémoire des lectures unitaires
+ * 
+ * Les services lisent via @Cacheable et invalident via @CacheEvict
+ * dans leurs méthodes creer/modifier/supprimer.
+ * Les absences (Optional vide) ne sont jamais mises en cache,
+ * une création n'a donc rien à invalider.
+ * Dans une transaction, les écritures et invalidations du cache
+ * sont différées après le commit.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String CACHE_ALIMENTS = "aliments";
+    public static final String CACHE_INGREDIENTS_PAR_ID = "ingredientsParId";
+    public static final String CACHE_INGREDIENTS_PAR_NOM = "ingredientsParNom";
+    public static final String CACHE_PERSONNES_PAR_ID = "personnesParId";
+    public static final String CACHE_PERSONNES_PAR_EMAIL = "personnesParEmail";
+
+    /**
+     * Caches Caffeine bornés en taille et en durée de vie
+     * Les noms sont déclarés d'avance pour que l'Actuator publie leurs statistiques
+     * 
+     * @param tailleMax Nombre maximum d'entrées par cache
+     * @param ttlSecondes Durée de vie d'une entrée après écriture
+     * @return Gestionnaire de cache, synchronisé avec les transactions
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${app.cache.taille-max:10000}") long tailleMax,
+                                     @Value("${app.cache.ttl-secondes:600}") long ttlSecondes) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
+            CACHE_ALIMENTS,
+            CACHE_INGREDIENTS_PAR_ID,
+            CACHE_INGREDIENTS_PAR_NOM,
+            CACHE_PERSONNES_PAR_ID,
+            CACHE_PERSONNES_PAR_EMAIL
+        );
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+            .maximumSize(tailleMax)
+            .expireAfterWrite(Duration.ofSeconds(ttlSecondes))
+            .recordStats());
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
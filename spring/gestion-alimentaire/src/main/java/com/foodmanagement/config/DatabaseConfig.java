@@ -1,8 +1,14 @@
 package com.foodmanagement.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.DriverManagerDataSource;
@@ -13,6 +19,7 @@ import java.util.Properties;
 /**
  * Configuration de la base de données
  * Gère les différentes sources de données selon l'environnement
+ * Les profils dev, prod et docker utilisent un pool HikariCP dimensionné par profil
  */
 @Configuration
 public class DatabaseConfig {
@@ -29,53 +36,64 @@ public class DatabaseConfig {
     @Value("${spring.datasource.driver-class-name}")
     private String driverClassName;
 
+    /**
+     * Taille maximale du pool par profil
+     * Surchargeable via app.datasource.pool.max-size
+     */
+    @Value("${app.datasource.pool.max-size:#{null}}")
+    private Integer tailleMaxPool;
+
+    @Value("${app.datasource.pool.min-idle:#{null}}")
+    private Integer connexionsInactivesMin;
+
+    @Value("${app.datasource.pool.connection-timeout-ms:5000}")
+    private long delaiAcquisitionMs;
+
+    @Value("${app.datasource.pool.leak-detection-ms:20000}")
+    private long seuilDetectionFuiteMs;
+
+    @Value("${app.datasource.pool.statement-cache-queries:256}")
+    private int requetesPrepareesEnCache;
+
+    /**
+     * Délai de la première connexion au démarrage du pool (-1 : démarrer sans attendre la base)
+     */
+    @Value("${app.datasource.pool.initialization-fail-timeout-ms:1}")
+    private long delaiEchecInitialisationMs;
+
     /**
      * Configuration de la source de données pour le développement
-     * Utilise PostgreSQL local
+     * Pool réduit : un poste de développeur n'a pas besoin de plus
      */
-    @Bean
+    @Bean(destroyMethod = "close")
     @Profile("dev")
-    public DataSource dataSourceDev() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(driverClassName);
-        dataSource.setUrl(databaseUrl);
-        dataSource.setUsername(databaseUsername);
-        dataSource.setPassword(databasePassword);
-        
+    public DataSource dataSourceDev(ObjectProvider<MeterRegistry> registreMetriques) {
         // Configuration supplémentaire pour PostgreSQL
         Properties connectionProperties = new Properties();
         connectionProperties.setProperty("ApplicationName", "FoodManagement-Dev");
         connectionProperties.setProperty("connectTimeout", "10");
         connectionProperties.setProperty("socketTimeout", "30");
-        dataSource.setConnectionProperties(connectionProperties);
-        
-        return dataSource;
+
+        return creerPool("FoodManagement-Dev-Pool", driverClassName, databaseUrl,
+                databaseUsername, databasePassword, 5, 1, connectionProperties, registreMetriques.getIfAvailable());
     }
 
     /**
      * Configuration de la source de données pour la production
      * Avec pool de connexions optimisé
      */
-    @Bean
+    @Bean(destroyMethod = "close")
     @Profile("prod")
-    public DataSource dataSourceProd() {
-        // En production, on utiliserait HikariCP (configuré automatiquement par Spring Boot)
-        // Cette méthode sert principalement pour des configurations spécifiques
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(driverClassName);
-        dataSource.setUrl(databaseUrl);
-        dataSource.setUsername(databaseUsername);
-        dataSource.setPassword(databasePassword);
-        
+    public DataSource dataSourceProd(ObjectProvider<MeterRegistry> registreMetriques) {
         // Configuration pour la production
         Properties connectionProperties = new Properties();
         connectionProperties.setProperty("ApplicationName", "FoodManagement-Prod");
         connectionProperties.setProperty("connectTimeout", "5");
         connectionProperties.setProperty("socketTimeout", "30");
         connectionProperties.setProperty("tcpKeepAlive", "true");
-        dataSource.setConnectionProperties(connectionProperties);
-        
-        return dataSource;
+
+        return creerPool("FoodManagement-Prod-Pool", driverClassName, databaseUrl,
+                databaseUsername, databasePassword, 20, 5, connectionProperties, registreMetriques.getIfAvailable());
     }
 
     /**
@@ -104,31 +122,78 @@ public class DatabaseConfig {
      * Configuration de la source de données pour Docker
      * Utilise les variables d'environnement du conteneur
      */
-    @Bean
+    @Bean(destroyMethod = "close")
     @Profile("docker")
-    public DataSource dataSourceDocker() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("org.postgresql.Driver");
-        
+    public DataSource dataSourceDocker(ObjectProvider<MeterRegistry> registreMetriques) {
         // Utilisation des variables d'environnement Docker
         String dockerUrl = System.getenv("DATABASE_URL");
         String dockerUsername = System.getenv("DATABASE_USERNAME");
         String dockerPassword = System.getenv("DATABASE_PASSWORD");
         
-        // Valeurs par défaut si les variables ne sont pas définies
-        dataSource.setUrl(dockerUrl != null ? dockerUrl : "jdbc:postgresql://postgres:5432/food_management_db");
-        dataSource.setUsername(dockerUsername != null ? dockerUsername : "food_user");
-        dataSource.setPassword(dockerPassword != null ? dockerPassword : "food_password");
-        
         // Configuration pour Docker/PostgreSQL
         Properties connectionProperties = new Properties();
         connectionProperties.setProperty("ApplicationName", "FoodManagement-Docker");
         connectionProperties.setProperty("connectTimeout", "15");
         connectionProperties.setProperty("socketTimeout", "60");
         connectionProperties.setProperty("tcpKeepAlive", "true");
-        dataSource.setConnectionProperties(connectionProperties);
-        
-        return dataSource;
+
+        // Valeurs par défaut si les variables ne sont pas définies
+        return creerPool("FoodManagement-Docker-Pool", "org.postgresql.Driver",
+                dockerUrl != null ? dockerUrl : "jdbc:postgresql://postgres:5432/food_management_db",
+                dockerUsername != null ? dockerUsername : "food_user",
+                dockerPassword != null ? dockerPassword : "food_password",
+                10, 2, connectionProperties, registreMetriques.getIfAvailable());
+    }
+
+    /**
+     * Construire un pool HikariCP partagé par les DAO JDBC et les repositories JPA
+     * Les connexions restent ouvertes entre deux requêtes au lieu d'être recréées à chaque appel
+     * 
+     * @param nomPool Nom du pool (visible dans les métriques et JMX)
+     * @param tailleMaxDefaut Taille maximale du profil si app.datasource.pool.max-size est absent
+     * @param inactivesMinDefaut Connexions inactives minimum du profil
+     * @param connectionProperties Propriétés du driver PostgreSQL
+     * @param registreMetriques Registre Micrometer (null : pas de métriques hikaricp.*)
+     * @return Source de données poolée
+     */
+    private HikariDataSource creerPool(String nomPool, String driver, String url, String username,
+                                       String password, int tailleMaxDefaut, int inactivesMinDefaut,
+                                       Properties connectionProperties, MeterRegistry registreMetriques) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(nomPool);
+        config.setDriverClassName(driver);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+
+        // Dimensionnement par profil
+        config.setMaximumPoolSize(tailleMaxPool != null ? tailleMaxPool : tailleMaxDefaut);
+        config.setMinimumIdle(connexionsInactivesMin != null ? connexionsInactivesMin : inactivesMinDefaut);
+        config.setConnectionTimeout(delaiAcquisitionMs);
+        config.setIdleTimeout(600_000);
+        config.setMaxLifetime(1_800_000);
+        config.setInitializationFailTimeout(delaiEchecInitialisationMs);
+
+        // Trace la pile d'appel d'une connexion empruntée trop longtemps
+        config.setLeakDetectionThreshold(seuilDetectionFuiteMs);
+
+        // Cache des requêtes préparées côté driver PostgreSQL (par connexion)
+        connectionProperties.forEach((cle, valeur) -> config.addDataSourceProperty(cle.toString(), valeur));
+        config.addDataSourceProperty("prepareThreshold", "3");
+        config.addDataSourceProperty("preparedStatementCacheQueries", String.valueOf(requetesPrepareesEnCache));
+        config.addDataSourceProperty("preparedStatementCacheSizeMiB", "5");
+
+        // Les lots JDBC (batchUpdate) sont réécrits en INSERT multi-lignes par le driver
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+
+        // Exposition des compteurs du pool via JMX et Micrometer (hikaricp.connections.*)
+        // Le pool démarre dans son constructeur et se ferme ensuite à tout branchement
+        config.setRegisterMbeans(true);
+        if (registreMetriques != null) {
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registreMetriques));
+        }
+
+        return new HikariDataSource(config);
     }
 
     /**
@@ -136,6 +201,7 @@ public class DatabaseConfig {
      * Utilise la source de données configurée
      */
     @Bean
+    @Primary
     public JdbcTemplate jdbcTemplate(DataSource dataSource) {
         JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
         
@@ -147,6 +213,18 @@ public class DatabaseConfig {
         return jdbcTemplate;
     }
 
+    /**
+     * Bean JdbcTemplate sans plafond de lignes ni délai de requête
+     * Réservé aux lectures de masse (agrégations, périodes, cohortes, import, rattrapages)
+     * Injection : @Qualifier("jdbcTemplateSansLimite")
+     */
+    @Bean
+    public JdbcTemplate jdbcTemplateSansLimite(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(1000); // Résultats volumineux lus par blocs
+        return jdbcTemplate;
+    }
+
     /**
      * Configuration des propriétés de la base de données
      * Informations de connexion et optimisations
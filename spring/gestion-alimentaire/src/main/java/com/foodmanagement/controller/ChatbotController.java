@@ -1,10 +1,13 @@
 package com.foodmanagement.controller;
 
 import com.foodmanagement.service.ChatbotService;
+import com.foodmanagement.util.FluxChatbot;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,6 +25,9 @@ public class ChatbotController {
     @Autowired
     private ChatbotService chatbotService;
 
+    @Autowired
+    private FluxChatbot fluxChatbot;
+
     /**
      * Interface de test du chatbot
      * GET /api/chatbot/demo
@@ -371,11 +377,12 @@ public class ChatbotController {
                         showTyping();
                         
                         try {
-                            // Appel à l'API du chatbot
-                            const response = await fetch('/api/chatbot/message', {
+                            // Appel à l'API du chatbot en flux : la réponse s'affiche étape par étape
+                            const response = await fetch('/api/chatbot/message/flux', {
                                 method: 'POST',
                                 headers: {
                                     'Content-Type': 'application/json',
+                                    'Accept': 'text/event-stream'
                                 },
                                 body: JSON.stringify({
                                     message: message,
@@ -383,21 +390,10 @@ public class ChatbotController {
                                 })
                             });
                             
-                            // Masquer l'indicateur de frappe
-                            hideTyping();
-                            
                             if (response.ok) {
-                                const data = await response.json();
-                                
-                                // Vérifier si on a une réponse valide
-                                if (data.reponse) {
-                                    addMessage(data.reponse, 'bot', data);
-                                } else if (data.message) {
-                                    addMessage(data.message, 'bot', data);
-                                } else {
-                                    addMessage('J\\'ai reçu votre message mais je n\\'ai pas pu générer une réponse appropriée.', 'bot');
-                                }
+                                await lireFlux(response);
                             } else {
+                                hideTyping();
                                 // Tenter de lire le message d'erreur
                                 try {
                                     const errorData = await response.json();
@@ -419,10 +415,70 @@ public class ChatbotController {
                         messageInput.focus();
                     }
                     
+                    // Lire les événements du flux : "intention", une partie de la réponse par événement,
+                    // puis "fin" (réponse complète) ou "erreur"
+                    async function lireFlux(response) {
+                        const lecteur = response.body.getReader();
+                        const decodeur = new TextDecoder();
+                        const donnees = {};
+                        let bulle = null;
+                        let tampon = '';
+                        
+                        const afficher = (texte) => {
+                            if (!bulle) {
+                                hideTyping();
+                                bulle = addMessage(texte, 'bot', donnees);
+                            } else {
+                                renderMessage(bulle, texte, donnees);
+                            }
+                            chatMessages.scrollTop = chatMessages.scrollHeight;
+                        };
+                        
+                        while (true) {
+                            const { value, done } = await lecteur.read();
+                            if (done) break;
+                            tampon += decodeur.decode(value, { stream: true });
+                            
+                            let separateur;
+                            while ((separateur = tampon.indexOf('\\n\\n')) >= 0) {
+                                const bloc = tampon.slice(0, separateur);
+                                tampon = tampon.slice(separateur + 2);
+                                
+                                let evenement = 'message';
+                                let contenu = '';
+                                bloc.split('\\n').forEach(ligne => {
+                                    if (ligne.startsWith('event:')) evenement = ligne.slice(6).trim();
+                                    else if (ligne.startsWith('data:')) contenu += ligne.slice(5);
+                                });
+                                const valeur = contenu ? JSON.parse(contenu) : null;
+                                
+                                if (evenement === 'intention') {
+                                    afficher('<em>' + valeur + '…</em>');
+                                } else if (evenement === 'erreur') {
+                                    afficher('Désolé, une erreur s\\'est produite: ' + (valeur && valeur.message));
+                                } else if (evenement === 'fin') {
+                                    Object.assign(donnees, valeur);
+                                    afficher(donnees.message || 'J\\'ai reçu votre message mais je n\\'ai pas pu générer une réponse appropriée.');
+                                } else {
+                                    donnees[evenement] = valeur;
+                                    afficher(donnees.message || '…');
+                                }
+                            }
+                        }
+                        hideTyping();
+                    }
+                    
                     function addMessage(text, sender, data = null) {
                         const messageDiv = document.createElement('div');
                         messageDiv.className = 'message ' + sender;
+                        renderMessage(messageDiv, text, data);
                         
+                        chatMessages.appendChild(messageDiv);
+                        chatMessages.scrollTop = chatMessages.scrollHeight;
+                        return messageDiv;
+                    }
+                    
+                    function renderMessage(messageDiv, text, data) {
                         let content = text;
                         
                         // Ajouter des suggestions si disponibles
@@ -438,9 +494,6 @@ public class ChatbotController {
                         content += '<span class="timestamp">' + new Date().toLocaleTimeString() + '</span>';
                         
                         messageDiv.innerHTML = content;
-                        
-                        chatMessages.appendChild(messageDiv);
-                        chatMessages.scrollTop = chatMessages.scrollHeight;
                     }
                     
                     function showTyping() {
@@ -496,6 +549,28 @@ public class ChatbotController {
         }
     }
 
+    /**
+     * Envoyer un message au chatbot et recevoir la réponse en flux (Server-Sent Events)
+     * Événements : "intention", puis une partie de la réponse par événement, puis "fin" (réponse complète)
+     * ou "erreur"
+     * POST /api/chatbot/message/flux
+     */
+    @PostMapping(value = "/message/flux", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> envoyerMessageEnFlux(@RequestBody Map<String, Object> data) {
+        Object message = data.get("message");
+        if (message == null || !org.springframework.util.StringUtils.hasText(message.toString())) {
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(Map.of(
+                "erreur", "Message vide",
+                "message", "Le message ne peut pas être vide"
+            ));
+        }
+        Long userId = data.containsKey("userId") ?
+            Long.valueOf(data.get("userId").toString()) : null;
+
+        SseEmitter flux = fluxChatbot.ouvrir(message.toString(), userId);
+        return ResponseEntity.ok(flux);
+    }
+
     /**
      * Analyser l'intention d'un message
      * POST /api/chatbot/analyser-intention
@@ -787,10 +862,33 @@ public class ChatbotController {
         
         return ResponseEntity.ok(Map.of(
             "statistiques", statistiques,
+            "flux", fluxChatbot.obtenirEtat(),
             "date_generation", LocalDateTime.now()
         ));
     }
 
+    /**
+     * Recharger le dictionnaire des intentions
+     * POST /api/chatbot/intentions/recharger
+     */
+    @PostMapping("/intentions/recharger")
+    public ResponseEntity<?> rechargerIntentions() {
+        try {
+            Map<String, Object> dictionnaire = chatbotService.rechargerIntentions();
+            
+            return ResponseEntity.ok(Map.of(
+                "statut", "INTENTIONS_RECHARGEES",
+                "dictionnaire", dictionnaire,
+                "timestamp", LocalDateTime.now()
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "erreur", "Dictionnaire invalide",
+                "message", e.getMessage()
+            ));
+        }
+    }
+
     /**
      * Test rapide du chatbot
      * GET /api/chatbot/test
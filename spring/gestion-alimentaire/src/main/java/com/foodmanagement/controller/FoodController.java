@@ -1,15 +1,24 @@
 package com.foodmanagement.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodmanagement.dto.IngredientSimpleDto;
 import com.foodmanagement.entity.Food;
 import com.foodmanagement.enums.CategorieFood;
 import com.foodmanagement.service.FoodService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -23,9 +32,17 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class FoodController {
 
+    /**
+     * Taille des pages lues en base pendant le streaming de /foods/flux
+     */
+    private static final int TAILLE_PAGE_FLUX = 200;
+
     @Autowired
     private FoodService foodService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Créer un nouvel aliment
      * POST /api/foods
@@ -80,6 +97,81 @@ public class FoodController {
         return ResponseEntity.ok(foods);
     }
 
+    /**
+     * Lister les aliments par page (pagination par curseur)
+     * GET /api/foods/page?curseur={curseur}&taille={taille}
+     * 
+     * @param curseur Curseur opaque retourné par la page précédente (absent pour la première page)
+     * @param taille Nombre d'aliments par page
+     * @return Aliments de la page et curseur de la page suivante (null en fin de liste)
+     */
+    @GetMapping("/page")
+    public ResponseEntity<?> listerAlimentsParPage(@RequestParam(required = false) String curseur,
+                                                   @RequestParam(defaultValue = "50") int taille) {
+        try {
+            LocalDateTime apresDate = null;
+            Long apresId = null;
+            if (curseur != null && !curseur.isBlank()) {
+                String[] parties = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8).split("\\|");
+                apresDate = LocalDateTime.parse(parties[0]);
+                apresId = Long.valueOf(parties[1]);
+            }
+
+            List<Food> foods = foodService.listerAlimentsParPage(apresDate, apresId, taille);
+
+            // Map.of n'accepte pas de valeur null pour le curseur de fin
+            Map<String, Object> page = new HashMap<>();
+            page.put("aliments", foods);
+            page.put("taille", foods.size());
+            page.put("curseur_suivant", foods.size() < taille ? null : encoderCurseur(foods.get(foods.size() - 1)));
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | java.time.format.DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "erreur", "Curseur ou taille invalide",
+                "message", String.valueOf(e.getMessage())
+            ));
+        }
+    }
+
+    /**
+     * Lister tous les aliments en flux JSON
+     * GET /api/foods/flux
+     * 
+     * Le tableau JSON est écrit au fur et à mesure, page par page :
+     * la mémoire utilisée ne dépend pas de la taille du catalogue
+     */
+    @GetMapping(value = "/flux", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> listerAlimentsEnFlux() {
+        StreamingResponseBody corps = sortie -> {
+            try (JsonGenerator generateur = objectMapper.getFactory().createGenerator(sortie)) {
+                generateur.writeStartArray();
+
+                LocalDateTime apresDate = null;
+                Long apresId = null;
+                List<Food> page;
+                do {
+                    page = foodService.listerAlimentsParPage(apresDate, apresId, TAILLE_PAGE_FLUX);
+                    for (Food food : page) {
+                        generateur.writeObject(food);
+                    }
+                    generateur.flush();
+
+                    if (!page.isEmpty()) {
+                        Food dernier = page.get(page.size() - 1);
+                        apresDate = dernier.getDateCreation();
+                        apresId = dernier.getId();
+                    }
+                } while (page.size() == TAILLE_PAGE_FLUX);
+
+                generateur.writeEndArray();
+            }
+        };
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(corps);
+    }
+
     /**
      * Rechercher des aliments par nom
      * GET /api/foods/recherche?nom={nom}
@@ -218,6 +310,39 @@ public class FoodController {
         }
     }
 
+    /**
+     * Ajouter plusieurs ingrédients à un aliment en une seule fois
+     * POST /api/foods/{foodId}/ingredients/lot
+     * Corps : [{"ingredientId": 1, "quantite": 200, "unite": "g"}, ...]
+     */
+    @PostMapping("/{foodId}/ingredients/lot")
+    public ResponseEntity<?> ajouterIngredients(@PathVariable Long foodId,
+                                              @RequestBody List<Map<String, Object>> ingredientsData) {
+        try {
+            List<IngredientSimpleDto> ingredients = new ArrayList<>(ingredientsData.size());
+            for (Map<String, Object> ingredientData : ingredientsData) {
+                IngredientSimpleDto dto = new IngredientSimpleDto();
+                dto.setId(Long.valueOf(ingredientData.get("ingredientId").toString()));
+                dto.setQuantiteUtilisee(Double.valueOf(ingredientData.get("quantite").toString()));
+                dto.setUnite(ingredientData.get("unite").toString());
+                ingredients.add(dto);
+            }
+
+            int ajoutes = foodService.ajouterIngredients(foodId, ingredients);
+
+            return ResponseEntity.ok(Map.of(
+                "statut", "INGREDIENTS_AJOUTES",
+                "message", ajoutes + " ingrédient(s) ajouté(s) avec succès",
+                "nombre", ajoutes
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "erreur", "Erreur d'ajout",
+                "message", e.getMessage()
+            ));
+        }
+    }
+
     /**
      * Supprimer un ingrédient d'un aliment
      * DELETE /api/foods/{foodId}/ingredients/{ingredientId}
@@ -415,6 +540,14 @@ public class FoodController {
         }
     }
 
+    /**
+     * Encoder le curseur de pagination à partir du dernier aliment d'une page
+     */
+    private String encoderCurseur(Food dernier) {
+        String brut = dernier.getDateCreation() + "|" + dernier.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+    }
+
     /**
      * Gestion globale des erreurs pour ce contrôleur
      */
@@ -4,18 +4,23 @@ import com.foodmanagement.entity.Image;
 import com.foodmanagement.enums.TypeImage;
 import com.foodmanagement.service.ImageService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -123,11 +128,16 @@ public class ImageController {
      * Servir le fichier image
      * GET /api/images/fichier/{nomFichier}
      * 
+     * Le fichier est diffusé en flux (jamais chargé en mémoire) ; les en-têtes Range
+     * sont traités par Spring (réponse 206 avec ResourceRegion).
+     * ETag et Last-Modified sont calculés depuis les métadonnées en base : un
+     * If-None-Match / If-Modified-Since valide reçoit un 304 sans accès disque.
+     * 
      * @param nomFichier Nom du fichier image
      * @return Contenu binaire de l'image
      */
     @GetMapping("/fichier/{nomFichier}")
-    public ResponseEntity<?> servirFichierImage(@PathVariable String nomFichier) {
+    public ResponseEntity<?> servirFichierImage(@PathVariable String nomFichier, WebRequest webRequest) {
         try {
             Optional<Image> imageOpt = imageService.obtenirImageParNomFichier(nomFichier);
             
@@ -136,31 +146,32 @@ public class ImageController {
             }
             
             Image image = imageOpt.get();
+            String etag = calculerEtag(image);
+            long derniereModification = image.getDateUpload() != null
+                ? image.getDateUpload().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+
+            // Le statut 304 et les en-têtes sont positionnés par checkNotModified
+            if (webRequest.checkNotModified(etag, derniereModification)) {
+                return null;
+            }
+
             Path cheminFichier = Paths.get(image.getCheminFichier());
-            
-            if (!Files.exists(cheminFichier)) {
+            if (!Files.isReadable(cheminFichier)) {
                 return ResponseEntity.notFound().build();
             }
             
-            // Détermination du type MIME
-            String typeMime = Files.probeContentType(cheminFichier);
-            if (typeMime == null) {
-                typeMime = "application/octet-stream";
-            }
-            
-            // Lecture et retour du fichier
-            byte[] contenuFichier = Files.readAllBytes(cheminFichier);
+            // Type MIME déduit de l'extension, sans lecture du fichier
+            MediaType typeMime = MediaTypeFactory.getMediaType(nomFichier)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
             
             return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(typeMime))
-                .contentLength(contenuFichier.length)
-                .body(contenuFichier);
+                .contentType(typeMime)
+                .eTag(etag)
+                .lastModified(derniereModification)
+                .cacheControl(CacheControl.maxAge(Duration.ofHours(1)).cachePublic())
+                .body(new FileSystemResource(cheminFichier));
                 
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
-                "erreur", "Erreur de lecture du fichier",
-                "message", e.getMessage()
-            ));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                 "erreur", "Nom de fichier invalide",
@@ -169,6 +180,17 @@ public class ImageController {
         }
     }
 
+    /**
+     * ETag fort : change dès que l'image est remplacée (taille ou date d'upload)
+     */
+    private String calculerEtag(Image image) {
+        long horodatage = image.getDateUpload() != null
+            ? image.getDateUpload().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+            : 0;
+        long taille = image.getTailleFichier() != null ? image.getTailleFichier() : 0;
+        return "\"" + image.getId() + "-" + Long.toHexString(taille) + "-" + Long.toHexString(horodatage) + "\"";
+    }
+
     /**
      * Lister toutes les images
      * GET /api/images
@@ -213,6 +235,23 @@ public class ImageController {
         }
     }
 
+    /**
+     * Obtenir la galerie d'un aliment (versions web quand elles sont prêtes)
+     * GET /api/images/food/{foodId}/galerie
+     */
+    @GetMapping("/food/{foodId}/galerie")
+    public ResponseEntity<?> obtenirGalerieAliment(@PathVariable Long foodId) {
+        try {
+            List<Image> images = imageService.obtenirGalerieAliment(foodId);
+            return ResponseEntity.ok(images);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "erreur", "ID aliment invalide",
+                "message", e.getMessage()
+            ));
+        }
+    }
+
     /**
      * Obtenir l'image principale d'un aliment
      * GET /api/images/food/{foodId}/principale
@@ -2,6 +2,7 @@ package com.foodmanagement.controller;
 
 import com.foodmanagement.entity.Food;
 import com.foodmanagement.enums.CategorieFood;
+import com.foodmanagement.enums.TypeRepas;
 import com.foodmanagement.service.PlanificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -389,13 +391,70 @@ public class PlanificationController {
         }
     }
 
+    /**
+     * Générer les plans d'une cohorte en arrière-plan
+     * POST /api/planification/lots
+     *
+     * @param data Données du lot (personneIds ou toutes: true, dateDebut, nombreJours)
+     * @return Lot créé, à suivre via GET /api/planification/lots/{lotId}
+     */
+    @PostMapping("/lots")
+    public ResponseEntity<?> lancerGenerationLot(@RequestBody Map<String, Object> data) {
+        try {
+            LocalDate dateDebut = LocalDate.parse(data.get("dateDebut").toString());
+            int nombreJours = Integer.parseInt(data.getOrDefault("nombreJours", 7).toString());
+
+            List<Long> personneIds = null;
+            if (data.get("personneIds") instanceof List<?> ids && !ids.isEmpty()) {
+                personneIds = ids.stream().map(id -> Long.valueOf(id.toString())).toList();
+            } else if (!Boolean.parseBoolean(String.valueOf(data.get("toutes")))) {
+                throw new IllegalArgumentException("Indiquer les personneIds ou toutes: true");
+            }
+
+            Map<String, Object> lot = planificationService.lancerGenerationLot(personneIds, dateDebut, nombreJours);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                "statut", "GENERATION_LANCEE",
+                "message", "Génération des plans lancée en arrière-plan",
+                "lot", lot
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "erreur", "Paramètres invalides",
+                "message", e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Suivre une génération en lot
+     * GET /api/planification/lots/{lotId}
+     */
+    @GetMapping("/lots/{lotId}")
+    public ResponseEntity<?> obtenirAvancementLot(@PathVariable Long lotId) {
+        try {
+            return ResponseEntity.ok(planificationService.obtenirAvancementLot(lotId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "erreur", "Paramètres invalides",
+                "message", e.getMessage()
+            ));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                "erreur", "Lot introuvable",
+                "message", e.getMessage()
+            ));
+        }
+    }
+
     /**
      * Obtenir les types de repas disponibles
      * GET /api/planification/types-repas
      */
     @GetMapping("/types-repas")
     public ResponseEntity<Map<String, Object>> obtenirTypesRepas() {
-        List<String> typesRepas = List.of("Petit-déjeuner", "Déjeuner", "Dîner", "Collation");
+        List<String> typesRepas = Arrays.stream(TypeRepas.values())
+            .map(TypeRepas::getLibelle)
+            .toList();
         
         return ResponseEntity.ok(Map.of(
             "types_repas", typesRepas,
@@ -0,0 +1,100 @@
+package com.foodmanagement.dao;
+
+import com.foodmanagement.entity.Buffet;
+import com.foodmanagement.entity.BuffetFood;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interface DAO pour l'entité Buffet et ses aliments (table buffet_food)
+ * Définit les opérations CRUD pour les buffets avec JDBC
+ */
+public interface BuffetDao {
+
+    /**
+     * Créer un nouveau buffet
+     * 
+     * @param buffet Buffet à créer
+     * @return Buffet créé avec son ID
+     */
+    Buffet create(Buffet buffet);
+
+    /**
+     * Rechercher un buffet par ID
+     * 
+     * @param id Identifiant du buffet
+     * @return Optional contenant le buffet si trouvé
+     */
+    Optional<Buffet> findById(Long id);
+
+    /**
+     * Rechercher les buffets d'un organisateur
+     * 
+     * @param organisateurId ID de l'organisateur
+     * @return Liste des buffets, du plus récent au plus ancien
+     */
+    List<Buffet> findByOrganisateurId(Long organisateurId);
+
+    /**
+     * Mettre à jour un buffet
+     * 
+     * @param buffet Buffet avec les nouvelles données
+     * @return Buffet mis à jour
+     */
+    Buffet update(Buffet buffet);
+
+    /**
+     * Supprimer un buffet par ID (ses aliments sont supprimés en cascade)
+     * 
+     * @param id Identifiant du buffet
+     * @return true si suppression réussie
+     */
+    boolean deleteById(Long id);
+
+    /**
+     * Rechercher les aliments d'un buffet, avec les données de l'aliment
+     * 
+     * @param buffetId ID du buffet
+     * @return Liste des aliments du buffet triée par priorité puis nom
+     */
+    List<BuffetFood> findAliments(Long buffetId);
+
+    /**
+     * Ajouter un aliment au buffet
+     * 
+     * @param buffetId ID du buffet
+     * @param foodId ID de l'aliment
+     * @param quantitePersonnes Nombre de portions prévues
+     * @param priorite Priorité (1 = haute, 3 = basse)
+     * @return true si ajout réussi, false si l'aliment est déjà servi
+     */
+    boolean ajouterAliment(Long buffetId, Long foodId, Integer quantitePersonnes, Integer priorite);
+
+    /**
+     * Modifier le nombre de portions d'un aliment du buffet
+     * 
+     * @param buffetId ID du buffet
+     * @param foodId ID de l'aliment
+     * @param quantitePersonnes Nouveau nombre de portions
+     * @return true si modification réussie
+     */
+    boolean modifierQuantite(Long buffetId, Long foodId, Integer quantitePersonnes);
+
+    /**
+     * Retirer un aliment du buffet
+     * 
+     * @param buffetId ID du buffet
+     * @param foodId ID de l'aliment
+     * @return true si suppression réussie
+     */
+    boolean supprimerAliment(Long buffetId, Long foodId);
+
+    /**
+     * Remplacer tous les aliments d'un buffet en un seul lot JDBC
+     * 
+     * @param buffetId ID du buffet
+     * @param aliments Nouveaux aliments (food, quantité, priorité)
+     * @return Nombre d'aliments insérés
+     */
+    int remplacerAliments(Long buffetId, List<BuffetFood> aliments);
+}
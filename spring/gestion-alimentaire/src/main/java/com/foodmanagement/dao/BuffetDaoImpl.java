@@ -0,0 +1,315 @@
+package com.foodmanagement.dao;
+
+import com.foodmanagement.entity.Buffet;
+import com.foodmanagement.entity.BuffetFood;
+import com.foodmanagement.entity.Food;
+import com.foodmanagement.entity.Personne;
+import com.foodmanagement.enums.CategorieFood;
+import com.foodmanagement.enums.TypeEvenement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implémentation JDBC de BuffetDao
+ */
+@Repository
+public class BuffetDaoImpl implements BuffetDao {
+
+    private static final String SELECT_BUFFET =
+        "SELECT b.id, b.nom_evenement, b.date_evenement, b.nombre_invites, b.type_evenement, b.budget, " +
+        "b.statut, b.organisateur_id, b.nombre_invites_reel, b.commentaires, b.date_creation, " +
+        "b.date_modification, p.nom as organisateur_nom, p.email as organisateur_email " +
+        "FROM buffet b " +
+        "JOIN personne p ON b.organisateur_id = p.id ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * RowMapper pour Buffet avec jointure sur Personne (organisateur)
+     */
+    private final RowMapper<Buffet> buffetRowMapper = (rs, rowNum) -> {
+        Buffet buffet = new Buffet();
+        buffet.setId(rs.getLong("id"));
+        buffet.setNomEvenement(rs.getString("nom_evenement"));
+
+        Timestamp dateEvenement = rs.getTimestamp("date_evenement");
+        if (dateEvenement != null) {
+            buffet.setDateEvenement(dateEvenement.toLocalDateTime());
+        }
+
+        buffet.setNombreInvites(rs.getInt("nombre_invites"));
+        buffet.setTypeEvenement(TypeEvenement.valueOf(rs.getString("type_evenement")));
+
+        double budget = rs.getDouble("budget");
+        buffet.setBudget(rs.wasNull() ? null : budget);
+
+        buffet.setStatut(rs.getString("statut"));
+
+        int invitesReel = rs.getInt("nombre_invites_reel");
+        buffet.setNombreInvitesReel(rs.wasNull() ? null : invitesReel);
+        buffet.setCommentaires(rs.getString("commentaires"));
+
+        Timestamp dateCreation = rs.getTimestamp("date_creation");
+        if (dateCreation != null) {
+            buffet.setDateCreation(dateCreation.toLocalDateTime());
+        }
+        Timestamp dateModification = rs.getTimestamp("date_modification");
+        if (dateModification != null) {
+            buffet.setDateModification(dateModification.toLocalDateTime());
+        }
+
+        Personne organisateur = new Personne();
+        organisateur.setId(rs.getLong("organisateur_id"));
+        organisateur.setNom(rs.getString("organisateur_nom"));
+        organisateur.setEmail(rs.getString("organisateur_email"));
+        buffet.setOrganisateur(organisateur);
+
+        return buffet;
+    };
+
+    /**
+     * RowMapper pour BuffetFood avec les données utiles de l'aliment
+     */
+    private final RowMapper<BuffetFood> buffetFoodRowMapper = (rs, rowNum) -> {
+        BuffetFood buffetFood = new BuffetFood();
+        buffetFood.setId(rs.getLong("id"));
+        buffetFood.setQuantitePersonnes(rs.getInt("quantite_personnes"));
+        buffetFood.setPriorite(rs.getInt("priorite"));
+
+        Buffet buffet = new Buffet();
+        buffet.setId(rs.getLong("buffet_id"));
+        buffetFood.setBuffet(buffet);
+
+        Food food = new Food();
+        food.setId(rs.getLong("food_id"));
+        food.setNom(rs.getString("food_nom"));
+        food.setCategorie(CategorieFood.valueOf(rs.getString("food_categorie")));
+        food.setCalories(rs.getDouble("food_calories"));
+        food.setPrix(rs.getDouble("food_prix"));
+        food.setTempsPreparation(rs.getString("food_temps_preparation"));
+        buffetFood.setFood(food);
+
+        return buffetFood;
+    };
+
+    /**
+     * Créer un nouveau buffet
+     */
+    @Override
+    public Buffet create(Buffet buffet) {
+        String sql = "INSERT INTO buffet (nom_evenement, date_evenement, nombre_invites, type_evenement, " +
+                     "budget, statut, organisateur_id, date_creation, date_modification) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        LocalDateTime maintenant = LocalDateTime.now();
+        String statut = buffet.getStatut() != null ? buffet.getStatut() : Buffet.STATUT_PLANIFIE;
+
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, buffet.getNomEvenement());
+            ps.setTimestamp(2, Timestamp.valueOf(buffet.getDateEvenement()));
+            ps.setInt(3, buffet.getNombreInvites());
+            ps.setString(4, buffet.getTypeEvenement().name());
+            if (buffet.getBudget() != null) {
+                ps.setDouble(5, buffet.getBudget());
+            } else {
+                ps.setNull(5, Types.DECIMAL);
+            }
+            ps.setString(6, statut);
+            ps.setLong(7, buffet.getOrganisateur().getId());
+            ps.setTimestamp(8, Timestamp.valueOf(maintenant));
+            ps.setTimestamp(9, Timestamp.valueOf(maintenant));
+            return ps;
+        }, keyHolder);
+
+        buffet.setId(keyHolder.getKey().longValue());
+        buffet.setStatut(statut);
+        buffet.setDateCreation(maintenant);
+        buffet.setDateModification(maintenant);
+
+        return buffet;
+    }
+
+    /**
+     * Rechercher un buffet par ID avec jointure sur l'organisateur
+     */
+    @Override
+    public Optional<Buffet> findById(Long id) {
+        try {
+            Buffet buffet = jdbcTemplate.queryForObject(SELECT_BUFFET + "WHERE b.id = ?", buffetRowMapper, id);
+            return Optional.of(buffet);
+        } catch (EmptyResultDataAccessException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Rechercher les buffets d'un organisateur
+     * S'appuie sur idx_buffet_organisateur_date
+     */
+    @Override
+    public List<Buffet> findByOrganisateurId(Long organisateurId) {
+        String sql = SELECT_BUFFET + "WHERE b.organisateur_id = ? ORDER BY b.date_evenement DESC";
+        return jdbcTemplate.query(sql, buffetRowMapper, organisateurId);
+    }
+
+    /**
+     * Mettre à jour un buffet
+     */
+    @Override
+    public Buffet update(Buffet buffet) {
+        String sql = "UPDATE buffet SET nom_evenement = ?, date_evenement = ?, nombre_invites = ?, " +
+                     "type_evenement = ?, budget = ?, statut = ?, nombre_invites_reel = ?, commentaires = ?, " +
+                     "date_modification = ? WHERE id = ?";
+
+        LocalDateTime maintenant = LocalDateTime.now();
+        int rowsAffected = jdbcTemplate.update(sql,
+            buffet.getNomEvenement(),
+            Timestamp.valueOf(buffet.getDateEvenement()),
+            buffet.getNombreInvites(),
+            buffet.getTypeEvenement().name(),
+            buffet.getBudget(),
+            buffet.getStatut(),
+            buffet.getNombreInvitesReel(),
+            buffet.getCommentaires(),
+            Timestamp.valueOf(maintenant),
+            buffet.getId()
+        );
+
+        if (rowsAffected == 0) {
+            throw new RuntimeException("Aucun buffet trouvé avec l'ID : " + buffet.getId());
+        }
+
+        buffet.setDateModification(maintenant);
+        return buffet;
+    }
+
+    /**
+     * Supprimer un buffet par ID
+     */
+    @Override
+    public boolean deleteById(Long id) {
+        String sql = "DELETE FROM buffet WHERE id = ?";
+        return jdbcTemplate.update(sql, id) > 0;
+    }
+
+    /**
+     * Rechercher les aliments d'un buffet
+     */
+    @Override
+    public List<BuffetFood> findAliments(Long buffetId) {
+        String sql = "SELECT bf.id, bf.buffet_id, bf.food_id, bf.quantite_personnes, bf.priorite, " +
+                     "f.nom as food_nom, f.categorie as food_categorie, f.calories as food_calories, " +
+                     "f.prix as food_prix, f.temps_preparation as food_temps_preparation " +
+                     "FROM buffet_food bf " +
+                     "JOIN food f ON bf.food_id = f.id " +
+                     "WHERE bf.buffet_id = ? " +
+                     "ORDER BY bf.priorite, f.nom";
+
+        return jdbcTemplate.query(sql, buffetFoodRowMapper, buffetId);
+    }
+
+    /**
+     * Ajouter un aliment au buffet
+     * ON CONFLICT DO NOTHING : un aliment déjà servi n'est pas dupliqué
+     */
+    @Override
+    public boolean ajouterAliment(Long buffetId, Long foodId, Integer quantitePersonnes, Integer priorite) {
+        String sql = "INSERT INTO buffet_food (buffet_id, food_id, quantite_personnes, priorite) " +
+                     "VALUES (?, ?, ?, ?) ON CONFLICT (buffet_id, food_id) DO NOTHING";
+
+        boolean ajoute = jdbcTemplate.update(sql, buffetId, foodId, quantitePersonnes, priorite) > 0;
+        if (ajoute) {
+            toucherBuffet(buffetId);
+        }
+        return ajoute;
+    }
+
+    /**
+     * Modifier le nombre de portions d'un aliment du buffet
+     */
+    @Override
+    public boolean modifierQuantite(Long buffetId, Long foodId, Integer quantitePersonnes) {
+        String sql = "UPDATE buffet_food SET quantite_personnes = ? WHERE buffet_id = ? AND food_id = ?";
+
+        boolean modifie = jdbcTemplate.update(sql, quantitePersonnes, buffetId, foodId) > 0;
+        if (modifie) {
+            toucherBuffet(buffetId);
+        }
+        return modifie;
+    }
+
+    /**
+     * Retirer un aliment du buffet
+     */
+    @Override
+    public boolean supprimerAliment(Long buffetId, Long foodId) {
+        String sql = "DELETE FROM buffet_food WHERE buffet_id = ? AND food_id = ?";
+
+        boolean supprime = jdbcTemplate.update(sql, buffetId, foodId) > 0;
+        if (supprime) {
+            toucherBuffet(buffetId);
+        }
+        return supprime;
+    }
+
+    /**
+     * Remplacer tous les aliments d'un buffet
+     * À appeler dans une transaction : suppression puis insertion par lot
+     */
+    @Override
+    public int remplacerAliments(Long buffetId, List<BuffetFood> aliments) {
+        jdbcTemplate.update("DELETE FROM buffet_food WHERE buffet_id = ?", buffetId);
+        toucherBuffet(buffetId);
+
+        if (aliments.isEmpty()) {
+            return 0;
+        }
+
+        String sql = "INSERT INTO buffet_food (buffet_id, food_id, quantite_personnes, priorite) " +
+                     "VALUES (?, ?, ?, ?)";
+
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                BuffetFood aliment = aliments.get(i);
+                ps.setLong(1, buffetId);
+                ps.setLong(2, aliment.getFood().getId());
+                ps.setInt(3, aliment.getQuantitePersonnes());
+                ps.setInt(4, aliment.getPriorite() != null ? aliment.getPriorite() : BuffetFood.PRIORITE_MOYENNE);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return aliments.size();
+            }
+        });
+
+        return aliments.size();
+    }
+
+    /**
+     * Mettre à jour la date de modification du buffet
+     */
+    private void toucherBuffet(Long buffetId) {
+        jdbcTemplate.update("UPDATE buffet SET date_modification = ? WHERE id = ?",
+            Timestamp.valueOf(LocalDateTime.now()), buffetId);
+    }
+}
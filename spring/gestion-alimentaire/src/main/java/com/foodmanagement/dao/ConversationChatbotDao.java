@@ -0,0 +1,32 @@
+package com.foodmanagement.dao;
+
+import com.foodmanagement.entity.MessageChatbot;
+import java.util.List;
+
+/**
+ * Interface DAO pour l'historique des conversations du chatbot (table chatbot_message)
+ */
+public interface ConversationChatbotDao {
+
+    /**
+     * Enregistrer des échanges en un lot JDBC
+     * 
+     * @return Nombre d'échanges enregistrés
+     */
+    int enregistrerTous(List<MessageChatbot> messages);
+
+    /**
+     * Derniers échanges d'un utilisateur, du plus ancien au plus récent
+     * 
+     * @param userId ID de l'utilisateur
+     * @param limite Nombre maximum d'échanges
+     */
+    List<MessageChatbot> findDerniersByUserId(Long userId, int limite);
+
+    /**
+     * Supprimer l'historique d'un utilisateur
+     * 
+     * @return Nombre d'échanges supprimés
+     */
+    int deleteByUserId(Long userId);
+}
@@ -0,0 +1,78 @@
+package com.foodmanagement.dao;
+
+import com.foodmanagement.entity.MessageChatbot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implémentation JDBC de ConversationChatbotDao
+ */
+@Repository
+public class ConversationChatbotDaoImpl implements ConversationChatbotDao {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final RowMapper<MessageChatbot> messageRowMapper = new MessageChatbotRowMapper();
+
+    @Override
+    public int enregistrerTous(List<MessageChatbot> messages) {
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        String sql = "INSERT INTO chatbot_message (user_id, message, reponse, intention, date_message) " +
+                     "VALUES (?, ?, ?, ?, ?)";
+        jdbcTemplate.batchUpdate(sql, messages, messages.size(), (ps, message) -> {
+            ps.setLong(1, message.getUserId());
+            ps.setString(2, message.getMessage());
+            if (message.getReponse() != null) {
+                ps.setString(3, message.getReponse());
+            } else {
+                ps.setNull(3, Types.VARCHAR);
+            }
+            ps.setString(4, message.getIntention());
+            ps.setTimestamp(5, Timestamp.valueOf(message.getDateMessage()));
+        });
+        return messages.size();
+    }
+
+    /**
+     * Derniers échanges lus sur l'index (user_id, date_message DESC), remis dans l'ordre chronologique
+     */
+    @Override
+    public List<MessageChatbot> findDerniersByUserId(Long userId, int limite) {
+        List<MessageChatbot> messages = jdbcTemplate.query(
+            "SELECT * FROM chatbot_message WHERE user_id = ? ORDER BY date_message DESC, id DESC LIMIT ?",
+            messageRowMapper, userId, limite);
+        Collections.reverse(messages);
+        return messages;
+    }
+
+    @Override
+    public int deleteByUserId(Long userId) {
+        return jdbcTemplate.update("DELETE FROM chatbot_message WHERE user_id = ?", userId);
+    }
+
+    private static class MessageChatbotRowMapper implements RowMapper<MessageChatbot> {
+        @Override
+        public MessageChatbot mapRow(ResultSet rs, int rowNum) throws SQLException {
+            MessageChatbot message = new MessageChatbot();
+            message.setId(rs.getLong("id"));
+            message.setUserId(rs.getLong("user_id"));
+            message.setMessage(rs.getString("message"));
+            message.setReponse(rs.getString("reponse"));
+            message.setIntention(rs.getString("intention"));
+            message.setDateMessage(rs.getTimestamp("date_message").toLocalDateTime());
+            return message;
+        }
+    }
+}
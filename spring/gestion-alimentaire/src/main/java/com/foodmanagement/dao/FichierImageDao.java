@@ -0,0 +1,64 @@
+package com.foodmanagement.dao;
+
+import com.foodmanagement.entity.FichierImage;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interface DAO pour l'entité FichierImage
+ * Compteur de références des fichiers images partagés par contenu
+ */
+public interface FichierImageDao {
+
+    /**
+     * Ajouter une référence à un fichier, en le déclarant s'il est inconnu
+     * Verrouille la ligne jusqu'à la fin de la transaction : le balayage ne peut
+     * pas supprimer le fichier pendant que l'upload l'installe
+     * 
+     * @param empreinte Empreinte SHA-256 du contenu
+     * @param cheminFichier Chemin à utiliser si le fichier est nouveau
+     * @param tailleFichier Taille du fichier en octets
+     * @return Fichier référencé (chemin existant si le contenu était déjà stocké)
+     */
+    FichierImage ajouterReference(String empreinte, String cheminFichier, long tailleFichier);
+
+    /**
+     * Rechercher un fichier par empreinte
+     * 
+     * @param empreinte Empreinte SHA-256 du contenu
+     * @return Optional contenant le fichier si trouvé
+     */
+    Optional<FichierImage> findByEmpreinte(String empreinte);
+
+    /**
+     * Rechercher les fichiers sans référence, libérés avant une date
+     * 
+     * @param avant Date de libération maximale
+     * @param limite Nombre maximum de fichiers
+     * @return Fichiers à balayer, les plus anciens d'abord
+     */
+    List<FichierImage> findLiberes(LocalDateTime avant, int limite);
+
+    /**
+     * Supprimer un fichier s'il n'est toujours référencé par aucune image
+     * 
+     * @param empreinte Empreinte SHA-256 du contenu
+     * @return true si la ligne a été supprimée
+     */
+    boolean deleteSiLibere(String empreinte);
+
+    /**
+     * Compter les fichiers stockés
+     * 
+     * @return Nombre de fichiers distincts
+     */
+    long count();
+
+    /**
+     * Calculer la place occupée sur disque par les fichiers originaux
+     * 
+     * @return Somme des tailles en octets
+     */
+    long sumTailleFichier();
+}
@@ -0,0 +1,117 @@
+package com.foodmanagement.dao;
+
+import com.foodmanagement.entity.FichierImage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implémentation JDBC de FichierImageDao
+ */
+@Repository
+public class FichierImageDaoImpl implements FichierImageDao {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * RowMapper pour convertir les résultats SQL en objets FichierImage
+     */
+    private final RowMapper<FichierImage> fichierImageRowMapper = (rs, rowNum) -> {
+        FichierImage fichier = new FichierImage();
+        fichier.setEmpreinte(rs.getString("empreinte"));
+        fichier.setCheminFichier(rs.getString("chemin_fichier"));
+        fichier.setTailleFichier(rs.getLong("taille_fichier"));
+        fichier.setNombreReferences(rs.getInt("nombre_references"));
+
+        Timestamp dateCreation = rs.getTimestamp("date_creation");
+        if (dateCreation != null) {
+            fichier.setDateCreation(dateCreation.toLocalDateTime());
+        }
+
+        Timestamp dateLiberation = rs.getTimestamp("date_liberation");
+        if (dateLiberation != null) {
+            fichier.setDateLiberation(dateLiberation.toLocalDateTime());
+        }
+        return fichier;
+    };
+
+    /**
+     * Ajouter une référence (insertion ou incrément atomique)
+     */
+    @Override
+    public FichierImage ajouterReference(String empreinte, String cheminFichier, long tailleFichier) {
+        String sql = "INSERT INTO fichier_image (empreinte, chemin_fichier, taille_fichier, nombre_references) " +
+                     "VALUES (?, ?, ?, 1) " +
+                     "ON CONFLICT (empreinte) DO UPDATE SET " +
+                     "nombre_references = fichier_image.nombre_references + 1, date_liberation = NULL " +
+                     "RETURNING empreinte, chemin_fichier, taille_fichier, nombre_references, date_creation, date_liberation";
+
+        return jdbcTemplate.queryForObject(sql, fichierImageRowMapper, empreinte, cheminFichier, tailleFichier);
+    }
+
+    /**
+     * Rechercher un fichier par empreinte
+     */
+    @Override
+    public Optional<FichierImage> findByEmpreinte(String empreinte) {
+        String sql = "SELECT empreinte, chemin_fichier, taille_fichier, nombre_references, date_creation, date_liberation " +
+                     "FROM fichier_image WHERE empreinte = ?";
+
+        try {
+            return Optional.of(jdbcTemplate.queryForObject(sql, fichierImageRowMapper, empreinte));
+        } catch (EmptyResultDataAccessException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Rechercher les fichiers libérés (index partiel idx_fichier_image_liberes)
+     */
+    @Override
+    public List<FichierImage> findLiberes(LocalDateTime avant, int limite) {
+        String sql = "SELECT empreinte, chemin_fichier, taille_fichier, nombre_references, date_creation, date_liberation " +
+                     "FROM fichier_image WHERE nombre_references = 0 AND date_liberation < ? " +
+                     "ORDER BY date_liberation LIMIT ?";
+
+        return jdbcTemplate.query(sql, fichierImageRowMapper, Timestamp.valueOf(avant), limite);
+    }
+
+    /**
+     * Supprimer un fichier libéré
+     * Revérifie l'absence d'image liée : un compteur faussé ne fait jamais perdre un fichier utilisé
+     */
+    @Override
+    public boolean deleteSiLibere(String empreinte) {
+        String sql = "DELETE FROM fichier_image f WHERE f.empreinte = ? AND f.nombre_references = 0 " +
+                     "AND NOT EXISTS (SELECT 1 FROM image i WHERE i.empreinte = f.empreinte)";
+        return jdbcTemplate.update(sql, empreinte) > 0;
+    }
+
+    /**
+     * Compter les fichiers stockés
+     */
+    @Override
+    public long count() {
+        String sql = "SELECT COUNT(*) FROM fichier_image";
+        Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Taille totale des fichiers originaux stockés
+     */
+    @Override
+    public long sumTailleFichier() {
+        String sql = "SELECT COALESCE(SUM(taille_fichier), 0) FROM fichier_image";
+        Long total = jdbcTemplate.queryForObject(sql, Long.class);
+        return total != null ? total : 0L;
+    }
+}
@@ -2,6 +2,7 @@ package com.foodmanagement.dao;
 
 import com.foodmanagement.entity.Food;
 import com.foodmanagement.enums.CategorieFood;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,6 +35,26 @@ public interface FoodDao {
      */
     List<Food> findAll();
 
+    /**
+     * Rechercher une page d'aliments par curseur (keyset sur date_creation, id)
+     * Même ordre que findAll, mais sans OFFSET ni limite implicite du JdbcTemplate
+     * 
+     * @param apresDateCreation Date de création du dernier aliment de la page précédente (null pour la première page)
+     * @param apresId ID du dernier aliment de la page précédente (null pour la première page)
+     * @param taille Nombre maximum d'aliments à retourner
+     * @return Page d'aliments triée par date de création puis ID décroissants
+     */
+    List<Food> findPageApres(LocalDateTime apresDateCreation, Long apresId, int taille);
+
+    /**
+     * Rechercher tous les aliments, lus page par page avec findPageApres
+     * À utiliser pour charger le catalogue complet, findAll étant borné par le JdbcTemplate
+     * 
+     * @param taillePage Nombre d'aliments lus par requête
+     * @return Liste de tous les aliments, dans l'ordre de findAll
+     */
+    List<Food> findTousParPages(int taillePage);
+
     /**
      * Rechercher des aliments par nom
      * 
@@ -58,6 +79,14 @@ public interface FoodDao {
      */
     List<Food> findByPersonneId(Long personneId);
 
+    /**
+     * Rechercher les aliments dont la recette utilise un ingrédient (sans limite de lignes)
+     * 
+     * @param ingredientId ID de l'ingrédient
+     * @return Liste des aliments utilisant cet ingrédient
+     */
+    List<Food> findByIngredientId(Long ingredientId);
+
     /**
      * Mettre à jour un aliment
      * 
@@ -98,4 +127,47 @@ public interface FoodDao {
      * @return Liste des aliments dans cette tranche
      */
     List<Food> findByCaloriesBetween(Double caloriesMin, Double caloriesMax);
+
+    /**
+     * Rechercher des aliments par tranche de prix
+     * 
+     * @param prixMin Prix minimum
+     * @param prixMax Prix maximum
+     * @return Liste des aliments dans cette tranche
+     */
+    List<Food> findByPrixBetween(Double prixMin, Double prixMax);
+
+    /**
+     * Rechercher les aliments les moins chers de chaque catégorie
+     * Seuls les aliments avec un prix renseigné sont retenus
+     * 
+     * @param parCategorie Nombre maximum d'aliments par catégorie
+     * @return Aliments triés par catégorie puis prix croissant
+     */
+    List<Food> findMoinsChersParCategorie(int parCategorie);
+
+    /**
+     * Recalculer les agrégats de recette d'un aliment (masse, nombre d'ingrédients, calories totales)
+     * À appeler après toute modification de ses ingrédients
+     *
+     * @param foodId ID de l'aliment
+     * @return Nombre d'aliments mis à jour (0 ou 1)
+     */
+    int recalculerAgregats(Long foodId);
+
+    /**
+     * Recalculer les agrégats des aliments utilisant un ingrédient (densité modifiée...)
+     *
+     * @param ingredientId ID de l'ingrédient
+     * @return Nombre d'aliments mis à jour
+     */
+    int recalculerAgregatsParIngredient(Long ingredientId);
+
+    /**
+     * Recalculer les agrégats en masse (import, rattrapage au démarrage)
+     *
+     * @param seulementManquants true pour ne traiter que les aliments jamais calculés
+     * @return Nombre d'aliments mis à jour
+     */
+    int recalculerTousLesAgregats(boolean seulementManquants);
 }
\ No newline at end of file
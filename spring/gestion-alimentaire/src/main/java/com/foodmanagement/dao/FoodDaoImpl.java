@@ -4,6 +4,7 @@ import com.foodmanagement.entity.Food;
 import com.foodmanagement.entity.Personne;
 import com.foodmanagement.enums.CategorieFood;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -15,6 +16,7 @@ import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,9 +26,34 @@ import java.util.Optional;
 @Repository
 public class FoodDaoImpl implements FoodDao {
 
+    /**
+     * Recalcul ensembliste des agrégats de recette (%s : filtre sur f2, les aliments à recalculer)
+     * Masse : grammes normalisés, plus les millilitres des ingrédients de densité connue
+     */
+    private static final String SQL_RECALCUL_AGREGATS =
+        "UPDATE food f SET masse_totale_g = agregat.masse, nombre_ingredients = agregat.nombre, " +
+        "calories_totales = CASE WHEN agregat.masse > 0 THEN COALESCE(f.calories, 0) * agregat.masse / 100.0 " +
+        "                        ELSE COALESCE(f.calories, 0) END " +
+        "FROM (SELECT f2.id, COUNT(fi.ingredient_id) as nombre, " +
+        "             COALESCE(SUM(CASE WHEN fi.unite_base = 'GRAMME' THEN fi.quantite_base " +
+        "                               WHEN fi.unite_base = 'MILLILITRE' AND i.densite IS NOT NULL " +
+        "                                    THEN fi.quantite_base * i.densite " +
+        "                               ELSE 0 END), 0) as masse " +
+        "      FROM food f2 " +
+        "      LEFT JOIN food_ingredient fi ON fi.food_id = f2.id " +
+        "      LEFT JOIN ingredient i ON i.id = fi.ingredient_id " +
+        "      WHERE %s " +
+        "      GROUP BY f2.id) agregat " +
+        "WHERE f.id = agregat.id";
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    // Un ingrédient courant peut entrer dans plus de recettes que le plafond du template global
+    @Autowired
+    @Qualifier("jdbcTemplateSansLimite")
+    private JdbcTemplate jdbcTemplateSansLimite;
+
     /**
      * RowMapper pour Food avec jointure sur Personne
      * Mappe les résultats de la requête vers un objet Food
@@ -45,6 +72,14 @@ public class FoodDaoImpl implements FoodDao {
         
         food.setCalories(rs.getDouble("calories"));
         food.setPrix(rs.getDouble("prix"));
+
+        // Agrégats de la recette (null tant qu'ils n'ont pas été calculés)
+        double caloriesTotales = rs.getDouble("calories_totales");
+        food.setCaloriesTotales(rs.wasNull() ? null : caloriesTotales);
+        double masseTotale = rs.getDouble("masse_totale_g");
+        food.setMasseTotaleGrammes(rs.wasNull() ? null : masseTotale);
+        int nombreIngredients = rs.getInt("nombre_ingredients");
+        food.setNombreIngredients(rs.wasNull() ? null : nombreIngredients);
         food.setTempsPreparation(rs.getString("temps_preparation"));
         
         // Conversion Timestamp -> LocalDateTime
@@ -69,7 +104,8 @@ public class FoodDaoImpl implements FoodDao {
     @Override
     public Food create(Food food) {
         String sql = "INSERT INTO food (nom, description, categorie, calories, prix, temps_preparation, " +
-                     "personne_id, date_creation) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+                     "personne_id, date_creation, calories_totales, masse_totale_g, nombre_ingredients) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0)";
 
         KeyHolder keyHolder = new GeneratedKeyHolder();
 
@@ -83,12 +119,17 @@ public class FoodDaoImpl implements FoodDao {
             ps.setString(6, food.getTempsPreparation());
             ps.setLong(7, food.getPersonne().getId());
             ps.setTimestamp(8, Timestamp.valueOf(LocalDateTime.now()));
+            // Recette vide : la valeur de référence tient lieu de total
+            ps.setDouble(9, food.getCalories() != null ? food.getCalories() : 0.0);
             return ps;
         }, keyHolder);
 
         Long generatedId = keyHolder.getKey().longValue();
         food.setId(generatedId);
         food.setDateCreation(LocalDateTime.now());
+        food.setCaloriesTotales(food.getCalories() != null ? food.getCalories() : 0.0);
+        food.setMasseTotaleGrammes(0.0);
+        food.setNombreIngredients(0);
 
         return food;
     }
@@ -98,7 +139,7 @@ public class FoodDaoImpl implements FoodDao {
      */
     @Override
     public Optional<Food> findById(Long id) {
-        String sql = "SELECT f.id, f.nom, f.description, f.categorie, f.calories, f.prix, " +
+        String sql = "SELECT f.id, f.nom, f.description, f.categorie, f.calories, f.prix, f.calories_totales, f.masse_totale_g, f.nombre_ingredients, " +
                      "f.temps_preparation, f.date_creation, f.personne_id, " +
                      "p.nom as personne_nom, p.email as personne_email " +
                      "FROM food f " +
@@ -118,7 +159,7 @@ public class FoodDaoImpl implements FoodDao {
      */
     @Override
     public List<Food> findAll() {
-        String sql = "SELECT f.id, f.nom, f.description, f.categorie, f.calories, f.prix, " +
+        String sql = "SELECT f.id, f.nom, f.description, f.categorie, f.calories, f.prix, f.calories_totales, f.masse_totale_g, f.nombre_ingredients, " +
                      "f.temps_preparation, f.date_creation, f.personne_id, " +
                      "p.nom as personne_nom, p.email as personne_email " +
                      "FROM food f " +
@@ -128,12 +169,50 @@ public class FoodDaoImpl implements FoodDao {
         return jdbcTemplate.query(sql, foodRowMapper);
     }
 
+    /**
+     * Rechercher une page d'aliments par curseur
+     * La comparaison de tuples (date_creation, id) s'appuie sur idx_food_date_creation_id
+     */
+    @Override
+    public List<Food> findPageApres(LocalDateTime apresDateCreation, Long apresId, int taille) {
+        String select = "SELECT f.id, f.nom, f.description, f.categorie, f.calories, f.prix, f.calories_totales, f.masse_totale_g, f.nombre_ingredients, " +
+                        "f.temps_preparation, f.date_creation, f.personne_id, " +
+                        "p.nom as personne_nom, p.email as personne_email " +
+                        "FROM food f " +
+                        "JOIN personne p ON f.personne_id = p.id ";
+        String ordre = "ORDER BY f.date_creation DESC, f.id DESC LIMIT ?";
+
+        if (apresDateCreation == null || apresId == null) {
+            return jdbcTemplate.query(select + ordre, foodRowMapper, taille);
+        }
+
+        String sql = select + "WHERE (f.date_creation, f.id) < (?, ?) " + ordre;
+        return jdbcTemplate.query(sql, foodRowMapper, Timestamp.valueOf(apresDateCreation), apresId, taille);
+    }
+
+    /**
+     * Rechercher tous les aliments page par page
+     * Une page incomplète est la dernière : elle évite une requête vide
+     */
+    @Override
+    public List<Food> findTousParPages(int taillePage) {
+        List<Food> aliments = new ArrayList<>();
+        List<Food> page = findPageApres(null, null, taillePage);
+        while (!page.isEmpty()) {
+            aliments.addAll(page);
+            Food dernier = page.get(page.size() - 1);
+            page = page.size() < taillePage ? List.of()
+                : findPageApres(dernier.getDateCreation(), dernier.getId(), taillePage);
+        }
+        return aliments;
+    }
+
     /**
      * Rechercher des aliments par nom
      */
     @Override
     public List<Food> findByNomContaining(String nom) {
-        String sql = "SELECT f.id, f.nom, f.description, f.categorie, f.calories, f.prix, " +
+        String sql = "SELECT f.id, f.nom, f.description, f.categorie, f.calories, f.prix, f.calories_totales, f.masse_totale_g, f.nombre_ingredients, " +
                      "f.temps_preparation, f.date_creation, f.personne_id, " +
                      "p.nom as personne_nom, p.email as personne_email " +
                      "FROM food f " +
@@ -150,7 +229,7 @@ public class FoodDaoImpl implements FoodDao {
      */
     @Override
     public List<Food> findByCategorie(CategorieFood categorie) {
-        String sql = "SELECT f.id, f.nom, f.description, f.categorie, f.calories, f.prix, " +
+        String sql = "SELECT f.id, f.nom, f.description, f.categorie, f.calories, f.prix, f.calories_totales, f.masse_totale_g, f.nombre_ingredients, " +
                      "f.temps_preparation, f.date_creation, f.personne_id, " +
                      "p.nom as personne_nom, p.email as personne_email " +
                      "FROM food f " +
@@ -166,7 +245,7 @@ public class FoodDaoImpl implements FoodDao {
      */
     @Override
     public List<Food> findByPersonneId(Long personneId) {
-        String sql = "SELECT f.id, f.nom, f.description, f.categorie, f.calories, f.prix, " +
+        String sql = "SELECT f.id, f.nom, f.description, f.categorie, f.calories, f.prix, f.calories_totales, f.masse_totale_g, f.nombre_ingredients, " +
                      "f.temps_preparation, f.date_creation, f.personne_id, " +
                      "p.nom as personne_nom, p.email as personne_email " +
                      "FROM food f " +
@@ -177,25 +256,53 @@ public class FoodDaoImpl implements FoodDao {
         return jdbcTemplate.query(sql, foodRowMapper, personneId);
     }
 
+    /**
+     * Rechercher les aliments dont la recette utilise un ingrédient
+     */
+    @Override
+    public List<Food> findByIngredientId(Long ingredientId) {
+        String sql = "SELECT f.id, f.nom, f.description, f.categorie, f.calories, f.prix, f.calories_totales, f.masse_totale_g, f.nombre_ingredients, " +
+                     "f.temps_preparation, f.date_creation, f.personne_id, " +
+                     "p.nom as personne_nom, p.email as personne_email " +
+                     "FROM food f " +
+                     "JOIN personne p ON f.personne_id = p.id " +
+                     "WHERE f.id IN (SELECT food_id FROM food_ingredient WHERE ingredient_id = ?)";
+
+        return jdbcTemplateSansLimite.query(sql, foodRowMapper, ingredientId);
+    }
+
     /**
      * Mettre à jour un aliment
      */
     @Override
     public Food update(Food food) {
+        // Les calories totales suivent les calories pour 100g, à masse de recette inchangée
         String sql = "UPDATE food SET nom = ?, description = ?, categorie = ?, calories = ?, " +
-                     "prix = ?, temps_preparation = ? WHERE id = ?";
+                     "prix = ?, temps_preparation = ?, " +
+                     "calories_totales = CASE WHEN masse_totale_g > 0 THEN ? * masse_totale_g / 100.0 ELSE ? END " +
+                     "WHERE id = ? " +
+                     "RETURNING calories_totales, masse_totale_g, nombre_ingredients";
 
-        int rowsAffected = jdbcTemplate.update(sql,
+        List<Food> agregats = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            food.setCaloriesTotales(rs.getDouble("calories_totales"));
+            double masseTotale = rs.getDouble("masse_totale_g");
+            food.setMasseTotaleGrammes(rs.wasNull() ? null : masseTotale);
+            int nombreIngredients = rs.getInt("nombre_ingredients");
+            food.setNombreIngredients(rs.wasNull() ? null : nombreIngredients);
+            return food;
+        },
             food.getNom(),
             food.getDescription(),
             food.getCategorie().name(),
             food.getCalories(),
             food.getPrix(),
             food.getTempsPreparation(),
+            food.getCalories(),
+            food.getCalories(),
             food.getId()
         );
 
-        if (rowsAffected == 0) {
+        if (agregats.isEmpty()) {
             throw new RuntimeException("Aucun aliment trouvé avec l'ID : " + food.getId());
         }
 
@@ -237,7 +344,7 @@ public class FoodDaoImpl implements FoodDao {
      */
     @Override
     public List<Food> findByCaloriesBetween(Double caloriesMin, Double caloriesMax) {
-        String sql = "SELECT f.id, f.nom, f.description, f.categorie, f.calories, f.prix, " +
+        String sql = "SELECT f.id, f.nom, f.description, f.categorie, f.calories, f.prix, f.calories_totales, f.masse_totale_g, f.nombre_ingredients, " +
                      "f.temps_preparation, f.date_creation, f.personne_id, " +
                      "p.nom as personne_nom, p.email as personne_email " +
                      "FROM food f " +
@@ -247,4 +354,65 @@ public class FoodDaoImpl implements FoodDao {
 
         return jdbcTemplate.query(sql, foodRowMapper, caloriesMin, caloriesMax);
     }
+
+    /**
+     * Rechercher des aliments par tranche de prix
+     */
+    @Override
+    public List<Food> findByPrixBetween(Double prixMin, Double prixMax) {
+        String sql = "SELECT f.id, f.nom, f.description, f.categorie, f.calories, f.prix, f.calories_totales, f.masse_totale_g, f.nombre_ingredients, " +
+                     "f.temps_preparation, f.date_creation, f.personne_id, " +
+                     "p.nom as personne_nom, p.email as personne_email " +
+                     "FROM food f " +
+                     "JOIN personne p ON f.personne_id = p.id " +
+                     "WHERE f.prix BETWEEN ? AND ? " +
+                     "ORDER BY f.prix ASC";
+
+        return jdbcTemplate.query(sql, foodRowMapper, prixMin, prixMax);
+    }
+
+    /**
+     * Rechercher les aliments les moins chers de chaque catégorie
+     * Classement par fenêtre sur (categorie, prix), servi par idx_food_categorie_prix
+     */
+    @Override
+    public List<Food> findMoinsChersParCategorie(int parCategorie) {
+        String sql = "SELECT f.id, f.nom, f.description, f.categorie, f.calories, f.prix, f.calories_totales, f.masse_totale_g, f.nombre_ingredients, " +
+                     "f.temps_preparation, f.date_creation, f.personne_id, " +
+                     "p.nom as personne_nom, p.email as personne_email " +
+                     "FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY categorie ORDER BY prix, id) as rang " +
+                     "      FROM food WHERE prix > 0) classement " +
+                     "JOIN food f ON f.id = classement.id " +
+                     "JOIN personne p ON f.personne_id = p.id " +
+                     "WHERE classement.rang <= ? " +
+                     "ORDER BY f.categorie, f.prix, f.id";
+
+        return jdbcTemplate.query(sql, foodRowMapper, parCategorie);
+    }
+
+    /**
+     * Recalculer les agrégats d'un aliment
+     */
+    @Override
+    public int recalculerAgregats(Long foodId) {
+        return jdbcTemplate.update(String.format(SQL_RECALCUL_AGREGATS, "f2.id = ?"), foodId);
+    }
+
+    /**
+     * Recalculer les agrégats des aliments utilisant un ingrédient
+     */
+    @Override
+    public int recalculerAgregatsParIngredient(Long ingredientId) {
+        return jdbcTemplate.update(String.format(SQL_RECALCUL_AGREGATS,
+            "f2.id IN (SELECT food_id FROM food_ingredient WHERE ingredient_id = ?)"), ingredientId);
+    }
+
+    /**
+     * Recalculer les agrégats de tous les aliments, ou seulement de ceux jamais calculés
+     */
+    @Override
+    public int recalculerTousLesAgregats(boolean seulementManquants) {
+        return jdbcTemplate.update(String.format(SQL_RECALCUL_AGREGATS,
+            seulementManquants ? "f2.calories_totales IS NULL" : "TRUE"));
+    }
 }
\ No newline at end of file
@@ -1,8 +1,11 @@
 package com.foodmanagement.dao;
 
+import com.foodmanagement.dto.QuantiteIngredientDto;
 import com.foodmanagement.entity.FoodIngredient;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Interface DAO pour l'entité FoodIngredient
@@ -18,6 +21,37 @@ public interface FoodIngredientDao {
      */
     FoodIngredient create(FoodIngredient foodIngredient);
 
+    /**
+     * Créer plusieurs associations food-ingredient en un seul lot JDBC
+     * 
+     * @param foodIngredients Associations à créer
+     * @return Nombre d'associations créées
+     */
+    int createAll(List<FoodIngredient> foodIngredients);
+
+    /**
+     * Rechercher les IDs des ingrédients déjà présents dans un aliment
+     * 
+     * @param foodId ID de l'aliment
+     * @return Ensemble des IDs d'ingrédients de cet aliment
+     */
+    Set<Long> findIngredientIdsByFoodId(Long foodId);
+
+    /**
+     * Lister les IDs d'ingrédients de chaque aliment (toutes les associations, sans limite de lignes)
+     * 
+     * @return ID d'aliment → IDs de ses ingrédients
+     */
+    Map<Long, Set<Long>> findIngredientIdsParFood();
+
+    /**
+     * Lister les IDs d'ingrédients des aliments qui utilisent un ingrédient (sans limite de lignes)
+     * 
+     * @param ingredientId ID de l'ingrédient commun
+     * @return ID d'aliment → IDs de ses ingrédients
+     */
+    Map<Long, Set<Long>> findIngredientIdsParFoodUtilisant(Long ingredientId);
+
     /**
      * Rechercher une association par food et ingredient
      * 
@@ -118,4 +152,13 @@ public interface FoodIngredientDao {
      * @return true si mise à jour réussie
      */
     boolean updateQuantiteAndUnite(Long foodId, Long ingredientId, Double nouvelleQuantite, String nouvelleUnite);
+
+    /**
+     * Cumuler les quantités d'ingrédients d'un ensemble d'aliments en une seule requête
+     * Quantité d'un ingrédient = Σ quantité utilisée × portions de l'aliment
+     * 
+     * @param portionsParFood Nombre de portions par ID d'aliment
+     * @return Une ligne par ingrédient et par unité saisie
+     */
+    List<QuantiteIngredientDto> sommerQuantitesParIngredient(Map<Long, Double> portionsParFood);
 }
\ No newline at end of file
@@ -1,18 +1,30 @@
 package com.foodmanagement.dao;
 
+import com.foodmanagement.dto.QuantiteIngredientDto;
 import com.foodmanagement.entity.Food;
 import com.foodmanagement.entity.FoodIngredient;
 import com.foodmanagement.entity.Ingredient;
 import com.foodmanagement.enums.CategorieFood;
 import com.foodmanagement.enums.TypeIngredient;
+import com.foodmanagement.enums.UniteBase;
+import com.foodmanagement.util.ConvertisseurUnites;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Implémentation JDBC de FoodIngredientDao
@@ -23,6 +35,14 @@ public class FoodIngredientDaoImpl implements FoodIngredientDao {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private ConvertisseurUnites convertisseurUnites;
+
+    // JdbcTemplate dédié aux agrégations : celui de l'application tronque les résultats (maxRows)
+    @Autowired
+    @Qualifier("jdbcTemplateSansLimite")
+    private JdbcTemplate jdbcTemplateAgregation;
+
     /**
      * RowMapper pour convertir les résultats SQL en objets FoodIngredient
      * Inclut les jointures avec Food et Ingredient pour avoir toutes les infos
@@ -33,6 +53,11 @@ public class FoodIngredientDaoImpl implements FoodIngredientDao {
         // Données de l'association
         foodIngredient.setQuantiteUtilisee(rs.getDouble("quantite_utilisee"));
         foodIngredient.setUnite(rs.getString("unite"));
+        String uniteBase = rs.getString("unite_base");
+        if (uniteBase != null) {
+            foodIngredient.setUniteBase(UniteBase.valueOf(uniteBase));
+            foodIngredient.setQuantiteBase(rs.getDouble("quantite_base"));
+        }
         
         // Création de l'objet Food avec les données de base
         Food food = new Food();
@@ -46,6 +71,8 @@ public class FoodIngredientDaoImpl implements FoodIngredientDao {
         ingredient.setId(rs.getLong("ingredient_id"));
         ingredient.setNom(rs.getString("ingredient_nom"));
         ingredient.setType(TypeIngredient.valueOf(rs.getString("ingredient_type")));
+        double densite = rs.getDouble("ingredient_densite");
+        ingredient.setDensite(rs.wasNull() ? null : densite);
         foodIngredient.setIngredient(ingredient);
         
         // Création de l'ID composite
@@ -62,14 +89,17 @@ public class FoodIngredientDaoImpl implements FoodIngredientDao {
      */
     @Override
     public FoodIngredient create(FoodIngredient foodIngredient) {
-        String sql = "INSERT INTO food_ingredient (food_id, ingredient_id, quantite_utilisee, unite) " +
-                     "VALUES (?, ?, ?, ?)";
+        String sql = "INSERT INTO food_ingredient (food_id, ingredient_id, quantite_utilisee, unite, " +
+                     "unite_base, quantite_base) VALUES (?, ?, ?, ?, ?, ?)";
 
+        normaliser(foodIngredient);
         jdbcTemplate.update(sql,
             foodIngredient.getFood().getId(),
             foodIngredient.getIngredient().getId(),
             foodIngredient.getQuantiteUtilisee(),
-            foodIngredient.getUnite()
+            foodIngredient.getUnite(),
+            foodIngredient.getUniteBase().name(),
+            foodIngredient.getQuantiteBase()
         );
 
         // Création de l'ID composite
@@ -82,14 +112,105 @@ public class FoodIngredientDaoImpl implements FoodIngredientDao {
         return foodIngredient;
     }
 
+    /**
+     * Créer plusieurs associations en un seul lot JDBC
+     * Un seul aller-retour par lot (reWriteBatchedInserts côté driver PostgreSQL)
+     */
+    @Override
+    public int createAll(List<FoodIngredient> foodIngredients) {
+        if (foodIngredients.isEmpty()) {
+            return 0;
+        }
+
+        String sql = "INSERT INTO food_ingredient (food_id, ingredient_id, quantite_utilisee, unite, " +
+                     "unite_base, quantite_base) VALUES (?, ?, ?, ?, ?, ?)";
+
+        for (FoodIngredient foodIngredient : foodIngredients) {
+            normaliser(foodIngredient);
+        }
+
+        int[] resultats = jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                FoodIngredient foodIngredient = foodIngredients.get(i);
+                ps.setLong(1, foodIngredient.getFood().getId());
+                ps.setLong(2, foodIngredient.getIngredient().getId());
+                ps.setObject(3, foodIngredient.getQuantiteUtilisee(), Types.DOUBLE);
+                ps.setString(4, foodIngredient.getUnite());
+                ps.setString(5, foodIngredient.getUniteBase().name());
+                ps.setObject(6, foodIngredient.getQuantiteBase(), Types.DOUBLE);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return foodIngredients.size();
+            }
+        });
+
+        // Création des IDs composites
+        for (FoodIngredient foodIngredient : foodIngredients) {
+            foodIngredient.setId(new FoodIngredient.FoodIngredientId(
+                foodIngredient.getFood().getId(),
+                foodIngredient.getIngredient().getId()
+            ));
+        }
+
+        // Le driver peut retourner SUCCESS_NO_INFO (-2) pour un lot réécrit
+        int total = 0;
+        for (int resultat : resultats) {
+            total += resultat == java.sql.Statement.SUCCESS_NO_INFO ? 1 : resultat;
+        }
+        return total;
+    }
+
+    /**
+     * Rechercher les IDs des ingrédients déjà présents dans un aliment
+     */
+    @Override
+    public Set<Long> findIngredientIdsByFoodId(Long foodId) {
+        String sql = "SELECT ingredient_id FROM food_ingredient WHERE food_id = ?";
+        return new HashSet<>(jdbcTemplate.queryForList(sql, Long.class, foodId));
+    }
+
+    /**
+     * Lister les IDs d'ingrédients de chaque aliment
+     */
+    @Override
+    public Map<Long, Set<Long>> findIngredientIdsParFood() {
+        String sql = "SELECT food_id, ingredient_id FROM food_ingredient";
+
+        Map<Long, Set<Long>> ingredientsParFood = new HashMap<>();
+        jdbcTemplateAgregation.query(sql, rs -> {
+            ingredientsParFood.computeIfAbsent(rs.getLong("food_id"), id -> new HashSet<>())
+                .add(rs.getLong("ingredient_id"));
+        });
+        return ingredientsParFood;
+    }
+
+    /**
+     * Lister les IDs d'ingrédients des aliments qui utilisent un ingrédient
+     */
+    @Override
+    public Map<Long, Set<Long>> findIngredientIdsParFoodUtilisant(Long ingredientId) {
+        String sql = "SELECT food_id, ingredient_id FROM food_ingredient " +
+                     "WHERE food_id IN (SELECT food_id FROM food_ingredient WHERE ingredient_id = ?)";
+
+        Map<Long, Set<Long>> ingredientsParFood = new HashMap<>();
+        jdbcTemplateAgregation.query(sql, rs -> {
+            ingredientsParFood.computeIfAbsent(rs.getLong("food_id"), id -> new HashSet<>())
+                .add(rs.getLong("ingredient_id"));
+        }, ingredientId);
+        return ingredientsParFood;
+    }
+
     /**
      * Rechercher une association par food et ingredient
      */
     @Override
     public Optional<FoodIngredient> findByFoodIdAndIngredientId(Long foodId, Long ingredientId) {
-        String sql = "SELECT fi.food_id, fi.ingredient_id, fi.quantite_utilisee, fi.unite, " +
+        String sql = "SELECT fi.food_id, fi.ingredient_id, fi.quantite_utilisee, fi.unite, fi.unite_base, fi.quantite_base, " +
                      "f.nom as food_nom, f.categorie as food_categorie, " +
-                     "i.nom as ingredient_nom, i.type as ingredient_type " +
+                     "i.nom as ingredient_nom, i.type as ingredient_type, i.densite as ingredient_densite " +
                      "FROM food_ingredient fi " +
                      "JOIN food f ON fi.food_id = f.id " +
                      "JOIN ingredient i ON fi.ingredient_id = i.id " +
@@ -109,9 +230,9 @@ public class FoodIngredientDaoImpl implements FoodIngredientDao {
      */
     @Override
     public List<FoodIngredient> findByFoodId(Long foodId) {
-        String sql = "SELECT fi.food_id, fi.ingredient_id, fi.quantite_utilisee, fi.unite, " +
+        String sql = "SELECT fi.food_id, fi.ingredient_id, fi.quantite_utilisee, fi.unite, fi.unite_base, fi.quantite_base, " +
                      "f.nom as food_nom, f.categorie as food_categorie, " +
-                     "i.nom as ingredient_nom, i.type as ingredient_type " +
+                     "i.nom as ingredient_nom, i.type as ingredient_type, i.densite as ingredient_densite " +
                      "FROM food_ingredient fi " +
                      "JOIN food f ON fi.food_id = f.id " +
                      "JOIN ingredient i ON fi.ingredient_id = i.id " +
@@ -126,9 +247,9 @@ public class FoodIngredientDaoImpl implements FoodIngredientDao {
      */
     @Override
     public List<FoodIngredient> findByIngredientId(Long ingredientId) {
-        String sql = "SELECT fi.food_id, fi.ingredient_id, fi.quantite_utilisee, fi.unite, " +
+        String sql = "SELECT fi.food_id, fi.ingredient_id, fi.quantite_utilisee, fi.unite, fi.unite_base, fi.quantite_base, " +
                      "f.nom as food_nom, f.categorie as food_categorie, " +
-                     "i.nom as ingredient_nom, i.type as ingredient_type " +
+                     "i.nom as ingredient_nom, i.type as ingredient_type, i.densite as ingredient_densite " +
                      "FROM food_ingredient fi " +
                      "JOIN food f ON fi.food_id = f.id " +
                      "JOIN ingredient i ON fi.ingredient_id = i.id " +
@@ -143,9 +264,9 @@ public class FoodIngredientDaoImpl implements FoodIngredientDao {
      */
     @Override
     public List<FoodIngredient> findAll() {
-        String sql = "SELECT fi.food_id, fi.ingredient_id, fi.quantite_utilisee, fi.unite, " +
+        String sql = "SELECT fi.food_id, fi.ingredient_id, fi.quantite_utilisee, fi.unite, fi.unite_base, fi.quantite_base, " +
                      "f.nom as food_nom, f.categorie as food_categorie, " +
-                     "i.nom as ingredient_nom, i.type as ingredient_type " +
+                     "i.nom as ingredient_nom, i.type as ingredient_type, i.densite as ingredient_densite " +
                      "FROM food_ingredient fi " +
                      "JOIN food f ON fi.food_id = f.id " +
                      "JOIN ingredient i ON fi.ingredient_id = i.id " +
@@ -159,12 +280,15 @@ public class FoodIngredientDaoImpl implements FoodIngredientDao {
      */
     @Override
     public FoodIngredient update(FoodIngredient foodIngredient) {
-        String sql = "UPDATE food_ingredient SET quantite_utilisee = ?, unite = ? " +
+        String sql = "UPDATE food_ingredient SET quantite_utilisee = ?, unite = ?, unite_base = ?, quantite_base = ? " +
                      "WHERE food_id = ? AND ingredient_id = ?";
 
+        normaliser(foodIngredient);
         int rowsAffected = jdbcTemplate.update(sql,
             foodIngredient.getQuantiteUtilisee(),
             foodIngredient.getUnite(),
+            foodIngredient.getUniteBase().name(),
+            foodIngredient.getQuantiteBase(),
             foodIngredient.getFood().getId(),
             foodIngredient.getIngredient().getId()
         );
@@ -241,10 +365,73 @@ public class FoodIngredientDaoImpl implements FoodIngredientDao {
      */
     @Override
     public boolean updateQuantiteAndUnite(Long foodId, Long ingredientId, Double nouvelleQuantite, String nouvelleUnite) {
-        String sql = "UPDATE food_ingredient SET quantite_utilisee = ?, unite = ? " +
+        String sql = "UPDATE food_ingredient SET quantite_utilisee = ?, unite = ?, unite_base = ?, quantite_base = ? " +
                      "WHERE food_id = ? AND ingredient_id = ?";
 
-        int rowsAffected = jdbcTemplate.update(sql, nouvelleQuantite, nouvelleUnite, foodId, ingredientId);
+        ConvertisseurUnites.UniteNormalisee unite = convertisseurUnites.normaliser(nouvelleUnite);
+        int rowsAffected = jdbcTemplate.update(sql, nouvelleQuantite, nouvelleUnite, unite.getUniteBase().name(),
+            nouvelleQuantite != null ? unite.versBase(nouvelleQuantite) : null, foodId, ingredientId);
         return rowsAffected > 0;
     }
+
+    /**
+     * Cumuler les quantités d'ingrédients d'un ensemble d'aliments
+     * Les IDs et portions sont passés en deux tableaux dépliés par unnest : une seule
+     * requête groupée quel que soit le nombre d'aliments, sans IN (...) variable.
+     * La somme porte sur les quantités normalisées : une ligne par ingrédient et unité de base
+     * (et par unité saisie pour les unités inconnues)
+     */
+    @Override
+    public List<QuantiteIngredientDto> sommerQuantitesParIngredient(Map<Long, Double> portionsParFood) {
+        if (portionsParFood.isEmpty()) {
+            return List.of();
+        }
+
+        String sql = "SELECT fi.ingredient_id, i.nom as ingredient_nom, i.densite, " +
+                     "COALESCE(fi.unite_base, 'AUTRE') as unite_base, " +
+                     "CASE WHEN fi.unite_base IS NULL OR fi.unite_base = 'AUTRE' THEN fi.unite END as unite, " +
+                     "SUM(COALESCE(fi.quantite_base, fi.quantite_utilisee) * d.portions) as quantite " +
+                     "FROM unnest(?::bigint[], ?::float8[]) AS d(food_id, portions) " +
+                     "JOIN food_ingredient fi ON fi.food_id = d.food_id " +
+                     "JOIN ingredient i ON i.id = fi.ingredient_id " +
+                     "GROUP BY 1, 2, 3, 4, 5 " +
+                     "ORDER BY i.nom";
+
+        Long[] foodIds = new Long[portionsParFood.size()];
+        Double[] portions = new Double[portionsParFood.size()];
+        int i = 0;
+        for (Map.Entry<Long, Double> entree : portionsParFood.entrySet()) {
+            foodIds[i] = entree.getKey();
+            portions[i] = entree.getValue();
+            i++;
+        }
+
+        return jdbcTemplateAgregation.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setArray(1, connection.createArrayOf("bigint", foodIds));
+            ps.setArray(2, connection.createArrayOf("float8", portions));
+            return ps;
+        }, (rs, rowNum) -> {
+            QuantiteIngredientDto quantite = new QuantiteIngredientDto(
+                rs.getLong("ingredient_id"),
+                rs.getString("ingredient_nom"),
+                rs.getString("unite"),
+                rs.getDouble("quantite")
+            );
+            quantite.setUniteBase(UniteBase.valueOf(rs.getString("unite_base")));
+            double densite = rs.getDouble("densite");
+            quantite.setDensite(rs.wasNull() ? null : densite);
+            return quantite;
+        });
+    }
+
+    /**
+     * Renseigner l'unité de base et la quantité normalisée d'une association
+     */
+    private void normaliser(FoodIngredient foodIngredient) {
+        ConvertisseurUnites.UniteNormalisee unite = convertisseurUnites.normaliser(foodIngredient.getUnite());
+        foodIngredient.setUniteBase(unite.getUniteBase());
+        foodIngredient.setQuantiteBase(foodIngredient.getQuantiteUtilisee() != null
+            ? unite.versBase(foodIngredient.getQuantiteUtilisee()) : null);
+    }
 }
\ No newline at end of file
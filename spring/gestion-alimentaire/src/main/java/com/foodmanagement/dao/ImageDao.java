@@ -85,6 +85,7 @@ public interface ImageDao {
 
     /**
      * Supprimer une image par ID
+     * Les fichiers partagés qu'elle référençait perdent une référence
      * 
      * @param id Identifiant de l'image
      * @return true si suppression réussie
@@ -99,6 +100,14 @@ public interface ImageDao {
      */
     int deleteByFoodId(Long foodId);
 
+    /**
+     * Supprimer les images d'un ingrédient
+     * 
+     * @param ingredientId ID de l'ingrédient
+     * @return Nombre d'images supprimées
+     */
+    int deleteByIngredientId(Long ingredientId);
+
     /**
      * Vérifier si un nom de fichier existe
      * 
@@ -131,4 +140,28 @@ public interface ImageDao {
      * @return Liste des images uploadées dans cette période
      */
     List<Image> findByDateUploadBetween(LocalDateTime dateDebut, LocalDateTime dateFin);
-}
\ No newline at end of file
+
+    /**
+     * Rechercher les dérivées (miniature, web) d'une image originale
+     * 
+     * @param imageSourceId ID de l'image originale
+     * @return Liste des dérivées
+     */
+    List<Image> findDerivees(Long imageSourceId);
+
+    /**
+     * Aligner le type des dérivées web sur celui de leur originale
+     * 
+     * @param imageSourceId ID de l'image originale
+     * @param typeImage Nouveau type
+     * @return Nombre de dérivées mises à jour
+     */
+    int updateTypeDerivees(Long imageSourceId, TypeImage typeImage);
+
+    /**
+     * Calculer la taille totale des fichiers image
+     * 
+     * @return Somme des tailles en octets
+     */
+    long sumTailleFichier();
+}
@@ -1,7 +1,10 @@
 package com.foodmanagement.dao;
 
+import com.foodmanagement.entity.Food;
 import com.foodmanagement.entity.Image;
+import com.foodmanagement.entity.Ingredient;
 import com.foodmanagement.enums.TypeImage;
+import com.foodmanagement.enums.VarianteImage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -49,17 +52,33 @@ public class ImageDaoImpl implements ImageDao {
             image.setDateUpload(timestamp.toLocalDateTime());
         }
         
-        // Gestion des clés étrangères optionnelles
-        Long foodId = rs.getLong("food_id");
+        // Gestion des clés étrangères optionnelles : objets minimaux portant seulement l'ID
+        long foodId = rs.getLong("food_id");
         if (!rs.wasNull()) {
-            // Ici on pourrait créer un objet Food basique, mais pour simplifier
-            // on ne stocke que l'ID dans un objet Food minimal
-            // Dans un vrai projet, on ferait probablement une jointure
+            Food food = new Food();
+            food.setId(foodId);
+            image.setFood(food);
         }
         
-        Long ingredientId = rs.getLong("ingredient_id");
+        long ingredientId = rs.getLong("ingredient_id");
         if (!rs.wasNull()) {
-            // Même chose pour l'ingrédient
+            Ingredient ingredient = new Ingredient();
+            ingredient.setId(ingredientId);
+            image.setIngredient(ingredient);
+        }
+
+        image.setEmpreinte(rs.getString("empreinte"));
+        image.setLargeur((Integer) rs.getObject("largeur"));
+        image.setHauteur((Integer) rs.getObject("hauteur"));
+
+        String varianteStr = rs.getString("variante");
+        if (varianteStr != null) {
+            image.setVariante(VarianteImage.valueOf(varianteStr));
+        }
+
+        long imageSourceId = rs.getLong("image_source_id");
+        if (!rs.wasNull()) {
+            image.setImageSourceId(imageSourceId);
         }
         
         return image;
@@ -71,7 +90,8 @@ public class ImageDaoImpl implements ImageDao {
     @Override
     public Image create(Image image) {
         String sql = "INSERT INTO image (nom_fichier, chemin_fichier, type_image, taille_fichier, " +
-                     "food_id, ingredient_id, date_upload) VALUES (?, ?, ?, ?, ?, ?, ?)";
+                     "food_id, ingredient_id, date_upload, variante, image_source_id, empreinte, largeur, hauteur) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
         KeyHolder keyHolder = new GeneratedKeyHolder();
 
@@ -96,6 +116,16 @@ public class ImageDaoImpl implements ImageDao {
             }
             
             ps.setTimestamp(7, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setString(8, image.getVariante() != null ? image.getVariante().name() : VarianteImage.ORIGINALE.name());
+            
+            if (image.getImageSourceId() != null) {
+                ps.setLong(9, image.getImageSourceId());
+            } else {
+                ps.setNull(9, java.sql.Types.BIGINT);
+            }
+            ps.setString(10, image.getEmpreinte());
+            ps.setObject(11, image.getLargeur(), java.sql.Types.INTEGER);
+            ps.setObject(12, image.getHauteur(), java.sql.Types.INTEGER);
             return ps;
         }, keyHolder);
 
@@ -112,7 +142,7 @@ public class ImageDaoImpl implements ImageDao {
     @Override
     public Optional<Image> findById(Long id) {
         String sql = "SELECT id, nom_fichier, chemin_fichier, type_image, taille_fichier, " +
-                     "food_id, ingredient_id, date_upload FROM image WHERE id = ?";
+                     "food_id, ingredient_id, date_upload, variante, image_source_id, empreinte, largeur, hauteur FROM image WHERE id = ?";
 
         try {
             Image image = jdbcTemplate.queryForObject(sql, imageRowMapper, id);
@@ -128,7 +158,7 @@ public class ImageDaoImpl implements ImageDao {
     @Override
     public Optional<Image> findByNomFichier(String nomFichier) {
         String sql = "SELECT id, nom_fichier, chemin_fichier, type_image, taille_fichier, " +
-                     "food_id, ingredient_id, date_upload FROM image WHERE nom_fichier = ?";
+                     "food_id, ingredient_id, date_upload, variante, image_source_id, empreinte, largeur, hauteur FROM image WHERE nom_fichier = ?";
 
         try {
             Image image = jdbcTemplate.queryForObject(sql, imageRowMapper, nomFichier);
@@ -144,7 +174,7 @@ public class ImageDaoImpl implements ImageDao {
     @Override
     public List<Image> findAll() {
         String sql = "SELECT id, nom_fichier, chemin_fichier, type_image, taille_fichier, " +
-                     "food_id, ingredient_id, date_upload FROM image ORDER BY date_upload DESC";
+                     "food_id, ingredient_id, date_upload, variante, image_source_id, empreinte, largeur, hauteur FROM image ORDER BY date_upload DESC";
 
         return jdbcTemplate.query(sql, imageRowMapper);
     }
@@ -155,7 +185,7 @@ public class ImageDaoImpl implements ImageDao {
     @Override
     public List<Image> findByTypeImage(TypeImage typeImage) {
         String sql = "SELECT id, nom_fichier, chemin_fichier, type_image, taille_fichier, " +
-                     "food_id, ingredient_id, date_upload FROM image WHERE type_image = ? " +
+                     "food_id, ingredient_id, date_upload, variante, image_source_id, empreinte, largeur, hauteur FROM image WHERE type_image = ? " +
                      "ORDER BY date_upload DESC";
 
         return jdbcTemplate.query(sql, imageRowMapper, typeImage.name());
@@ -167,7 +197,7 @@ public class ImageDaoImpl implements ImageDao {
     @Override
     public List<Image> findByFoodId(Long foodId) {
         String sql = "SELECT id, nom_fichier, chemin_fichier, type_image, taille_fichier, " +
-                     "food_id, ingredient_id, date_upload FROM image WHERE food_id = ? " +
+                     "food_id, ingredient_id, date_upload, variante, image_source_id, empreinte, largeur, hauteur FROM image WHERE food_id = ? " +
                      "ORDER BY date_upload DESC";
 
         return jdbcTemplate.query(sql, imageRowMapper, foodId);
@@ -179,8 +209,8 @@ public class ImageDaoImpl implements ImageDao {
     @Override
     public Optional<Image> findMainImageByFoodId(Long foodId) {
         String sql = "SELECT id, nom_fichier, chemin_fichier, type_image, taille_fichier, " +
-                     "food_id, ingredient_id, date_upload FROM image " +
-                     "WHERE food_id = ? AND type_image = 'PRINCIPALE'";
+                     "food_id, ingredient_id, date_upload, variante, image_source_id, empreinte, largeur, hauteur FROM image " +
+                     "WHERE food_id = ? AND type_image = 'PRINCIPALE' AND variante = 'ORIGINALE'";
 
         try {
             Image image = jdbcTemplate.queryForObject(sql, imageRowMapper, foodId);
@@ -196,7 +226,8 @@ public class ImageDaoImpl implements ImageDao {
     @Override
     public Optional<Image> findByIngredientId(Long ingredientId) {
         String sql = "SELECT id, nom_fichier, chemin_fichier, type_image, taille_fichier, " +
-                     "food_id, ingredient_id, date_upload FROM image WHERE ingredient_id = ?";
+                     "food_id, ingredient_id, date_upload, variante, image_source_id, empreinte, largeur, hauteur FROM image " +
+                     "WHERE ingredient_id = ? AND variante = 'ORIGINALE'";
 
         try {
             Image image = jdbcTemplate.queryForObject(sql, imageRowMapper, ingredientId);
@@ -234,6 +265,7 @@ public class ImageDaoImpl implements ImageDao {
      */
     @Override
     public boolean deleteById(Long id) {
+        libererFichiers("id = ?", id);
         String sql = "DELETE FROM image WHERE id = ?";
         int rowsAffected = jdbcTemplate.update(sql, id);
         return rowsAffected > 0;
@@ -244,10 +276,37 @@ public class ImageDaoImpl implements ImageDao {
      */
     @Override
     public int deleteByFoodId(Long foodId) {
+        libererFichiers("food_id = ?", foodId);
         String sql = "DELETE FROM image WHERE food_id = ?";
         return jdbcTemplate.update(sql, foodId);
     }
 
+    /**
+     * Supprimer les images d'un ingrédient
+     */
+    @Override
+    public int deleteByIngredientId(Long ingredientId) {
+        libererFichiers("ingredient_id = ?", ingredientId);
+        String sql = "DELETE FROM image WHERE ingredient_id = ?";
+        return jdbcTemplate.update(sql, ingredientId);
+    }
+
+    /**
+     * Décrémenter le compteur des fichiers partagés par les originales sur le point d'être supprimées
+     * Un fichier dont le compteur tombe à zéro est daté pour le balayage
+     * À exécuter dans la même transaction que la suppression
+     */
+    private void libererFichiers(String condition, Object... parametres) {
+        String sql = "UPDATE fichier_image f SET " +
+                     "nombre_references = GREATEST(f.nombre_references - s.nombre, 0), " +
+                     "date_liberation = CASE WHEN f.nombre_references - s.nombre <= 0 THEN CURRENT_TIMESTAMP END " +
+                     "FROM (SELECT empreinte, COUNT(*) AS nombre FROM image " +
+                     "      WHERE " + condition + " AND variante = 'ORIGINALE' AND empreinte IS NOT NULL " +
+                     "      GROUP BY empreinte) s " +
+                     "WHERE f.empreinte = s.empreinte";
+        jdbcTemplate.update(sql, parametres);
+    }
+
     /**
      * Vérifier si un nom de fichier existe
      */
@@ -274,7 +333,7 @@ public class ImageDaoImpl implements ImageDao {
     @Override
     public List<Image> findByTailleFichierBetween(Long tailleMin, Long tailleMax) {
         String sql = "SELECT id, nom_fichier, chemin_fichier, type_image, taille_fichier, " +
-                     "food_id, ingredient_id, date_upload FROM image " +
+                     "food_id, ingredient_id, date_upload, variante, image_source_id, empreinte, largeur, hauteur FROM image " +
                      "WHERE taille_fichier BETWEEN ? AND ? ORDER BY taille_fichier";
 
         return jdbcTemplate.query(sql, imageRowMapper, tailleMin, tailleMax);
@@ -286,7 +345,7 @@ public class ImageDaoImpl implements ImageDao {
     @Override
     public List<Image> findByDateUploadBetween(LocalDateTime dateDebut, LocalDateTime dateFin) {
         String sql = "SELECT id, nom_fichier, chemin_fichier, type_image, taille_fichier, " +
-                     "food_id, ingredient_id, date_upload FROM image " +
+                     "food_id, ingredient_id, date_upload, variante, image_source_id, empreinte, largeur, hauteur FROM image " +
                      "WHERE date_upload BETWEEN ? AND ? ORDER BY date_upload DESC";
 
         Timestamp timestampDebut = Timestamp.valueOf(dateDebut);
@@ -294,4 +353,35 @@ public class ImageDaoImpl implements ImageDao {
 
         return jdbcTemplate.query(sql, imageRowMapper, timestampDebut, timestampFin);
     }
-}
\ No newline at end of file
+
+    /**
+     * Rechercher les dérivées d'une image originale
+     */
+    @Override
+    public List<Image> findDerivees(Long imageSourceId) {
+        String sql = "SELECT id, nom_fichier, chemin_fichier, type_image, taille_fichier, " +
+                     "food_id, ingredient_id, date_upload, variante, image_source_id, empreinte, largeur, hauteur FROM image " +
+                     "WHERE image_source_id = ? ORDER BY variante";
+
+        return jdbcTemplate.query(sql, imageRowMapper, imageSourceId);
+    }
+
+    /**
+     * Aligner le type des dérivées web sur celui de leur originale
+     */
+    @Override
+    public int updateTypeDerivees(Long imageSourceId, TypeImage typeImage) {
+        String sql = "UPDATE image SET type_image = ? WHERE image_source_id = ? AND variante = 'WEB'";
+        return jdbcTemplate.update(sql, typeImage.name(), imageSourceId);
+    }
+
+    /**
+     * Taille totale des fichiers image
+     */
+    @Override
+    public long sumTailleFichier() {
+        String sql = "SELECT COALESCE(SUM(taille_fichier), 0) FROM image";
+        Long total = jdbcTemplate.queryForObject(sql, Long.class);
+        return total != null ? total : 0L;
+    }
+}
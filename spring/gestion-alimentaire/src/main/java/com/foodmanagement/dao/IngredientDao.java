@@ -2,8 +2,10 @@ package com.foodmanagement.dao;
 
 import com.foodmanagement.entity.Ingredient;
 import com.foodmanagement.enums.TypeIngredient;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Interface DAO pour l'entité Ingredient
@@ -27,6 +29,15 @@ public interface IngredientDao {
      */
     Optional<Ingredient> findById(Long id);
 
+    /**
+     * Rechercher, parmi une liste d'IDs, ceux qui existent en base
+     * Une seule requête quel que soit le nombre d'IDs
+     * 
+     * @param ids IDs à vérifier
+     * @return Sous-ensemble des IDs existants
+     */
+    Set<Long> findIdsExistants(Collection<Long> ids);
+
     /**
      * Rechercher un ingrédient par nom exact
      * 
@@ -112,4 +123,28 @@ public interface IngredientDao {
      * @return Liste des ingrédients utilisés
      */
     List<Ingredient> findIngredientsUsedInFoods();
-}
\ No newline at end of file
+
+    /**
+     * Rechercher des ingrédients utilisés dans aucun aliment
+     * 
+     * @return Liste des ingrédients non utilisés
+     */
+    List<Ingredient> findIngredientsNotUsedInFoods();
+
+    /**
+     * Rechercher les ingrédients les plus utilisés dans les aliments
+     * 
+     * @param limite Nombre maximum d'ingrédients
+     * @return Ingrédients triés par nombre d'aliments décroissant
+     */
+    List<Ingredient> findMostUsed(int limite);
+
+    /**
+     * Rechercher une page d'ingrédients par ID croissant (pagination par curseur)
+     * 
+     * @param apresId Dernier ID de la page précédente (null pour la première page)
+     * @param taille Nombre maximum d'ingrédients
+     * @return Ingrédients d'ID strictement supérieur au curseur
+     */
+    List<Ingredient> findPageApres(Long apresId, int taille);
+}
@@ -2,6 +2,7 @@ package com.foodmanagement.dao;
 
 import com.foodmanagement.entity.Ingredient;
 import com.foodmanagement.enums.TypeIngredient;
+import com.foodmanagement.enums.UniteBase;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -13,9 +14,14 @@ import org.springframework.stereotype.Repository;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Implémentation JDBC de IngredientDao
@@ -43,6 +49,16 @@ public class IngredientDaoImpl implements IngredientDao {
         
         ingredient.setQuantite(rs.getDouble("quantite"));
         ingredient.setUnite(rs.getString("unite"));
+
+        // Quantité normalisée (absente pour les lignes pas encore rattrapées)
+        String uniteBase = rs.getString("unite_base");
+        if (uniteBase != null) {
+            ingredient.setUniteBase(UniteBase.valueOf(uniteBase));
+            double quantiteBase = rs.getDouble("quantite_base");
+            ingredient.setQuantiteBase(rs.wasNull() ? null : quantiteBase);
+        }
+        double densite = rs.getDouble("densite");
+        ingredient.setDensite(rs.wasNull() ? null : densite);
         
         // Conversion Timestamp -> LocalDateTime
         Timestamp timestamp = rs.getTimestamp("date_creation");
@@ -58,8 +74,8 @@ public class IngredientDaoImpl implements IngredientDao {
      */
     @Override
     public Ingredient create(Ingredient ingredient) {
-        String sql = "INSERT INTO ingredient (nom, description, type, quantite, unite, date_creation) " +
-                     "VALUES (?, ?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO ingredient (nom, description, type, quantite, unite, unite_base, quantite_base, " +
+                     "densite, date_creation) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
         KeyHolder keyHolder = new GeneratedKeyHolder();
 
@@ -70,7 +86,10 @@ public class IngredientDaoImpl implements IngredientDao {
             ps.setString(3, ingredient.getType().name()); // Enum -> String
             ps.setDouble(4, ingredient.getQuantite() != null ? ingredient.getQuantite() : 0.0);
             ps.setString(5, ingredient.getUnite());
-            ps.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setString(6, ingredient.getUniteBase() != null ? ingredient.getUniteBase().name() : null);
+            ps.setObject(7, ingredient.getQuantiteBase(), Types.DOUBLE);
+            ps.setObject(8, ingredient.getDensite(), Types.DOUBLE);
+            ps.setTimestamp(9, Timestamp.valueOf(LocalDateTime.now()));
             return ps;
         }, keyHolder);
 
@@ -86,7 +105,7 @@ public class IngredientDaoImpl implements IngredientDao {
      */
     @Override
     public Optional<Ingredient> findById(Long id) {
-        String sql = "SELECT id, nom, description, type, quantite, unite, date_creation " +
+        String sql = "SELECT id, nom, description, type, quantite, unite, unite_base, quantite_base, densite, date_creation " +
                      "FROM ingredient WHERE id = ?";
 
         try {
@@ -97,12 +116,27 @@ public class IngredientDaoImpl implements IngredientDao {
         }
     }
 
+    /**
+     * Rechercher, parmi une liste d'IDs, ceux qui existent en base
+     */
+    @Override
+    public Set<Long> findIdsExistants(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        String sql = "SELECT id FROM ingredient WHERE id IN (" + placeholders + ")";
+
+        return new HashSet<>(jdbcTemplate.queryForList(sql, Long.class, ids.toArray()));
+    }
+
     /**
      * Rechercher un ingrédient par nom exact
      */
     @Override
     public Optional<Ingredient> findByNom(String nom) {
-        String sql = "SELECT id, nom, description, type, quantite, unite, date_creation " +
+        String sql = "SELECT id, nom, description, type, quantite, unite, unite_base, quantite_base, densite, date_creation " +
                      "FROM ingredient WHERE nom = ?";
 
         try {
@@ -118,7 +152,7 @@ public class IngredientDaoImpl implements IngredientDao {
      */
     @Override
     public List<Ingredient> findAll() {
-        String sql = "SELECT id, nom, description, type, quantite, unite, date_creation " +
+        String sql = "SELECT id, nom, description, type, quantite, unite, unite_base, quantite_base, densite, date_creation " +
                      "FROM ingredient ORDER BY nom";
 
         return jdbcTemplate.query(sql, ingredientRowMapper);
@@ -129,7 +163,7 @@ public class IngredientDaoImpl implements IngredientDao {
      */
     @Override
     public List<Ingredient> findByNomContaining(String nom) {
-        String sql = "SELECT id, nom, description, type, quantite, unite, date_creation " +
+        String sql = "SELECT id, nom, description, type, quantite, unite, unite_base, quantite_base, densite, date_creation " +
                      "FROM ingredient WHERE UPPER(nom) LIKE UPPER(?) ORDER BY nom";
 
         String searchPattern = "%" + nom + "%";
@@ -141,7 +175,7 @@ public class IngredientDaoImpl implements IngredientDao {
      */
     @Override
     public List<Ingredient> findByType(TypeIngredient type) {
-        String sql = "SELECT id, nom, description, type, quantite, unite, date_creation " +
+        String sql = "SELECT id, nom, description, type, quantite, unite, unite_base, quantite_base, densite, date_creation " +
                      "FROM ingredient WHERE type = ? ORDER BY nom";
 
         return jdbcTemplate.query(sql, ingredientRowMapper, type.name());
@@ -152,7 +186,7 @@ public class IngredientDaoImpl implements IngredientDao {
      */
     @Override
     public List<Ingredient> findByUnite(String unite) {
-        String sql = "SELECT id, nom, description, type, quantite, unite, date_creation " +
+        String sql = "SELECT id, nom, description, type, quantite, unite, unite_base, quantite_base, densite, date_creation " +
                      "FROM ingredient WHERE unite = ? ORDER BY nom";
 
         return jdbcTemplate.query(sql, ingredientRowMapper, unite);
@@ -163,8 +197,8 @@ public class IngredientDaoImpl implements IngredientDao {
      */
     @Override
     public Ingredient update(Ingredient ingredient) {
-        String sql = "UPDATE ingredient SET nom = ?, description = ?, type = ?, quantite = ?, unite = ? " +
-                     "WHERE id = ?";
+        String sql = "UPDATE ingredient SET nom = ?, description = ?, type = ?, quantite = ?, unite = ?, " +
+                     "unite_base = ?, quantite_base = ?, densite = ? WHERE id = ?";
 
         int rowsAffected = jdbcTemplate.update(sql,
             ingredient.getNom(),
@@ -172,6 +206,9 @@ public class IngredientDaoImpl implements IngredientDao {
             ingredient.getType().name(),
             ingredient.getQuantite(),
             ingredient.getUnite(),
+            ingredient.getUniteBase() != null ? ingredient.getUniteBase().name() : null,
+            ingredient.getQuantiteBase(),
+            ingredient.getDensite(),
             ingredient.getId()
         );
 
@@ -217,7 +254,7 @@ public class IngredientDaoImpl implements IngredientDao {
      */
     @Override
     public List<Ingredient> findByQuantiteBetween(Double quantiteMin, Double quantiteMax) {
-        String sql = "SELECT id, nom, description, type, quantite, unite, date_creation " +
+        String sql = "SELECT id, nom, description, type, quantite, unite, unite_base, quantite_base, densite, date_creation " +
                      "FROM ingredient WHERE quantite BETWEEN ? AND ? ORDER BY quantite";
 
         return jdbcTemplate.query(sql, ingredientRowMapper, quantiteMin, quantiteMax);
@@ -229,11 +266,50 @@ public class IngredientDaoImpl implements IngredientDao {
      */
     @Override
     public List<Ingredient> findIngredientsUsedInFoods() {
-        String sql = "SELECT DISTINCT i.id, i.nom, i.description, i.type, i.quantite, i.unite, i.date_creation " +
+        String sql = "SELECT DISTINCT i.id, i.nom, i.description, i.type, i.quantite, i.unite, i.unite_base, i.quantite_base, i.densite, i.date_creation " +
                      "FROM ingredient i " +
                      "INNER JOIN food_ingredient fi ON i.id = fi.ingredient_id " +
                      "ORDER BY i.nom";
 
         return jdbcTemplate.query(sql, ingredientRowMapper);
     }
-}
\ No newline at end of file
+
+    /**
+     * Rechercher des ingrédients utilisés dans aucun aliment
+     */
+    @Override
+    public List<Ingredient> findIngredientsNotUsedInFoods() {
+        String sql = "SELECT i.id, i.nom, i.description, i.type, i.quantite, i.unite, i.unite_base, i.quantite_base, i.densite, i.date_creation " +
+                     "FROM ingredient i " +
+                     "WHERE NOT EXISTS (SELECT 1 FROM food_ingredient fi WHERE fi.ingredient_id = i.id) " +
+                     "ORDER BY i.nom";
+
+        return jdbcTemplate.query(sql, ingredientRowMapper);
+    }
+
+    /**
+     * Rechercher les ingrédients les plus utilisés dans les aliments
+     */
+    @Override
+    public List<Ingredient> findMostUsed(int limite) {
+        String sql = "SELECT i.id, i.nom, i.description, i.type, i.quantite, i.unite, i.unite_base, i.quantite_base, i.densite, i.date_creation " +
+                     "FROM ingredient i " +
+                     "INNER JOIN food_ingredient fi ON i.id = fi.ingredient_id " +
+                     "GROUP BY i.id, i.nom, i.description, i.type, i.quantite, i.unite, i.unite_base, i.quantite_base, i.densite, i.date_creation " +
+                     "ORDER BY COUNT(fi.food_id) DESC, i.nom " +
+                     "LIMIT ?";
+
+        return jdbcTemplate.query(sql, ingredientRowMapper, limite);
+    }
+
+    /**
+     * Rechercher une page d'ingrédients par ID croissant
+     */
+    @Override
+    public List<Ingredient> findPageApres(Long apresId, int taille) {
+        String sql = "SELECT id, nom, description, type, quantite, unite, unite_base, quantite_base, densite, date_creation " +
+                     "FROM ingredient WHERE id > ? ORDER BY id LIMIT ?";
+
+        return jdbcTemplate.query(sql, ingredientRowMapper, apresId != null ? apresId : 0L, taille);
+    }
+}
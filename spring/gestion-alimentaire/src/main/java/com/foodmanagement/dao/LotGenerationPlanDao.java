@@ -0,0 +1,59 @@
+package com.foodmanagement.dao;
+
+import com.foodmanagement.entity.LotGenerationPlan;
+import com.foodmanagement.enums.StatutGeneration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Interface DAO pour les lots de génération de plans
+ * (tables generation_plan_lot et generation_plan_lot_personne)
+ */
+public interface LotGenerationPlanDao {
+
+    /**
+     * Créer un lot et inscrire sa cohorte (personnes inexistantes ignorées)
+     * 
+     * @param dateDebut Premier jour des plans
+     * @param nombreJours Nombre de jours des plans
+     * @param personneIds IDs des personnes, null pour toutes les personnes
+     * @return Lot créé, avec le nombre de personnes inscrites
+     */
+    LotGenerationPlan creer(LocalDate dateDebut, int nombreJours, Collection<Long> personneIds);
+
+    /**
+     * Rechercher un lot par son ID
+     */
+    Optional<LotGenerationPlan> findById(Long id);
+
+    /**
+     * Rechercher les lots d'un statut, du plus ancien au plus récent
+     */
+    List<LotGenerationPlan> findByStatut(StatutGeneration statut);
+
+    /**
+     * IDs des personnes d'un lot restant à traiter (sans limite de lignes)
+     */
+    List<Long> findPersonnesEnAttente(Long lotId);
+
+    /**
+     * Personnes en échec d'un lot et cause de l'échec
+     */
+    Map<Long, String> findEchecs(Long lotId, int limite);
+
+    /**
+     * Enregistrer le résultat d'un paquet : statut des personnes et compteurs du lot
+     * 
+     * @param generees Personnes dont le plan a été écrit
+     * @param echecs Personnes en échec et cause
+     */
+    void enregistrerResultats(Long lotId, Collection<Long> generees, Map<Long, String> echecs);
+
+    /**
+     * Clore un lot (statut final et date de fin)
+     */
+    void terminer(Long lotId, StatutGeneration statut);
+}
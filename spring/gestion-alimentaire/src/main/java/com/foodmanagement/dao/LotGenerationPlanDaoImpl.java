@@ -0,0 +1,171 @@
+package com.foodmanagement.dao;
+
+import com.foodmanagement.entity.LotGenerationPlan;
+import com.foodmanagement.enums.StatutGeneration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implémentation JDBC de LotGenerationPlanDao
+ * Les cohortes (plusieurs milliers de personnes) passent en un seul tableau SQL (= ANY(?))
+ */
+@Repository
+public class LotGenerationPlanDaoImpl implements LotGenerationPlanDao {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * JdbcTemplate sans limite de lignes (une cohorte dépasse le plafond du template global)
+     */
+    @Autowired
+    @Qualifier("jdbcTemplateSansLimite")
+    private JdbcTemplate jdbcTemplateLecture;
+
+    private final RowMapper<LotGenerationPlan> lotRowMapper = new LotRowMapper();
+
+    /**
+     * Créer un lot et inscrire sa cohorte
+     */
+    @Override
+    public LotGenerationPlan creer(LocalDate dateDebut, int nombreJours, Collection<Long> personneIds) {
+        Long lotId = jdbcTemplate.queryForObject(
+            "INSERT INTO generation_plan_lot (date_debut, nombre_jours, statut, date_creation) " +
+            "VALUES (?, ?, ?, ?) RETURNING id",
+            Long.class, Date.valueOf(dateDebut), nombreJours, StatutGeneration.EN_COURS.name(),
+            Timestamp.valueOf(LocalDateTime.now()));
+
+        if (personneIds == null) {
+            jdbcTemplate.update("INSERT INTO generation_plan_lot_personne (lot_id, personne_id, statut) " +
+                                "SELECT ?, id, 'EN_ATTENTE' FROM personne", lotId);
+        } else {
+            jdbcTemplate.update(connexion -> {
+                PreparedStatement ps = connexion.prepareStatement(
+                    "INSERT INTO generation_plan_lot_personne (lot_id, personne_id, statut) " +
+                    "SELECT ?, id, 'EN_ATTENTE' FROM personne WHERE id = ANY(?)");
+                ps.setLong(1, lotId);
+                ps.setArray(2, connexion.createArrayOf("bigint", personneIds.toArray()));
+                return ps;
+            });
+        }
+
+        jdbcTemplate.update("UPDATE generation_plan_lot SET nombre_personnes = " +
+                            "(SELECT COUNT(*) FROM generation_plan_lot_personne WHERE lot_id = ?) WHERE id = ?",
+                            lotId, lotId);
+        return findById(lotId)
+            .orElseThrow(() -> new RuntimeException("Erreur lors de la création du lot de génération"));
+    }
+
+    @Override
+    public Optional<LotGenerationPlan> findById(Long id) {
+        try {
+            return Optional.ofNullable(jdbcTemplate.queryForObject(
+                "SELECT * FROM generation_plan_lot WHERE id = ?", lotRowMapper, id));
+        } catch (EmptyResultDataAccessException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public List<LotGenerationPlan> findByStatut(StatutGeneration statut) {
+        return jdbcTemplate.query("SELECT * FROM generation_plan_lot WHERE statut = ? ORDER BY id",
+            lotRowMapper, statut.name());
+    }
+
+    /**
+     * Personnes restant à traiter, lues sur l'index partiel des lignes en attente
+     */
+    @Override
+    public List<Long> findPersonnesEnAttente(Long lotId) {
+        return jdbcTemplateLecture.queryForList(
+            "SELECT personne_id FROM generation_plan_lot_personne " +
+            "WHERE lot_id = ? AND statut = 'EN_ATTENTE' ORDER BY personne_id",
+            Long.class, lotId);
+    }
+
+    @Override
+    public Map<Long, String> findEchecs(Long lotId, int limite) {
+        Map<Long, String> echecs = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT personne_id, message FROM generation_plan_lot_personne " +
+                           "WHERE lot_id = ? AND statut = 'ECHEC' ORDER BY personne_id LIMIT ?",
+            rs -> { echecs.put(rs.getLong("personne_id"), rs.getString("message")); }, lotId, limite);
+        return echecs;
+    }
+
+    /**
+     * Enregistrer le résultat d'un paquet
+     * Une requête pour les plans écrits, un lot JDBC pour les échecs, une pour les compteurs
+     */
+    @Override
+    public void enregistrerResultats(Long lotId, Collection<Long> generees, Map<Long, String> echecs) {
+        if (!generees.isEmpty()) {
+            jdbcTemplate.update(connexion -> {
+                PreparedStatement ps = connexion.prepareStatement(
+                    "UPDATE generation_plan_lot_personne SET statut = 'TERMINE', message = NULL " +
+                    "WHERE lot_id = ? AND personne_id = ANY(?)");
+                ps.setLong(1, lotId);
+                ps.setArray(2, connexion.createArrayOf("bigint", generees.toArray()));
+                return ps;
+            });
+        }
+        if (!echecs.isEmpty()) {
+            List<Map.Entry<Long, String>> lignes = new ArrayList<>(echecs.entrySet());
+            jdbcTemplate.batchUpdate(
+                "UPDATE generation_plan_lot_personne SET statut = 'ECHEC', message = ? WHERE lot_id = ? AND personne_id = ?",
+                lignes, lignes.size(), (ps, echec) -> {
+                    String message = echec.getValue() != null ? echec.getValue() : "Erreur inconnue";
+                    ps.setString(1, message.length() > 255 ? message.substring(0, 255) : message);
+                    ps.setLong(2, lotId);
+                    ps.setLong(3, echec.getKey());
+                });
+        }
+        jdbcTemplate.update("UPDATE generation_plan_lot SET nombre_generees = nombre_generees + ?, " +
+                            "nombre_echecs = nombre_echecs + ? WHERE id = ?",
+                            generees.size(), echecs.size(), lotId);
+    }
+
+    @Override
+    public void terminer(Long lotId, StatutGeneration statut) {
+        jdbcTemplate.update("UPDATE generation_plan_lot SET statut = ?, date_fin = ? WHERE id = ?",
+            statut.name(), Timestamp.valueOf(LocalDateTime.now()), lotId);
+    }
+
+    /**
+     * RowMapper pour convertir les résultats SQL en objets LotGenerationPlan
+     */
+    private static class LotRowMapper implements RowMapper<LotGenerationPlan> {
+        @Override
+        public LotGenerationPlan mapRow(ResultSet rs, int rowNum) throws SQLException {
+            LotGenerationPlan lot = new LotGenerationPlan();
+            lot.setId(rs.getLong("id"));
+            lot.setDateDebut(rs.getDate("date_debut").toLocalDate());
+            lot.setNombreJours(rs.getInt("nombre_jours"));
+            lot.setStatut(StatutGeneration.valueOf(rs.getString("statut")));
+            lot.setNombrePersonnes(rs.getInt("nombre_personnes"));
+            lot.setNombreGenerees(rs.getInt("nombre_generees"));
+            lot.setNombreEchecs(rs.getInt("nombre_echecs"));
+            lot.setDateCreation(rs.getTimestamp("date_creation").toLocalDateTime());
+            Timestamp dateFin = rs.getTimestamp("date_fin");
+            lot.setDateFin(dateFin != null ? dateFin.toLocalDateTime() : null);
+            return lot;
+        }
+    }
+}
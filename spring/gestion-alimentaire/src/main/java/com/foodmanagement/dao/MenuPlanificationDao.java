@@ -0,0 +1,93 @@
+package com.foodmanagement.dao;
+
+import com.foodmanagement.entity.MenuPlanification;
+import com.foodmanagement.enums.TypeRepas;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Interface DAO pour les plans de repas (table menu_planification)
+ * Toutes les lectures portent sur une personne et une plage de dates :
+ * un seul parcours de l'index (personne_id, date_repas, ...)
+ */
+public interface MenuPlanificationDao {
+
+    /**
+     * Rechercher les lignes d'un plan sur une période, avec les données des aliments
+     * 
+     * @param personneId ID de la personne
+     * @param dateDebut Premier jour (inclus)
+     * @param dateFin Dernier jour (inclus)
+     * @return Lignes triées par date puis ordre d'ajout
+     */
+    List<MenuPlanification> findByPersonneIdAndPeriode(Long personneId, LocalDate dateDebut, LocalDate dateFin);
+
+    /**
+     * Ajouter un aliment à un repas, avec ses calories du moment
+     * ON CONFLICT DO NOTHING : un aliment déjà planifié dans ce repas n'est pas dupliqué
+     * 
+     * @return Calories enregistrées, vide si l'aliment était déjà planifié
+     */
+    Optional<Double> ajouter(Long personneId, LocalDate date, TypeRepas typeRepas, Long foodId);
+
+    /**
+     * Ajouter des lignes en un seul lot JDBC (lignes déjà présentes ignorées)
+     * 
+     * @param lignes Lignes à enregistrer (personne, date, type de repas, aliment et calories renseignés)
+     * @return Nombre de lignes soumises
+     */
+    int ajouterTous(List<MenuPlanification> lignes);
+
+    /**
+     * Retirer un aliment d'un repas
+     * 
+     * @return Calories enregistrées pour la ligne supprimée, vide si elle n'existait pas
+     */
+    Optional<Double> supprimer(Long personneId, LocalDate date, TypeRepas typeRepas, Long foodId);
+
+    /**
+     * Supprimer le plan d'une personne sur une période
+     * 
+     * @return Nombre de lignes supprimées
+     */
+    int deleteByPersonneIdAndPeriode(Long personneId, LocalDate dateDebut, LocalDate dateFin);
+
+    /**
+     * Supprimer les plans de plusieurs personnes sur une période (une seule requête)
+     * 
+     * @return Nombre de lignes supprimées
+     */
+    int deleteByPersonneIdsAndPeriode(Collection<Long> personneIds, LocalDate dateDebut, LocalDate dateFin);
+
+    /**
+     * Copier le plan d'une période vers une autre, décalé d'un nombre de jours
+     * Une seule requête INSERT ... SELECT (lignes déjà présentes ignorées)
+     * 
+     * @param personneId ID de la personne
+     * @param dateDebut Premier jour copié (inclus)
+     * @param dateFin Dernier jour copié (inclus)
+     * @param decalageJours Décalage appliqué aux dates copiées
+     * @return Nombre de lignes copiées
+     */
+    int copierPeriode(Long personneId, LocalDate dateDebut, LocalDate dateFin, long decalageJours);
+
+    /**
+     * Aliments les plus planifiés sur une période
+     * 
+     * @return Nom de l'aliment → nombre d'apparitions, du plus fréquent au moins fréquent
+     */
+    Map<String, Integer> compterParAliment(Long personneId, LocalDate dateDebut, LocalDate dateFin, int limite);
+
+    /**
+     * Nombre de repas (jour et type de repas) contenant au moins un aliment sur une période
+     */
+    int compterRepas(Long personneId, LocalDate dateDebut, LocalDate dateFin);
+
+    /**
+     * Nombre d'aliments planifiés par type de repas sur une période
+     */
+    Map<TypeRepas, Integer> compterParTypeRepas(Long personneId, LocalDate dateDebut, LocalDate dateFin);
+}
@@ -0,0 +1,238 @@
+package com.foodmanagement.dao;
+
+import com.foodmanagement.entity.Food;
+import com.foodmanagement.entity.MenuPlanification;
+import com.foodmanagement.entity.Personne;
+import com.foodmanagement.enums.CategorieFood;
+import com.foodmanagement.enums.TypeRepas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implémentation JDBC de MenuPlanificationDao
+ */
+@Repository
+public class MenuPlanificationDaoImpl implements MenuPlanificationDao {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * JdbcTemplate sans limite de lignes pour les lectures de période
+     * (une année de plan dépasse le plafond du template global)
+     */
+    @Autowired
+    @Qualifier("jdbcTemplateSansLimite")
+    private JdbcTemplate jdbcTemplateLecture;
+
+    /**
+     * Rechercher les lignes d'un plan sur une période
+     * Un aliment présent plusieurs fois dans la période n'est instancié qu'une fois
+     */
+    @Override
+    public List<MenuPlanification> findByPersonneIdAndPeriode(Long personneId, LocalDate dateDebut, LocalDate dateFin) {
+        String sql = "SELECT mp.id, mp.date_repas, mp.type_repas, mp.calories, mp.date_creation, mp.food_id, " +
+                     "f.nom as food_nom, f.categorie as food_categorie, f.calories as food_calories, " +
+                     "f.prix as food_prix, f.calories_totales as food_calories_totales " +
+                     "FROM menu_planification mp " +
+                     "JOIN food f ON mp.food_id = f.id " +
+                     "WHERE mp.personne_id = ? AND mp.date_repas BETWEEN ? AND ? " +
+                     "ORDER BY mp.date_repas, mp.id";
+
+        Personne personne = new Personne();
+        personne.setId(personneId);
+        Map<Long, Food> aliments = new HashMap<>();
+        List<MenuPlanification> lignes = new ArrayList<>();
+
+        jdbcTemplateLecture.query(sql, rs -> {
+            Food food = aliments.get(rs.getLong("food_id"));
+            if (food == null) {
+                food = new Food();
+                food.setId(rs.getLong("food_id"));
+                food.setNom(rs.getString("food_nom"));
+                food.setCategorie(CategorieFood.valueOf(rs.getString("food_categorie")));
+                food.setCalories(rs.getDouble("food_calories"));
+                food.setPrix(rs.getDouble("food_prix"));
+                double caloriesTotales = rs.getDouble("food_calories_totales");
+                food.setCaloriesTotales(rs.wasNull() ? null : caloriesTotales);
+                aliments.put(food.getId(), food);
+            }
+
+            MenuPlanification ligne = new MenuPlanification(personne, rs.getDate("date_repas").toLocalDate(),
+                TypeRepas.valueOf(rs.getString("type_repas")), food);
+            ligne.setId(rs.getLong("id"));
+            ligne.setCalories(rs.getDouble("calories"));
+            Timestamp dateCreation = rs.getTimestamp("date_creation");
+            if (dateCreation != null) {
+                ligne.setDateCreation(dateCreation.toLocalDateTime());
+            }
+            lignes.add(ligne);
+        }, personneId, Date.valueOf(dateDebut), Date.valueOf(dateFin));
+
+        return lignes;
+    }
+
+    /**
+     * Ajouter un aliment à un repas
+     * Calories lues sur l'aliment dans la même requête (agrégat de recette, à défaut pour 100g)
+     */
+    @Override
+    public Optional<Double> ajouter(Long personneId, LocalDate date, TypeRepas typeRepas, Long foodId) {
+        String sql = "INSERT INTO menu_planification (personne_id, date_repas, type_repas, food_id, calories, date_creation) " +
+                     "SELECT ?, ?, ?, f.id, COALESCE(f.calories_totales, f.calories, 0), ? FROM food f WHERE f.id = ? " +
+                     "ON CONFLICT (personne_id, date_repas, type_repas, food_id) DO NOTHING " +
+                     "RETURNING calories";
+
+        List<Double> calories = jdbcTemplate.queryForList(sql, Double.class, personneId, Date.valueOf(date),
+            typeRepas.name(), Timestamp.valueOf(LocalDateTime.now()), foodId);
+        return calories.stream().findFirst();
+    }
+
+    /**
+     * Ajouter des lignes en un seul lot JDBC
+     */
+    @Override
+    public int ajouterTous(List<MenuPlanification> lignes) {
+        if (lignes.isEmpty()) {
+            return 0;
+        }
+
+        String sql = "INSERT INTO menu_planification (personne_id, date_repas, type_repas, food_id, calories, date_creation) " +
+                     "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (personne_id, date_repas, type_repas, food_id) DO NOTHING";
+        Timestamp maintenant = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(sql, lignes, lignes.size(), (ps, ligne) -> {
+            ps.setLong(1, ligne.getPersonne().getId());
+            ps.setDate(2, Date.valueOf(ligne.getDateRepas()));
+            ps.setString(3, ligne.getTypeRepas().name());
+            ps.setLong(4, ligne.getFood().getId());
+            ps.setDouble(5, ligne.getCalories() != null ? ligne.getCalories() : 0.0);
+            ps.setTimestamp(6, maintenant);
+        });
+
+        return lignes.size();
+    }
+
+    /**
+     * Retirer un aliment d'un repas
+     */
+    @Override
+    public Optional<Double> supprimer(Long personneId, LocalDate date, TypeRepas typeRepas, Long foodId) {
+        String sql = "DELETE FROM menu_planification " +
+                     "WHERE personne_id = ? AND date_repas = ? AND type_repas = ? AND food_id = ? " +
+                     "RETURNING calories";
+
+        List<Double> calories = jdbcTemplate.queryForList(sql, Double.class, personneId, Date.valueOf(date),
+            typeRepas.name(), foodId);
+        return calories.stream().findFirst();
+    }
+
+    /**
+     * Supprimer le plan d'une personne sur une période
+     */
+    @Override
+    public int deleteByPersonneIdAndPeriode(Long personneId, LocalDate dateDebut, LocalDate dateFin) {
+        String sql = "DELETE FROM menu_planification WHERE personne_id = ? AND date_repas BETWEEN ? AND ?";
+        return jdbcTemplate.update(sql, personneId, Date.valueOf(dateDebut), Date.valueOf(dateFin));
+    }
+
+    /**
+     * Supprimer les plans de plusieurs personnes sur une période
+     */
+    @Override
+    public int deleteByPersonneIdsAndPeriode(Collection<Long> personneIds, LocalDate dateDebut, LocalDate dateFin) {
+        if (personneIds.isEmpty()) {
+            return 0;
+        }
+        String sql = "DELETE FROM menu_planification WHERE personne_id = ANY(?) AND date_repas BETWEEN ? AND ?";
+        return jdbcTemplate.update(connexion -> {
+            PreparedStatement ps = connexion.prepareStatement(sql);
+            ps.setArray(1, connexion.createArrayOf("bigint", personneIds.toArray()));
+            ps.setDate(2, Date.valueOf(dateDebut));
+            ps.setDate(3, Date.valueOf(dateFin));
+            return ps;
+        });
+    }
+
+    /**
+     * Copier le plan d'une période vers une autre
+     */
+    @Override
+    public int copierPeriode(Long personneId, LocalDate dateDebut, LocalDate dateFin, long decalageJours) {
+        String sql = "INSERT INTO menu_planification (personne_id, date_repas, type_repas, food_id, calories, date_creation) " +
+                     "SELECT personne_id, date_repas + ?::integer, type_repas, food_id, calories, ? " +
+                     "FROM menu_planification " +
+                     "WHERE personne_id = ? AND date_repas BETWEEN ? AND ? " +
+                     "ORDER BY date_repas, id " +
+                     "ON CONFLICT (personne_id, date_repas, type_repas, food_id) DO NOTHING";
+
+        return jdbcTemplate.update(sql, Math.toIntExact(decalageJours), Timestamp.valueOf(LocalDateTime.now()),
+            personneId, Date.valueOf(dateDebut), Date.valueOf(dateFin));
+    }
+
+    /**
+     * Aliments les plus planifiés sur une période
+     */
+    @Override
+    public Map<String, Integer> compterParAliment(Long personneId, LocalDate dateDebut, LocalDate dateFin, int limite) {
+        String sql = "SELECT f.nom, COUNT(*) as nombre " +
+                     "FROM menu_planification mp " +
+                     "JOIN food f ON mp.food_id = f.id " +
+                     "WHERE mp.personne_id = ? AND mp.date_repas BETWEEN ? AND ? " +
+                     "GROUP BY f.id, f.nom " +
+                     "ORDER BY nombre DESC, f.nom " +
+                     "LIMIT ?";
+
+        Map<String, Integer> comptes = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            comptes.merge(rs.getString("nom"), rs.getInt("nombre"), Integer::sum);
+        }, personneId, Date.valueOf(dateDebut), Date.valueOf(dateFin), limite);
+        return comptes;
+    }
+
+    /**
+     * Nombre de repas non vides sur une période
+     */
+    @Override
+    public int compterRepas(Long personneId, LocalDate dateDebut, LocalDate dateFin) {
+        String sql = "SELECT COUNT(DISTINCT (date_repas, type_repas)) FROM menu_planification " +
+                     "WHERE personne_id = ? AND date_repas BETWEEN ? AND ?";
+
+        Integer nombre = jdbcTemplate.queryForObject(sql, Integer.class, personneId,
+            Date.valueOf(dateDebut), Date.valueOf(dateFin));
+        return nombre != null ? nombre : 0;
+    }
+
+    /**
+     * Nombre d'aliments planifiés par type de repas sur une période
+     */
+    @Override
+    public Map<TypeRepas, Integer> compterParTypeRepas(Long personneId, LocalDate dateDebut, LocalDate dateFin) {
+        String sql = "SELECT type_repas, COUNT(*) as nombre " +
+                     "FROM menu_planification " +
+                     "WHERE personne_id = ? AND date_repas BETWEEN ? AND ? " +
+                     "GROUP BY type_repas";
+
+        Map<TypeRepas, Integer> comptes = new EnumMap<>(TypeRepas.class);
+        jdbcTemplate.query(sql, rs -> {
+            comptes.put(TypeRepas.valueOf(rs.getString("type_repas")), rs.getInt("nombre"));
+        }, personneId, Date.valueOf(dateDebut), Date.valueOf(dateFin));
+        return comptes;
+    }
+}
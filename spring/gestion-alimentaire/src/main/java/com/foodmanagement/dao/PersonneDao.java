@@ -101,4 +101,11 @@ public interface PersonneDao {
      * @return Liste des personnes créées dans cette période
      */
     List<Personne> findByDateCreationBetween(LocalDateTime dateDebut, LocalDateTime dateFin);
-}
\ No newline at end of file
+
+    /**
+     * Rechercher les personnes ayant créé au moins un aliment
+     * 
+     * @return Liste des personnes actives
+     */
+    List<Personne> findPersonnesWithFoods();
+}
@@ -241,4 +241,17 @@ public class PersonneDaoImpl implements PersonneDao {
         
         return jdbcTemplate.query(sql, personneRowMapper, timestampDebut, timestampFin);
     }
-}
\ No newline at end of file
+
+    /**
+     * Rechercher les personnes ayant créé au moins un aliment
+     */
+    @Override
+    public List<Personne> findPersonnesWithFoods() {
+        String sql = "SELECT p.id, p.nom, p.email, p.mot_de_passe, p.telephone, p.date_creation " +
+                     "FROM personne p " +
+                     "WHERE EXISTS (SELECT 1 FROM food f WHERE f.personne_id = p.id) " +
+                     "ORDER BY p.nom";
+
+        return jdbcTemplate.query(sql, personneRowMapper);
+    }
+}
@@ -0,0 +1,64 @@
+package com.foodmanagement.dao;
+
+import com.foodmanagement.entity.AgregatPlanRepas;
+import com.foodmanagement.enums.CategorieFood;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Interface DAO pour les agrégats des plans de repas (table plan_repas_agregat)
+ * Une ligne par personne, granularité (jour, semaine ISO, mois) et début de période,
+ * tenue à jour à chaque modification de menu_planification
+ */
+public interface PlanRepasAgregatDao {
+
+    /**
+     * Rechercher les agrégats d'une granularité dont la période commence dans l'intervalle
+     * 
+     * @param personneId ID de la personne
+     * @param granularite JOUR, SEMAINE ou MOIS (constantes de AgregatPlanRepas)
+     * @param debut Premier début de période (inclus)
+     * @param fin Dernier début de période (inclus)
+     * @return Agrégats triés par début de période
+     */
+    List<AgregatPlanRepas> findByPersonneIdAndPeriode(Long personneId, String granularite, LocalDate debut, LocalDate fin);
+
+    /**
+     * Reporter l'ajout ou le retrait d'un aliment sur le jour, la semaine et le mois concernés
+     * Une seule requête (upsert des trois lignes)
+     * 
+     * @param personneId ID de la personne
+     * @param date Jour du repas
+     * @param categorie Catégorie de l'aliment
+     * @param calories Calories enregistrées pour la ligne du plan
+     * @param signe 1 pour un ajout, -1 pour un retrait
+     */
+    void appliquer(Long personneId, LocalDate date, CategorieFood categorie, double calories, int signe);
+
+    /**
+     * Recalculer les agrégats de toutes les périodes touchées par un intervalle
+     * (après une génération ou une copie de plan en lot)
+     * 
+     * @return Nombre de lignes d'agrégat écrites
+     */
+    int recalculer(Long personneId, LocalDate dateDebut, LocalDate dateFin);
+
+    /**
+     * Recalculer les agrégats d'un intervalle pour plusieurs personnes en deux requêtes
+     * (génération de plans en lot)
+     * 
+     * @return Nombre de lignes d'agrégat écrites
+     */
+    int recalculer(Collection<Long> personneIds, LocalDate dateDebut, LocalDate dateFin);
+
+    /**
+     * Reporter sur les agrégats toutes les lignes de plan d'un aliment : retrait avant sa
+     * suppression (la cascade efface ces lignes sans passer par le service), retrait puis
+     * ajout lors d'un changement de catégorie
+     * 
+     * @param signe 1 pour un ajout, -1 pour un retrait
+     * @return Nombre de lignes d'agrégat modifiées
+     */
+    int reporterAliment(Long foodId, CategorieFood categorie, int signe);
+}
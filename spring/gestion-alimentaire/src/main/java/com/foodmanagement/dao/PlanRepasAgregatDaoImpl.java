@@ -0,0 +1,198 @@
+package com.foodmanagement.dao;
+
+import com.foodmanagement.entity.AgregatPlanRepas;
+import com.foodmanagement.entity.Personne;
+import com.foodmanagement.enums.CategorieFood;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implémentation JDBC de PlanRepasAgregatDao
+ *
+ * Les colonnes de catégorie (nombre_legumes, ...) sont dérivées du nom de l'énumération :
+ * aucune valeur saisie n'entre dans le texte des requêtes.
+ */
+@Repository
+public class PlanRepasAgregatDaoImpl implements PlanRepasAgregatDao {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Début de période de chaque granularité, en SQL (alias mp pour menu_planification)
+     */
+    private static final String SQL_DEBUT_PERIODE =
+        "CASE g.granularite WHEN 'JOUR' THEN mp.date_repas " +
+        "WHEN 'SEMAINE' THEN date_trunc('week', mp.date_repas)::date " +
+        "ELSE date_trunc('month', mp.date_repas)::date END";
+
+    private final RowMapper<AgregatPlanRepas> agregatRowMapper = new AgregatRowMapper();
+
+    /**
+     * Rechercher les agrégats d'une granularité sur une période
+     */
+    @Override
+    public List<AgregatPlanRepas> findByPersonneIdAndPeriode(Long personneId, String granularite, LocalDate debut,
+                                                             LocalDate fin) {
+        String sql = "SELECT * FROM plan_repas_agregat " +
+                     "WHERE personne_id = ? AND granularite = ? AND debut BETWEEN ? AND ? " +
+                     "ORDER BY debut";
+
+        return jdbcTemplate.query(sql, agregatRowMapper, personneId, granularite,
+            Date.valueOf(debut), Date.valueOf(fin));
+    }
+
+    /**
+     * Reporter un ajout ou un retrait sur les trois granularités
+     * Les lignes qui retombent à zéro aliment sont conservées (réutilisées au prochain ajout)
+     */
+    @Override
+    public void appliquer(Long personneId, LocalDate date, CategorieFood categorie, double calories, int signe) {
+        String colonne = colonne(categorie);
+        String sql = "INSERT INTO plan_repas_agregat (personne_id, granularite, debut, calories, nombre_aliments, " + colonne + ") " +
+                     "VALUES (?, 'JOUR', ?, ?, ?, ?), (?, 'SEMAINE', ?, ?, ?, ?), (?, 'MOIS', ?, ?, ?, ?) " +
+                     "ON CONFLICT (personne_id, granularite, debut) DO UPDATE SET " +
+                     "calories = plan_repas_agregat.calories + EXCLUDED.calories, " +
+                     "nombre_aliments = plan_repas_agregat.nombre_aliments + EXCLUDED.nombre_aliments, " +
+                     colonne + " = plan_repas_agregat." + colonne + " + EXCLUDED." + colonne;
+
+        double deltaCalories = signe * calories;
+        Date jour = Date.valueOf(date);
+        Date semaine = Date.valueOf(date.with(DayOfWeek.MONDAY));
+        Date mois = Date.valueOf(date.withDayOfMonth(1));
+
+        jdbcTemplate.update(sql,
+            personneId, jour, deltaCalories, signe, signe,
+            personneId, semaine, deltaCalories, signe, signe,
+            personneId, mois, deltaCalories, signe, signe);
+    }
+
+    /**
+     * Recalculer les agrégats des périodes touchées
+     */
+    @Override
+    public int recalculer(Long personneId, LocalDate dateDebut, LocalDate dateFin) {
+        return recalculer(List.of(personneId), dateDebut, dateFin);
+    }
+
+    /**
+     * Recalculer les agrégats des périodes touchées pour plusieurs personnes
+     * Les semaines et mois sont recalculés en entier, y compris hors de l'intervalle
+     */
+    @Override
+    public int recalculer(Collection<Long> personneIds, LocalDate dateDebut, LocalDate dateFin) {
+        if (personneIds.isEmpty()) {
+            return 0;
+        }
+        Object[] ids = personneIds.toArray();
+        Date[] bornes = {
+            Date.valueOf(dateDebut), Date.valueOf(dateFin),
+            Date.valueOf(dateDebut.with(DayOfWeek.MONDAY)), Date.valueOf(dateFin.with(DayOfWeek.SUNDAY)),
+            Date.valueOf(dateDebut.withDayOfMonth(1)), Date.valueOf(dateFin.withDayOfMonth(dateFin.lengthOfMonth()))
+        };
+
+        String sqlSuppression = "DELETE FROM plan_repas_agregat WHERE personne_id = ANY(?) AND (" +
+                                "(granularite = 'JOUR' AND debut BETWEEN ? AND ?) OR " +
+                                "(granularite = 'SEMAINE' AND debut BETWEEN ? AND ?) OR " +
+                                "(granularite = 'MOIS' AND debut BETWEEN ? AND ?))";
+        jdbcTemplate.update(connexion -> {
+            PreparedStatement ps = connexion.prepareStatement(sqlSuppression);
+            ps.setArray(1, connexion.createArrayOf("bigint", ids));
+            for (int i = 0; i < bornes.length; i++) {
+                ps.setDate(i + 2, bornes[i]);
+            }
+            return ps;
+        });
+
+        // Chaque granularité ne lit que sa propre plage de dates
+        String sql = "INSERT INTO plan_repas_agregat (personne_id, granularite, debut, calories, nombre_aliments, " +
+                     "nombre_legumes, nombre_fruits, nombre_viandes, nombre_cereales, nombre_desserts) " +
+                     "SELECT mp.personne_id, g.granularite, " + SQL_DEBUT_PERIODE + " as debut, " +
+                     "SUM(mp.calories), COUNT(*), " +
+                     "COUNT(*) FILTER (WHERE f.categorie = 'LEGUMES'), " +
+                     "COUNT(*) FILTER (WHERE f.categorie = 'FRUITS'), " +
+                     "COUNT(*) FILTER (WHERE f.categorie = 'VIANDES'), " +
+                     "COUNT(*) FILTER (WHERE f.categorie = 'CEREALES'), " +
+                     "COUNT(*) FILTER (WHERE f.categorie = 'DESSERTS') " +
+                     "FROM (VALUES ('JOUR', ?::date, ?::date), ('SEMAINE', ?::date, ?::date), ('MOIS', ?::date, ?::date)) " +
+                     "as g(granularite, premier_jour, dernier_jour) " +
+                     "JOIN menu_planification mp ON mp.personne_id = ANY(?) " +
+                     "AND mp.date_repas BETWEEN g.premier_jour AND g.dernier_jour " +
+                     "JOIN food f ON f.id = mp.food_id " +
+                     "GROUP BY mp.personne_id, g.granularite, 3";
+
+        return jdbcTemplate.update(connexion -> {
+            PreparedStatement ps = connexion.prepareStatement(sql);
+            for (int i = 0; i < bornes.length; i++) {
+                ps.setDate(i + 1, bornes[i]);
+            }
+            ps.setArray(bornes.length + 1, connexion.createArrayOf("bigint", ids));
+            return ps;
+        });
+    }
+
+    /**
+     * Reporter les lignes de plan d'un aliment sur les agrégats
+     * Une mise à jour groupée par (personne, granularité, période) à partir des lignes de plan
+     */
+    @Override
+    public int reporterAliment(Long foodId, CategorieFood categorie, int signe) {
+        String colonne = colonne(categorie);
+        String sql = "UPDATE plan_repas_agregat a SET " +
+                     "calories = a.calories + ? * r.calories, " +
+                     "nombre_aliments = a.nombre_aliments + ? * r.nombre, " +
+                     colonne + " = a." + colonne + " + ? * r.nombre " +
+                     "FROM (SELECT mp.personne_id, g.granularite, " + SQL_DEBUT_PERIODE + " as debut, " +
+                     "SUM(mp.calories) as calories, COUNT(*) as nombre " +
+                     "FROM menu_planification mp " +
+                     "CROSS JOIN (VALUES ('JOUR'), ('SEMAINE'), ('MOIS')) as g(granularite) " +
+                     "WHERE mp.food_id = ? " +
+                     "GROUP BY mp.personne_id, g.granularite, 3) r " +
+                     "WHERE a.personne_id = r.personne_id AND a.granularite = r.granularite AND a.debut = r.debut";
+
+        return jdbcTemplate.update(sql, signe, signe, signe, foodId);
+    }
+
+    // ================ MÉTHODES UTILITAIRES ================
+
+    private String colonne(CategorieFood categorie) {
+        if (categorie == null) {
+            throw new IllegalArgumentException("La catégorie de l'aliment est obligatoire");
+        }
+        return "nombre_" + categorie.name().toLowerCase();
+    }
+
+    /**
+     * RowMapper pour convertir les résultats SQL en objets AgregatPlanRepas
+     */
+    private static class AgregatRowMapper implements RowMapper<AgregatPlanRepas> {
+        @Override
+        public AgregatPlanRepas mapRow(ResultSet rs, int rowNum) throws SQLException {
+            AgregatPlanRepas agregat = new AgregatPlanRepas();
+            agregat.setId(rs.getLong("id"));
+            agregat.setGranularite(rs.getString("granularite"));
+            agregat.setDebut(rs.getDate("debut").toLocalDate());
+            agregat.setCalories(rs.getDouble("calories"));
+            agregat.setNombreAliments(rs.getInt("nombre_aliments"));
+            for (CategorieFood categorie : CategorieFood.values()) {
+                agregat.setNombre(categorie, rs.getInt("nombre_" + categorie.name().toLowerCase()));
+            }
+
+            Personne personne = new Personne();
+            personne.setId(rs.getLong("personne_id"));
+            agregat.setPersonne(personne);
+            return agregat;
+        }
+    }
+}
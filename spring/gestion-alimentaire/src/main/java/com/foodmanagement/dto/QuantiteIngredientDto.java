@@ -0,0 +1,87 @@
+package com.foodmanagement.dto;
+
+import com.foodmanagement.enums.UniteBase;
+
+/**
+ * DTO d'une quantité cumulée d'ingrédient
+ * Une ligne par ingrédient et par unité de base (résultat d'agrégation)
+ * L'unité saisie n'est renseignée que pour les unités inconnues (AUTRE)
+ */
+public class QuantiteIngredientDto {
+
+    private Long ingredientId;
+    private String ingredientNom;
+    private String unite;
+    private Double quantite;
+    private UniteBase uniteBase;
+    private Double densite;
+
+    // Constructeurs
+    public QuantiteIngredientDto() {}
+
+    public QuantiteIngredientDto(Long ingredientId, String ingredientNom, String unite, Double quantite) {
+        this.ingredientId = ingredientId;
+        this.ingredientNom = ingredientNom;
+        this.unite = unite;
+        this.quantite = quantite;
+    }
+
+    // Getters et Setters
+    public Long getIngredientId() {
+        return ingredientId;
+    }
+
+    public void setIngredientId(Long ingredientId) {
+        this.ingredientId = ingredientId;
+    }
+
+    public String getIngredientNom() {
+        return ingredientNom;
+    }
+
+    public void setIngredientNom(String ingredientNom) {
+        this.ingredientNom = ingredientNom;
+    }
+
+    public String getUnite() {
+        return unite;
+    }
+
+    public void setUnite(String unite) {
+        this.unite = unite;
+    }
+
+    public Double getQuantite() {
+        return quantite;
+    }
+
+    public void setQuantite(Double quantite) {
+        this.quantite = quantite;
+    }
+
+    public UniteBase getUniteBase() {
+        return uniteBase;
+    }
+
+    public void setUniteBase(UniteBase uniteBase) {
+        this.uniteBase = uniteBase;
+    }
+
+    public Double getDensite() {
+        return densite;
+    }
+
+    public void setDensite(Double densite) {
+        this.densite = densite;
+    }
+
+    @Override
+    public String toString() {
+        return "QuantiteIngredientDto{" +
+                "ingredientNom='" + ingredientNom + '\'' +
+                ", uniteBase=" + uniteBase +
+                ", unite='" + unite + '\'' +
+                ", quantite=" + quantite +
+                '}';
+    }
+}
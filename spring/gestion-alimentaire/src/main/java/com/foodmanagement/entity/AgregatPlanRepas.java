@@ -0,0 +1,194 @@
+package com.foodmanagement.entity;
+
+import com.foodmanagement.enums.CategorieFood;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Entité JPA représentant les totaux d'un plan de repas sur une période
+ * Une ligne par personne, granularité (jour, semaine ISO, mois) et début de période
+ * Correspond à la table "plan_repas_agregat" en base de données
+ */
+@Entity
+@Table(name = "plan_repas_agregat",
+       uniqueConstraints = @UniqueConstraint(name = "uk_plan_repas_agregat",
+                                             columnNames = {"personne_id", "granularite", "debut"}))
+public class AgregatPlanRepas {
+
+    /**
+     * Granularité : un jour (début = le jour)
+     */
+    public static final String GRANULARITE_JOUR = "JOUR";
+
+    /**
+     * Granularité : une semaine ISO (début = le lundi)
+     */
+    public static final String GRANULARITE_SEMAINE = "SEMAINE";
+
+    /**
+     * Granularité : un mois (début = le 1er du mois)
+     */
+    public static final String GRANULARITE_MOIS = "MOIS";
+
+    /**
+     * Identifiant unique de la ligne
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Personne dont le plan est agrégé
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "personne_id", nullable = false)
+    private Personne personne;
+
+    /**
+     * Granularité de la période (JOUR, SEMAINE, MOIS)
+     */
+    @Column(nullable = false, length = 10)
+    private String granularite;
+
+    /**
+     * Premier jour de la période
+     */
+    @Column(nullable = false)
+    private LocalDate debut;
+
+    /**
+     * Calories planifiées sur la période
+     */
+    @Column(nullable = false)
+    private Double calories = 0.0;
+
+    /**
+     * Nombre d'aliments planifiés sur la période
+     */
+    @Column(name = "nombre_aliments", nullable = false)
+    private Integer nombreAliments = 0;
+
+    @Column(name = "nombre_legumes", nullable = false)
+    private Integer nombreLegumes = 0;
+
+    @Column(name = "nombre_fruits", nullable = false)
+    private Integer nombreFruits = 0;
+
+    @Column(name = "nombre_viandes", nullable = false)
+    private Integer nombreViandes = 0;
+
+    @Column(name = "nombre_cereales", nullable = false)
+    private Integer nombreCereales = 0;
+
+    @Column(name = "nombre_desserts", nullable = false)
+    private Integer nombreDesserts = 0;
+
+    /**
+     * Constructeur par défaut
+     */
+    public AgregatPlanRepas() {
+    }
+
+    /**
+     * Nombre d'aliments planifiés par catégorie (catégories absentes omises)
+     */
+    public Map<CategorieFood, Integer> getNombreParCategorie() {
+        Map<CategorieFood, Integer> repartition = new EnumMap<>(CategorieFood.class);
+        for (CategorieFood categorie : CategorieFood.values()) {
+            int nombre = getNombre(categorie);
+            if (nombre > 0) {
+                repartition.put(categorie, nombre);
+            }
+        }
+        return repartition;
+    }
+
+    /**
+     * Nombre d'aliments planifiés d'une catégorie
+     */
+    public int getNombre(CategorieFood categorie) {
+        Integer nombre = switch (categorie) {
+            case LEGUMES -> nombreLegumes;
+            case FRUITS -> nombreFruits;
+            case VIANDES -> nombreViandes;
+            case CEREALES -> nombreCereales;
+            case DESSERTS -> nombreDesserts;
+        };
+        return nombre != null ? nombre : 0;
+    }
+
+    /**
+     * Renseigner le nombre d'aliments planifiés d'une catégorie
+     */
+    public void setNombre(CategorieFood categorie, int nombre) {
+        switch (categorie) {
+            case LEGUMES -> nombreLegumes = nombre;
+            case FRUITS -> nombreFruits = nombre;
+            case VIANDES -> nombreViandes = nombre;
+            case CEREALES -> nombreCereales = nombre;
+            case DESSERTS -> nombreDesserts = nombre;
+        }
+    }
+
+    // ================ GETTERS ET SETTERS ================
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Personne getPersonne() {
+        return personne;
+    }
+
+    public void setPersonne(Personne personne) {
+        this.personne = personne;
+    }
+
+    public String getGranularite() {
+        return granularite;
+    }
+
+    public void setGranularite(String granularite) {
+        this.granularite = granularite;
+    }
+
+    public LocalDate getDebut() {
+        return debut;
+    }
+
+    public void setDebut(LocalDate debut) {
+        this.debut = debut;
+    }
+
+    public Double getCalories() {
+        return calories;
+    }
+
+    public void setCalories(Double calories) {
+        this.calories = calories;
+    }
+
+    public Integer getNombreAliments() {
+        return nombreAliments;
+    }
+
+    public void setNombreAliments(Integer nombreAliments) {
+        this.nombreAliments = nombreAliments;
+    }
+
+    @Override
+    public String toString() {
+        return "AgregatPlanRepas{" +
+                "granularite='" + granularite + '\'' +
+                ", debut=" + debut +
+                ", calories=" + calories +
+                ", nombreAliments=" + nombreAliments +
+                '}';
+    }
+}
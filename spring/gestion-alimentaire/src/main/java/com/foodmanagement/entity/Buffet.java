@@ -0,0 +1,278 @@
+package com.foodmanagement.entity;
+
+import com.foodmanagement.enums.TypeEvenement;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Entité JPA représentant un buffet organisé pour un événement
+ * Correspond à la table "buffet" en base de données
+ */
+@Entity
+@Table(name = "buffet")
+public class Buffet {
+
+    /**
+     * Statut d'un buffet planifié, pas encore réalisé
+     */
+    public static final String STATUT_PLANIFIE = "PLANIFIE";
+
+    /**
+     * Statut d'un buffet réalisé (retours d'expérience enregistrés)
+     */
+    public static final String STATUT_REALISE = "REALISE";
+
+    /**
+     * Identifiant unique du buffet
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Nom de l'événement
+     */
+    @Column(name = "nom_evenement", nullable = false, length = 150)
+    @NotBlank(message = "Le nom de l'événement est obligatoire")
+    @Size(max = 150, message = "Le nom de l'événement ne peut pas dépasser 150 caractères")
+    private String nomEvenement;
+
+    /**
+     * Date et heure de l'événement
+     */
+    @Column(name = "date_evenement", nullable = false)
+    @NotNull(message = "La date de l'événement est obligatoire")
+    private LocalDateTime dateEvenement;
+
+    /**
+     * Nombre d'invités attendus
+     */
+    @Column(name = "nombre_invites", nullable = false)
+    @NotNull(message = "Le nombre d'invités est obligatoire")
+    @Positive(message = "Le nombre d'invités doit être positif")
+    private Integer nombreInvites;
+
+    /**
+     * Type d'événement (énumération)
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type_evenement", nullable = false, length = 20)
+    @NotNull(message = "Le type d'événement est obligatoire")
+    private TypeEvenement typeEvenement;
+
+    /**
+     * Budget alloué en euros (optionnel)
+     */
+    @Column
+    @Positive(message = "Le budget doit être positif")
+    private Double budget;
+
+    /**
+     * Statut du buffet (PLANIFIE, REALISE)
+     */
+    @Column(nullable = false, length = 20)
+    private String statut = STATUT_PLANIFIE;
+
+    /**
+     * Relation Many-to-One avec Personne
+     * Plusieurs buffets peuvent être organisés par une personne
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "organisateur_id", nullable = false)
+    @NotNull(message = "L'organisateur est obligatoire")
+    private Personne organisateur;
+
+    /**
+     * Nombre d'invités réellement présents (renseigné après l'événement)
+     */
+    @Column(name = "nombre_invites_reel")
+    private Integer nombreInvitesReel;
+
+    /**
+     * Commentaires de retour d'expérience
+     */
+    @Column(length = 1000)
+    @Size(max = 1000, message = "Les commentaires ne peuvent pas dépasser 1000 caractères")
+    private String commentaires;
+
+    /**
+     * Date de création de l'enregistrement
+     */
+    @Column(name = "date_creation", nullable = false, updatable = false)
+    private LocalDateTime dateCreation;
+
+    /**
+     * Date de dernière modification
+     */
+    @Column(name = "date_modification", nullable = false)
+    private LocalDateTime dateModification;
+
+    /**
+     * Relation One-to-Many avec BuffetFood
+     * Un buffet sert plusieurs aliments
+     */
+    @OneToMany(mappedBy = "buffet", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    private List<BuffetFood> buffetFoods;
+
+    /**
+     * Constructeur par défaut
+     */
+    public Buffet() {
+    }
+
+    /**
+     * Constructeur avec paramètres essentiels
+     */
+    public Buffet(String nomEvenement, LocalDateTime dateEvenement, Integer nombreInvites,
+                  TypeEvenement typeEvenement, Personne organisateur) {
+        this.nomEvenement = nomEvenement;
+        this.dateEvenement = dateEvenement;
+        this.nombreInvites = nombreInvites;
+        this.typeEvenement = typeEvenement;
+        this.organisateur = organisateur;
+        this.dateCreation = LocalDateTime.now();
+        this.dateModification = LocalDateTime.now();
+    }
+
+    /**
+     * Méthode appelée avant la persistance
+     */
+    @PrePersist
+    protected void onCreate() {
+        if (dateCreation == null) {
+            dateCreation = LocalDateTime.now();
+        }
+        dateModification = LocalDateTime.now();
+    }
+
+    /**
+     * Méthode appelée avant la mise à jour
+     */
+    @PreUpdate
+    protected void onUpdate() {
+        dateModification = LocalDateTime.now();
+    }
+
+    // ================ GETTERS ET SETTERS ================
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNomEvenement() {
+        return nomEvenement;
+    }
+
+    public void setNomEvenement(String nomEvenement) {
+        this.nomEvenement = nomEvenement;
+    }
+
+    public LocalDateTime getDateEvenement() {
+        return dateEvenement;
+    }
+
+    public void setDateEvenement(LocalDateTime dateEvenement) {
+        this.dateEvenement = dateEvenement;
+    }
+
+    public Integer getNombreInvites() {
+        return nombreInvites;
+    }
+
+    public void setNombreInvites(Integer nombreInvites) {
+        this.nombreInvites = nombreInvites;
+    }
+
+    public TypeEvenement getTypeEvenement() {
+        return typeEvenement;
+    }
+
+    public void setTypeEvenement(TypeEvenement typeEvenement) {
+        this.typeEvenement = typeEvenement;
+    }
+
+    public Double getBudget() {
+        return budget;
+    }
+
+    public void setBudget(Double budget) {
+        this.budget = budget;
+    }
+
+    public String getStatut() {
+        return statut;
+    }
+
+    public void setStatut(String statut) {
+        this.statut = statut;
+    }
+
+    public Personne getOrganisateur() {
+        return organisateur;
+    }
+
+    public void setOrganisateur(Personne organisateur) {
+        this.organisateur = organisateur;
+    }
+
+    public Integer getNombreInvitesReel() {
+        return nombreInvitesReel;
+    }
+
+    public void setNombreInvitesReel(Integer nombreInvitesReel) {
+        this.nombreInvitesReel = nombreInvitesReel;
+    }
+
+    public String getCommentaires() {
+        return commentaires;
+    }
+
+    public void setCommentaires(String commentaires) {
+        this.commentaires = commentaires;
+    }
+
+    public LocalDateTime getDateCreation() {
+        return dateCreation;
+    }
+
+    public void setDateCreation(LocalDateTime dateCreation) {
+        this.dateCreation = dateCreation;
+    }
+
+    public LocalDateTime getDateModification() {
+        return dateModification;
+    }
+
+    public void setDateModification(LocalDateTime dateModification) {
+        this.dateModification = dateModification;
+    }
+
+    public List<BuffetFood> getBuffetFoods() {
+        return buffetFoods;
+    }
+
+    public void setBuffetFoods(List<BuffetFood> buffetFoods) {
+        this.buffetFoods = buffetFoods;
+    }
+
+    @Override
+    public String toString() {
+        return "Buffet{" +
+                "id=" + id +
+                ", nomEvenement='" + nomEvenement + '\'' +
+                ", dateEvenement=" + dateEvenement +
+                ", nombreInvites=" + nombreInvites +
+                ", typeEvenement=" + typeEvenement +
+                ", statut='" + statut + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,148 @@
+package com.foodmanagement.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Entité JPA représentant un aliment servi dans un buffet
+ * Table de liaison entre Buffet et Food avec quantité et priorité
+ * Correspond à la table "buffet_food" en base de données
+ */
+@Entity
+@Table(name = "buffet_food",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"buffet_id", "food_id"}))
+public class BuffetFood {
+
+    /**
+     * Priorité haute : aliment indispensable
+     */
+    public static final int PRIORITE_HAUTE = 1;
+
+    /**
+     * Priorité moyenne (valeur par défaut)
+     */
+    public static final int PRIORITE_MOYENNE = 2;
+
+    /**
+     * Priorité basse : aliment sacrifiable
+     */
+    public static final int PRIORITE_BASSE = 3;
+
+    /**
+     * Identifiant unique de la ligne
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Référence vers le buffet
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "buffet_id", nullable = false)
+    private Buffet buffet;
+
+    /**
+     * Référence vers l'aliment servi
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "food_id", nullable = false)
+    private Food food;
+
+    /**
+     * Nombre de portions prévues (personnes servies par cet aliment)
+     */
+    @Column(name = "quantite_personnes", nullable = false)
+    @NotNull(message = "La quantité de personnes est obligatoire")
+    @Positive(message = "La quantité de personnes doit être positive")
+    private Integer quantitePersonnes;
+
+    /**
+     * Priorité de l'aliment (1 = haute, 2 = moyenne, 3 = basse)
+     */
+    @Column(nullable = false)
+    @Min(value = 1, message = "La priorité doit être comprise entre 1 et 3")
+    @Max(value = 3, message = "La priorité doit être comprise entre 1 et 3")
+    private Integer priorite = PRIORITE_MOYENNE;
+
+    /**
+     * Constructeur par défaut
+     */
+    public BuffetFood() {
+    }
+
+    /**
+     * Constructeur avec paramètres
+     */
+    public BuffetFood(Buffet buffet, Food food, Integer quantitePersonnes, Integer priorite) {
+        this.buffet = buffet;
+        this.food = food;
+        this.quantitePersonnes = quantitePersonnes;
+        this.priorite = priorite;
+    }
+
+    /**
+     * Coût estimé de la ligne : prix par portion × portions prévues
+     */
+    public Double getCoutEstime() {
+        if (food == null || food.getPrix() == null || quantitePersonnes == null) {
+            return 0.0;
+        }
+        return food.getPrix() * quantitePersonnes;
+    }
+
+    // ================ GETTERS ET SETTERS ================
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Buffet getBuffet() {
+        return buffet;
+    }
+
+    public void setBuffet(Buffet buffet) {
+        this.buffet = buffet;
+    }
+
+    public Food getFood() {
+        return food;
+    }
+
+    public void setFood(Food food) {
+        this.food = food;
+    }
+
+    public Integer getQuantitePersonnes() {
+        return quantitePersonnes;
+    }
+
+    public void setQuantitePersonnes(Integer quantitePersonnes) {
+        this.quantitePersonnes = quantitePersonnes;
+    }
+
+    public Integer getPriorite() {
+        return priorite;
+    }
+
+    public void setPriorite(Integer priorite) {
+        this.priorite = priorite;
+    }
+
+    @Override
+    public String toString() {
+        return "BuffetFood{" +
+                "id=" + id +
+                ", foodId=" + (food != null ? food.getId() : null) +
+                ", quantitePersonnes=" + quantitePersonnes +
+                ", priorite=" + priorite +
+                '}';
+    }
+}
@@ -0,0 +1,123 @@
+package com.foodmanagement.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+
+/**
+ * Entité JPA représentant un fichier image stocké par contenu
+ * Correspond à la table "fichier_image" en base de données
+ * Un même fichier est partagé par toutes les images de contenu identique
+ */
+@Entity
+@Table(name = "fichier_image")
+public class FichierImage {
+
+    /**
+     * Empreinte SHA-256 du contenu, en hexadécimal
+     */
+    @Id
+    @Column(name = "empreinte", length = 64)
+    @Size(min = 64, max = 64, message = "L'empreinte doit contenir 64 caractères")
+    private String empreinte;
+
+    /**
+     * Chemin du fichier sur le serveur
+     */
+    @Column(name = "chemin_fichier", nullable = false, length = 500)
+    @NotBlank(message = "Le chemin du fichier est obligatoire")
+    private String cheminFichier;
+
+    /**
+     * Taille du fichier en octets
+     */
+    @Column(name = "taille_fichier", nullable = false)
+    private Long tailleFichier;
+
+    /**
+     * Nombre d'images originales qui utilisent ce fichier
+     */
+    @Column(name = "nombre_references", nullable = false)
+    @PositiveOrZero(message = "Le nombre de références ne peut pas être négatif")
+    private Integer nombreReferences = 0;
+
+    /**
+     * Date de première écriture du fichier
+     */
+    @Column(name = "date_creation", nullable = false, updatable = false)
+    private LocalDateTime dateCreation;
+
+    /**
+     * Date à laquelle le compteur est tombé à zéro (null si le fichier est utilisé)
+     */
+    @Column(name = "date_liberation")
+    private LocalDateTime dateLiberation;
+
+    /**
+     * Constructeur par défaut
+     */
+    public FichierImage() {
+    }
+
+    // ================ GETTERS ET SETTERS ================
+
+    public String getEmpreinte() {
+        return empreinte;
+    }
+
+    public void setEmpreinte(String empreinte) {
+        this.empreinte = empreinte;
+    }
+
+    public String getCheminFichier() {
+        return cheminFichier;
+    }
+
+    public void setCheminFichier(String cheminFichier) {
+        this.cheminFichier = cheminFichier;
+    }
+
+    public Long getTailleFichier() {
+        return tailleFichier;
+    }
+
+    public void setTailleFichier(Long tailleFichier) {
+        this.tailleFichier = tailleFichier;
+    }
+
+    public Integer getNombreReferences() {
+        return nombreReferences;
+    }
+
+    public void setNombreReferences(Integer nombreReferences) {
+        this.nombreReferences = nombreReferences;
+    }
+
+    public LocalDateTime getDateCreation() {
+        return dateCreation;
+    }
+
+    public void setDateCreation(LocalDateTime dateCreation) {
+        this.dateCreation = dateCreation;
+    }
+
+    public LocalDateTime getDateLiberation() {
+        return dateLiberation;
+    }
+
+    public void setDateLiberation(LocalDateTime dateLiberation) {
+        this.dateLiberation = dateLiberation;
+    }
+
+    @Override
+    public String toString() {
+        return "FichierImage{" +
+                "empreinte='" + empreinte + '\'' +
+                ", cheminFichier='" + cheminFichier + '\'' +
+                ", tailleFichier=" + tailleFichier +
+                ", nombreReferences=" + nombreReferences +
+                '}';
+    }
+}
@@ -63,6 +63,25 @@ public class Food {
     @Positive(message = "Le prix doit être positif")
     private Double prix;
 
+    /**
+     * Calories de la recette complète (calories pour 100g rapportées à la masse des ingrédients)
+     * Agrégat recalculé à chaque modification de la recette
+     */
+    @Column(name = "calories_totales")
+    private Double caloriesTotales;
+
+    /**
+     * Masse des ingrédients en grammes (volumes convertis par densité)
+     */
+    @Column(name = "masse_totale_g")
+    private Double masseTotaleGrammes;
+
+    /**
+     * Nombre d'ingrédients de la recette
+     */
+    @Column(name = "nombre_ingredients")
+    private Integer nombreIngredients;
+
     /**
      * Temps de préparation en minutes
      */
@@ -175,6 +194,30 @@ public class Food {
         this.prix = prix;
     }
 
+    public Double getCaloriesTotales() {
+        return caloriesTotales;
+    }
+
+    public void setCaloriesTotales(Double caloriesTotales) {
+        this.caloriesTotales = caloriesTotales;
+    }
+
+    public Double getMasseTotaleGrammes() {
+        return masseTotaleGrammes;
+    }
+
+    public void setMasseTotaleGrammes(Double masseTotaleGrammes) {
+        this.masseTotaleGrammes = masseTotaleGrammes;
+    }
+
+    public Integer getNombreIngredients() {
+        return nombreIngredients;
+    }
+
+    public void setNombreIngredients(Integer nombreIngredients) {
+        this.nombreIngredients = nombreIngredients;
+    }
+
     public String getTempsPreparation() {
         return tempsPreparation;
     }
@@ -1,5 +1,6 @@
 package com.foodmanagement.entity;
 
+import com.foodmanagement.enums.UniteBase;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -56,6 +57,19 @@ public class FoodIngredient {
     @Size(max = 20, message = "L'unité ne peut pas dépasser 20 caractères")
     private String unite;
 
+    /**
+     * Unité de base de la quantité normalisée (renseignée à l'écriture)
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "unite_base", length = 12)
+    private UniteBase uniteBase;
+
+    /**
+     * Quantité utilisée exprimée dans l'unité de base
+     */
+    @Column(name = "quantite_base")
+    private Double quantiteBase;
+
     /**
      * Constructeur par défaut
      */
@@ -123,6 +137,22 @@ public class FoodIngredient {
         this.unite = unite;
     }
 
+    public UniteBase getUniteBase() {
+        return uniteBase;
+    }
+
+    public void setUniteBase(UniteBase uniteBase) {
+        this.uniteBase = uniteBase;
+    }
+
+    public Double getQuantiteBase() {
+        return quantiteBase;
+    }
+
+    public void setQuantiteBase(Double quantiteBase) {
+        this.quantiteBase = quantiteBase;
+    }
+
     @Override
     public String toString() {
         return "FoodIngredient{" +
@@ -1,6 +1,7 @@
 package com.foodmanagement.entity;
 
 import com.foodmanagement.enums.TypeImage;
+import com.foodmanagement.enums.VarianteImage;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -61,6 +62,39 @@ public class Image {
     @Column(name = "date_upload", nullable = false, updatable = false)
     private LocalDateTime dateUpload;
 
+    /**
+     * Variante du fichier (originale, ou dérivée générée en arrière-plan)
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "variante", nullable = false, length = 20)
+    private VarianteImage variante = VarianteImage.ORIGINALE;
+
+    /**
+     * ID de l'image originale pour une dérivée (null pour une originale)
+     */
+    @Column(name = "image_source_id")
+    private Long imageSourceId;
+
+    /**
+     * Empreinte SHA-256 du fichier partagé (null pour les fichiers stockés avant la déduplication)
+     */
+    @Column(name = "empreinte", length = 64)
+    private String empreinte;
+
+    /**
+     * Largeur en pixels, lue dans l'en-tête du fichier (null si inconnue)
+     */
+    @Column(name = "largeur")
+    @Positive(message = "La largeur doit être positive")
+    private Integer largeur;
+
+    /**
+     * Hauteur en pixels, lue dans l'en-tête du fichier (null si inconnue)
+     */
+    @Column(name = "hauteur")
+    @Positive(message = "La hauteur doit être positive")
+    private Integer hauteur;
+
     /**
      * Relation Many-to-One avec Food (optionnelle)
      * Plusieurs images peuvent appartenir à un aliment
@@ -188,6 +222,46 @@ public class Image {
         this.dateUpload = dateUpload;
     }
 
+    public VarianteImage getVariante() {
+        return variante;
+    }
+
+    public void setVariante(VarianteImage variante) {
+        this.variante = variante;
+    }
+
+    public Long getImageSourceId() {
+        return imageSourceId;
+    }
+
+    public void setImageSourceId(Long imageSourceId) {
+        this.imageSourceId = imageSourceId;
+    }
+
+    public String getEmpreinte() {
+        return empreinte;
+    }
+
+    public void setEmpreinte(String empreinte) {
+        this.empreinte = empreinte;
+    }
+
+    public Integer getLargeur() {
+        return largeur;
+    }
+
+    public void setLargeur(Integer largeur) {
+        this.largeur = largeur;
+    }
+
+    public Integer getHauteur() {
+        return hauteur;
+    }
+
+    public void setHauteur(Integer hauteur) {
+        this.hauteur = hauteur;
+    }
+
     public Food getFood() {
         return food;
     }
@@ -213,6 +287,7 @@ public class Image {
                 ", typeImage=" + typeImage +
                 ", tailleFichier=" + tailleFichier +
                 ", dateUpload=" + dateUpload +
+                ", variante=" + variante +
                 '}';
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.foodmanagement.entity;
 
 import com.foodmanagement.enums.TypeIngredient;
+import com.foodmanagement.enums.UniteBase;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -61,6 +62,26 @@ public class Ingredient {
     @Size(max = 20, message = "L'unité ne peut pas dépasser 20 caractères")
     private String unite;
 
+    /**
+     * Unité de base de la quantité normalisée (renseignée à l'écriture)
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "unite_base", length = 12)
+    private UniteBase uniteBase;
+
+    /**
+     * Quantité de base exprimée dans l'unité de base
+     */
+    @Column(name = "quantite_base")
+    private Double quantiteBase;
+
+    /**
+     * Densité en g/ml pour passer du volume à la masse (null si inconnue)
+     */
+    @Column
+    @Positive(message = "La densité doit être positive")
+    private Double densite;
+
     /**
      * Date de création de l'enregistrement
      */
@@ -155,6 +176,30 @@ public class Ingredient {
         this.unite = unite;
     }
 
+    public UniteBase getUniteBase() {
+        return uniteBase;
+    }
+
+    public void setUniteBase(UniteBase uniteBase) {
+        this.uniteBase = uniteBase;
+    }
+
+    public Double getQuantiteBase() {
+        return quantiteBase;
+    }
+
+    public void setQuantiteBase(Double quantiteBase) {
+        this.quantiteBase = quantiteBase;
+    }
+
+    public Double getDensite() {
+        return densite;
+    }
+
+    public void setDensite(Double densite) {
+        this.densite = densite;
+    }
+
     public LocalDateTime getDateCreation() {
         return dateCreation;
     }
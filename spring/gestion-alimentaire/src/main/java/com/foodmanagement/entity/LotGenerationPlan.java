@@ -0,0 +1,166 @@
+package com.foodmanagement.entity;
+
+import com.foodmanagement.enums.StatutGeneration;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entité JPA représentant un lot de génération de plans de repas
+ * Une cohorte de personnes, une même période ; les compteurs avancent à chaque paquet écrit
+ * Correspond à la table "generation_plan_lot" en base de données
+ */
+@Entity
+@Table(name = "generation_plan_lot")
+public class LotGenerationPlan {
+
+    /**
+     * Identifiant unique du lot
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Premier jour des plans générés
+     */
+    @Column(name = "date_debut", nullable = false)
+    private LocalDate dateDebut;
+
+    /**
+     * Nombre de jours des plans générés
+     */
+    @Column(name = "nombre_jours", nullable = false)
+    private Integer nombreJours;
+
+    /**
+     * Statut du lot
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private StatutGeneration statut = StatutGeneration.EN_COURS;
+
+    /**
+     * Nombre de personnes de la cohorte
+     */
+    @Column(name = "nombre_personnes", nullable = false)
+    private Integer nombrePersonnes = 0;
+
+    /**
+     * Nombre de plans écrits
+     */
+    @Column(name = "nombre_generees", nullable = false)
+    private Integer nombreGenerees = 0;
+
+    /**
+     * Nombre de personnes en échec
+     */
+    @Column(name = "nombre_echecs", nullable = false)
+    private Integer nombreEchecs = 0;
+
+    @Column(name = "date_creation", nullable = false, updatable = false)
+    private LocalDateTime dateCreation;
+
+    @Column(name = "date_fin")
+    private LocalDateTime dateFin;
+
+    /**
+     * Constructeur par défaut
+     */
+    public LotGenerationPlan() {
+    }
+
+    /**
+     * Nombre de personnes restant à traiter
+     */
+    public int getNombreRestantes() {
+        return Math.max(0, nombrePersonnes - nombreGenerees - nombreEchecs);
+    }
+
+    // ================ GETTERS ET SETTERS ================
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getDateDebut() {
+        return dateDebut;
+    }
+
+    public void setDateDebut(LocalDate dateDebut) {
+        this.dateDebut = dateDebut;
+    }
+
+    public Integer getNombreJours() {
+        return nombreJours;
+    }
+
+    public void setNombreJours(Integer nombreJours) {
+        this.nombreJours = nombreJours;
+    }
+
+    public StatutGeneration getStatut() {
+        return statut;
+    }
+
+    public void setStatut(StatutGeneration statut) {
+        this.statut = statut;
+    }
+
+    public Integer getNombrePersonnes() {
+        return nombrePersonnes;
+    }
+
+    public void setNombrePersonnes(Integer nombrePersonnes) {
+        this.nombrePersonnes = nombrePersonnes;
+    }
+
+    public Integer getNombreGenerees() {
+        return nombreGenerees;
+    }
+
+    public void setNombreGenerees(Integer nombreGenerees) {
+        this.nombreGenerees = nombreGenerees;
+    }
+
+    public Integer getNombreEchecs() {
+        return nombreEchecs;
+    }
+
+    public void setNombreEchecs(Integer nombreEchecs) {
+        this.nombreEchecs = nombreEchecs;
+    }
+
+    public LocalDateTime getDateCreation() {
+        return dateCreation;
+    }
+
+    public void setDateCreation(LocalDateTime dateCreation) {
+        this.dateCreation = dateCreation;
+    }
+
+    public LocalDateTime getDateFin() {
+        return dateFin;
+    }
+
+    public void setDateFin(LocalDateTime dateFin) {
+        this.dateFin = dateFin;
+    }
+
+    @Override
+    public String toString() {
+        return "LotGenerationPlan{" +
+                "id=" + id +
+                ", dateDebut=" + dateDebut +
+                ", nombreJours=" + nombreJours +
+                ", statut=" + statut +
+                ", nombrePersonnes=" + nombrePersonnes +
+                ", nombreGenerees=" + nombreGenerees +
+                ", nombreEchecs=" + nombreEchecs +
+                '}';
+    }
+}
@@ -0,0 +1,112 @@
+package com.foodmanagement.entity;
+
+import com.foodmanagement.enums.StatutGeneration;
+import jakarta.persistence.*;
+import java.util.Objects;
+
+/**
+ * Entité JPA représentant l'avancement d'une personne dans un lot de génération
+ * Correspond à la table "generation_plan_lot_personne" en base de données
+ */
+@Entity
+@Table(name = "generation_plan_lot_personne")
+public class LotGenerationPlanPersonne {
+
+    @EmbeddedId
+    private LotGenerationPlanPersonneId id;
+
+    /**
+     * Statut de la personne (EN_ATTENTE, TERMINE, ECHEC)
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private StatutGeneration statut = StatutGeneration.EN_ATTENTE;
+
+    /**
+     * Cause de l'échec éventuel
+     */
+    @Column(length = 255)
+    private String message;
+
+    /**
+     * Constructeur par défaut
+     */
+    public LotGenerationPlanPersonne() {
+    }
+
+    // ================ GETTERS ET SETTERS ================
+
+    public LotGenerationPlanPersonneId getId() {
+        return id;
+    }
+
+    public void setId(LotGenerationPlanPersonneId id) {
+        this.id = id;
+    }
+
+    public StatutGeneration getStatut() {
+        return statut;
+    }
+
+    public void setStatut(StatutGeneration statut) {
+        this.statut = statut;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Clé primaire composite (lot, personne)
+     */
+    @Embeddable
+    public static class LotGenerationPlanPersonneId implements java.io.Serializable {
+
+        @Column(name = "lot_id")
+        private Long lotId;
+
+        @Column(name = "personne_id")
+        private Long personneId;
+
+        public LotGenerationPlanPersonneId() {
+        }
+
+        public LotGenerationPlanPersonneId(Long lotId, Long personneId) {
+            this.lotId = lotId;
+            this.personneId = personneId;
+        }
+
+        public Long getLotId() {
+            return lotId;
+        }
+
+        public void setLotId(Long lotId) {
+            this.lotId = lotId;
+        }
+
+        public Long getPersonneId() {
+            return personneId;
+        }
+
+        public void setPersonneId(Long personneId) {
+            this.personneId = personneId;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            LotGenerationPlanPersonneId that = (LotGenerationPlanPersonneId) obj;
+            return Objects.equals(lotId, that.lotId) && Objects.equals(personneId, that.personneId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(lotId, personneId);
+        }
+    }
+}
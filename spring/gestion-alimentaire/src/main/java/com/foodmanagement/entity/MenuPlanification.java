@@ -0,0 +1,159 @@
+package com.foodmanagement.entity;
+
+import com.foodmanagement.enums.TypeRepas;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entité JPA représentant un aliment planifié dans un repas
+ * Une ligne par personne, jour, type de repas et aliment
+ * Correspond à la table "menu_planification" en base de données
+ */
+@Entity
+@Table(name = "menu_planification",
+       uniqueConstraints = @UniqueConstraint(name = "uk_menu_planification",
+                                             columnNames = {"personne_id", "date_repas", "type_repas", "food_id"}))
+public class MenuPlanification {
+
+    /**
+     * Identifiant unique de la ligne
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Personne à qui le repas est destiné
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "personne_id", nullable = false)
+    private Personne personne;
+
+    /**
+     * Jour du repas
+     */
+    @Column(name = "date_repas", nullable = false)
+    @NotNull(message = "La date du repas est obligatoire")
+    private LocalDate dateRepas;
+
+    /**
+     * Type de repas
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type_repas", nullable = false, length = 20)
+    @NotNull(message = "Le type de repas est obligatoire")
+    private TypeRepas typeRepas;
+
+    /**
+     * Aliment servi
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "food_id", nullable = false)
+    private Food food;
+
+    /**
+     * Calories de l'aliment au moment de la planification
+     */
+    @Column(nullable = false)
+    private Double calories = 0.0;
+
+    /**
+     * Date de création de la ligne
+     */
+    @Column(name = "date_creation", nullable = false, updatable = false)
+    private LocalDateTime dateCreation;
+
+    /**
+     * Constructeur par défaut
+     */
+    public MenuPlanification() {
+    }
+
+    /**
+     * Constructeur avec paramètres
+     */
+    public MenuPlanification(Personne personne, LocalDate dateRepas, TypeRepas typeRepas, Food food) {
+        this.personne = personne;
+        this.dateRepas = dateRepas;
+        this.typeRepas = typeRepas;
+        this.food = food;
+    }
+
+    /**
+     * Méthode appelée avant la persistance
+     */
+    @PrePersist
+    protected void onCreate() {
+        this.dateCreation = LocalDateTime.now();
+    }
+
+    // ================ GETTERS ET SETTERS ================
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Personne getPersonne() {
+        return personne;
+    }
+
+    public void setPersonne(Personne personne) {
+        this.personne = personne;
+    }
+
+    public LocalDate getDateRepas() {
+        return dateRepas;
+    }
+
+    public void setDateRepas(LocalDate dateRepas) {
+        this.dateRepas = dateRepas;
+    }
+
+    public TypeRepas getTypeRepas() {
+        return typeRepas;
+    }
+
+    public void setTypeRepas(TypeRepas typeRepas) {
+        this.typeRepas = typeRepas;
+    }
+
+    public Food getFood() {
+        return food;
+    }
+
+    public void setFood(Food food) {
+        this.food = food;
+    }
+
+    public Double getCalories() {
+        return calories;
+    }
+
+    public void setCalories(Double calories) {
+        this.calories = calories;
+    }
+
+    public LocalDateTime getDateCreation() {
+        return dateCreation;
+    }
+
+    public void setDateCreation(LocalDateTime dateCreation) {
+        this.dateCreation = dateCreation;
+    }
+
+    @Override
+    public String toString() {
+        return "MenuPlanification{" +
+                "id=" + id +
+                ", dateRepas=" + dateRepas +
+                ", typeRepas=" + typeRepas +
+                ", food=" + (food != null ? food.getNom() : null) +
+                '}';
+    }
+}
@@ -0,0 +1,127 @@
+package com.foodmanagement.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entité JPA représentant un échange avec le chatbot
+ * (message de l'utilisateur, réponse et intention reconnue)
+ * Correspond à la table "chatbot_message" en base de données
+ */
+@Entity
+@Table(name = "chatbot_message",
+       indexes = @Index(name = "idx_chatbot_message_user_date", columnList = "user_id, date_message DESC, id DESC"))
+public class MessageChatbot {
+
+    /**
+     * Identifiant unique de l'échange
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Utilisateur transmis par le client
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Message de l'utilisateur
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    /**
+     * Texte de la réponse du chatbot
+     */
+    @Column(columnDefinition = "TEXT")
+    private String reponse;
+
+    /**
+     * Intention reconnue
+     */
+    @Column(nullable = false, length = 30)
+    private String intention;
+
+    /**
+     * Date de l'échange
+     */
+    @Column(name = "date_message", nullable = false)
+    private LocalDateTime dateMessage;
+
+    /**
+     * Constructeur par défaut
+     */
+    public MessageChatbot() {
+    }
+
+    /**
+     * Constructeur d'un échange daté de maintenant
+     */
+    public MessageChatbot(Long userId, String message, String reponse, String intention) {
+        this.userId = userId;
+        this.message = message;
+        this.reponse = reponse;
+        this.intention = intention;
+        this.dateMessage = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getReponse() {
+        return reponse;
+    }
+
+    public void setReponse(String reponse) {
+        this.reponse = reponse;
+    }
+
+    public String getIntention() {
+        return intention;
+    }
+
+    public void setIntention(String intention) {
+        this.intention = intention;
+    }
+
+    public LocalDateTime getDateMessage() {
+        return dateMessage;
+    }
+
+    public void setDateMessage(LocalDateTime dateMessage) {
+        this.dateMessage = dateMessage;
+    }
+
+    @Override
+    public String toString() {
+        return "MessageChatbot{" +
+                "id=" + id +
+                ", userId=" + userId +
+                ", intention='" + intention + '\'' +
+                ", dateMessage=" + dateMessage +
+                '}';
+    }
+}
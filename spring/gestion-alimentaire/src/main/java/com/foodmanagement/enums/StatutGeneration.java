@@ -0,0 +1,29 @@
+package com.foodmanagement.enums;
+
+/**
+ * Énumération des statuts d'un lot de génération de plans et de ses personnes
+ */
+public enum StatutGeneration {
+    EN_ATTENTE("En attente"),
+    EN_COURS("En cours"),
+    TERMINE("Terminé"),
+    ECHEC("Échec");
+
+    private final String libelle;
+
+    /**
+     * Constructeur de l'énumération
+     * @param libelle Le nom affiché du statut
+     */
+    StatutGeneration(String libelle) {
+        this.libelle = libelle;
+    }
+
+    /**
+     * Getter pour récupérer le libellé
+     * @return Le libellé du statut
+     */
+    public String getLibelle() {
+        return libelle;
+    }
+}
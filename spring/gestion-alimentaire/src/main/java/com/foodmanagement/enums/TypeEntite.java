@@ -0,0 +1,28 @@
+package com.foodmanagement.enums;
+
+/**
+ * Énumération des types d'entités reconnues dans un message du chatbot
+ */
+public enum TypeEntite {
+    ALIMENT("Aliment"),
+    INGREDIENT("Ingrédient"),
+    QUANTITE("Quantité");
+
+    private final String libelle;
+
+    /**
+     * Constructeur de l'énumération
+     * @param libelle Le nom affiché du type d'entité
+     */
+    TypeEntite(String libelle) {
+        this.libelle = libelle;
+    }
+
+    /**
+     * Getter pour récupérer le libellé
+     * @return Le libellé du type d'entité
+     */
+    public String getLibelle() {
+        return libelle;
+    }
+}
@@ -0,0 +1,57 @@
+package com.foodmanagement.enums;
+
+/**
+ * Énumération des types d'événements pour les buffets
+ * Chaque type fixe le nombre de portions prévues par invité et le coût moyen indicatif
+ */
+public enum TypeEvenement {
+    MARIAGE("Mariage avec repas complet", 1.5, 45.0),
+    ANNIVERSAIRE("Fête d'anniversaire", 1.2, 25.0),
+    ENTREPRISE("Événement d'entreprise", 1.0, 30.0),
+    COCKTAIL("Cocktail apéritif", 0.8, 20.0);
+
+    private final String libelle;
+    private final double multiplicateurPortions;
+    private final double coutMoyenParPersonne;
+
+    /**
+     * Constructeur de l'énumération
+     * @param libelle Le nom affiché du type d'événement
+     * @param multiplicateurPortions Portions prévues par invité et par catégorie
+     * @param coutMoyenParPersonne Coût moyen indicatif par invité
+     */
+    TypeEvenement(String libelle, double multiplicateurPortions, double coutMoyenParPersonne) {
+        this.libelle = libelle;
+        this.multiplicateurPortions = multiplicateurPortions;
+        this.coutMoyenParPersonne = coutMoyenParPersonne;
+    }
+
+    /**
+     * Retrouver un type d'événement à partir de sa saisie (casse et espaces ignorés)
+     * @param valeur Nom du type (ex : "mariage")
+     * @return Le type d'événement
+     * @throws IllegalArgumentException Si le type est inconnu
+     */
+    public static TypeEvenement depuis(String valeur) {
+        if (valeur == null || valeur.trim().isEmpty()) {
+            throw new IllegalArgumentException("Le type d'événement est obligatoire");
+        }
+        try {
+            return TypeEvenement.valueOf(valeur.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Type d'événement inconnu : " + valeur);
+        }
+    }
+
+    public String getLibelle() {
+        return libelle;
+    }
+
+    public double getMultiplicateurPortions() {
+        return multiplicateurPortions;
+    }
+
+    public double getCoutMoyenParPersonne() {
+        return coutMoyenParPersonne;
+    }
+}
@@ -0,0 +1,88 @@
+package com.foodmanagement.enums;
+
+import java.text.Normalizer;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Énumération des types de repas d'une journée
+ * Chaque type fixe sa part de l'apport journalier, sa composition de base
+ * (une catégorie par plat) et les catégories qu'il peut accueillir en plus
+ */
+public enum TypeRepas {
+    PETIT_DEJEUNER("Petit-déjeuner", 0.25,
+        List.of(CategorieFood.CEREALES, CategorieFood.FRUITS),
+        EnumSet.of(CategorieFood.CEREALES, CategorieFood.FRUITS, CategorieFood.DESSERTS)),
+    DEJEUNER("Déjeuner", 0.35,
+        List.of(CategorieFood.VIANDES, CategorieFood.LEGUMES, CategorieFood.CEREALES),
+        EnumSet.allOf(CategorieFood.class)),
+    DINER("Dîner", 0.30,
+        List.of(CategorieFood.VIANDES, CategorieFood.LEGUMES),
+        EnumSet.allOf(CategorieFood.class)),
+    COLLATION("Collation", 0.10,
+        List.of(CategorieFood.FRUITS),
+        EnumSet.of(CategorieFood.FRUITS, CategorieFood.DESSERTS, CategorieFood.CEREALES));
+
+    private final String libelle;
+    private final double partCalories;
+    private final List<CategorieFood> composition;
+    private final Set<CategorieFood> categoriesAutorisees;
+
+    /**
+     * Constructeur de l'énumération
+     * @param libelle Le nom affiché du repas (clé des plans)
+     * @param partCalories Part de l'apport journalier
+     * @param composition Catégorie de chaque plat servi
+     * @param categoriesAutorisees Catégories pouvant être ajoutées (préférences)
+     */
+    TypeRepas(String libelle, double partCalories, List<CategorieFood> composition,
+              Set<CategorieFood> categoriesAutorisees) {
+        this.libelle = libelle;
+        this.partCalories = partCalories;
+        this.composition = composition;
+        this.categoriesAutorisees = categoriesAutorisees;
+    }
+
+    /**
+     * Retrouver un type de repas à partir de son libellé ou de son nom
+     * (casse, accents, espaces et tirets ignorés : "Petit-déjeuner", "petit_dejeuner"...)
+     * @param valeur Type saisi
+     * @return Le type de repas
+     * @throws IllegalArgumentException Si le type est inconnu
+     */
+    public static TypeRepas depuis(String valeur) {
+        if (valeur == null || valeur.trim().isEmpty()) {
+            throw new IllegalArgumentException("Le type de repas est obligatoire");
+        }
+        String cle = cle(valeur);
+        for (TypeRepas type : values()) {
+            if (cle(type.name()).equals(cle) || cle(type.libelle).equals(cle)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Type de repas inconnu : " + valeur);
+    }
+
+    private static String cle(String texte) {
+        return Normalizer.normalize(texte.trim().toLowerCase(), Normalizer.Form.NFD)
+            .replaceAll("\\p{M}", "")
+            .replaceAll("[\\s_-]", "");
+    }
+
+    public String getLibelle() {
+        return libelle;
+    }
+
+    public double getPartCalories() {
+        return partCalories;
+    }
+
+    public List<CategorieFood> getComposition() {
+        return composition;
+    }
+
+    public Set<CategorieFood> getCategoriesAutorisees() {
+        return categoriesAutorisees;
+    }
+}
@@ -0,0 +1,31 @@
+package com.foodmanagement.enums;
+
+/**
+ * Énumération des unités de base des quantités normalisées
+ * Toute unité saisie connue est ramenée à l'une d'elles avec un facteur
+ */
+public enum UniteBase {
+    GRAMME("g"),
+    MILLILITRE("ml"),
+    PIECE("pièce"),
+    AUTRE(null);
+
+    // Symbole affiché (null pour AUTRE : l'unité saisie est conservée)
+    private final String symbole;
+
+    /**
+     * Constructeur de l'énumération
+     * @param symbole Le symbole affiché de l'unité
+     */
+    UniteBase(String symbole) {
+        this.symbole = symbole;
+    }
+
+    /**
+     * Getter pour récupérer le symbole
+     * @return Le symbole de l'unité, null pour AUTRE
+     */
+    public String getSymbole() {
+        return symbole;
+    }
+}
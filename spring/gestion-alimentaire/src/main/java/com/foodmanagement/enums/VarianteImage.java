@@ -0,0 +1,29 @@
+package com.foodmanagement.enums;
+
+/**
+ * Énumération des variantes d'une image
+ * Une image uploadée (originale) peut avoir des dérivées générées en arrière-plan
+ */
+public enum VarianteImage {
+    ORIGINALE("Fichier uploadé"),
+    WEB("Version optimisée pour le web (800 px)"),
+    MINIATURE("Miniature (150 px)");
+
+    private final String libelle;
+
+    /**
+     * Constructeur de l'énumération
+     * @param libelle Le nom affiché de la variante
+     */
+    VarianteImage(String libelle) {
+        this.libelle = libelle;
+    }
+
+    /**
+     * Getter pour récupérer le libellé
+     * @return Le libellé de la variante
+     */
+    public String getLibelle() {
+        return libelle;
+    }
+}
@@ -0,0 +1,808 @@
+package com.foodmanagement.service;
+
+import com.foodmanagement.dao.BuffetDao;
+import com.foodmanagement.dao.FoodDao;
+import com.foodmanagement.dao.PersonneDao;
+import com.foodmanagement.entity.Buffet;
+import com.foodmanagement.entity.BuffetFood;
+import com.foodmanagement.entity.Food;
+import com.foodmanagement.entity.Personne;
+import com.foodmanagement.enums.CategorieFood;
+import com.foodmanagement.enums.TypeEvenement;
+import com.foodmanagement.util.AgregateurListeCourses;
+import com.foodmanagement.util.OptimiseurBuffet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Implémentation du service Buffet
+ * S'appuie sur les DAO JDBC pour l'accès aux données
+ *
+ * Une portion correspond à un invité servi dans une catégorie : un buffet pour
+ * N invités prévoit N × multiplicateur de l'événement portions par catégorie servie.
+ * Le prix d'un aliment est un prix par portion.
+ */
+@Service
+public class BuffetServiceImpl implements BuffetService {
+
+    /**
+     * Portions standards en grammes par personne et par catégorie (avant multiplicateur)
+     */
+    private static final Map<CategorieFood, Double> PORTIONS_GRAMMES = new EnumMap<>(Map.of(
+        CategorieFood.LEGUMES, 150.0,
+        CategorieFood.FRUITS, 120.0,
+        CategorieFood.VIANDES, 200.0,
+        CategorieFood.CEREALES, 180.0,
+        CategorieFood.DESSERTS, 100.0
+    ));
+
+    /**
+     * Valeur d'une portion d'un aliment du buffet selon sa priorité (1 = haute)
+     */
+    private static final double[] VALEUR_PAR_PRIORITE = { 0.0, 3.0, 2.0, 1.0 };
+
+    /**
+     * Valeur d'une portion d'une alternative du catalogue : toujours sous les aliments choisis
+     */
+    private static final double VALEUR_ALTERNATIVE = 0.5;
+
+    /**
+     * Part maximale d'une catégorie servie par un seul aliment quand plusieurs sont disponibles
+     */
+    private static final double PART_MAX_ALIMENT = 0.6;
+
+    /**
+     * Nombre d'aliments proposés par catégorie (planification, suggestions)
+     */
+    private static final int ALIMENTS_PAR_CATEGORIE = 3;
+
+    /**
+     * Marge entre la fin des préparations et le début de l'événement
+     */
+    private static final int MARGE_PREPARATION_MINUTES = 30;
+
+    /**
+     * Durée de préparation retenue quand elle n'est pas renseignée
+     */
+    private static final int DUREE_PREPARATION_DEFAUT = 30;
+
+    private static final Pattern DUREE_HEURES = Pattern.compile("(\\d+)\\s*h(?:eures?)?\\s*(\\d+)?");
+    private static final Pattern DUREE_MINUTES = Pattern.compile("(\\d+)");
+
+    @Autowired
+    private BuffetDao buffetDao;
+
+    @Autowired
+    private FoodDao foodDao;
+
+    @Autowired
+    private AgregateurListeCourses agregateurListeCourses;
+
+    @Autowired
+    private PersonneDao personneDao;
+
+    @Autowired
+    private OptimiseurBuffet optimiseurBuffet;
+
+    @Value("${app.buffets.optimisation.candidats-par-categorie:20}")
+    private int candidatsParCategorie;
+
+    /**
+     * Créer un buffet pour un événement
+     */
+    @Override
+    @Transactional
+    public Long creerBuffet(Long organisateurId, String nomEvenement, LocalDateTime dateEvenement,
+                            Integer nombreInvites, String typeEvenement, Double budget) {
+        if (nomEvenement == null || nomEvenement.trim().isEmpty()) {
+            throw new IllegalArgumentException("Le nom de l'événement est obligatoire");
+        }
+        if (dateEvenement == null) {
+            throw new IllegalArgumentException("La date de l'événement est obligatoire");
+        }
+        validerNombreInvites(nombreInvites);
+        if (budget != null && budget <= 0) {
+            throw new IllegalArgumentException("Le budget doit être positif");
+        }
+        TypeEvenement type = TypeEvenement.depuis(typeEvenement);
+
+        Personne organisateur = personneDao.findById(organisateurId)
+            .orElseThrow(() -> new RuntimeException("Aucune personne trouvée avec l'ID : " + organisateurId));
+
+        Buffet buffet = new Buffet(nomEvenement.trim(), dateEvenement, nombreInvites, type, organisateur);
+        buffet.setBudget(budget);
+        return buffetDao.create(buffet).getId();
+    }
+
+    /**
+     * Planifier automatiquement un buffet
+     * Retient quelques aliments par catégorie (les moins chers si un budget est fixé)
+     * et répartit entre eux les portions de la catégorie
+     */
+    @Override
+    @Transactional
+    public Map<CategorieFood, List<Map<String, Object>>> planifierBuffetAutomatique(Long buffetId,
+                                                                                   List<CategorieFood> preferences) {
+        Buffet buffet = obtenirBuffet(buffetId);
+        List<CategorieFood> categories = preferences == null || preferences.isEmpty()
+            ? List.of(CategorieFood.values()) : preferences;
+
+        Set<Long> dejaServis = buffetDao.findAliments(buffetId).stream()
+            .map(aliment -> aliment.getFood().getId())
+            .collect(Collectors.toSet());
+
+        int demande = calculerDemande(buffet.getNombreInvites(), buffet.getTypeEvenement());
+        Map<CategorieFood, List<Map<String, Object>>> plan = new LinkedHashMap<>();
+        for (CategorieFood categorie : categories) {
+            List<Food> choisis = choisirAliments(categorie, buffet.getBudget() != null, dejaServis);
+            if (choisis.isEmpty()) {
+                continue;
+            }
+
+            int portions = (int) Math.ceil((double) demande / choisis.size());
+
+            List<Map<String, Object>> lignes = new ArrayList<>();
+            for (Food food : choisis) {
+                buffetDao.ajouterAliment(buffetId, food.getId(), portions, BuffetFood.PRIORITE_MOYENNE);
+
+                Map<String, Object> ligne = new LinkedHashMap<>();
+                ligne.put("food_id", food.getId());
+                ligne.put("nom", food.getNom());
+                ligne.put("quantite_personnes", portions);
+                ligne.put("cout_estime", arrondir(prix(food) * portions));
+                lignes.add(ligne);
+            }
+            plan.put(categorie, lignes);
+        }
+        return plan;
+    }
+
+    /**
+     * Ajouter un aliment au buffet
+     */
+    @Override
+    @Transactional
+    public boolean ajouterAlimentAuBuffet(Long buffetId, Long foodId, Integer quantitePersonnes, Integer priorite) {
+        obtenirBuffet(buffetId);
+        validerQuantite(quantitePersonnes);
+        if (priorite == null || priorite < BuffetFood.PRIORITE_HAUTE || priorite > BuffetFood.PRIORITE_BASSE) {
+            throw new IllegalArgumentException("La priorité doit être comprise entre 1 et 3");
+        }
+        if (foodDao.findById(foodId).isEmpty()) {
+            throw new RuntimeException("Aucun aliment trouvé avec l'ID : " + foodId);
+        }
+        return buffetDao.ajouterAliment(buffetId, foodId, quantitePersonnes, priorite);
+    }
+
+    /**
+     * Supprimer un aliment du buffet
+     */
+    @Override
+    @Transactional
+    public boolean supprimerAlimentDuBuffet(Long buffetId, Long foodId) {
+        obtenirBuffet(buffetId);
+        return buffetDao.supprimerAliment(buffetId, foodId);
+    }
+
+    /**
+     * Modifier la quantité d'un aliment dans le buffet
+     */
+    @Override
+    @Transactional
+    public boolean modifierQuantiteAliment(Long buffetId, Long foodId, Integer nouvelleQuantitePersonnes) {
+        obtenirBuffet(buffetId);
+        validerQuantite(nouvelleQuantitePersonnes);
+        return buffetDao.modifierQuantite(buffetId, foodId, nouvelleQuantitePersonnes);
+    }
+
+    /**
+     * Calculer les quantités nécessaires pour le buffet
+     */
+    @Override
+    public Map<String, Map<String, Object>> calculerQuantitesNecessaires(Long buffetId) {
+        obtenirBuffet(buffetId);
+
+        Map<String, Map<String, Object>> quantites = new LinkedHashMap<>();
+        for (BuffetFood aliment : buffetDao.findAliments(buffetId)) {
+            Food food = aliment.getFood();
+            double grammes = PORTIONS_GRAMMES.get(food.getCategorie());
+
+            Map<String, Object> detail = new LinkedHashMap<>();
+            detail.put("food_id", food.getId());
+            detail.put("categorie", food.getCategorie().name());
+            detail.put("quantite_personnes", aliment.getQuantitePersonnes());
+            detail.put("portion_grammes", grammes);
+            detail.put("quantite_totale_kg", arrondir(aliment.getQuantitePersonnes() * grammes / 1000.0));
+            detail.put("priorite", aliment.getPriorite());
+            detail.put("cout_estime", arrondir(aliment.getCoutEstime()));
+            quantites.put(food.getNom(), detail);
+        }
+        return quantites;
+    }
+
+    /**
+     * Estimer le coût total du buffet : prix par portion × portions prévues
+     */
+    @Override
+    public Double estimerCoutBuffet(Long buffetId) {
+        obtenirBuffet(buffetId);
+        return arrondir(cout(buffetDao.findAliments(buffetId)));
+    }
+
+    /**
+     * Vérifier l'équilibre nutritionnel du buffet
+     * Compare les portions servies par catégorie aux portions attendues
+     */
+    @Override
+    public Map<String, Object> verifierEquilibreNutritionnel(Long buffetId) {
+        Buffet buffet = obtenirBuffet(buffetId);
+        List<BuffetFood> aliments = buffetDao.findAliments(buffetId);
+        int demande = calculerDemande(buffet.getNombreInvites(), buffet.getTypeEvenement());
+
+        Map<CategorieFood, Integer> portions = portionsParCategorie(aliments);
+        double caloriesTotales = 0.0;
+        for (BuffetFood aliment : aliments) {
+            Food food = aliment.getFood();
+            double grammes = PORTIONS_GRAMMES.get(food.getCategorie());
+            caloriesTotales += (food.getCalories() != null ? food.getCalories() : 0.0)
+                * grammes / 100.0 * aliment.getQuantitePersonnes();
+        }
+
+        Map<String, Object> couverture = new LinkedHashMap<>();
+        List<String> suggestions = new ArrayList<>();
+        for (CategorieFood categorie : CategorieFood.values()) {
+            int servies = portions.getOrDefault(categorie, 0);
+            couverture.put(categorie.name(), Map.of(
+                "portions", servies,
+                "portions_attendues", demande,
+                "taux_couverture", arrondir(demande > 0 ? 100.0 * servies / demande : 0.0)
+            ));
+            if (servies == 0) {
+                suggestions.add("Ajouter des " + categorie.getLibelle().toLowerCase() + " au buffet");
+            } else if (servies < demande) {
+                suggestions.add("Prévoir " + (demande - servies) + " portions supplémentaires de "
+                    + categorie.getLibelle().toLowerCase());
+            }
+        }
+
+        long categoriesServies = portions.values().stream().filter(p -> p > 0).count();
+
+        Map<String, Object> rapport = new LinkedHashMap<>();
+        rapport.put("equilibre", suggestions.isEmpty());
+        rapport.put("categories_servies", categoriesServies);
+        rapport.put("couverture", couverture);
+        rapport.put("calories_totales", arrondir(caloriesTotales));
+        rapport.put("calories_par_invite", arrondir(caloriesTotales / buffet.getNombreInvites()));
+        rapport.put("suggestions", suggestions);
+        return rapport;
+    }
+
+    /**
+     * Générer une liste de courses pour le buffet
+     * Portions prévues par aliment, cumulées par ingrédient en une seule requête groupée
+     */
+    @Override
+    public Map<String, Double> genererListeCoursesBuffet(Long buffetId) {
+        obtenirBuffet(buffetId);
+
+        Map<Long, Double> portionsParFood = new HashMap<>();
+        for (BuffetFood aliment : buffetDao.findAliments(buffetId)) {
+            portionsParFood.merge(aliment.getFood().getId(), aliment.getQuantitePersonnes().doubleValue(), Double::sum);
+        }
+        return agregateurListeCourses.agreger(portionsParFood);
+    }
+
+    /**
+     * Obtenir des suggestions d'aliments pour un type d'événement
+     * Avec un budget : aliments dont le coût pour tous les invités tient dans la part de la catégorie
+     */
+    @Override
+    public Map<CategorieFood, List<Food>> obtenirSuggestionsParEvenement(String typeEvenement,
+                                                                        Integer nombreInvites,
+                                                                        Double budget) {
+        TypeEvenement type = TypeEvenement.depuis(typeEvenement);
+        validerNombreInvites(nombreInvites);
+        int demande = calculerDemande(nombreInvites, type);
+        Double plafondParPortion = budget != null ? budget / CategorieFood.values().length / demande : null;
+
+        Map<CategorieFood, List<Food>> suggestions = new LinkedHashMap<>();
+        for (CategorieFood categorie : CategorieFood.values()) {
+            List<Food> aliments = foodDao.findByCategorie(categorie).stream()
+                .filter(food -> plafondParPortion == null || prix(food) <= plafondParPortion)
+                .sorted(Comparator.comparingDouble(this::prix))
+                .limit(ALIMENTS_PAR_CATEGORIE + 2)
+                .collect(Collectors.toList());
+            suggestions.put(categorie, aliments);
+        }
+        return suggestions;
+    }
+
+    /**
+     * Calculer les portions standards par personne
+     */
+    @Override
+    public Double calculerPortionStandard(CategorieFood categorie, String typeEvenement) {
+        if (categorie == null) {
+            throw new IllegalArgumentException("La catégorie est obligatoire");
+        }
+        TypeEvenement type = TypeEvenement.depuis(typeEvenement);
+        return arrondir(PORTIONS_GRAMMES.get(categorie) * type.getMultiplicateurPortions());
+    }
+
+    /**
+     * Optimiser le buffet selon le budget
+     *
+     * Candidats : les aliments du buffet (valeur selon leur priorité) et, par catégorie,
+     * les alternatives les moins chères du catalogue (valeur plus faible). L'optimiseur
+     * couvre toutes les portions attendues des catégories servies en maximisant la valeur
+     * sous le budget. Une solution réalisable remplace la composition du buffet.
+     */
+    @Override
+    @Transactional
+    public Map<String, Object> optimiserBuffetParBudget(Long buffetId, Double budgetMax) {
+        if (budgetMax == null || budgetMax <= 0) {
+            throw new IllegalArgumentException("Le budget maximum doit être positif");
+        }
+        Buffet buffet = obtenirBuffet(buffetId);
+        List<BuffetFood> aliments = buffetDao.findAliments(buffetId);
+        double coutInitial = cout(aliments);
+
+        int demande = calculerDemande(buffet.getNombreInvites(), buffet.getTypeEvenement());
+        Map<CategorieFood, Integer> demandes = new EnumMap<>(CategorieFood.class);
+        if (aliments.isEmpty()) {
+            for (CategorieFood categorie : CategorieFood.values()) {
+                demandes.put(categorie, demande);
+            }
+        } else {
+            for (BuffetFood aliment : aliments) {
+                demandes.put(aliment.getFood().getCategorie(), demande);
+            }
+        }
+
+        // Un aliment sans prix passerait pour gratuit et fausserait le budget
+        List<String> sansPrix = aliments.stream()
+            .map(BuffetFood::getFood)
+            .filter(food -> food.getPrix() == null || food.getPrix() <= 0)
+            .map(Food::getNom)
+            .collect(Collectors.toList());
+        if (!sansPrix.isEmpty()) {
+            throw new IllegalArgumentException("Impossible d'optimiser le budget : aliments sans prix dans le buffet : "
+                + String.join(", ", sansPrix));
+        }
+
+        List<OptimiseurBuffet.Candidat> candidats = construireCandidats(aliments, demandes);
+        OptimiseurBuffet.Resultat resultat = optimiseurBuffet.optimiser(candidats, demandes, budgetMax);
+
+        if (resultat.isRealisable()) {
+            List<BuffetFood> composition = new ArrayList<>();
+            for (Map.Entry<OptimiseurBuffet.Candidat, Integer> entree : resultat.getPortions().entrySet()) {
+                OptimiseurBuffet.Candidat candidat = entree.getKey();
+                int priorite = candidat.isDansBuffet() ? candidat.getPriorite() : BuffetFood.PRIORITE_BASSE;
+                composition.add(new BuffetFood(buffet, candidat.getFood(), entree.getValue(), priorite));
+            }
+            buffetDao.remplacerAliments(buffetId, composition);
+            buffet.setBudget(budgetMax);
+            buffetDao.update(buffet);
+        }
+
+        return construireRapportOptimisation(resultat, demandes, budgetMax, coutInitial);
+    }
+
+    /**
+     * Planifier les temps de préparation
+     * Chaque préparation se termine au plus tard une marge avant l'événement
+     */
+    @Override
+    public Map<String, Object> planifierTempsPreparation(Long buffetId) {
+        Buffet buffet = obtenirBuffet(buffetId);
+        LocalDateTime finPreparations = buffet.getDateEvenement().minusMinutes(MARGE_PREPARATION_MINUTES);
+
+        List<Map<String, Object>> taches = new ArrayList<>();
+        LocalDateTime debutPreparations = finPreparations;
+        List<BuffetFood> aliments = new ArrayList<>(buffetDao.findAliments(buffetId));
+        aliments.sort(Comparator.comparingInt((BuffetFood aliment) ->
+            dureePreparation(aliment.getFood().getTempsPreparation())).reversed());
+
+        for (BuffetFood aliment : aliments) {
+            int duree = dureePreparation(aliment.getFood().getTempsPreparation());
+            LocalDateTime debut = finPreparations.minusMinutes(duree);
+            if (debut.isBefore(debutPreparations)) {
+                debutPreparations = debut;
+            }
+
+            Map<String, Object> tache = new LinkedHashMap<>();
+            tache.put("aliment", aliment.getFood().getNom());
+            tache.put("duree_minutes", duree);
+            tache.put("debut", debut);
+            tache.put("fin", finPreparations);
+            taches.add(tache);
+        }
+
+        Map<String, Object> planning = new LinkedHashMap<>();
+        planning.put("date_evenement", buffet.getDateEvenement());
+        planning.put("debut_preparations", debutPreparations);
+        planning.put("fin_preparations", finPreparations);
+        planning.put("marge_minutes", MARGE_PREPARATION_MINUTES);
+        planning.put("taches", taches);
+        return planning;
+    }
+
+    /**
+     * Dupliquer un buffet existant
+     * Les portions sont mises à l'échelle du nouveau nombre d'invités
+     */
+    @Override
+    @Transactional
+    public Long dupliquerBuffet(Long buffetId, String nouveauNom, LocalDateTime nouvelleDatete,
+                                Integer nouveauNombreInvites) {
+        Buffet source = obtenirBuffet(buffetId);
+        Long copieId = creerBuffet(source.getOrganisateur().getId(), nouveauNom, nouvelleDatete,
+            nouveauNombreInvites, source.getTypeEvenement().name(), source.getBudget());
+
+        double ratio = (double) nouveauNombreInvites / source.getNombreInvites();
+        List<BuffetFood> aliments = buffetDao.findAliments(buffetId);
+        for (BuffetFood aliment : aliments) {
+            aliment.setQuantitePersonnes(Math.max(1, (int) Math.ceil(aliment.getQuantitePersonnes() * ratio)));
+        }
+        buffetDao.remplacerAliments(copieId, aliments);
+        return copieId;
+    }
+
+    /**
+     * Générer un rapport détaillé du buffet
+     */
+    @Override
+    public Map<String, Object> genererRapportBuffet(Long buffetId) {
+        Buffet buffet = obtenirBuffet(buffetId);
+        List<BuffetFood> aliments = buffetDao.findAliments(buffetId);
+        double cout = cout(aliments);
+
+        Map<String, Object> rapport = new LinkedHashMap<>();
+        rapport.put("buffet", resumerBuffet(buffet, aliments));
+        rapport.put("quantites", calculerQuantitesNecessaires(buffetId));
+        rapport.put("cout_total", arrondir(cout));
+        rapport.put("cout_par_personne", arrondir(cout / buffet.getNombreInvites()));
+        rapport.put("equilibre_nutritionnel", verifierEquilibreNutritionnel(buffetId));
+        rapport.put("problemes", validerFaisabiliteBuffet(buffetId));
+        return rapport;
+    }
+
+    /**
+     * Marquer un buffet comme réalisé
+     */
+    @Override
+    @Transactional
+    public boolean marquerBuffetRealise(Long buffetId, Integer nombreInvitesReel, String commentaires) {
+        if (nombreInvitesReel == null || nombreInvitesReel < 0) {
+            throw new IllegalArgumentException("Le nombre d'invités réel ne peut pas être négatif");
+        }
+        if (commentaires != null && commentaires.length() > 1000) {
+            throw new IllegalArgumentException("Les commentaires ne peuvent pas dépasser 1000 caractères");
+        }
+
+        Buffet buffet = obtenirBuffet(buffetId);
+        if (Buffet.STATUT_REALISE.equals(buffet.getStatut())) {
+            return false;
+        }
+        buffet.setStatut(Buffet.STATUT_REALISE);
+        buffet.setNombreInvitesReel(nombreInvitesReel);
+        buffet.setCommentaires(commentaires);
+        buffetDao.update(buffet);
+        return true;
+    }
+
+    /**
+     * Obtenir l'historique des buffets d'un organisateur
+     */
+    @Override
+    public List<Map<String, Object>> obtenirHistoriqueBuffets(Long organisateurId) {
+        List<Map<String, Object>> historique = new ArrayList<>();
+        for (Buffet buffet : buffetDao.findByOrganisateurId(organisateurId)) {
+            historique.add(resumerBuffet(buffet, buffetDao.findAliments(buffet.getId())));
+        }
+        return historique;
+    }
+
+    /**
+     * Calculer les statistiques d'un organisateur
+     */
+    @Override
+    public Map<String, Object> calculerStatistiquesOrganisateur(Long organisateurId) {
+        List<Buffet> buffets = buffetDao.findByOrganisateurId(organisateurId);
+
+        double coutTotal = 0.0;
+        long invitesPrevus = 0;
+        long invitesPresents = 0;
+        long invitesPrevusRealises = 0;
+        int realises = 0;
+        Map<String, Integer> frequenceAliments = new LinkedHashMap<>();
+        Map<String, Integer> parType = new LinkedHashMap<>();
+
+        for (Buffet buffet : buffets) {
+            List<BuffetFood> aliments = buffetDao.findAliments(buffet.getId());
+            coutTotal += cout(aliments);
+            invitesPrevus += buffet.getNombreInvites();
+            parType.merge(buffet.getTypeEvenement().name(), 1, Integer::sum);
+            for (BuffetFood aliment : aliments) {
+                frequenceAliments.merge(aliment.getFood().getNom(), 1, Integer::sum);
+            }
+            if (Buffet.STATUT_REALISE.equals(buffet.getStatut()) && buffet.getNombreInvitesReel() != null) {
+                realises++;
+                invitesPresents += buffet.getNombreInvitesReel();
+                invitesPrevusRealises += buffet.getNombreInvites();
+            }
+        }
+
+        List<String> alimentsFavoris = frequenceAliments.entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+            .limit(5)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+
+        Map<String, Object> statistiques = new LinkedHashMap<>();
+        statistiques.put("nombre_buffets", buffets.size());
+        statistiques.put("buffets_realises", realises);
+        statistiques.put("cout_total", arrondir(coutTotal));
+        statistiques.put("cout_moyen", buffets.isEmpty() ? 0.0 : arrondir(coutTotal / buffets.size()));
+        statistiques.put("cout_moyen_par_invite", invitesPrevus == 0 ? 0.0 : arrondir(coutTotal / invitesPrevus));
+        statistiques.put("invites_moyen", buffets.isEmpty() ? 0.0 : arrondir((double) invitesPrevus / buffets.size()));
+        statistiques.put("taux_presence", invitesPrevusRealises == 0 ? null
+            : arrondir(100.0 * invitesPresents / invitesPrevusRealises));
+        statistiques.put("buffets_par_type", parType);
+        statistiques.put("aliments_favoris", alimentsFavoris);
+        return statistiques;
+    }
+
+    /**
+     * Valider la faisabilité d'un buffet
+     */
+    @Override
+    public List<String> validerFaisabiliteBuffet(Long buffetId) {
+        Buffet buffet = obtenirBuffet(buffetId);
+        List<BuffetFood> aliments = buffetDao.findAliments(buffetId);
+        List<String> problemes = new ArrayList<>();
+
+        if (buffet.getDateEvenement().isBefore(LocalDateTime.now())
+            && !Buffet.STATUT_REALISE.equals(buffet.getStatut())) {
+            problemes.add("La date de l'événement est passée");
+        }
+        if (aliments.isEmpty()) {
+            problemes.add("Le buffet ne contient aucun aliment");
+            return problemes;
+        }
+
+        int demande = calculerDemande(buffet.getNombreInvites(), buffet.getTypeEvenement());
+        for (Map.Entry<CategorieFood, Integer> portions : portionsParCategorie(aliments).entrySet()) {
+            if (portions.getValue() < demande) {
+                problemes.add("Portions insuffisantes en " + portions.getKey().getLibelle().toLowerCase()
+                    + " : " + portions.getValue() + " prévues pour " + demande + " attendues");
+            }
+        }
+
+        double cout = cout(aliments);
+        if (buffet.getBudget() != null && cout > buffet.getBudget()) {
+            problemes.add("Le coût estimé (" + arrondir(cout) + ") dépasse le budget (" + buffet.getBudget() + ")");
+        }
+
+        long sansPrix = aliments.stream().filter(aliment -> prix(aliment.getFood()) <= 0).count();
+        if (sansPrix > 0) {
+            problemes.add(sansPrix + " aliment(s) sans prix : le coût estimé est sous-évalué");
+        }
+
+        LocalDateTime debutPreparations = (LocalDateTime) planifierTempsPreparation(buffetId).get("debut_preparations");
+        if (debutPreparations.isBefore(LocalDateTime.now()) && buffet.getDateEvenement().isAfter(LocalDateTime.now())) {
+            problemes.add("Les préparations auraient dû commencer à " + debutPreparations);
+        }
+        return problemes;
+    }
+
+    // ================ MÉTHODES UTILITAIRES ================
+
+    private Buffet obtenirBuffet(Long buffetId) {
+        if (buffetId == null) {
+            throw new IllegalArgumentException("L'ID du buffet est obligatoire");
+        }
+        return buffetDao.findById(buffetId)
+            .orElseThrow(() -> new RuntimeException("Aucun buffet trouvé avec l'ID : " + buffetId));
+    }
+
+    private void validerNombreInvites(Integer nombreInvites) {
+        if (nombreInvites == null || nombreInvites <= 0) {
+            throw new IllegalArgumentException("Le nombre d'invités doit être positif");
+        }
+    }
+
+    private void validerQuantite(Integer quantitePersonnes) {
+        if (quantitePersonnes == null || quantitePersonnes <= 0) {
+            throw new IllegalArgumentException("La quantité de personnes doit être positive");
+        }
+    }
+
+    /**
+     * Portions attendues par catégorie servie
+     */
+    private int calculerDemande(int nombreInvites, TypeEvenement type) {
+        return (int) Math.ceil(nombreInvites * type.getMultiplicateurPortions());
+    }
+
+    private double prix(Food food) {
+        return food.getPrix() != null ? food.getPrix() : 0.0;
+    }
+
+    private double cout(List<BuffetFood> aliments) {
+        return aliments.stream().mapToDouble(BuffetFood::getCoutEstime).sum();
+    }
+
+    private Map<CategorieFood, Integer> portionsParCategorie(List<BuffetFood> aliments) {
+        Map<CategorieFood, Integer> portions = new EnumMap<>(CategorieFood.class);
+        for (BuffetFood aliment : aliments) {
+            portions.merge(aliment.getFood().getCategorie(), aliment.getQuantitePersonnes(), Integer::sum);
+        }
+        return portions;
+    }
+
+    private List<Food> choisirAliments(CategorieFood categorie, boolean parPrix, Set<Long> exclus) {
+        return foodDao.findByCategorie(categorie).stream()
+            .filter(food -> !exclus.contains(food.getId()))
+            .sorted(parPrix ? Comparator.comparingDouble(this::prix) : Comparator.comparing(Food::getNom))
+            .limit(ALIMENTS_PAR_CATEGORIE)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Candidats de l'optimiseur (retire des demandes les catégories sans aucun candidat)
+     * Un aliment peut couvrir toute sa catégorie s'il y est le seul choix de l'organisateur
+     * (ou le seul candidat) ; sinon il est plafonné pour garder de la variété
+     */
+    private List<OptimiseurBuffet.Candidat> construireCandidats(List<BuffetFood> aliments,
+                                                               Map<CategorieFood, Integer> demandes) {
+        Map<CategorieFood, List<Food>> alternatives = new EnumMap<>(CategorieFood.class);
+        for (Food food : foodDao.findMoinsChersParCategorie(candidatsParCategorie)) {
+            alternatives.computeIfAbsent(food.getCategorie(), c -> new ArrayList<>()).add(food);
+        }
+
+        Map<CategorieFood, Integer> alimentsParCategorie = new EnumMap<>(CategorieFood.class);
+        Set<Long> dansBuffet = new HashSet<>();
+        for (BuffetFood aliment : aliments) {
+            alimentsParCategorie.merge(aliment.getFood().getCategorie(), 1, Integer::sum);
+            dansBuffet.add(aliment.getFood().getId());
+        }
+
+        List<OptimiseurBuffet.Candidat> candidats = new ArrayList<>();
+        Iterator<Map.Entry<CategorieFood, Integer>> demandesRestantes = demandes.entrySet().iterator();
+        while (demandesRestantes.hasNext()) {
+            Map.Entry<CategorieFood, Integer> demande = demandesRestantes.next();
+            CategorieFood categorie = demande.getKey();
+            int plafondPartage = (int) Math.ceil(demande.getValue() * PART_MAX_ALIMENT);
+            List<Food> autres = alternatives.getOrDefault(categorie, List.of()).stream()
+                .filter(food -> !dansBuffet.contains(food.getId()))
+                .collect(Collectors.toList());
+            int choixOrganisateur = alimentsParCategorie.getOrDefault(categorie, 0);
+
+            // Buffet vide : une catégorie absente du catalogue n'est pas exigée
+            if (choixOrganisateur == 0 && autres.isEmpty()) {
+                demandesRestantes.remove();
+                continue;
+            }
+
+            for (BuffetFood aliment : aliments) {
+                if (aliment.getFood().getCategorie() != categorie) {
+                    continue;
+                }
+                int plafond = choixOrganisateur == 1 ? demande.getValue() : plafondPartage;
+                candidats.add(new OptimiseurBuffet.Candidat(aliment.getFood(),
+                    VALEUR_PAR_PRIORITE[aliment.getPriorite()], plafond, aliment.getPriorite()));
+            }
+            for (Food food : autres) {
+                int plafond = choixOrganisateur == 0 && autres.size() == 1 ? demande.getValue() : plafondPartage;
+                candidats.add(new OptimiseurBuffet.Candidat(food, VALEUR_ALTERNATIVE, plafond, null));
+            }
+        }
+        return candidats;
+    }
+
+    private Map<String, Object> construireRapportOptimisation(OptimiseurBuffet.Resultat resultat,
+                                                              Map<CategorieFood, Integer> demandes,
+                                                              double budgetMax, double coutInitial) {
+        List<Map<String, Object>> aliments = new ArrayList<>();
+        Map<CategorieFood, Double> coutParCategorie = new EnumMap<>(CategorieFood.class);
+        for (Map.Entry<OptimiseurBuffet.Candidat, Integer> entree : resultat.getPortions().entrySet()) {
+            Food food = entree.getKey().getFood();
+            double cout = prix(food) * entree.getValue();
+            coutParCategorie.merge(food.getCategorie(), cout, Double::sum);
+
+            Map<String, Object> ligne = new LinkedHashMap<>();
+            ligne.put("food_id", food.getId());
+            ligne.put("nom", food.getNom());
+            ligne.put("categorie", food.getCategorie().name());
+            ligne.put("prix_portion", prix(food));
+            ligne.put("quantite_personnes", entree.getValue());
+            ligne.put("cout", arrondir(cout));
+            ligne.put("alternative", !entree.getKey().isDansBuffet());
+            aliments.add(ligne);
+        }
+
+        Map<CategorieFood, Integer> portions = OptimiseurBuffet.portionsParCategorie(resultat.getPortions());
+        Map<String, Object> couverture = new LinkedHashMap<>();
+        for (Map.Entry<CategorieFood, Integer> demande : demandes.entrySet()) {
+            couverture.put(demande.getKey().name(), Map.of(
+                "portions_attendues", demande.getValue(),
+                "portions", portions.getOrDefault(demande.getKey(), 0),
+                "cout", arrondir(coutParCategorie.getOrDefault(demande.getKey(), 0.0))
+            ));
+        }
+
+        Map<String, Object> rapport = new LinkedHashMap<>();
+        rapport.put("statut", resultat.getStatut());
+        rapport.put("applique", resultat.isRealisable());
+        rapport.put("budget_max", budgetMax);
+        rapport.put("cout_initial", arrondir(coutInitial));
+        rapport.put("cout_total", arrondir(resultat.getCout()));
+        rapport.put("budget_minimum", arrondir(resultat.getCoutMinimal()));
+        rapport.put("valeur", arrondir(resultat.getValeur()));
+        if (resultat.isRealisable()) {
+            rapport.put("borne_superieure", arrondir(resultat.getBorneSuperieure()));
+            rapport.put("ecart_optimalite_pourcent", arrondir(100.0 * resultat.getEcartOptimalite()));
+        }
+        rapport.put("aliments", aliments);
+        rapport.put("couverture", couverture);
+        rapport.put("iterations", resultat.getIterations());
+        rapport.put("duree_ms", arrondir(resultat.getDureeMs()));
+        return rapport;
+    }
+
+    private Map<String, Object> resumerBuffet(Buffet buffet, List<BuffetFood> aliments) {
+        double cout = cout(aliments);
+        Map<String, Object> resume = new LinkedHashMap<>();
+        resume.put("id", buffet.getId());
+        resume.put("nom_evenement", buffet.getNomEvenement());
+        resume.put("date_evenement", buffet.getDateEvenement());
+        resume.put("type_evenement", buffet.getTypeEvenement().name());
+        resume.put("nombre_invites", buffet.getNombreInvites());
+        resume.put("nombre_invites_reel", buffet.getNombreInvitesReel());
+        resume.put("budget", buffet.getBudget());
+        resume.put("statut", buffet.getStatut());
+        resume.put("nombre_aliments", aliments.size());
+        resume.put("cout_estime", arrondir(cout));
+        resume.put("cout_par_personne", arrondir(cout / buffet.getNombreInvites()));
+        return resume;
+    }
+
+    /**
+     * Durée de préparation en minutes à partir du texte saisi ("45 min", "1h30", "2 heures")
+     */
+    private int dureePreparation(String tempsPreparation) {
+        if (tempsPreparation == null || tempsPreparation.isBlank()) {
+            return DUREE_PREPARATION_DEFAUT;
+        }
+        String texte = tempsPreparation.toLowerCase();
+        Matcher heures = DUREE_HEURES.matcher(texte);
+        if (heures.find()) {
+            int minutes = Integer.parseInt(heures.group(1)) * 60;
+            return heures.group(2) != null ? minutes + Integer.parseInt(heures.group(2)) : minutes;
+        }
+        Matcher minutes = DUREE_MINUTES.matcher(texte);
+        return minutes.find() ? Integer.parseInt(minutes.group(1)) : DUREE_PREPARATION_DEFAUT;
+    }
+
+    private double arrondir(double valeur) {
+        return Math.round(valeur * 100.0) / 100.0;
+    }
+}
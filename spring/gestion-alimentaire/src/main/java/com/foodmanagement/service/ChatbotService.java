@@ -2,6 +2,7 @@ package com.foodmanagement.service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 /**
  * Interface du service chatbot pour l'assistance alimentaire
@@ -19,6 +20,18 @@ public interface ChatbotService {
      */
     Map<String, Object> traiterMessage(String message, Long userId);
 
+    /**
+     * Traiter un message en publiant la réponse par étapes
+     * D'abord "intention", puis chaque partie de la réponse (message, suggestions, conseils...)
+     * dès qu'elle est calculée
+     * 
+     * @param message Message de l'utilisateur
+     * @param userId ID de l'utilisateur (optionnel pour personnalisation)
+     * @param etape Reçoit le nom de chaque étape et son contenu
+     * @return Réponse complète, identique à celle de traiterMessage
+     */
+    Map<String, Object> traiterMessageParEtapes(String message, Long userId, BiConsumer<String, Object> etape);
+
     /**
      * Analyser l'intention d'un message utilisateur
      * 
@@ -121,4 +134,11 @@ public interface ChatbotService {
      * @return Statistiques d'usage
      */
     Map<String, Object> obtenirStatistiquesUtilisation();
+
+    /**
+     * Recharger le dictionnaire des intentions sans redémarrer
+     * 
+     * @return Intentions et nombre d'expressions chargées
+     */
+    Map<String, Object> rechargerIntentions();
 }
@@ -0,0 +1,817 @@
+package com.foodmanagement.service;
+
+import com.foodmanagement.entity.Food;
+import com.foodmanagement.entity.Ingredient;
+import com.foodmanagement.entity.MessageChatbot;
+import com.foodmanagement.enums.CategorieFood;
+import com.foodmanagement.enums.TypeEntite;
+import com.foodmanagement.enums.TypeEvenement;
+import com.foodmanagement.enums.TypeRepas;
+import com.foodmanagement.util.ClassifieurIntentions;
+import com.foodmanagement.util.IndexCatalogue;
+import com.foodmanagement.util.IndexEntites;
+import com.foodmanagement.util.IndexRecherche;
+import com.foodmanagement.util.IndexRecettes;
+import com.foodmanagement.util.MemoireConversations;
+import com.foodmanagement.util.MetriquesChatbot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Implémentation du service chatbot
+ * S'appuie sur les services métier et sur l'index du catalogue en mémoire :
+ * les recherches d'aliments et d'ingrédients ne passent pas par des requêtes LIKE
+ */
+@Service
+public class ChatbotServiceImpl implements ChatbotService {
+
+    public static final String INTENTION_RECHERCHE_ALIMENT = "RECHERCHE_ALIMENT";
+    public static final String INTENTION_CONSEIL_NUTRITION = "CONSEIL_NUTRITION";
+    public static final String INTENTION_PLANIFICATION = "PLANIFICATION";
+    public static final String INTENTION_RECETTE = "RECETTE";
+    public static final String INTENTION_BUFFET = "BUFFET";
+    public static final String INTENTION_CALORIES = "CALORIES";
+    public static final String INTENTION_ALTERNATIVE = "ALTERNATIVE";
+    public static final String INTENTION_GENERAL = "GENERAL";
+
+    private static final int NOMBRE_ALTERNATIVES = 5;
+    private static final int NOMBRE_SUGGESTIONS = 10;
+    private static final int NOMBRE_RECETTES = 10;
+    private static final int HISTORIQUE_MAX = 200;
+
+    /**
+     * Appels directs (hors flux) : les parties ne sont publiées nulle part
+     */
+    private static final BiConsumer<String, Object> SANS_PUBLICATION = (nom, contenu) -> { };
+
+    @Autowired
+    private FoodService foodService;
+
+    @Autowired
+    private IngredientService ingredientService;
+
+    @Autowired
+    private PlanificationService planificationService;
+
+    @Autowired
+    private BuffetService buffetService;
+
+    @Autowired
+    private IndexCatalogue indexCatalogue;
+
+    @Autowired
+    private ClassifieurIntentions classifieurIntentions;
+
+    @Autowired
+    private MemoireConversations memoireConversations;
+
+    @Autowired
+    private MetriquesChatbot metriquesChatbot;
+
+    @Value("${app.planification.calories-jour:2000}")
+    private double caloriesJour;
+
+    /**
+     * Traiter un message de l'utilisateur et générer une réponse
+     */
+    @Override
+    public Map<String, Object> traiterMessage(String message, Long userId) {
+        return traiterMessageParEtapes(message, userId, SANS_PUBLICATION);
+    }
+
+    /**
+     * Traiter un message en publiant la réponse par étapes
+     * Les réponses composées (planification, buffet, conseils) publient chaque partie
+     * dès qu'elle est calculée ; les autres sont publiées partie par partie une fois prêtes.
+     * Intention et durée de traitement alimentent les métriques d'utilisation : la durée exclut
+     * le temps passé à publier, et un échec de publication (client parti) n'est pas une erreur
+     */
+    @Override
+    public Map<String, Object> traiterMessageParEtapes(String message, Long userId, BiConsumer<String, Object> etape) {
+        if (message == null || message.trim().isEmpty()) {
+            throw new IllegalArgumentException("Le message ne peut pas être vide");
+        }
+        long debut = System.nanoTime();
+        Publication publication = new Publication(etape);
+        String texte = IndexRecherche.normaliser(message);
+        String intention = classifieurIntentions.classer(message).getKey();
+        publication.accept("intention", intention);
+        List<IndexEntites.Entite> entites = indexCatalogue.extraireEntites(message);
+
+        Map<String, Object> parEtapes = new LinkedHashMap<>();
+        Map<String, Object> reponse;
+        try {
+            reponse = switch (intention) {
+                case INTENTION_ALTERNATIVE -> suggererAlternatives(extraireNomAliment(entites), message);
+                case INTENTION_CALORIES -> repondreCalories(extraireNomAliment(entites));
+                case INTENTION_RECETTE -> rechercherRecettes(extraireIngredients(entites));
+                case INTENTION_BUFFET -> repondreBuffet(texte, entites, parEtapes, publication);
+                case INTENTION_PLANIFICATION -> aiderPlanificationRepas(Map.of(), 7, userId, parEtapes, publication);
+                case INTENTION_CONSEIL_NUTRITION -> donnerConseilsNutritionnels(Map.of("objectif", texte), parEtapes, publication);
+                case INTENTION_RECHERCHE_ALIMENT -> obtenirInfosAliment(extraireNomAliment(entites));
+                default -> reponseGenerale();
+            };
+        } catch (RuntimeException e) {
+            if (!publication.echouee) {
+                metriquesChatbot.enregistrerErreur();
+            }
+            throw e;
+        }
+        metriquesChatbot.enregistrer(intention, System.nanoTime() - debut - publication.dureeNanos, texte);
+        if (reponse != parEtapes) {
+            reponse.forEach(etape);
+        }
+
+        Map<String, Object> resultat = new LinkedHashMap<>(reponse);
+        resultat.put("intention", intention);
+        resultat.put("timestamp", LocalDateTime.now());
+        if (userId != null) {
+            memoireConversations.enregistrer(userId, message, String.valueOf(reponse.getOrDefault("message", "")),
+                intention);
+        }
+        return resultat;
+    }
+
+    /**
+     * Analyser l'intention d'un message
+     * Confiance : part du score des expressions reconnues qui revient à l'intention retenue
+     */
+    @Override
+    public Map<String, Object> analyserIntention(String message) {
+        if (message == null || message.trim().isEmpty()) {
+            throw new IllegalArgumentException("Le message ne peut pas être vide");
+        }
+        Map.Entry<String, Double> intention = classifieurIntentions.classer(message);
+
+        Map<String, Object> analyse = new LinkedHashMap<>();
+        analyse.put("intention", intention.getKey());
+        analyse.put("confiance", Math.round(intention.getValue() * 100.0) / 100.0);
+        analyse.put("entites", indexCatalogue.extraireEntites(message).stream()
+            .map(this::decrire).collect(Collectors.toList()));
+        return analyse;
+    }
+
+    /**
+     * Suggérer des aliments selon des critères (categorie, calories_max, prix_max, limite)
+     */
+    @Override
+    public Map<String, Object> suggererAliments(Map<String, Object> criteres) {
+        Map<String, Object> filtres = criteres != null ? criteres : Map.of();
+        CategorieFood categorie = categorie(filtres.get("categorie"));
+        Double caloriesMax = nombre(filtres.get("calories_max"));
+        Double prixMax = nombre(filtres.get("prix_max"));
+        Double limite = nombre(filtres.get("limite"));
+        int nombre = limite != null && limite > 0 ? limite.intValue() : NOMBRE_SUGGESTIONS;
+
+        List<Food> candidats;
+        if (categorie != null) {
+            candidats = foodService.rechercherAlimentsParCategorie(categorie);
+        } else if (caloriesMax != null) {
+            candidats = foodService.rechercherAlimentsParCalories(0.0, caloriesMax);
+        } else {
+            candidats = foodService.obtenirAlimentsPopulaires(nombre);
+        }
+
+        List<Map<String, Object>> aliments = candidats.stream()
+            .filter(food -> caloriesMax == null || (food.getCalories() != null && food.getCalories() <= caloriesMax))
+            .filter(food -> prixMax == null || (food.getPrix() != null && food.getPrix() <= prixMax))
+            .limit(nombre)
+            .map(this::resumer)
+            .collect(Collectors.toList());
+
+        Map<String, Object> reponse = new LinkedHashMap<>();
+        reponse.put("message", aliments.isEmpty()
+            ? "Aucun aliment ne correspond à ces critères"
+            : "Voici " + aliments.size() + " aliment(s) correspondant à vos critères :");
+        reponse.put("criteres", filtres);
+        reponse.put("aliments", aliments);
+        reponse.put("suggestions", noms(aliments));
+        return reponse;
+    }
+
+    /**
+     * Donner des conseils nutritionnels selon l'objectif et les restrictions
+     */
+    @Override
+    public Map<String, Object> donnerConseilsNutritionnels(Map<String, Object> contexte) {
+        return donnerConseilsNutritionnels(contexte, new LinkedHashMap<>(), SANS_PUBLICATION);
+    }
+
+    private Map<String, Object> donnerConseilsNutritionnels(Map<String, Object> contexte, Map<String, Object> reponse,
+                                                            BiConsumer<String, Object> publier) {
+        Map<String, Object> donnees = contexte != null ? contexte : Map.of();
+        String objectif = IndexRecherche.normaliser(String.valueOf(donnees.getOrDefault("objectif", "")));
+
+        List<String> conseils = new ArrayList<>();
+        if (objectif.contains("perdre") || objectif.contains("maigrir") || objectif.contains("poids")) {
+            conseils.add("Visez un apport légèrement inférieur à vos besoins (environ " + Math.round(caloriesJour * 0.85) + " kcal par jour)");
+            conseils.add("Privilégiez les légumes et les fruits, rassasiants et peu caloriques");
+            conseils.add("Limitez les desserts à quelques fois par semaine");
+        } else if (objectif.contains("prendre") || objectif.contains("muscle")) {
+            conseils.add("Augmentez votre apport (environ " + Math.round(caloriesJour * 1.15) + " kcal par jour)");
+            conseils.add("Répartissez les protéines (viandes, céréales complètes) sur tous les repas");
+        } else {
+            conseils.add("Un apport d'environ " + Math.round(caloriesJour) + " kcal par jour convient à un adulte moyen");
+        }
+        conseils.add("Incluez au moins 5 portions de fruits et légumes par jour");
+        conseils.add("Variez les aliments d'un jour à l'autre");
+        conseils.add("Buvez suffisamment d'eau tout au long de la journée");
+
+        Object restrictions = donnees.get("restrictions");
+        if (restrictions instanceof Collection<?> liste && !liste.isEmpty()) {
+            conseils.add("Pour vos restrictions (" + liste.stream().map(String::valueOf).collect(Collectors.joining(", "))
+                + "), demandez-moi des alternatives aux aliments concernés");
+        }
+        ajouter(reponse, publier, "message", "Voici mes conseils nutritionnels :");
+        ajouter(reponse, publier, "conseils", conseils);
+
+        Map<String, List<String>> exemples = new LinkedHashMap<>();
+        for (CategorieFood categorie : List.of(CategorieFood.LEGUMES, CategorieFood.FRUITS)) {
+            List<String> noms = foodService.rechercherAlimentsParCategorie(categorie).stream()
+                .limit(3).map(Food::getNom).collect(Collectors.toList());
+            if (!noms.isEmpty()) {
+                exemples.put(categorie.getLibelle(), noms);
+            }
+        }
+
+        ajouter(reponse, publier, "exemples", exemples);
+        return reponse;
+    }
+
+    /**
+     * Aider à la planification : objectif calorique par repas et état du plan du mois
+     */
+    @Override
+    public Map<String, Object> aiderPlanificationRepas(Map<String, Object> preferences, Integer nombreJours, Long userId) {
+        return aiderPlanificationRepas(preferences, nombreJours, userId, new LinkedHashMap<>(), SANS_PUBLICATION);
+    }
+
+    private Map<String, Object> aiderPlanificationRepas(Map<String, Object> preferences, Integer nombreJours, Long userId,
+                                                        Map<String, Object> reponse, BiConsumer<String, Object> publier) {
+        Map<String, Object> donnees = preferences != null ? preferences : Map.of();
+        Double objectif = nombre(donnees.get("calories"));
+        double calories = objectif != null && objectif > 0 ? objectif : caloriesJour;
+        int jours = nombreJours != null && nombreJours > 0 ? nombreJours : 7;
+
+        Map<String, Object> repartition = new LinkedHashMap<>();
+        for (TypeRepas type : TypeRepas.values()) {
+            Map<String, Object> repas = new LinkedHashMap<>();
+            repas.put("calories", Math.round(calories * type.getPartCalories()));
+            repas.put("composition", type.getComposition().stream().map(CategorieFood::getLibelle).collect(Collectors.toList()));
+            repartition.put(type.getLibelle(), repas);
+        }
+
+        ajouter(reponse, publier, "message", "Pour " + jours + " jour(s), visez environ " + Math.round(calories) + " kcal par jour :");
+        ajouter(reponse, publier, "repartition", repartition);
+        if (userId != null) {
+            ajouter(reponse, publier, "plan_du_mois", planificationService.obtenirStatistiquesPlanification(userId, LocalDate.now()));
+            ajouter(reponse, publier, "conseil", "Je peux générer ce plan pour vous : POST /planification/plan-automatique");
+        } else {
+            ajouter(reponse, publier, "conseil", "Connectez-vous pour obtenir un plan personnalisé");
+        }
+        return reponse;
+    }
+
+    /**
+     * Informations sur un aliment : fiche, ingrédients et alternatives proches
+     */
+    @Override
+    public Map<String, Object> obtenirInfosAliment(String nomAliment) {
+        Map<String, Object> reponse = new LinkedHashMap<>();
+        Optional<Food> trouve = trouverAliment(nomAliment);
+        if (trouve.isEmpty()) {
+            reponse.put("message", nomAliment == null || nomAliment.isBlank()
+                ? "Quel aliment recherchez-vous ?"
+                : "Je n'ai pas trouvé d'aliment nommé « " + nomAliment + " »");
+            reponse.put("suggestions", nomsProches(nomAliment));
+            return reponse;
+        }
+
+        Food food = trouve.get();
+        Map<String, Object> details = resumer(food);
+        details.put("description", food.getDescription());
+        details.put("ingredients", ingredientService.rechercherIngredientsParAliment(food.getId()).stream()
+            .map(Ingredient::getNom).collect(Collectors.toList()));
+
+        reponse.put("message", "Voici les informations sur " + food.getNom() + " :");
+        reponse.put("aliment", details);
+        reponse.put("suggestions", alternatives(food, null, null, null, Set.of()).stream()
+            .map(Food::getNom).collect(Collectors.toList()));
+        return reponse;
+    }
+
+    /**
+     * Suggérer des alternatives à un aliment
+     * La raison oriente la recherche : calories (plus léger), prix (moins cher),
+     * allergie (sans les ingrédients cités, à défaut sans ceux de l'aliment), goût (autres catégories)
+     */
+    @Override
+    public Map<String, Object> suggererAlternatives(String nomAliment, String raison) {
+        Map<String, Object> reponse = new LinkedHashMap<>();
+        Optional<Food> trouve = trouverAliment(nomAliment);
+        if (trouve.isEmpty()) {
+            reponse.put("message", nomAliment == null || nomAliment.isBlank()
+                ? "Quel aliment souhaitez-vous remplacer ?"
+                : "Je n'ai pas trouvé d'aliment nommé « " + nomAliment + " »");
+            reponse.put("suggestions", nomsProches(nomAliment));
+            return reponse;
+        }
+
+        Food original = trouve.get();
+        String motif = IndexRecherche.normaliser(raison);
+        Set<CategorieFood> categories = motif.contains("gout") ? null : Set.of(original.getCategorie());
+        Double prixMax = motif.contains("prix") || motif.contains("cher") || motif.contains("budget")
+            ? original.getPrix() : null;
+        Set<Long> exclus = new HashSet<>();
+        if (motif.contains("allerg") || motif.contains("intoleran") || motif.contains("sans ")) {
+            for (IndexEntites.Entite entite : indexCatalogue.extraireEntites(raison)) {
+                if (entite.getType() == TypeEntite.INGREDIENT) {
+                    exclus.add(entite.getId());
+                }
+            }
+            if (exclus.isEmpty()) {
+                ingredientService.rechercherIngredientsParAliment(original.getId()).forEach(i -> exclus.add(i.getId()));
+            }
+        }
+
+        Double caloriesMax = motif.contains("calori") || motif.contains("leger") || motif.contains("regime")
+            ? calories(original) : null;
+
+        List<Food> trouvees = alternatives(original, categories, prixMax, caloriesMax, exclus);
+
+        List<Map<String, Object>> liste = trouvees.stream().map(this::resumer).collect(Collectors.toList());
+        reponse.put("message", liste.isEmpty()
+            ? "Je n'ai pas trouvé d'alternative à " + original.getNom() + " pour cette raison"
+            : "Voici des alternatives à " + original.getNom() + " :");
+        reponse.put("aliment_original", resumer(original));
+        reponse.put("raison", raison);
+        reponse.put("alternatives", liste);
+        reponse.put("suggestions", noms(liste));
+        return reponse;
+    }
+
+    /**
+     * Calculer les apports d'une liste d'aliments ({nom ou id, quantite en grammes})
+     */
+    @Override
+    public Map<String, Object> calculerNutrition(List<Map<String, Object>> aliments) {
+        if (aliments == null || aliments.isEmpty()) {
+            throw new IllegalArgumentException("La liste des aliments ne peut pas être vide");
+        }
+
+        List<Map<String, Object>> details = new ArrayList<>();
+        List<String> inconnus = new ArrayList<>();
+        Map<CategorieFood, Double> parCategorie = new EnumMap<>(CategorieFood.class);
+        double total = 0.0;
+
+        for (Map<String, Object> ligne : aliments) {
+            Double id = nombre(ligne.get("id"));
+            Optional<Food> trouve = id != null ? foodService.obtenirAlimentParId(id.longValue())
+                : trouverAliment(ligne.get("nom") != null ? ligne.get("nom").toString() : null);
+            if (trouve.isEmpty()) {
+                inconnus.add(String.valueOf(ligne.getOrDefault("nom", ligne.get("id"))));
+                continue;
+            }
+            Food food = trouve.get();
+            Double quantite = nombre(ligne.get("quantite"));
+            double grammes = quantite != null && quantite > 0 ? quantite : 100.0;
+            double calories = (food.getCalories() != null ? food.getCalories() : 0.0) * grammes / 100.0;
+
+            Map<String, Object> detail = new LinkedHashMap<>();
+            detail.put("nom", food.getNom());
+            detail.put("quantite_g", grammes);
+            detail.put("calories", arrondir(calories));
+            details.add(detail);
+            parCategorie.merge(food.getCategorie(), calories, Double::sum);
+            total += calories;
+        }
+
+        Map<String, Double> repartition = new LinkedHashMap<>();
+        parCategorie.forEach((categorie, calories) -> repartition.put(categorie.getLibelle(), arrondir(calories)));
+
+        Map<String, Object> reponse = new LinkedHashMap<>();
+        reponse.put("message", "Total : " + Math.round(total) + " kcal");
+        reponse.put("calories_totales", arrondir(total));
+        reponse.put("part_journaliere", arrondir(total / caloriesJour));
+        reponse.put("details", details);
+        reponse.put("repartition_categories", repartition);
+        if (!inconnus.isEmpty()) {
+            reponse.put("aliments_inconnus", inconnus);
+        }
+        return reponse;
+    }
+
+    /**
+     * Aider à l'organisation d'un buffet : quantités par catégorie et budget indicatif
+     */
+    @Override
+    public Map<String, Object> aiderOrganisationBuffet(String typeEvenement, Integer nombreInvites, Double budget) {
+        return aiderOrganisationBuffet(typeEvenement, nombreInvites, budget, new LinkedHashMap<>(), SANS_PUBLICATION);
+    }
+
+    private Map<String, Object> aiderOrganisationBuffet(String typeEvenement, Integer nombreInvites, Double budget,
+                                                        Map<String, Object> reponse, BiConsumer<String, Object> publier) {
+        if (nombreInvites == null || nombreInvites <= 0) {
+            throw new IllegalArgumentException("Le nombre d'invités doit être positif");
+        }
+        TypeEvenement type = TypeEvenement.depuis(typeEvenement);
+        ajouter(reponse, publier, "message", "Voici mes recommandations pour votre buffet :");
+        ajouter(reponse, publier, "type_evenement", type.getLibelle());
+        ajouter(reponse, publier, "nombre_invites", nombreInvites);
+
+        Map<String, Object> quantites = new LinkedHashMap<>();
+        for (CategorieFood categorie : CategorieFood.values()) {
+            double portion = buffetService.calculerPortionStandard(categorie, type.name());
+            quantites.put(categorie.getLibelle(), arrondir(portion * nombreInvites / 1000.0) + " kg");
+        }
+        double coutEstime = type.getCoutMoyenParPersonne() * nombreInvites;
+        ajouter(reponse, publier, "quantites", quantites);
+        ajouter(reponse, publier, "cout_estime", arrondir(coutEstime));
+        if (budget != null) {
+            ajouter(reponse, publier, "budget", budget);
+        }
+
+        List<String> conseils = new ArrayList<>();
+        conseils.add("Prévoyez les quantités ci-dessus pour " + nombreInvites + " invités (" + type.getLibelle() + ")");
+        if (budget != null && budget < coutEstime) {
+            conseils.add("Votre budget est inférieur au coût habituel (" + Math.round(coutEstime)
+                + ") : privilégiez céréales et légumes, et utilisez l'optimisation par budget du buffet");
+        }
+        conseils.add("Proposez au moins une option végétarienne");
+
+        ajouter(reponse, publier, "conseils", conseils);
+        return reponse;
+    }
+
+    /**
+     * Rechercher les aliments réalisables avec des ingrédients disponibles
+     * Classés par nombre d'ingrédients disponibles utilisés, puis par ingrédients manquants
+     */
+    @Override
+    public Map<String, Object> rechercherRecettes(List<String> ingredients) {
+        Map<String, Object> reponse = new LinkedHashMap<>();
+        if (ingredients == null || ingredients.isEmpty()) {
+            reponse.put("message", "Quels ingrédients avez-vous à disposition ?");
+            return reponse;
+        }
+
+        Set<Long> disponibles = new LinkedHashSet<>();
+        List<String> reconnus = new ArrayList<>();
+        for (String nom : ingredients) {
+            indexCatalogue.rechercherIngredients(nom, null, 1).forEach(ingredient -> {
+                if (disponibles.add(ingredient.getId())) {
+                    reconnus.add(ingredient.getNom());
+                }
+            });
+        }
+
+        List<Map<String, Object>> recettes = indexCatalogue.estPret()
+            ? recettesIndexees(disponibles)
+            : recettesParRequetes(disponibles);
+
+        reponse.put("message", recettes.isEmpty()
+            ? "Je n'ai trouvé aucune recette avec ces ingrédients"
+            : "Avec ces ingrédients, voici ce que vous pouvez préparer :");
+        reponse.put("ingredients_reconnus", reconnus);
+        reponse.put("recettes", recettes);
+        reponse.put("suggestions", noms(recettes));
+        return reponse;
+    }
+
+    /**
+     * Historique de conversation : derniers échanges, du plus ancien au plus récent
+     * Servi depuis la mémoire des conversations quand elle suffit
+     */
+    @Override
+    public List<Map<String, Object>> obtenirHistoriqueConversation(Long userId, Integer limite) {
+        if (userId == null || userId <= 0) {
+            throw new IllegalArgumentException("L'ID de l'utilisateur doit être un nombre positif");
+        }
+        int nombre = limite != null && limite > 0 ? Math.min(limite, HISTORIQUE_MAX) : HISTORIQUE_MAX;
+
+        List<Map<String, Object>> historique = new ArrayList<>();
+        for (MessageChatbot echange : memoireConversations.derniers(userId, nombre)) {
+            Map<String, Object> ligne = new LinkedHashMap<>();
+            ligne.put("message", echange.getMessage());
+            ligne.put("reponse", echange.getReponse());
+            ligne.put("intention", echange.getIntention());
+            ligne.put("date", echange.getDateMessage());
+            historique.add(ligne);
+        }
+        return historique;
+    }
+
+    /**
+     * Réinitialiser le contexte : l'historique de l'utilisateur est oublié
+     */
+    @Override
+    public boolean reinitialiserContexte(Long userId) {
+        if (userId == null || userId <= 0) {
+            throw new IllegalArgumentException("L'ID de l'utilisateur doit être un nombre positif");
+        }
+        memoireConversations.reinitialiser(userId);
+        return true;
+    }
+
+    /**
+     * Statistiques d'utilisation : messages, latences et débit (instantané des métriques),
+     * état du catalogue consulté par le chatbot
+     */
+    @Override
+    public Map<String, Object> obtenirStatistiquesUtilisation() {
+        Map<String, Object> statistiques = new LinkedHashMap<>();
+        statistiques.put("utilisation", metriquesChatbot.instantane());
+        statistiques.put("aliments_disponibles", foodService.compterAliments());
+        statistiques.put("ingredients_disponibles", ingredientService.compterIngredients());
+        statistiques.put("index_catalogue_pret", indexCatalogue.estPret());
+        statistiques.put("intentions", classifieurIntentions.getIntentions());
+        statistiques.put("conversations", memoireConversations.obtenirEtat());
+        return statistiques;
+    }
+
+    /**
+     * Recharger le dictionnaire des intentions (l'ancien reste en service en cas d'erreur)
+     */
+    @Override
+    public Map<String, Object> rechargerIntentions() {
+        return classifieurIntentions.recharger();
+    }
+
+    // ================ MÉTHODES UTILITAIRES ================
+
+    /**
+     * Recettes depuis l'index des recettes : un seul parcours du catalogue en mémoire
+     */
+    private List<Map<String, Object>> recettesIndexees(Set<Long> disponibles) {
+        List<Map<String, Object>> recettes = new ArrayList<>();
+        for (IndexRecettes.Correspondance correspondance : indexCatalogue.rechercherRecettes(disponibles, NOMBRE_RECETTES)) {
+            Map<String, Object> recette = resumer(correspondance.getFood());
+            recette.put("ingredients_disponibles", correspondance.getIngredientsDisponibles());
+            recette.put("ingredients_manquants", correspondance.getIngredientsManquants());
+            List<String> aAcheter = new ArrayList<>();
+            for (Long ingredientId : correspondance.getIdsManquants()) {
+                indexCatalogue.obtenirIngredient(ingredientId).ifPresent(ingredient -> aAcheter.add(ingredient.getNom()));
+            }
+            recette.put("a_acheter", aAcheter);
+            recettes.add(recette);
+        }
+        return recettes;
+    }
+
+    /**
+     * Recettes par requêtes, une par ingrédient disponible (index en construction)
+     */
+    private List<Map<String, Object>> recettesParRequetes(Set<Long> disponibles) {
+        Map<Long, Food> aliments = new HashMap<>();
+        Map<Long, Integer> couverts = new HashMap<>();
+        for (Long ingredientId : disponibles) {
+            for (Food food : foodService.rechercherAlimentsAvecIngredient(ingredientId)) {
+                aliments.putIfAbsent(food.getId(), food);
+                couverts.merge(food.getId(), 1, Integer::sum);
+            }
+        }
+
+        return aliments.values().stream()
+            .sorted((a, b) -> {
+                int parCouverture = Integer.compare(couverts.get(b.getId()), couverts.get(a.getId()));
+                return parCouverture != 0 ? parCouverture
+                    : Integer.compare(manquants(a, couverts.get(a.getId())), manquants(b, couverts.get(b.getId())));
+            })
+            .limit(NOMBRE_RECETTES)
+            .map(food -> {
+                Map<String, Object> recette = resumer(food);
+                recette.put("ingredients_disponibles", couverts.get(food.getId()));
+                recette.put("ingredients_manquants", manquants(food, couverts.get(food.getId())));
+                return recette;
+            })
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Premier aliment du catalogue cité dans le message (nom entier de préférence)
+     */
+    private String extraireNomAliment(List<IndexEntites.Entite> entites) {
+        return entites.stream()
+            .filter(entite -> entite.getType() == TypeEntite.ALIMENT)
+            .min((a, b) -> Boolean.compare(b.isComplete(), a.isComplete()))
+            .map(IndexEntites.Entite::getNom)
+            .orElse(null);
+    }
+
+    private List<String> extraireIngredients(List<IndexEntites.Entite> entites) {
+        return entites.stream()
+            .filter(entite -> entite.getType() == TypeEntite.INGREDIENT)
+            .map(IndexEntites.Entite::getNom)
+            .collect(Collectors.toList());
+    }
+
+    private Map<String, Object> repondreCalories(String nomAliment) {
+        Optional<Food> trouve = trouverAliment(nomAliment);
+        Map<String, Object> reponse = new LinkedHashMap<>();
+        if (trouve.isEmpty()) {
+            reponse.put("message", "De quel aliment voulez-vous connaître les calories ?");
+            return reponse;
+        }
+        Food food = trouve.get();
+        reponse.put("message", food.getNom() + " apporte " + Math.round(calories(food)) + " kcal");
+        reponse.put("aliment", resumer(food));
+        return reponse;
+    }
+
+    /**
+     * Nombre d'invités : première quantité sans unité ou exprimée en personnes
+     */
+    private Map<String, Object> repondreBuffet(String texte, List<IndexEntites.Entite> entites, Map<String, Object> reponse,
+                                               BiConsumer<String, Object> publier) {
+        Integer invites = entites.stream()
+            .filter(entite -> entite.getType() == TypeEntite.QUANTITE)
+            .filter(entite -> entite.getUnite() == null || "personnes".equals(entite.getUnite()))
+            .map(entite -> (int) Math.min(entite.getValeur(), Integer.MAX_VALUE))
+            .findFirst()
+            .orElse(null);
+        if (invites == null || invites == 0) {
+            ajouter(reponse, publier, "message", "Combien d'invités attendez-vous pour votre événement ?");
+            return reponse;
+        }
+        String type = texte.contains("mariage") ? TypeEvenement.MARIAGE.name()
+            : texte.contains("anniversaire") ? TypeEvenement.ANNIVERSAIRE.name()
+            : texte.contains("cocktail") ? TypeEvenement.COCKTAIL.name()
+            : TypeEvenement.ENTREPRISE.name();
+        return aiderOrganisationBuffet(type, invites, null, reponse, publier);
+    }
+
+    private Map<String, Object> reponseGenerale() {
+        Map<String, Object> reponse = new LinkedHashMap<>();
+        reponse.put("message", "Je suis votre assistant culinaire ! Je peux vous aider à rechercher des aliments, "
+            + "planifier vos repas, organiser un buffet, calculer des calories, trouver des alternatives "
+            + "et des recettes selon vos ingrédients.");
+        reponse.put("suggestions", List.of(
+            "Peux-tu me donner des infos sur les épinards ?",
+            "Aide-moi à planifier mes repas de la semaine",
+            "Que puis-je manger à la place du beurre ?"));
+        return reponse;
+    }
+
+    /**
+     * Aliment désigné par un nom : égalité exacte d'abord, sinon le mieux classé par l'index
+     */
+    private Optional<Food> trouverAliment(String nom) {
+        if (nom == null || nom.isBlank()) {
+            return Optional.empty();
+        }
+        List<Food> trouves = foodService.rechercherAlimentsParNom(nom.trim());
+        String cle = IndexRecherche.normaliser(nom);
+        return trouves.stream()
+            .filter(food -> IndexRecherche.normaliser(food.getNom()).equals(cle))
+            .findFirst()
+            .or(() -> trouves.stream().findFirst());
+    }
+
+    private List<String> nomsProches(String nom) {
+        if (nom == null || nom.isBlank()) {
+            return List.of();
+        }
+        String debut = nom.trim().substring(0, Math.min(3, nom.trim().length()));
+        return foodService.rechercherAlimentsParNom(debut).stream()
+            .limit(NOMBRE_ALTERNATIVES).map(Food::getNom).collect(Collectors.toList());
+    }
+
+    /**
+     * Plus proches voisins de l'aliment ; à défaut d'index, mêmes critères que la planification
+     */
+    private List<Food> alternatives(Food original, Set<CategorieFood> categories, Double prixMax, Double caloriesMax,
+                                    Set<Long> exclus) {
+        if (indexCatalogue.estPret() && indexCatalogue.contientAlternative(original.getId())) {
+            return indexCatalogue.rechercherAlternatives(original.getId(), categories, prixMax, caloriesMax, exclus,
+                NOMBRE_ALTERNATIVES);
+        }
+        return planificationService.suggererAlternatives(original, null).stream()
+            .filter(food -> prixMax == null || (food.getPrix() != null && food.getPrix() <= prixMax))
+            .filter(food -> caloriesMax == null || calories(food) < caloriesMax)
+            .collect(Collectors.toList());
+    }
+
+    private int manquants(Food food, int couverts) {
+        return food.getNombreIngredients() != null ? Math.max(0, food.getNombreIngredients() - couverts) : 0;
+    }
+
+    private Map<String, Object> decrire(IndexEntites.Entite entite) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("type", entite.getType().getLibelle());
+        if (entite.getType() == TypeEntite.QUANTITE) {
+            description.put("valeur", entite.getValeur());
+            description.put("unite", entite.getUnite());
+        } else {
+            description.put("id", entite.getId());
+            description.put("nom", entite.getNom());
+            description.put("complete", entite.isComplete());
+            description.put("corrections", entite.getCorrections());
+        }
+        return description;
+    }
+
+    private Map<String, Object> resumer(Food food) {
+        Map<String, Object> resume = new LinkedHashMap<>();
+        resume.put("id", food.getId());
+        resume.put("nom", food.getNom());
+        resume.put("categorie", food.getCategorie() != null ? food.getCategorie().getLibelle() : null);
+        resume.put("calories", food.getCalories());
+        resume.put("prix", food.getPrix());
+        return resume;
+    }
+
+    private List<String> noms(List<Map<String, Object>> aliments) {
+        return aliments.stream().map(aliment -> String.valueOf(aliment.get("nom"))).collect(Collectors.toList());
+    }
+
+    private double calories(Food food) {
+        if (food.getCaloriesTotales() != null) {
+            return food.getCaloriesTotales();
+        }
+        return food.getCalories() != null ? food.getCalories() : 0.0;
+    }
+
+    private CategorieFood categorie(Object valeur) {
+        if (valeur == null || valeur.toString().isBlank()) {
+            return null;
+        }
+        String cle = IndexRecherche.normaliser(valeur.toString());
+        for (CategorieFood categorie : CategorieFood.values()) {
+            if (IndexRecherche.normaliser(categorie.name()).equals(cle)
+                || IndexRecherche.normaliser(categorie.getLibelle()).equals(cle)) {
+                return categorie;
+            }
+        }
+        throw new IllegalArgumentException("Catégorie inconnue : " + valeur);
+    }
+
+    private Double nombre(Object valeur) {
+        if (valeur == null) {
+            return null;
+        }
+        if (valeur instanceof Number nombre) {
+            return nombre.doubleValue();
+        }
+        try {
+            return Double.valueOf(valeur.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valeur numérique invalide : " + valeur);
+        }
+    }
+
+    private double arrondir(double valeur) {
+        return Math.round(valeur * 100.0) / 100.0;
+    }
+
+    /**
+     * Publication des étapes d'un message : temps passé et échec éventuel
+     * (écritures vers le client, étrangères au traitement du message)
+     */
+    private static class Publication implements BiConsumer<String, Object> {
+        private final BiConsumer<String, Object> etape;
+        private long dureeNanos;
+        private boolean echouee;
+
+        private Publication(BiConsumer<String, Object> etape) {
+            this.etape = etape;
+        }
+
+        @Override
+        public void accept(String nom, Object contenu) {
+            long debut = System.nanoTime();
+            try {
+                etape.accept(nom, contenu);
+            } catch (RuntimeException e) {
+                echouee = true;
+                throw e;
+            } finally {
+                dureeNanos += System.nanoTime() - debut;
+            }
+        }
+    }
+
+    /**
+     * Ajouter une partie à la réponse et la publier aussitôt
+     */
+    private static void ajouter(Map<String, Object> reponse, BiConsumer<String, Object> publier, String cle, Object valeur) {
+        reponse.put(cle, valeur);
+        publier.accept(cle, valeur);
+    }
+}
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.foodmanagement.service;
 
+import com.foodmanagement.dto.IngredientSimpleDto;
 import com.foodmanagement.entity.Food;
 import com.foodmanagement.enums.CategorieFood;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +39,18 @@ public interface FoodService {
      */
     List<Food> listerTousLesAliments();
 
+    /**
+     * Lister les aliments page par page (pagination par curseur)
+     * Le coût d'une page ne dépend pas de la taille du catalogue
+     * 
+     * @param apresDateCreation Date de création du dernier aliment reçu (null pour la première page)
+     * @param apresId ID du dernier aliment reçu (null pour la première page)
+     * @param taille Taille de la page (entre 1 et 500)
+     * @return Page d'aliments, du plus récent au plus ancien
+     * @throws IllegalArgumentException Si la taille est invalide
+     */
+    List<Food> listerAlimentsParPage(LocalDateTime apresDateCreation, Long apresId, int taille);
+
     /**
      * Rechercher des aliments par nom
      * 
@@ -90,6 +104,16 @@ public interface FoodService {
      */
     boolean ajouterIngredient(Long foodId, Long ingredientId, Double quantite, String unite);
 
+    /**
+     * Ajouter plusieurs ingrédients à un aliment en une seule transaction
+     * Tous les IDs sont vérifiés en une requête ; si un seul est invalide, rien n'est ajouté
+     * 
+     * @param foodId ID de l'aliment
+     * @param ingredients Ingrédients à ajouter (id, quantiteUtilisee, unite)
+     * @return Nombre d'ingrédients ajoutés
+     */
+    int ajouterIngredients(Long foodId, List<IngredientSimpleDto> ingredients);
+
     /**
      * Supprimer un ingrédient d'un aliment
      * 
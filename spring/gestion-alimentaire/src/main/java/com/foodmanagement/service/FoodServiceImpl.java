@@ -0,0 +1,483 @@
+package com.foodmanagement.service;
+
+import com.foodmanagement.config.CacheConfig;
+import com.foodmanagement.dao.FoodDao;
+import com.foodmanagement.dao.FoodIngredientDao;
+import com.foodmanagement.dao.ImageDao;
+import com.foodmanagement.dao.IngredientDao;
+import com.foodmanagement.dao.PersonneDao;
+import com.foodmanagement.dao.PlanRepasAgregatDao;
+import com.foodmanagement.dto.IngredientSimpleDto;
+import com.foodmanagement.entity.Food;
+import com.foodmanagement.entity.FoodIngredient;
+import com.foodmanagement.entity.Ingredient;
+import com.foodmanagement.entity.Personne;
+import com.foodmanagement.enums.CategorieFood;
+import com.foodmanagement.util.IndexCatalogue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Implémentation du service Food
+ * S'appuie sur les DAO JDBC pour l'accès aux données
+ */
+@Service
+public class FoodServiceImpl implements FoodService {
+
+    /**
+     * Taille maximale d'une page pour la pagination par curseur
+     */
+    private static final int TAILLE_PAGE_MAX = 500;
+
+    @Autowired
+    private FoodDao foodDao;
+
+    @Autowired
+    private FoodIngredientDao foodIngredientDao;
+
+    @Autowired
+    private IngredientDao ingredientDao;
+
+    @Autowired
+    private PersonneDao personneDao;
+
+    @Autowired
+    private ImageDao imageDao;
+
+    @Autowired
+    private PlanRepasAgregatDao planRepasAgregatDao;
+
+    @Autowired
+    private IndexCatalogue indexCatalogue;
+
+    /**
+     * Ce service vu à travers son proxy : un appel interne passe ainsi par le cache
+     */
+    @Autowired
+    @Lazy
+    private FoodService foodServiceCache;
+
+    /**
+     * Créer un nouvel aliment
+     */
+    @Override
+    @Transactional
+    public Food creerAliment(Food food) {
+        validerDonneesAliment(food);
+
+        Long personneId = food.getPersonne().getId();
+        if (personneDao.findById(personneId).isEmpty()) {
+            throw new RuntimeException("Aucune personne trouvée avec l'ID : " + personneId);
+        }
+
+        if (foodDao.existsByNomAndPersonneId(food.getNom().trim(), personneId)) {
+            throw new RuntimeException("Un aliment nommé '" + food.getNom() + "' existe déjà pour ce créateur");
+        }
+
+        food.setNom(food.getNom().trim());
+        Food cree = foodDao.create(food);
+        // Relu avec son créateur complet, comme le retournent les recherches SQL
+        foodDao.findById(cree.getId()).ifPresent(indexCatalogue::indexerAliment);
+        return cree;
+    }
+
+    /**
+     * Rechercher un aliment par ID
+     * Mis en cache : évite la jointure sur personne à chaque lecture
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.CACHE_ALIMENTS, key = "#id", condition = "#id != null", unless = "#result == null")
+    public Optional<Food> obtenirAlimentParId(Long id) {
+        validerId(id, "L'ID de l'aliment");
+        return foodDao.findById(id);
+    }
+
+    /**
+     * Lister tous les aliments
+     */
+    @Override
+    public List<Food> listerTousLesAliments() {
+        return foodDao.findAll();
+    }
+
+    /**
+     * Lister les aliments page par page
+     */
+    @Override
+    public List<Food> listerAlimentsParPage(LocalDateTime apresDateCreation, Long apresId, int taille) {
+        if (taille < 1 || taille > TAILLE_PAGE_MAX) {
+            throw new IllegalArgumentException("La taille de page doit être comprise entre 1 et " + TAILLE_PAGE_MAX);
+        }
+        if ((apresDateCreation == null) != (apresId == null)) {
+            throw new IllegalArgumentException("Le curseur doit contenir à la fois la date de création et l'ID");
+        }
+        return foodDao.findPageApres(apresDateCreation, apresId, taille);
+    }
+
+    /**
+     * Rechercher des aliments par nom
+     * Passe par l'index en mémoire (nom et description, accents ignorés, classement par pertinence)
+     */
+    @Override
+    public List<Food> rechercherAlimentsParNom(String nom) {
+        if (nom == null || nom.trim().isEmpty()) {
+            throw new IllegalArgumentException("Le nom à rechercher ne peut pas être vide");
+        }
+        if (indexCatalogue.estPret()) {
+            return indexCatalogue.rechercherAliments(nom, 0);
+        }
+        return foodDao.findByNomContaining(nom.trim());
+    }
+
+    /**
+     * Rechercher des aliments par catégorie
+     */
+    @Override
+    public List<Food> rechercherAlimentsParCategorie(CategorieFood categorie) {
+        if (categorie == null) {
+            throw new IllegalArgumentException("La catégorie est obligatoire");
+        }
+        return foodDao.findByCategorie(categorie);
+    }
+
+    /**
+     * Rechercher des aliments par créateur
+     */
+    @Override
+    public List<Food> rechercherAlimentsParCreateur(Long personneId) {
+        validerId(personneId, "L'ID du créateur");
+        return foodDao.findByPersonneId(personneId);
+    }
+
+    /**
+     * Mettre à jour un aliment
+     */
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CACHE_ALIMENTS, key = "#food.id", condition = "#food != null && #food.id != null")
+    public Food modifierAliment(Food food) {
+        if (food == null || food.getId() == null) {
+            throw new IllegalArgumentException("L'ID de l'aliment est obligatoire pour la modification");
+        }
+
+        Food existant = foodDao.findById(food.getId())
+            .orElseThrow(() -> new RuntimeException("Aucun aliment trouvé avec l'ID : " + food.getId()));
+
+        // Le créateur ne change pas lors d'une modification
+        if (food.getPersonne() == null) {
+            food.setPersonne(existant.getPersonne());
+        }
+        validerDonneesAliment(food);
+
+        food.setNom(food.getNom().trim());
+        food.setDateCreation(existant.getDateCreation());
+        if (existant.getCategorie() != food.getCategorie()) {
+            // Les histogrammes des plans suivent la nouvelle catégorie
+            planRepasAgregatDao.reporterAliment(food.getId(), existant.getCategorie(), -1);
+            planRepasAgregatDao.reporterAliment(food.getId(), food.getCategorie(), 1);
+        }
+        Food modifie = foodDao.update(food);
+        foodDao.findById(modifie.getId()).ifPresent(indexCatalogue::indexerAliment);
+        return modifie;
+    }
+
+    /**
+     * Supprimer un aliment par ID
+     * Supprime aussi les images et associations avec ingrédients
+     */
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CACHE_ALIMENTS, key = "#id", condition = "#id != null")
+    public boolean supprimerAliment(Long id) {
+        validerId(id, "L'ID de l'aliment");
+
+        Optional<Food> food = foodDao.findById(id);
+        if (food.isEmpty()) {
+            return false;
+        }
+
+        // Les lignes de plan partent avec l'aliment (cascade) : agrégats mis à jour avant
+        planRepasAgregatDao.reporterAliment(id, food.get().getCategorie(), -1);
+        imageDao.deleteByFoodId(id);
+        foodIngredientDao.deleteByFoodId(id);
+        boolean supprime = foodDao.deleteById(id);
+        indexCatalogue.retirerAliment(id);
+        return supprime;
+    }
+
+    /**
+     * Ajouter un ingrédient à un aliment
+     */
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CACHE_ALIMENTS, key = "#foodId", condition = "#foodId != null")
+    public boolean ajouterIngredient(Long foodId, Long ingredientId, Double quantite, String unite) {
+        validerId(foodId, "L'ID de l'aliment");
+        validerId(ingredientId, "L'ID de l'ingrédient");
+        validerQuantiteEtUnite(quantite, unite);
+
+        Food food = foodDao.findById(foodId)
+            .orElseThrow(() -> new RuntimeException("Aucun aliment trouvé avec l'ID : " + foodId));
+        Ingredient ingredient = ingredientDao.findById(ingredientId)
+            .orElseThrow(() -> new RuntimeException("Aucun ingrédient trouvé avec l'ID : " + ingredientId));
+
+        if (foodIngredientDao.existsByFoodIdAndIngredientId(foodId, ingredientId)) {
+            throw new RuntimeException("L'ingrédient '" + ingredient.getNom() + "' est déjà présent dans cet aliment");
+        }
+
+        foodIngredientDao.create(new FoodIngredient(food, ingredient, quantite, unite.trim()));
+        foodDao.recalculerAgregats(foodId);
+        indexCatalogue.indexerRecette(foodId);
+        return true;
+    }
+
+    /**
+     * Ajouter plusieurs ingrédients à un aliment
+     * Validation complète avant toute écriture, puis insertion en un seul lot JDBC
+     */
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CACHE_ALIMENTS, key = "#foodId", condition = "#foodId != null")
+    public int ajouterIngredients(Long foodId, List<IngredientSimpleDto> ingredients) {
+        validerId(foodId, "L'ID de l'aliment");
+        if (ingredients == null || ingredients.isEmpty()) {
+            throw new IllegalArgumentException("La liste des ingrédients ne peut pas être vide");
+        }
+
+        Set<Long> ingredientIds = new LinkedHashSet<>();
+        for (IngredientSimpleDto dto : ingredients) {
+            validerId(dto.getId(), "L'ID de l'ingrédient");
+            validerQuantiteEtUnite(dto.getQuantiteUtilisee(), dto.getUnite());
+            if (!ingredientIds.add(dto.getId())) {
+                throw new IllegalArgumentException("L'ingrédient " + dto.getId() + " apparaît plusieurs fois dans la liste");
+            }
+        }
+
+        Food food = foodDao.findById(foodId)
+            .orElseThrow(() -> new RuntimeException("Aucun aliment trouvé avec l'ID : " + foodId));
+
+        // Vérification de tous les IDs en une seule requête
+        Set<Long> manquants = new HashSet<>(ingredientIds);
+        manquants.removeAll(ingredientDao.findIdsExistants(ingredientIds));
+        if (!manquants.isEmpty()) {
+            throw new RuntimeException("Aucun ingrédient trouvé avec les IDs : " + manquants);
+        }
+
+        Set<Long> dejaPresents = new HashSet<>(ingredientIds);
+        dejaPresents.retainAll(foodIngredientDao.findIngredientIdsByFoodId(foodId));
+        if (!dejaPresents.isEmpty()) {
+            throw new RuntimeException("Ingrédients déjà présents dans cet aliment : " + dejaPresents);
+        }
+
+        List<FoodIngredient> associations = new ArrayList<>(ingredients.size());
+        for (IngredientSimpleDto dto : ingredients) {
+            Ingredient ingredient = new Ingredient();
+            ingredient.setId(dto.getId());
+            associations.add(new FoodIngredient(food, ingredient, dto.getQuantiteUtilisee(), dto.getUnite().trim()));
+        }
+
+        int ajoutes = foodIngredientDao.createAll(associations);
+        foodDao.recalculerAgregats(foodId);
+        indexCatalogue.indexerRecette(foodId);
+        return ajoutes;
+    }
+
+    /**
+     * Supprimer un ingrédient d'un aliment
+     */
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CACHE_ALIMENTS, key = "#foodId", condition = "#foodId != null")
+    public boolean supprimerIngredient(Long foodId, Long ingredientId) {
+        validerId(foodId, "L'ID de l'aliment");
+        validerId(ingredientId, "L'ID de l'ingrédient");
+        boolean supprime = foodIngredientDao.deleteByFoodIdAndIngredientId(foodId, ingredientId);
+        if (supprime) {
+            foodDao.recalculerAgregats(foodId);
+            indexCatalogue.indexerRecette(foodId);
+        }
+        return supprime;
+    }
+
+    /**
+     * Calculer les calories totales d'un aliment
+     * Lecture de l'agrégat maintenu à chaque modification de la recette : calories pour 100g
+     * rapportées à la masse des ingrédients (valeur de référence si aucune masse n'est connue)
+     */
+    @Override
+    public Double calculerCaloriesTotales(Long foodId) {
+        Food food = foodServiceCache.obtenirAlimentParId(foodId)
+            .orElseThrow(() -> new IllegalArgumentException("Aucun aliment trouvé avec l'ID : " + foodId));
+
+        if (food.getCaloriesTotales() != null) {
+            return food.getCaloriesTotales();
+        }
+        // Agrégat pas encore calculé (rattrapage au démarrage en cours)
+        return food.getCalories() != null ? food.getCalories() : 0.0;
+    }
+
+    /**
+     * Rechercher des aliments par tranche de calories
+     */
+    @Override
+    public List<Food> rechercherAlimentsParCalories(Double caloriesMin, Double caloriesMax) {
+        validerTranche(caloriesMin, caloriesMax, "calories");
+        return foodDao.findByCaloriesBetween(caloriesMin, caloriesMax);
+    }
+
+    /**
+     * Rechercher des aliments par tranche de prix
+     */
+    @Override
+    public List<Food> rechercherAlimentsParPrix(Double prixMin, Double prixMax) {
+        validerTranche(prixMin, prixMax, "prix");
+        return foodDao.findByPrixBetween(prixMin, prixMax);
+    }
+
+    /**
+     * Obtenir les aliments les plus populaires
+     * Faute de compteur de consultations, on retourne les plus récents
+     */
+    @Override
+    public List<Food> obtenirAlimentsPopulaires(int limite) {
+        if (limite < 1 || limite > TAILLE_PAGE_MAX) {
+            throw new IllegalArgumentException("La limite doit être comprise entre 1 et " + TAILLE_PAGE_MAX);
+        }
+        return foodDao.findPageApres(null, null, limite);
+    }
+
+    /**
+     * Rechercher des aliments contenant un ingrédient spécifique
+     */
+    @Override
+    public List<Food> rechercherAlimentsAvecIngredient(Long ingredientId) {
+        validerId(ingredientId, "L'ID de l'ingrédient");
+
+        List<Food> foods = new ArrayList<>();
+        for (FoodIngredient foodIngredient : foodIngredientDao.findByIngredientId(ingredientId)) {
+            foodDao.findById(foodIngredient.getFood().getId()).ifPresent(foods::add);
+        }
+        return foods;
+    }
+
+    /**
+     * Vérifier si un nom d'aliment est disponible pour un créateur
+     */
+    @Override
+    public boolean verifierNomAlimentDisponible(String nom, Long personneId) {
+        if (nom == null || nom.trim().isEmpty()) {
+            return false;
+        }
+        return !foodDao.existsByNomAndPersonneId(nom.trim(), personneId);
+    }
+
+    /**
+     * Compter le nombre d'aliments
+     */
+    @Override
+    public long compterAliments() {
+        return foodDao.count();
+    }
+
+    /**
+     * Valider les données d'un aliment
+     */
+    @Override
+    public void validerDonneesAliment(Food food) {
+        if (food == null) {
+            throw new IllegalArgumentException("L'aliment ne peut pas être null");
+        }
+        if (food.getNom() == null || food.getNom().trim().length() < 2 || food.getNom().trim().length() > 100) {
+            throw new IllegalArgumentException("Le nom doit contenir entre 2 et 100 caractères");
+        }
+        if (food.getDescription() != null && food.getDescription().length() > 500) {
+            throw new IllegalArgumentException("La description ne peut pas dépasser 500 caractères");
+        }
+        if (food.getCategorie() == null) {
+            throw new IllegalArgumentException("La catégorie est obligatoire");
+        }
+        if (food.getCalories() != null && food.getCalories() < 0) {
+            throw new IllegalArgumentException("Les calories ne peuvent pas être négatives");
+        }
+        if (food.getPrix() != null && food.getPrix() < 0) {
+            throw new IllegalArgumentException("Le prix ne peut pas être négatif");
+        }
+        if (food.getPersonne() == null || food.getPersonne().getId() == null) {
+            throw new IllegalArgumentException("La personne créatrice est obligatoire");
+        }
+    }
+
+    /**
+     * Dupliquer un aliment pour un autre créateur
+     * Copie aussi la composition en ingrédients
+     */
+    @Override
+    @Transactional
+    public Food dupliquerAliment(Long foodId, Long nouveauCreateurId) {
+        validerId(foodId, "L'ID de l'aliment");
+        validerId(nouveauCreateurId, "L'ID du nouveau créateur");
+
+        Food original = foodDao.findById(foodId)
+            .orElseThrow(() -> new RuntimeException("Aucun aliment trouvé avec l'ID : " + foodId));
+        Personne nouveauCreateur = personneDao.findById(nouveauCreateurId)
+            .orElseThrow(() -> new RuntimeException("Aucune personne trouvée avec l'ID : " + nouveauCreateurId));
+
+        String nom = original.getNom();
+        if (foodDao.existsByNomAndPersonneId(nom, nouveauCreateurId)) {
+            nom = nom + " (copie)";
+        }
+
+        Food copie = new Food(nom, original.getDescription(), original.getCategorie(), nouveauCreateur);
+        copie.setCalories(original.getCalories());
+        copie.setPrix(original.getPrix());
+        copie.setTempsPreparation(original.getTempsPreparation());
+        Food copieCreee = creerAliment(copie);
+
+        for (FoodIngredient foodIngredient : foodIngredientDao.findByFoodId(foodId)) {
+            foodIngredientDao.create(new FoodIngredient(copieCreee, foodIngredient.getIngredient(),
+                foodIngredient.getQuantiteUtilisee(), foodIngredient.getUnite()));
+        }
+        foodDao.recalculerAgregats(copieCreee.getId());
+        indexCatalogue.indexerRecette(copieCreee.getId());
+        copieCreee.setCaloriesTotales(original.getCaloriesTotales());
+        copieCreee.setMasseTotaleGrammes(original.getMasseTotaleGrammes());
+        copieCreee.setNombreIngredients(original.getNombreIngredients());
+
+        return copieCreee;
+    }
+
+    // ================ MÉTHODES UTILITAIRES ================
+
+    private void validerId(Long id, String libelle) {
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException(libelle + " doit être un nombre positif");
+        }
+    }
+
+    private void validerQuantiteEtUnite(Double quantite, String unite) {
+        if (quantite == null || quantite <= 0) {
+            throw new IllegalArgumentException("La quantité doit être positive");
+        }
+        if (unite == null || unite.trim().isEmpty() || unite.trim().length() > 20) {
+            throw new IllegalArgumentException("L'unité est obligatoire (20 caractères maximum)");
+        }
+    }
+
+    private void validerTranche(Double min, Double max, String libelle) {
+        if (min == null || max == null || min < 0 || max < min) {
+            throw new IllegalArgumentException("Tranche de " + libelle + " invalide : [" + min + ", " + max + "]");
+        }
+    }
+}
@@ -76,6 +76,15 @@ public interface ImageService {
      */
     List<Image> obtenirImagesAliment(Long foodId);
 
+    /**
+     * Obtenir la galerie d'un aliment
+     * Sert la version web (800 px) de chaque image quand elle a été générée, l'originale sinon
+     * 
+     * @param foodId ID de l'aliment
+     * @return Images à afficher, l'image principale en premier
+     */
+    List<Image> obtenirGalerieAliment(Long foodId);
+
     /**
      * Rechercher l'image principale d'un aliment
      * 
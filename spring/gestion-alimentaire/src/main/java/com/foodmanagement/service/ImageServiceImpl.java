@@ -0,0 +1,579 @@
+package com.foodmanagement.service;
+
+import com.foodmanagement.dao.FichierImageDao;
+import com.foodmanagement.dao.FoodDao;
+import com.foodmanagement.dao.ImageDao;
+import com.foodmanagement.dao.IngredientDao;
+import com.foodmanagement.entity.FichierImage;
+import com.foodmanagement.entity.Food;
+import com.foodmanagement.entity.Image;
+import com.foodmanagement.entity.Ingredient;
+import com.foodmanagement.enums.TypeImage;
+import com.foodmanagement.enums.VarianteImage;
+import com.foodmanagement.util.ApresCommit;
+import com.foodmanagement.util.GenerateurDeriveesImages;
+import com.foodmanagement.util.ImageUtils;
+import com.foodmanagement.util.StockageImages;
+import com.foodmanagement.util.StockageImages.FichierRecu;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Implémentation du service Image
+ * Les fichiers sont stockés par contenu (StockageImages) : un upload identique à
+ * un fichier déjà présent ne fait qu'ajouter une référence. Les métadonnées sont en base.
+ * L'upload ne fait que copier l'originale : miniature et version web sont
+ * générées en arrière-plan par GenerateurDeriveesImages après le commit.
+ */
+@Service
+public class ImageServiceImpl implements ImageService {
+
+    /**
+     * Délai de grâce entre la libération d'un fichier et sa suppression
+     * (le même contenu est souvent ré-uploadé juste après une suppression)
+     */
+    private static final Duration DELAI_AVANT_BALAYAGE = Duration.ofMinutes(5);
+
+    /**
+     * Nombre de fichiers libérés traités par requête de balayage
+     */
+    private static final int TAILLE_LOT_BALAYAGE = 100;
+
+    @Autowired
+    private ImageDao imageDao;
+
+    @Autowired
+    private FichierImageDao fichierImageDao;
+
+    @Autowired
+    private FoodDao foodDao;
+
+    @Autowired
+    private IngredientDao ingredientDao;
+
+    @Autowired
+    private ImageUtils imageUtils;
+
+    @Autowired
+    private GenerateurDeriveesImages generateurDerivees;
+
+    @Autowired
+    private StockageImages stockageImages;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.upload.max-size:5242880}")
+    private long tailleMaxFichier;
+
+    /**
+     * Uploader une image pour un aliment
+     * Une nouvelle image principale fait passer l'ancienne en galerie
+     */
+    @Override
+    @Transactional
+    public Image uploaderImageAliment(MultipartFile file, Long foodId, TypeImage typeImage) {
+        validerId(foodId, "L'ID de l'aliment");
+        validerFichierImage(file);
+        if (typeImage == null) {
+            throw new IllegalArgumentException("Le type d'image est obligatoire");
+        }
+
+        Food food = foodDao.findById(foodId)
+            .orElseThrow(() -> new RuntimeException("Aucun aliment trouvé avec l'ID : " + foodId));
+
+        if (typeImage == TypeImage.PRINCIPALE) {
+            imageDao.findMainImageByFoodId(foodId).ifPresent(ancienne -> appliquerType(ancienne, TypeImage.GALERIE));
+        }
+
+        Image image = new Image();
+        image.setFood(food);
+        return enregistrerOriginale(file, image, typeImage);
+    }
+
+    /**
+     * Uploader une image pour un ingrédient
+     * Un ingrédient n'a qu'une image : l'ancienne est remplacée
+     */
+    @Override
+    @Transactional
+    public Image uploaderImageIngredient(MultipartFile file, Long ingredientId, TypeImage typeImage) {
+        validerId(ingredientId, "L'ID de l'ingrédient");
+        validerFichierImage(file);
+        if (typeImage == null) {
+            throw new IllegalArgumentException("Le type d'image est obligatoire");
+        }
+
+        Ingredient ingredient = ingredientDao.findById(ingredientId)
+            .orElseThrow(() -> new RuntimeException("Aucun ingrédient trouvé avec l'ID : " + ingredientId));
+
+        imageDao.findByIngredientId(ingredientId).ifPresent(ancienne -> supprimerAvecDerivees(ancienne));
+
+        Image image = new Image();
+        image.setIngredient(ingredient);
+        return enregistrerOriginale(file, image, typeImage);
+    }
+
+    /**
+     * Rechercher une image par ID
+     */
+    @Override
+    public Optional<Image> obtenirImageParId(Long id) {
+        validerId(id, "L'ID de l'image");
+        return imageDao.findById(id);
+    }
+
+    /**
+     * Rechercher une image par nom de fichier
+     */
+    @Override
+    public Optional<Image> obtenirImageParNomFichier(String nomFichier) {
+        if (nomFichier == null || nomFichier.trim().isEmpty()) {
+            throw new IllegalArgumentException("Le nom de fichier ne peut pas être vide");
+        }
+        return imageDao.findByNomFichier(nomFichier.trim());
+    }
+
+    /**
+     * Lister toutes les images (originales et dérivées)
+     */
+    @Override
+    public List<Image> listerToutesLesImages() {
+        return imageDao.findAll();
+    }
+
+    /**
+     * Rechercher des images par type
+     */
+    @Override
+    public List<Image> rechercherImagesParType(TypeImage typeImage) {
+        if (typeImage == null) {
+            throw new IllegalArgumentException("Le type d'image est obligatoire");
+        }
+        return imageDao.findByTypeImage(typeImage);
+    }
+
+    /**
+     * Rechercher les images uploadées d'un aliment (sans les dérivées)
+     */
+    @Override
+    public List<Image> obtenirImagesAliment(Long foodId) {
+        validerId(foodId, "L'ID de l'aliment");
+
+        List<Image> originales = new ArrayList<>();
+        for (Image image : imageDao.findByFoodId(foodId)) {
+            if (image.getVariante() == VarianteImage.ORIGINALE) {
+                originales.add(image);
+            }
+        }
+        return originales;
+    }
+
+    /**
+     * Galerie d'un aliment : version web de chaque image quand elle est prête,
+     * l'originale sinon. L'image principale vient en premier.
+     */
+    @Override
+    public List<Image> obtenirGalerieAliment(Long foodId) {
+        validerId(foodId, "L'ID de l'aliment");
+
+        List<Image> originales = new ArrayList<>();
+        Map<Long, Image> versionsWeb = new HashMap<>();
+        for (Image image : imageDao.findByFoodId(foodId)) {
+            if (image.getVariante() == VarianteImage.ORIGINALE) {
+                originales.add(image);
+            } else if (image.getVariante() == VarianteImage.WEB) {
+                versionsWeb.put(image.getImageSourceId(), image);
+            }
+        }
+
+        List<Image> galerie = new ArrayList<>(originales.size());
+        for (Image originale : originales) {
+            Image servie = versionsWeb.getOrDefault(originale.getId(), originale);
+            if (originale.getTypeImage() == TypeImage.PRINCIPALE) {
+                galerie.add(0, servie);
+            } else {
+                galerie.add(servie);
+            }
+        }
+        return galerie;
+    }
+
+    /**
+     * Rechercher l'image principale d'un aliment
+     */
+    @Override
+    public Optional<Image> obtenirImagePrincipaleAliment(Long foodId) {
+        validerId(foodId, "L'ID de l'aliment");
+        return imageDao.findMainImageByFoodId(foodId);
+    }
+
+    /**
+     * Rechercher l'image d'un ingrédient
+     */
+    @Override
+    public Optional<Image> obtenirImageIngredient(Long ingredientId) {
+        validerId(ingredientId, "L'ID de l'ingrédient");
+        return imageDao.findByIngredientId(ingredientId);
+    }
+
+    /**
+     * Mettre à jour une image
+     * Le fichier n'est jamais renommé par l'API : seul le type est modifiable
+     */
+    @Override
+    @Transactional
+    public Image modifierImage(Image image) {
+        if (image == null || image.getId() == null) {
+            throw new IllegalArgumentException("L'ID de l'image est obligatoire pour la modification");
+        }
+
+        Image existante = imageDao.findById(image.getId())
+            .orElseThrow(() -> new RuntimeException("Aucune image trouvée avec l'ID : " + image.getId()));
+
+        if (image.getTypeImage() != null && image.getTypeImage() != existante.getTypeImage()) {
+            return changerTypeImage(existante.getId(), image.getTypeImage());
+        }
+        return existante;
+    }
+
+    /**
+     * Supprimer une image par ID, avec ses dérivées et leurs fichiers
+     */
+    @Override
+    @Transactional
+    public boolean supprimerImage(Long id) {
+        validerId(id, "L'ID de l'image");
+
+        Optional<Image> image = imageDao.findById(id);
+        if (image.isEmpty()) {
+            return false;
+        }
+
+        return supprimerAvecDerivees(image.get());
+    }
+
+    /**
+     * Supprimer toutes les images d'un aliment
+     *
+     * @return Nombre d'images uploadées supprimées (dérivées non comptées)
+     */
+    @Override
+    @Transactional
+    public int supprimerToutesImagesAliment(Long foodId) {
+        validerId(foodId, "L'ID de l'aliment");
+
+        List<Image> images = imageDao.findByFoodId(foodId);
+        int nombreOriginales = 0;
+        List<Path> fichiersNonPartages = new ArrayList<>();
+        for (Image image : images) {
+            if (image.getEmpreinte() == null) {
+                fichiersNonPartages.add(Paths.get(image.getCheminFichier()));
+            }
+            if (image.getVariante() == VarianteImage.ORIGINALE) {
+                nombreOriginales++;
+            }
+        }
+
+        imageDao.deleteByFoodId(foodId);
+        supprimerFichiersApresCommit(fichiersNonPartages);
+        return nombreOriginales;
+    }
+
+    /**
+     * Changer le type d'une image
+     * Les dérivées suivent l'originale ; une seule image principale par aliment
+     */
+    @Override
+    @Transactional
+    public Image changerTypeImage(Long imageId, TypeImage nouveauType) {
+        validerId(imageId, "L'ID de l'image");
+        if (nouveauType == null) {
+            throw new IllegalArgumentException("Le nouveau type d'image est obligatoire");
+        }
+
+        Image image = imageDao.findById(imageId)
+            .orElseThrow(() -> new RuntimeException("Aucune image trouvée avec l'ID : " + imageId));
+        if (image.getVariante() != VarianteImage.ORIGINALE) {
+            throw new IllegalArgumentException("Le type d'une image dérivée suit celui de son originale");
+        }
+
+        if (nouveauType == TypeImage.PRINCIPALE && image.getFood() != null) {
+            imageDao.findMainImageByFoodId(image.getFood().getId())
+                .filter(principale -> !principale.getId().equals(imageId))
+                .ifPresent(principale -> appliquerType(principale, TypeImage.GALERIE));
+        }
+
+        appliquerType(image, nouveauType);
+        return image;
+    }
+
+    /**
+     * Définir une image comme principale pour un aliment
+     */
+    @Override
+    @Transactional
+    public boolean definirImageCommePrincipale(Long imageId) {
+        validerId(imageId, "L'ID de l'image");
+
+        Image image = imageDao.findById(imageId)
+            .orElseThrow(() -> new RuntimeException("Aucune image trouvée avec l'ID : " + imageId));
+        if (image.getFood() == null || image.getVariante() != VarianteImage.ORIGINALE) {
+            return false;
+        }
+
+        changerTypeImage(imageId, TypeImage.PRINCIPALE);
+        return true;
+    }
+
+    /**
+     * Rechercher des images par tranche de taille
+     */
+    @Override
+    public List<Image> rechercherImagesParTaille(Long tailleMin, Long tailleMax) {
+        if (tailleMin == null || tailleMax == null || tailleMin < 0 || tailleMax < tailleMin) {
+            throw new IllegalArgumentException("Tranche de taille invalide : [" + tailleMin + ", " + tailleMax + "]");
+        }
+        return imageDao.findByTailleFichierBetween(tailleMin, tailleMax);
+    }
+
+    /**
+     * Rechercher des images uploadées entre deux dates
+     */
+    @Override
+    public List<Image> rechercherImagesParPeriode(LocalDateTime dateDebut, LocalDateTime dateFin) {
+        if (dateDebut == null || dateFin == null || dateFin.isBefore(dateDebut)) {
+            throw new IllegalArgumentException("Période invalide : [" + dateDebut + ", " + dateFin + "]");
+        }
+        return imageDao.findByDateUploadBetween(dateDebut, dateFin);
+    }
+
+    /**
+     * Taille totale des fichiers en octets (dérivées comprises)
+     */
+    @Override
+    public Long obtenirTailleTotaleImages() {
+        return imageDao.sumTailleFichier();
+    }
+
+    /**
+     * Nettoyer les fichiers orphelins
+     * Balayage incrémental des fichiers dont le compteur de références est tombé à zéro,
+     * par lots (index partiel) : aucun parcours du répertoire d'upload.
+     * Chaque fichier est supprimé dans sa propre transaction, ligne verrouillée :
+     * un upload concurrent du même contenu attend puis réinstalle le fichier.
+     */
+    @Override
+    public int nettoyerFichiersOrphelins() {
+        LocalDateTime limite = LocalDateTime.now().minus(DELAI_AVANT_BALAYAGE);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int supprimes = 0;
+
+        List<FichierImage> liberes = fichierImageDao.findLiberes(limite, TAILLE_LOT_BALAYAGE);
+        while (!liberes.isEmpty()) {
+            for (FichierImage fichier : liberes) {
+                Integer nombre = transactionTemplate.execute(statut ->
+                    fichierImageDao.deleteSiLibere(fichier.getEmpreinte())
+                        ? stockageImages.supprimerContenu(Paths.get(fichier.getCheminFichier()))
+                        : 0);
+                supprimes += nombre != null ? nombre : 0;
+            }
+            liberes = liberes.size() < TAILLE_LOT_BALAYAGE ? List.of()
+                : fichierImageDao.findLiberes(limite, TAILLE_LOT_BALAYAGE);
+        }
+        return supprimes;
+    }
+
+    /**
+     * Valider un fichier image avant upload
+     */
+    @Override
+    public void validerFichierImage(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Le fichier est vide");
+        }
+        if (file.getSize() > tailleMaxFichier) {
+            throw new IllegalArgumentException("Le fichier dépasse la taille maximale de "
+                + imageUtils.formaterTaille(tailleMaxFichier));
+        }
+        if (!imageUtils.validerExtension(file.getOriginalFilename())) {
+            throw new IllegalArgumentException("Extension de fichier non supportée : " + file.getOriginalFilename());
+        }
+        if (!imageUtils.validerTypeMime(file.getContentType())) {
+            throw new IllegalArgumentException("Type MIME non supporté : " + file.getContentType());
+        }
+    }
+
+    /**
+     * Générer un nom de fichier unique en conservant l'extension
+     */
+    @Override
+    public String genererNomFichierUnique(String nomOriginal) {
+        if (nomOriginal == null || nomOriginal.trim().isEmpty()) {
+            throw new IllegalArgumentException("Le nom original ne peut pas être vide");
+        }
+        String extension = imageUtils.extraireExtension(nomOriginal.trim());
+        String nom = UUID.randomUUID().toString();
+        return extension.isEmpty() ? nom : nom + "." + extension;
+    }
+
+    /**
+     * Compter le nombre d'images
+     */
+    @Override
+    public long compterImages() {
+        return imageDao.count();
+    }
+
+    /**
+     * Compter le nombre d'images par type
+     */
+    @Override
+    public long compterImagesParType(TypeImage typeImage) {
+        return rechercherImagesParType(typeImage).size();
+    }
+
+    // ================ MÉTHODES UTILITAIRES ================
+
+    /**
+     * Recevoir le fichier en flux (empreinte, signature et taille vérifiées au passage),
+     * lire ses dimensions, référencer son contenu, créer la ligne, puis planifier les dérivées.
+     * La mémoire utilisée ne dépend pas de la taille du fichier : la partie multipart est
+     * déjà sur disque et n'est lue que par blocs.
+     */
+    private Image enregistrerOriginale(MultipartFile file, Image image, TypeImage typeImage) {
+        FichierRecu recu;
+        try (InputStream entree = file.getInputStream()) {
+            recu = stockageImages.recevoir(entree, tailleMaxFichier);
+        } catch (IOException e) {
+            throw new RuntimeException("Impossible d'enregistrer le fichier : " + e.getMessage(), e);
+        }
+
+        ImageUtils.InfoImage info = lireDimensions(recu);
+
+        // L'extension suit le contenu réel, pas le nom fourni par le client
+        Path cible = stockageImages.cheminContenu(recu.getEmpreinte(), recu.getFormat());
+        boolean installe;
+        FichierImage fichier;
+        try {
+            // Contenu déjà stocké : le chemin enregistré fait foi
+            fichier = fichierImageDao.ajouterReference(recu.getEmpreinte(), cible.toString(), recu.getTaille());
+            installe = stockageImages.installer(recu, Paths.get(fichier.getCheminFichier()));
+        } catch (IOException e) {
+            stockageImages.abandonner(recu);
+            throw new RuntimeException("Impossible d'enregistrer le fichier : " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            stockageImages.abandonner(recu);
+            throw e;
+        }
+
+        image.setNomFichier(genererNomFichierUnique("image." + recu.getFormat()));
+        image.setCheminFichier(fichier.getCheminFichier());
+        image.setTypeImage(typeImage);
+        image.setTailleFichier(recu.getTaille());
+        image.setVariante(VarianteImage.ORIGINALE);
+        image.setEmpreinte(recu.getEmpreinte());
+        if (info != null) {
+            image.setLargeur(info.getLargeur());
+            image.setHauteur(info.getHauteur());
+        }
+
+        if (installe) {
+            // Fichier nouveau dont la référence est annulée : plus rien ne le désigne
+            Path installeChemin = Paths.get(fichier.getCheminFichier());
+            ApresCommit.siAnnulation(() -> {
+                if (fichierImageDao.findByEmpreinte(recu.getEmpreinte()).isEmpty()) {
+                    stockageImages.supprimerContenu(installeChemin);
+                }
+            });
+        }
+
+        Image creee = imageDao.create(image);
+        generateurDerivees.soumettreApresCommit(creee);
+        return creee;
+    }
+
+    /**
+     * Dimensions lues dans l'en-tête (ImageReader), sans décoder les pixels
+     * Le WebP n'a pas de décodeur dans le JDK : accepté sans dimensions
+     */
+    private ImageUtils.InfoImage lireDimensions(FichierRecu recu) {
+        ImageUtils.InfoImage info;
+        try {
+            info = imageUtils.obtenirInfoImage(recu.getCheminTemporaire());
+        } catch (IOException e) {
+            if ("webp".equals(recu.getFormat())) {
+                return null;
+            }
+            stockageImages.abandonner(recu);
+            throw new IllegalArgumentException("Image illisible : " + e.getMessage());
+        }
+
+        if (info.getLargeur() <= 0 || info.getHauteur() <= 0
+                || (long) info.getLargeur() * info.getHauteur() > ImageUtils.PIXELS_MAX) {
+            stockageImages.abandonner(recu);
+            throw new IllegalArgumentException("Dimensions d'image non acceptées : "
+                + info.getLargeur() + "x" + info.getHauteur());
+        }
+        return info;
+    }
+
+    private void appliquerType(Image image, TypeImage type) {
+        image.setTypeImage(type);
+        imageDao.update(image);
+        imageDao.updateTypeDerivees(image.getId(), type);
+    }
+
+    /**
+     * Les lignes des dérivées partent en cascade avec l'originale.
+     * Un fichier partagé perd seulement une référence (supprimé plus tard par le balayage) ;
+     * les fichiers stockés avant la déduplication sont supprimés directement.
+     */
+    private boolean supprimerAvecDerivees(Image image) {
+        List<Path> fichiersNonPartages = new ArrayList<>();
+        if (image.getEmpreinte() == null) {
+            fichiersNonPartages.add(Paths.get(image.getCheminFichier()));
+            for (Image derivee : imageDao.findDerivees(image.getId())) {
+                fichiersNonPartages.add(Paths.get(derivee.getCheminFichier()));
+            }
+        }
+
+        boolean supprimee = imageDao.deleteById(image.getId());
+        supprimerFichiersApresCommit(fichiersNonPartages);
+        return supprimee;
+    }
+
+    /**
+     * Un fichier n'est effacé qu'une fois la suppression en base validée
+     */
+    private void supprimerFichiersApresCommit(List<Path> fichiers) {
+        if (fichiers.isEmpty()) {
+            return;
+        }
+        ApresCommit.executer(() -> fichiers.forEach(stockageImages::supprimerFichier));
+    }
+
+    private void validerId(Long id, String libelle) {
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException(libelle + " doit être un nombre positif");
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.foodmanagement.service;
+
+import com.foodmanagement.config.CacheConfig;
+import com.foodmanagement.dao.FoodDao;
+import com.foodmanagement.dao.FoodIngredientDao;
+import com.foodmanagement.dao.ImageDao;
+import com.foodmanagement.dao.IngredientDao;
+import com.foodmanagement.entity.FoodIngredient;
+import com.foodmanagement.entity.Ingredient;
+import com.foodmanagement.enums.TypeIngredient;
+import com.foodmanagement.util.ConvertisseurUnites;
+import com.foodmanagement.util.IndexCatalogue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Implémentation du service Ingredient
+ * S'appuie sur les DAO JDBC pour l'accès aux données
+ */
+@Service
+public class IngredientServiceImpl implements IngredientService {
+
+    /**
+     * Nombre maximum de résultats pour les listes limitées
+     */
+    private static final int LIMITE_MAX = 100;
+
+    /**
+     * Nombre de suggestions retournées par défaut
+     */
+    private static final int NOMBRE_SUGGESTIONS = 10;
+
+    @Autowired
+    private IngredientDao ingredientDao;
+
+    @Autowired
+    private FoodIngredientDao foodIngredientDao;
+
+    @Autowired
+    private FoodDao foodDao;
+
+    @Autowired
+    private ImageDao imageDao;
+
+    @Autowired
+    private IndexCatalogue indexCatalogue;
+
+    @Autowired
+    private ConvertisseurUnites convertisseurUnites;
+
+    /**
+     * Créer un nouvel ingrédient
+     */
+    @Override
+    @Transactional
+    public Ingredient creerIngredient(Ingredient ingredient) {
+        validerDonneesIngredient(ingredient);
+
+        ingredient.setNom(ingredient.getNom().trim());
+        if (ingredientDao.existsByNom(ingredient.getNom())) {
+            throw new RuntimeException("Un ingrédient nommé '" + ingredient.getNom() + "' existe déjà");
+        }
+
+        normaliserUnite(ingredient);
+        Ingredient cree = ingredientDao.create(ingredient);
+        indexCatalogue.indexerIngredient(cree);
+        return cree;
+    }
+
+    /**
+     * Rechercher un ingrédient par ID
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.CACHE_INGREDIENTS_PAR_ID, key = "#id", condition = "#id != null", unless = "#result == null")
+    public Optional<Ingredient> obtenirIngredientParId(Long id) {
+        validerId(id, "L'ID de l'ingrédient");
+        return ingredientDao.findById(id);
+    }
+
+    /**
+     * Rechercher un ingrédient par nom exact
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.CACHE_INGREDIENTS_PAR_NOM, key = "#nom", condition = "#nom != null", unless = "#result == null")
+    public Optional<Ingredient> obtenirIngredientParNom(String nom) {
+        if (nom == null || nom.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        return ingredientDao.findByNom(nom.trim());
+    }
+
+    /**
+     * Lister tous les ingrédients
+     */
+    @Override
+    public List<Ingredient> listerTousLesIngredients() {
+        return ingredientDao.findAll();
+    }
+
+    /**
+     * Rechercher des ingrédients par nom (recherche partielle)
+     * Passe par l'index en mémoire (accents ignorés, classement par pertinence)
+     */
+    @Override
+    public List<Ingredient> rechercherIngredientsParNom(String nom) {
+        if (nom == null || nom.trim().isEmpty()) {
+            throw new IllegalArgumentException("Le nom à rechercher ne peut pas être vide");
+        }
+        if (indexCatalogue.estPret()) {
+            return indexCatalogue.rechercherIngredients(nom, null, 0);
+        }
+        return ingredientDao.findByNomContaining(nom.trim());
+    }
+
+    /**
+     * Rechercher des ingrédients par type
+     */
+    @Override
+    public List<Ingredient> rechercherIngredientsParType(TypeIngredient type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Le type d'ingrédient est obligatoire");
+        }
+        return ingredientDao.findByType(type);
+    }
+
+    /**
+     * Rechercher des ingrédients par unité
+     */
+    @Override
+    public List<Ingredient> rechercherIngredientsParUnite(String unite) {
+        if (unite == null || unite.trim().isEmpty()) {
+            throw new IllegalArgumentException("L'unité à rechercher ne peut pas être vide");
+        }
+        return ingredientDao.findByUnite(unite.trim());
+    }
+
+    /**
+     * Mettre à jour un ingrédient
+     * Le nom pouvant changer, tout le cache par nom est invalidé
+     */
+    @Override
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.CACHE_INGREDIENTS_PAR_ID, key = "#ingredient.id",
+                    condition = "#ingredient != null && #ingredient.id != null"),
+        @CacheEvict(cacheNames = CacheConfig.CACHE_INGREDIENTS_PAR_NOM, allEntries = true),
+        // La densité entre dans les agrégats des aliments qui utilisent l'ingrédient
+        @CacheEvict(cacheNames = CacheConfig.CACHE_ALIMENTS, allEntries = true)
+    })
+    public Ingredient modifierIngredient(Ingredient ingredient) {
+        if (ingredient == null || ingredient.getId() == null) {
+            throw new IllegalArgumentException("L'ID de l'ingrédient est obligatoire pour la modification");
+        }
+
+        Ingredient existant = ingredientDao.findById(ingredient.getId())
+            .orElseThrow(() -> new RuntimeException("Aucun ingrédient trouvé avec l'ID : " + ingredient.getId()));
+        validerDonneesIngredient(ingredient);
+
+        ingredient.setNom(ingredient.getNom().trim());
+        if (!existant.getNom().equals(ingredient.getNom()) && ingredientDao.existsByNom(ingredient.getNom())) {
+            throw new RuntimeException("Un ingrédient nommé '" + ingredient.getNom() + "' existe déjà");
+        }
+
+        ingredient.setDateCreation(existant.getDateCreation());
+        normaliserUnite(ingredient);
+        Ingredient modifie = ingredientDao.update(ingredient);
+        if (!Objects.equals(existant.getDensite(), modifie.getDensite())) {
+            foodDao.recalculerAgregatsParIngredient(modifie.getId());
+            indexCatalogue.indexerRecettesAvecIngredient(modifie.getId());
+        }
+        indexCatalogue.indexerIngredient(modifie);
+        return modifie;
+    }
+
+    /**
+     * Supprimer un ingrédient par ID
+     * Refusé si l'ingrédient est utilisé dans des aliments
+     */
+    @Override
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.CACHE_INGREDIENTS_PAR_ID, key = "#id", condition = "#id != null"),
+        @CacheEvict(cacheNames = CacheConfig.CACHE_INGREDIENTS_PAR_NOM, allEntries = true)
+    })
+    public boolean supprimerIngredient(Long id) {
+        validerId(id, "L'ID de l'ingrédient");
+
+        if (ingredientDao.findById(id).isEmpty()) {
+            return false;
+        }
+
+        long nombreAliments = foodIngredientDao.countFoodsByIngredientId(id);
+        if (nombreAliments > 0) {
+            throw new RuntimeException("L'ingrédient est utilisé dans " + nombreAliments + " aliment(s)");
+        }
+
+        // Suppression explicite (et non en cascade) : libère les fichiers images partagés
+        imageDao.deleteByIngredientId(id);
+        boolean supprime = ingredientDao.deleteById(id);
+        indexCatalogue.retirerIngredient(id);
+        return supprime;
+    }
+
+    /**
+     * Vérifier si un nom d'ingrédient est disponible
+     */
+    @Override
+    public boolean verifierNomIngredientDisponible(String nom) {
+        if (nom == null || nom.trim().isEmpty()) {
+            return false;
+        }
+        return !ingredientDao.existsByNom(nom.trim());
+    }
+
+    /**
+     * Rechercher des ingrédients par tranche de quantité
+     */
+    @Override
+    public List<Ingredient> rechercherIngredientsParQuantite(Double quantiteMin, Double quantiteMax) {
+        if (quantiteMin == null || quantiteMax == null || quantiteMin < 0 || quantiteMax < quantiteMin) {
+            throw new IllegalArgumentException("Tranche de quantité invalide : [" + quantiteMin + ", " + quantiteMax + "]");
+        }
+        return ingredientDao.findByQuantiteBetween(quantiteMin, quantiteMax);
+    }
+
+    /**
+     * Lister les ingrédients utilisés dans des aliments
+     */
+    @Override
+    public List<Ingredient> listerIngredientsUtilises() {
+        return ingredientDao.findIngredientsUsedInFoods();
+    }
+
+    /**
+     * Lister les ingrédients non utilisés
+     */
+    @Override
+    public List<Ingredient> listerIngredientsNonUtilises() {
+        return ingredientDao.findIngredientsNotUsedInFoods();
+    }
+
+    /**
+     * Obtenir les ingrédients les plus utilisés
+     */
+    @Override
+    public List<Ingredient> obtenirIngredientsPopulaires(int limite) {
+        if (limite < 1 || limite > LIMITE_MAX) {
+            throw new IllegalArgumentException("La limite doit être comprise entre 1 et " + LIMITE_MAX);
+        }
+        return ingredientDao.findMostUsed(limite);
+    }
+
+    /**
+     * Rechercher les ingrédients d'un aliment spécifique
+     */
+    @Override
+    public List<Ingredient> rechercherIngredientsParAliment(Long foodId) {
+        validerId(foodId, "L'ID de l'aliment");
+
+        List<Ingredient> ingredients = new ArrayList<>();
+        for (FoodIngredient foodIngredient : foodIngredientDao.findByFoodId(foodId)) {
+            ingredients.add(foodIngredient.getIngredient());
+        }
+        return ingredients;
+    }
+
+    /**
+     * Compter le nombre d'ingrédients
+     */
+    @Override
+    public long compterIngredients() {
+        return ingredientDao.count();
+    }
+
+    /**
+     * Compter le nombre d'ingrédients par type
+     */
+    @Override
+    public long compterIngredientsParType(TypeIngredient type) {
+        return rechercherIngredientsParType(type).size();
+    }
+
+    /**
+     * Valider les données d'un ingrédient
+     */
+    @Override
+    public void validerDonneesIngredient(Ingredient ingredient) {
+        if (ingredient == null) {
+            throw new IllegalArgumentException("L'ingrédient ne peut pas être null");
+        }
+        if (ingredient.getNom() == null || ingredient.getNom().trim().length() < 2 || ingredient.getNom().trim().length() > 100) {
+            throw new IllegalArgumentException("Le nom doit contenir entre 2 et 100 caractères");
+        }
+        if (ingredient.getDescription() != null && ingredient.getDescription().length() > 300) {
+            throw new IllegalArgumentException("La description ne peut pas dépasser 300 caractères");
+        }
+        if (ingredient.getType() == null) {
+            throw new IllegalArgumentException("Le type d'ingrédient est obligatoire");
+        }
+        if (ingredient.getQuantite() != null && ingredient.getQuantite() <= 0) {
+            throw new IllegalArgumentException("La quantité doit être positive");
+        }
+        if (ingredient.getUnite() != null && ingredient.getUnite().length() > 20) {
+            throw new IllegalArgumentException("L'unité ne peut pas dépasser 20 caractères");
+        }
+    }
+
+    /**
+     * Suggérer des ingrédients similaires
+     * Recherche partielle sur le nom, filtrée par type si fourni, les meilleurs résultats d'abord
+     */
+    @Override
+    public List<Ingredient> suggererIngredients(String nomPartiel, TypeIngredient type) {
+        if (nomPartiel == null || nomPartiel.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (indexCatalogue.estPret()) {
+            return indexCatalogue.rechercherIngredients(nomPartiel, type, NOMBRE_SUGGESTIONS);
+        }
+
+        List<Ingredient> suggestions = new ArrayList<>();
+        for (Ingredient ingredient : ingredientDao.findByNomContaining(nomPartiel.trim())) {
+            if (type == null || type == ingredient.getType()) {
+                suggestions.add(ingredient);
+                if (suggestions.size() >= NOMBRE_SUGGESTIONS) {
+                    break;
+                }
+            }
+        }
+        return suggestions;
+    }
+
+    // ================ MÉTHODES UTILITAIRES ================
+
+    /**
+     * Renseigner l'unité de base, la quantité convertie et la densité (si non saisie)
+     */
+    private void normaliserUnite(Ingredient ingredient) {
+        ConvertisseurUnites.UniteNormalisee unite = convertisseurUnites.normaliser(ingredient.getUnite());
+        ingredient.setUniteBase(unite.getUniteBase());
+        ingredient.setQuantiteBase(ingredient.getQuantite() != null ? unite.versBase(ingredient.getQuantite()) : null);
+        if (ingredient.getDensite() == null) {
+            ingredient.setDensite(convertisseurUnites.densite(ingredient.getNom()));
+        }
+    }
+
+    private void validerId(Long id, String libelle) {
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException(libelle + " doit être un nombre positif");
+        }
+    }
+}
@@ -32,7 +32,7 @@ public interface PersonneService {
      * Rechercher une personne par ID
      * 
      * @param id Identifiant de la personne
-     * @return Optional contenant la personne si trouvée
+     * @return Optional contenant la personne si trouvée, sans son mot de passe
      */
     Optional<Personne> obtenirPersonneParId(Long id);
 
@@ -40,7 +40,7 @@ public interface PersonneService {
      * Rechercher une personne par email
      * 
      * @param email Email de la personne
-     * @return Optional contenant la personne si trouvée
+     * @return Optional contenant la personne si trouvée, sans son mot de passe
      */
     Optional<Personne> obtenirPersonneParEmail(String email);
 
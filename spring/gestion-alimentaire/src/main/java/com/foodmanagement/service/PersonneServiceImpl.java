@@ -0,0 +1,284 @@
+package com.foodmanagement.service;
+
+import com.foodmanagement.config.CacheConfig;
+import com.foodmanagement.dao.FoodDao;
+import com.foodmanagement.dao.PersonneDao;
+import com.foodmanagement.entity.Personne;
+import com.foodmanagement.util.IndexCatalogue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Implémentation du service Personne
+ * S'appuie sur les DAO JDBC pour l'accès aux données
+ */
+@Service
+public class PersonneServiceImpl implements PersonneService {
+
+    /**
+     * Même format que la contrainte chk_personne_email_format en base
+     */
+    private static final Pattern FORMAT_EMAIL = Pattern.compile("^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+
+    private static final int LONGUEUR_MIN_MOT_DE_PASSE = 6;
+
+    @Autowired
+    private PersonneDao personneDao;
+
+    @Autowired
+    private FoodDao foodDao;
+
+    @Autowired
+    private IndexCatalogue indexCatalogue;
+
+    /**
+     * Créer une nouvelle personne
+     */
+    @Override
+    @Transactional
+    public Personne creerPersonne(Personne personne) {
+        validerDonneesPersonne(personne);
+
+        personne.setEmail(personne.getEmail().trim().toLowerCase());
+        personne.setNom(personne.getNom().trim());
+        if (personneDao.existsByEmail(personne.getEmail())) {
+            throw new RuntimeException("L'email '" + personne.getEmail() + "' est déjà utilisé");
+        }
+
+        return personneDao.create(personne);
+    }
+
+    /**
+     * Rechercher une personne par ID
+     * Mise en cache sans le mot de passe : seules les lectures directes en base le portent
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.CACHE_PERSONNES_PAR_ID, key = "#id", condition = "#id != null", unless = "#result == null")
+    public Optional<Personne> obtenirPersonneParId(Long id) {
+        validerId(id);
+        return personneDao.findById(id).map(this::sansMotDePasse);
+    }
+
+    /**
+     * Rechercher une personne par email
+     * Mise en cache sans le mot de passe, comme la recherche par ID
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.CACHE_PERSONNES_PAR_EMAIL, key = "#email.trim().toLowerCase()",
+               condition = "#email != null", unless = "#result == null")
+    public Optional<Personne> obtenirPersonneParEmail(String email) {
+        if (email == null || email.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        return personneDao.findByEmail(email.trim().toLowerCase()).map(this::sansMotDePasse);
+    }
+
+    /**
+     * Lister toutes les personnes
+     */
+    @Override
+    public List<Personne> listerToutesLesPersonnes() {
+        return personneDao.findAll();
+    }
+
+    /**
+     * Rechercher des personnes par nom
+     */
+    @Override
+    public List<Personne> rechercherPersonnesParNom(String nom) {
+        if (nom == null || nom.trim().isEmpty()) {
+            throw new IllegalArgumentException("Le nom à rechercher ne peut pas être vide");
+        }
+        return personneDao.findByNomContaining(nom.trim());
+    }
+
+    /**
+     * Mettre à jour une personne
+     * Les aliments en cache embarquent leur créateur : ils sont invalidés aussi
+     */
+    @Override
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.CACHE_PERSONNES_PAR_ID, key = "#personne.id",
+                    condition = "#personne != null && #personne.id != null"),
+        @CacheEvict(cacheNames = CacheConfig.CACHE_PERSONNES_PAR_EMAIL, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.CACHE_ALIMENTS, allEntries = true)
+    })
+    public Personne modifierPersonne(Personne personne) {
+        if (personne == null || personne.getId() == null) {
+            throw new IllegalArgumentException("L'ID de la personne est obligatoire pour la modification");
+        }
+
+        Personne existante = personneDao.findById(personne.getId())
+            .orElseThrow(() -> new RuntimeException("Aucune personne trouvée avec l'ID : " + personne.getId()));
+
+        // Le mot de passe se change uniquement via changerMotDePasse
+        if (personne.getMotDePasse() == null) {
+            personne.setMotDePasse(existante.getMotDePasse());
+        }
+        validerDonneesPersonne(personne);
+
+        personne.setEmail(personne.getEmail().trim().toLowerCase());
+        personne.setNom(personne.getNom().trim());
+        if (!existante.getEmail().equals(personne.getEmail()) && personneDao.existsByEmail(personne.getEmail())) {
+            throw new RuntimeException("L'email '" + personne.getEmail() + "' est déjà utilisé");
+        }
+
+        personne.setDateCreation(existante.getDateCreation());
+        Personne modifiee = personneDao.update(personne);
+
+        // Les aliments indexés embarquent leur créateur
+        foodDao.findByPersonneId(modifiee.getId()).forEach(indexCatalogue::indexerAliment);
+        return modifiee;
+    }
+
+    /**
+     * Supprimer une personne par ID
+     * Refusé si la personne a créé des aliments
+     */
+    @Override
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.CACHE_PERSONNES_PAR_ID, key = "#id", condition = "#id != null"),
+        @CacheEvict(cacheNames = CacheConfig.CACHE_PERSONNES_PAR_EMAIL, allEntries = true)
+    })
+    public boolean supprimerPersonne(Long id) {
+        validerId(id);
+
+        if (personneDao.findById(id).isEmpty()) {
+            return false;
+        }
+
+        int nombreAliments = foodDao.findByPersonneId(id).size();
+        if (nombreAliments > 0) {
+            throw new RuntimeException("La personne a créé " + nombreAliments + " aliment(s) et ne peut pas être supprimée");
+        }
+
+        return personneDao.deleteById(id);
+    }
+
+    /**
+     * Vérifier si un email est disponible
+     */
+    @Override
+    public boolean verifierEmailDisponible(String email) {
+        if (email == null || email.trim().isEmpty()) {
+            return false;
+        }
+        return !personneDao.existsByEmail(email.trim().toLowerCase());
+    }
+
+    /**
+     * Authentifier une personne
+     * Lecture directe en base : jamais de mot de passe servi depuis le cache
+     */
+    @Override
+    public Optional<Personne> authentifierPersonne(String email, String motDePasse) {
+        if (email == null || motDePasse == null) {
+            return Optional.empty();
+        }
+        return personneDao.findByEmail(email.trim().toLowerCase())
+            .filter(personne -> motDePasse.equals(personne.getMotDePasse()));
+    }
+
+    /**
+     * Changer le mot de passe d'une personne
+     */
+    @Override
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.CACHE_PERSONNES_PAR_ID, key = "#personneId", condition = "#personneId != null"),
+        @CacheEvict(cacheNames = CacheConfig.CACHE_PERSONNES_PAR_EMAIL, allEntries = true)
+    })
+    public boolean changerMotDePasse(Long personneId, String ancienMotDePasse, String nouveauMotDePasse) {
+        validerId(personneId);
+        if (nouveauMotDePasse == null || nouveauMotDePasse.length() < LONGUEUR_MIN_MOT_DE_PASSE) {
+            throw new IllegalArgumentException("Le mot de passe doit contenir au moins " + LONGUEUR_MIN_MOT_DE_PASSE + " caractères");
+        }
+
+        Personne personne = personneDao.findById(personneId)
+            .orElseThrow(() -> new RuntimeException("Aucune personne trouvée avec l'ID : " + personneId));
+
+        if (ancienMotDePasse == null || !ancienMotDePasse.equals(personne.getMotDePasse())) {
+            return false;
+        }
+
+        personne.setMotDePasse(nouveauMotDePasse);
+        personneDao.update(personne);
+        return true;
+    }
+
+    /**
+     * Compter le nombre total de personnes
+     */
+    @Override
+    public long compterPersonnes() {
+        return personneDao.count();
+    }
+
+    /**
+     * Obtenir le nombre d'inscriptions sur une période
+     */
+    @Override
+    public long obtenirStatistiquesInscription(LocalDateTime dateDebut, LocalDateTime dateFin) {
+        if (dateDebut == null || dateFin == null || dateFin.isBefore(dateDebut)) {
+            throw new IllegalArgumentException("Période invalide : [" + dateDebut + ", " + dateFin + "]");
+        }
+        return personneDao.findByDateCreationBetween(dateDebut, dateFin).size();
+    }
+
+    /**
+     * Lister les personnes ayant créé des aliments
+     */
+    @Override
+    public List<Personne> listerPersonnesActives() {
+        return personneDao.findPersonnesWithFoods();
+    }
+
+    /**
+     * Valider les données d'une personne
+     */
+    @Override
+    public void validerDonneesPersonne(Personne personne) {
+        if (personne == null) {
+            throw new IllegalArgumentException("La personne ne peut pas être null");
+        }
+        if (personne.getNom() == null || personne.getNom().trim().length() < 2 || personne.getNom().trim().length() > 100) {
+            throw new IllegalArgumentException("Le nom doit contenir entre 2 et 100 caractères");
+        }
+        if (personne.getEmail() == null || !FORMAT_EMAIL.matcher(personne.getEmail().trim()).matches()) {
+            throw new IllegalArgumentException("Format d'email invalide");
+        }
+        if (personne.getMotDePasse() == null || personne.getMotDePasse().length() < LONGUEUR_MIN_MOT_DE_PASSE) {
+            throw new IllegalArgumentException("Le mot de passe doit contenir au moins " + LONGUEUR_MIN_MOT_DE_PASSE + " caractères");
+        }
+        if (personne.getTelephone() != null && personne.getTelephone().length() > 20) {
+            throw new IllegalArgumentException("Le téléphone ne peut pas dépasser 20 caractères");
+        }
+    }
+
+    // ================ MÉTHODES UTILITAIRES ================
+
+    private void validerId(Long id) {
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException("L'ID de la personne doit être un nombre positif");
+        }
+    }
+
+    /**
+     * Retirer le mot de passe d'une personne lue en base avant de la mettre en cache
+     */
+    private Personne sansMotDePasse(Personne personne) {
+        personne.setMotDePasse(null);
+        return personne;
+    }
+}
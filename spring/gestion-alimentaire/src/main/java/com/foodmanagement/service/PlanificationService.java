@@ -137,4 +137,23 @@ public interface PlanificationService {
      * @return Statistiques (calories moyennes, aliments favoris, etc.)
      */
     Map<String, Object> obtenirStatistiquesPlanification(Long personneId, LocalDate mois);
-}
\ No newline at end of file
+
+    /**
+     * Lancer la génération des plans d'une cohorte en arrière-plan
+     * Chaque plan remplace celui de la période, comme une génération automatique
+     * 
+     * @param personneIds IDs des personnes, null ou vide pour toutes les personnes
+     * @param dateDebut Premier jour des plans
+     * @param nombreJours Nombre de jours des plans
+     * @return Lot créé (ID, personnes inscrites, statut)
+     */
+    Map<String, Object> lancerGenerationLot(List<Long> personneIds, LocalDate dateDebut, int nombreJours);
+
+    /**
+     * Obtenir l'avancement d'une génération en lot
+     * 
+     * @param lotId ID du lot
+     * @return Compteurs, pourcentage, débit et échecs éventuels
+     */
+    Map<String, Object> obtenirAvancementLot(Long lotId);
+}
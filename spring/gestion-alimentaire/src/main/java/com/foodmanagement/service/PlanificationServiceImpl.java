@@ -0,0 +1,577 @@
+package com.foodmanagement.service;
+
+import com.foodmanagement.dao.FoodDao;
+import com.foodmanagement.dao.LotGenerationPlanDao;
+import com.foodmanagement.dao.MenuPlanificationDao;
+import com.foodmanagement.dao.PersonneDao;
+import com.foodmanagement.dao.PlanRepasAgregatDao;
+import com.foodmanagement.entity.AgregatPlanRepas;
+import com.foodmanagement.entity.Food;
+import com.foodmanagement.entity.LotGenerationPlan;
+import com.foodmanagement.entity.MenuPlanification;
+import com.foodmanagement.enums.CategorieFood;
+import com.foodmanagement.enums.TypeRepas;
+import com.foodmanagement.util.AgregateurListeCourses;
+import com.foodmanagement.util.CataloguePlanification;
+import com.foodmanagement.util.GenerateurPlansLot;
+import com.foodmanagement.util.IndexCatalogue;
+import com.foodmanagement.util.PlanificateurRepas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Implémentation du service de planification des repas
+ * S'appuie sur les DAO JDBC pour l'accès aux données
+ *
+ * Les plans sont stockés dans menu_planification (une ligne par personne, jour, repas
+ * et aliment) : chaque lecture de période est un seul parcours de l'index
+ * (personne_id, date_repas) ; les plans générés sont écrits en un lot.
+ *
+ * Les totaux par jour, semaine et mois (plan_repas_agregat) sont mis à jour dans la même
+ * transaction que le plan : les statistiques les lisent sans reparcourir les lignes.
+ */
+@Service
+public class PlanificationServiceImpl implements PlanificationService {
+
+    /**
+     * Apport journalier minimum conseillé (kcal)
+     */
+    private static final double CALORIES_JOUR_MIN = 1200.0;
+
+    /**
+     * Apport journalier maximum conseillé (kcal)
+     */
+    private static final double CALORIES_JOUR_MAX = 3500.0;
+
+    /**
+     * Nombre maximum d'apparitions d'un même aliment dans un plan avant signalement
+     */
+    private static final int REPETITIONS_MAX = 3;
+
+    /**
+     * Nombre d'alternatives retournées
+     */
+    private static final int NOMBRE_ALTERNATIVES = 5;
+
+    /**
+     * Durée maximum d'un plan généré (jours)
+     */
+    private static final int NOMBRE_JOURS_MAX = 90;
+
+    /**
+     * Période maximum lue en une fois (jours)
+     */
+    private static final int PERIODE_JOURS_MAX = 366;
+
+    /**
+     * Nombre d'aliments favoris dans les statistiques
+     */
+    private static final int NOMBRE_FAVORIS = 5;
+
+    @Autowired
+    private FoodDao foodDao;
+
+    @Autowired
+    private PersonneDao personneDao;
+
+    @Autowired
+    private MenuPlanificationDao menuPlanificationDao;
+
+    @Autowired
+    private PlanRepasAgregatDao planRepasAgregatDao;
+
+    @Autowired
+    private AgregateurListeCourses agregateurListeCourses;
+
+    @Autowired
+    private PlanificateurRepas planificateurRepas;
+
+    @Autowired
+    private IndexCatalogue indexCatalogue;
+
+    @Autowired
+    private CataloguePlanification cataloguePlanification;
+
+    @Autowired
+    private LotGenerationPlanDao lotGenerationPlanDao;
+
+    @Autowired
+    private GenerateurPlansLot generateurPlansLot;
+
+    /**
+     * Créer un plan de repas hebdomadaire
+     * Les catégories préférées sont ajoutées aux repas qui les acceptent ;
+     * le plan remplace celui de la semaine
+     */
+    @Override
+    @Transactional
+    public Map<LocalDate, Map<String, List<Food>>> creerPlanHebdomadaire(Long personneId, LocalDate dateDebut,
+                                                                        List<CategorieFood> preferences) {
+        return generer(personneId, dateDebut, 7, preferences);
+    }
+
+    /**
+     * Générer un plan de repas automatique
+     * Objectif calorique journalier et variété (pas de répétition sur quelques jours glissants) ;
+     * le plan remplace celui de la période
+     */
+    @Override
+    @Transactional
+    public Map<LocalDate, Map<String, List<Food>>> genererPlanAutomatique(Long personneId, LocalDate dateDebut,
+                                                                         int nombreJours) {
+        return generer(personneId, dateDebut, nombreJours, null);
+    }
+
+    /**
+     * Ajouter un aliment à un repas
+     * Retourne false si l'aliment est déjà planifié dans ce repas
+     */
+    @Override
+    @Transactional
+    public boolean ajouterAlimentAuPlan(Long personneId, LocalDate date, String typeRepas, Long foodId) {
+        validerId(personneId, "L'ID de la personne");
+        validerId(foodId, "L'ID de l'aliment");
+        if (date == null) {
+            throw new IllegalArgumentException("La date du repas est obligatoire");
+        }
+        TypeRepas type = TypeRepas.depuis(typeRepas);
+
+        if (personneDao.findById(personneId).isEmpty()) {
+            throw new IllegalArgumentException("Aucune personne trouvée avec l'ID : " + personneId);
+        }
+        Food food = foodDao.findById(foodId)
+            .orElseThrow(() -> new IllegalArgumentException("Aucun aliment trouvé avec l'ID : " + foodId));
+
+        Optional<Double> calories = menuPlanificationDao.ajouter(personneId, date, type, foodId);
+        calories.ifPresent(valeur -> planRepasAgregatDao.appliquer(personneId, date, food.getCategorie(), valeur, 1));
+        return calories.isPresent();
+    }
+
+    /**
+     * Retirer un aliment d'un repas
+     */
+    @Override
+    @Transactional
+    public boolean supprimerAlimentDuPlan(Long personneId, LocalDate date, String typeRepas, Long foodId) {
+        validerId(personneId, "L'ID de la personne");
+        validerId(foodId, "L'ID de l'aliment");
+        if (date == null) {
+            throw new IllegalArgumentException("La date du repas est obligatoire");
+        }
+        Optional<Double> calories = menuPlanificationDao.supprimer(personneId, date, TypeRepas.depuis(typeRepas), foodId);
+        if (calories.isEmpty()) {
+            return false;
+        }
+        // La ligne référence l'aliment (clé étrangère) : il existe encore
+        foodDao.findById(foodId).ifPresent(food ->
+            planRepasAgregatDao.appliquer(personneId, date, food.getCategorie(), calories.get(), -1));
+        return true;
+    }
+
+    /**
+     * Obtenir le plan d'une personne sur une période
+     * Tous les jours et tous les repas de la période sont présents, éventuellement vides
+     */
+    @Override
+    public Map<LocalDate, Map<String, List<Food>>> obtenirPlanRepas(Long personneId, LocalDate dateDebut,
+                                                                   LocalDate dateFin) {
+        validerId(personneId, "L'ID de la personne");
+        validerPeriode(dateDebut, dateFin);
+        return organiser(menuPlanificationDao.findByPersonneIdAndPeriode(personneId, dateDebut, dateFin),
+            dateDebut, dateFin);
+    }
+
+    /**
+     * Calculer les calories totales d'un jour
+     * Chaque aliment compte pour ses calories de recette (agrégat stocké), à défaut pour 100g
+     */
+    @Override
+    public Double calculerCaloriesJour(Map<String, List<Food>> planJour) {
+        if (planJour == null) {
+            return 0.0;
+        }
+        double total = 0.0;
+        for (List<Food> repas : planJour.values()) {
+            if (repas == null) {
+                continue;
+            }
+            for (Food food : repas) {
+                total += calories(food);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Calculer les calories totales d'une semaine
+     * Une entrée par jour, plus "total" et "moyenne_journaliere"
+     */
+    @Override
+    public Map<String, Double> calculerCaloriesSemaine(Map<LocalDate, Map<String, List<Food>>> planSemaine) {
+        Map<String, Double> calories = new LinkedHashMap<>();
+        if (planSemaine == null || planSemaine.isEmpty()) {
+            calories.put("total", 0.0);
+            calories.put("moyenne_journaliere", 0.0);
+            return calories;
+        }
+
+        double total = 0.0;
+        for (Map.Entry<LocalDate, Map<String, List<Food>>> jour : new TreeMap<>(planSemaine).entrySet()) {
+            double caloriesJour = calculerCaloriesJour(jour.getValue());
+            calories.put(jour.getKey().toString(), caloriesJour);
+            total += caloriesJour;
+        }
+        calories.put("total", total);
+        calories.put("moyenne_journaliere", total / planSemaine.size());
+        return calories;
+    }
+
+    /**
+     * Suggérer des alternatives pour un repas
+     * Aliments de la catégorie demandée (ou de celle de l'original) les plus proches en calories,
+     * prix et ingrédients (index des plus proches voisins) ; à défaut, calories les plus proches
+     */
+    @Override
+    public List<Food> suggererAlternatives(Food alimentOriginal, CategorieFood categoriePreferee) {
+        if (alimentOriginal == null || alimentOriginal.getId() == null) {
+            throw new IllegalArgumentException("L'aliment original est obligatoire");
+        }
+        Food original = alimentOriginal.getCategorie() != null ? alimentOriginal
+            : foodDao.findById(alimentOriginal.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Aucun aliment trouvé avec l'ID : " + alimentOriginal.getId()));
+
+        CategorieFood categorie = categoriePreferee != null ? categoriePreferee : original.getCategorie();
+        if (indexCatalogue.estPret() && indexCatalogue.contientAlternative(original.getId())) {
+            return indexCatalogue.rechercherAlternatives(original.getId(), EnumSet.of(categorie), null, null, null,
+                NOMBRE_ALTERNATIVES);
+        }
+
+        double calories = original.getCalories() != null ? original.getCalories() : 0.0;
+
+        return foodDao.findByCategorie(categorie).stream()
+            .filter(food -> !food.getId().equals(original.getId()))
+            .sorted(Comparator.comparingDouble(food -> Math.abs((food.getCalories() != null ? food.getCalories() : 0.0) - calories)))
+            .limit(NOMBRE_ALTERNATIVES)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Valider un plan de repas
+     * Jours vides, apport calorique hors bornes, aliments trop répétés
+     */
+    @Override
+    public List<String> validerPlanRepas(Map<LocalDate, Map<String, List<Food>>> planSemaine) {
+        List<String> problemes = new ArrayList<>();
+        if (planSemaine == null || planSemaine.isEmpty()) {
+            problemes.add("Le plan ne contient aucun jour");
+            return problemes;
+        }
+
+        Map<String, Integer> repetitions = new HashMap<>();
+        for (Map.Entry<LocalDate, Map<String, List<Food>>> jour : new TreeMap<>(planSemaine).entrySet()) {
+            Map<String, List<Food>> repas = jour.getValue();
+            boolean vide = repas == null || repas.values().stream().allMatch(liste -> liste == null || liste.isEmpty());
+            if (vide) {
+                problemes.add(jour.getKey() + " : aucun repas planifié");
+                continue;
+            }
+
+            double calories = calculerCaloriesJour(repas);
+            if (calories < CALORIES_JOUR_MIN) {
+                problemes.add(jour.getKey() + " : apport calorique insuffisant (" + Math.round(calories) + " kcal)");
+            } else if (calories > CALORIES_JOUR_MAX) {
+                problemes.add(jour.getKey() + " : apport calorique excessif (" + Math.round(calories) + " kcal)");
+            }
+
+            for (List<Food> liste : repas.values()) {
+                if (liste == null) {
+                    continue;
+                }
+                for (Food food : liste) {
+                    String cle = food.getNom() != null ? food.getNom() : "Aliment " + food.getId();
+                    repetitions.merge(cle, 1, Integer::sum);
+                }
+            }
+        }
+
+        repetitions.forEach((aliment, nombre) -> {
+            if (nombre > REPETITIONS_MAX) {
+                problemes.add(aliment + " apparaît " + nombre + " fois : varier les repas");
+            }
+        });
+        return problemes;
+    }
+
+    /**
+     * Dupliquer un plan de semaine
+     * La semaine de destination est remplacée par la copie de la semaine source
+     */
+    @Override
+    @Transactional
+    public Map<LocalDate, Map<String, List<Food>>> dupliquerPlanSemaine(Long personneId, LocalDate semaineSources,
+                                                                       LocalDate semaineDestination) {
+        validerId(personneId, "L'ID de la personne");
+        if (semaineSources == null || semaineDestination == null) {
+            throw new IllegalArgumentException("Les semaines source et destination sont obligatoires");
+        }
+        long decalage = ChronoUnit.DAYS.between(semaineSources, semaineDestination);
+        if (Math.abs(decalage) < 7) {
+            throw new IllegalArgumentException("Les semaines source et destination ne doivent pas se chevaucher");
+        }
+        if (personneDao.findById(personneId).isEmpty()) {
+            throw new RuntimeException("Aucune personne trouvée avec l'ID : " + personneId);
+        }
+
+        LocalDate finSource = semaineSources.plusDays(6);
+        LocalDate finDestination = semaineDestination.plusDays(6);
+        menuPlanificationDao.deleteByPersonneIdAndPeriode(personneId, semaineDestination, finDestination);
+        menuPlanificationDao.copierPeriode(personneId, semaineSources, finSource, decalage);
+        planRepasAgregatDao.recalculer(personneId, semaineDestination, finDestination);
+        return obtenirPlanRepas(personneId, semaineDestination, finDestination);
+    }
+
+    /**
+     * Générer une liste de courses
+     * Chaque apparition d'un aliment dans le plan compte pour une portion ;
+     * les ingrédients sont cumulés en une seule requête groupée
+     */
+    @Override
+    public Map<String, Double> genererListeCourses(Map<LocalDate, Map<String, List<Food>>> planSemaine) {
+        if (planSemaine == null || planSemaine.isEmpty()) {
+            return new TreeMap<>();
+        }
+
+        List<Long> foodIds = new ArrayList<>();
+        for (Map<String, List<Food>> repas : planSemaine.values()) {
+            if (repas == null) {
+                continue;
+            }
+            for (List<Food> liste : repas.values()) {
+                if (liste == null) {
+                    continue;
+                }
+                for (Food food : liste) {
+                    foodIds.add(food.getId());
+                }
+            }
+        }
+        return agregateurListeCourses.agreger(AgregateurListeCourses.compterPortions(foodIds));
+    }
+
+    /**
+     * Obtenir les statistiques de planification d'un mois
+     * Totaux et répartition par catégorie lus dans les agrégats (mois, jours, semaines) ;
+     * favoris et répartition par repas en requêtes groupées sur l'index du plan
+     */
+    @Override
+    public Map<String, Object> obtenirStatistiquesPlanification(Long personneId, LocalDate mois) {
+        validerId(personneId, "L'ID de la personne");
+        if (mois == null) {
+            throw new IllegalArgumentException("Le mois de référence est obligatoire");
+        }
+        LocalDate debut = mois.withDayOfMonth(1);
+        LocalDate fin = mois.withDayOfMonth(mois.lengthOfMonth());
+
+        AgregatPlanRepas totalMois = planRepasAgregatDao
+            .findByPersonneIdAndPeriode(personneId, AgregatPlanRepas.GRANULARITE_MOIS, debut, debut)
+            .stream().findFirst().orElseGet(AgregatPlanRepas::new);
+
+        Map<String, Double> caloriesParJour = new LinkedHashMap<>();
+        for (AgregatPlanRepas jour : planRepasAgregatDao.findByPersonneIdAndPeriode(personneId,
+                AgregatPlanRepas.GRANULARITE_JOUR, debut, fin)) {
+            if (jour.getNombreAliments() > 0) {
+                caloriesParJour.put(jour.getDebut().toString(), arrondir(jour.getCalories()));
+            }
+        }
+
+        // Semaines ISO qui chevauchent le mois (totaux de la semaine entière)
+        Map<String, Double> caloriesParSemaine = new LinkedHashMap<>();
+        for (AgregatPlanRepas semaine : planRepasAgregatDao.findByPersonneIdAndPeriode(personneId,
+                AgregatPlanRepas.GRANULARITE_SEMAINE, debut.with(DayOfWeek.MONDAY), fin)) {
+            if (semaine.getNombreAliments() > 0) {
+                caloriesParSemaine.put(semaine.getDebut().toString(), arrondir(semaine.getCalories()));
+            }
+        }
+
+        Map<String, Integer> categories = new LinkedHashMap<>();
+        totalMois.getNombreParCategorie().forEach((categorie, nombre) -> categories.put(categorie.name(), nombre));
+
+        // Aucun aliment dans le mois : pas de requête sur le plan
+        boolean vide = totalMois.getNombreAliments() == 0;
+        Map<String, Integer> favoris = vide ? new LinkedHashMap<>()
+            : menuPlanificationDao.compterParAliment(personneId, debut, fin, NOMBRE_FAVORIS);
+        Map<String, Integer> typesRepas = new LinkedHashMap<>();
+        if (!vide) {
+            menuPlanificationDao.compterParTypeRepas(personneId, debut, fin)
+                .forEach((type, nombre) -> typesRepas.put(type.getLibelle(), nombre));
+        }
+        double caloriesTotales = totalMois.getCalories();
+        int jours = caloriesParJour.size();
+
+        Map<String, Object> statistiques = new LinkedHashMap<>();
+        statistiques.put("periode_debut", debut);
+        statistiques.put("periode_fin", fin);
+        statistiques.put("jours_planifies", jours);
+        statistiques.put("repas_planifies", vide ? 0 : menuPlanificationDao.compterRepas(personneId, debut, fin));
+        statistiques.put("aliments_planifies", totalMois.getNombreAliments());
+        statistiques.put("calories_totales", arrondir(caloriesTotales));
+        statistiques.put("calories_moyennes_jour", jours == 0 ? 0.0 : arrondir(caloriesTotales / jours));
+        statistiques.put("calories_par_jour", caloriesParJour);
+        statistiques.put("calories_par_semaine", caloriesParSemaine);
+        statistiques.put("aliments_favoris", favoris);
+        statistiques.put("repartition_categories", categories);
+        statistiques.put("repartition_repas", typesRepas);
+        return statistiques;
+    }
+
+    /**
+     * Lancer la génération des plans d'une cohorte
+     * Les personnes inconnues sont ignorées ; la génération tourne en arrière-plan
+     */
+    @Override
+    public Map<String, Object> lancerGenerationLot(List<Long> personneIds, LocalDate dateDebut, int nombreJours) {
+        if (dateDebut == null) {
+            throw new IllegalArgumentException("La date de début est obligatoire");
+        }
+        if (nombreJours < 1 || nombreJours > NOMBRE_JOURS_MAX) {
+            throw new IllegalArgumentException("Le nombre de jours doit être compris entre 1 et " + NOMBRE_JOURS_MAX);
+        }
+        boolean toutes = personneIds == null || personneIds.isEmpty();
+        if (!toutes) {
+            personneIds.forEach(id -> validerId(id, "L'ID de la personne"));
+        }
+
+        LotGenerationPlan lot = generateurPlansLot.lancer(dateDebut, nombreJours, toutes ? null : personneIds);
+        Map<String, Object> resultat = new LinkedHashMap<>();
+        resultat.put("lot_id", lot.getId());
+        resultat.put("statut", lot.getStatut());
+        resultat.put("nombre_personnes", lot.getNombrePersonnes());
+        resultat.put("date_debut", lot.getDateDebut());
+        resultat.put("nombre_jours", lot.getNombreJours());
+        return resultat;
+    }
+
+    /**
+     * Obtenir l'avancement d'une génération en lot
+     */
+    @Override
+    public Map<String, Object> obtenirAvancementLot(Long lotId) {
+        validerId(lotId, "L'ID du lot");
+        LotGenerationPlan lot = lotGenerationPlanDao.findById(lotId)
+            .orElseThrow(() -> new RuntimeException("Aucun lot de génération trouvé avec l'ID : " + lotId));
+
+        int traitees = lot.getNombreGenerees() + lot.getNombreEchecs();
+        Map<String, Object> avancement = new LinkedHashMap<>();
+        avancement.put("lot_id", lot.getId());
+        avancement.put("statut", lot.getStatut());
+        avancement.put("date_debut", lot.getDateDebut());
+        avancement.put("nombre_jours", lot.getNombreJours());
+        avancement.put("nombre_personnes", lot.getNombrePersonnes());
+        avancement.put("nombre_generees", lot.getNombreGenerees());
+        avancement.put("nombre_echecs", lot.getNombreEchecs());
+        avancement.put("nombre_restantes", lot.getNombreRestantes());
+        avancement.put("pourcentage", lot.getNombrePersonnes() > 0
+            ? arrondir(traitees * 100.0 / lot.getNombrePersonnes()) : 100.0);
+        avancement.put("date_creation", lot.getDateCreation());
+        avancement.put("date_fin", lot.getDateFin());
+        avancement.putAll(generateurPlansLot.obtenirAvancement(lot));
+        return avancement;
+    }
+
+    // ================ MÉTHODES UTILITAIRES ================
+
+    /**
+     * Générer un plan sur le catalogue complet
+     * Graine dérivée de la personne et de la date : une même demande produit le même plan
+     */
+    private Map<LocalDate, Map<String, List<Food>>> generer(Long personneId, LocalDate dateDebut, int nombreJours,
+                                                            List<CategorieFood> preferences) {
+        validerId(personneId, "L'ID de la personne");
+        if (dateDebut == null) {
+            throw new IllegalArgumentException("La date de début est obligatoire");
+        }
+        if (nombreJours < 1 || nombreJours > NOMBRE_JOURS_MAX) {
+            throw new IllegalArgumentException("Le nombre de jours doit être compris entre 1 et " + NOMBRE_JOURS_MAX);
+        }
+        if (personneDao.findById(personneId).isEmpty()) {
+            throw new RuntimeException("Aucune personne trouvée avec l'ID : " + personneId);
+        }
+
+        PlanificateurRepas.Catalogue catalogue = cataloguePlanification.obtenir();
+        if (catalogue.getTaille() == 0) {
+            throw new RuntimeException("Aucun aliment disponible pour générer un plan");
+        }
+
+        PlanificateurRepas.Resultat resultat = planificateurRepas.planifier(catalogue, dateDebut, nombreJours,
+            preferences, PlanificateurRepas.graine(personneId, dateDebut));
+
+        LocalDate dateFin = dateDebut.plusDays(nombreJours - 1);
+        menuPlanificationDao.deleteByPersonneIdAndPeriode(personneId, dateDebut, dateFin);
+        menuPlanificationDao.ajouterTous(planificateurRepas.versLignes(personneId, resultat.getPlan()));
+        planRepasAgregatDao.recalculer(personneId, dateDebut, dateFin);
+        return resultat.getPlan();
+    }
+
+    /**
+     * Organiser des lignes par jour puis par repas, chaque jour de la période présent
+     */
+    private Map<LocalDate, Map<String, List<Food>>> organiser(List<MenuPlanification> lignes, LocalDate dateDebut,
+                                                              LocalDate dateFin) {
+        Map<LocalDate, Map<String, List<Food>>> plan = new LinkedHashMap<>();
+        for (LocalDate date = dateDebut; !date.isAfter(dateFin); date = date.plusDays(1)) {
+            Map<String, List<Food>> repas = new LinkedHashMap<>();
+            for (TypeRepas type : TypeRepas.values()) {
+                repas.put(type.getLibelle(), new ArrayList<>());
+            }
+            plan.put(date, repas);
+        }
+        for (MenuPlanification ligne : lignes) {
+            plan.get(ligne.getDateRepas()).get(ligne.getTypeRepas().getLibelle()).add(ligne.getFood());
+        }
+        return plan;
+    }
+
+    private void validerPeriode(LocalDate dateDebut, LocalDate dateFin) {
+        if (dateDebut == null || dateFin == null) {
+            throw new IllegalArgumentException("Les dates de début et de fin sont obligatoires");
+        }
+        if (dateFin.isBefore(dateDebut)) {
+            throw new IllegalArgumentException("La date de fin doit être postérieure à la date de début");
+        }
+        if (ChronoUnit.DAYS.between(dateDebut, dateFin) >= PERIODE_JOURS_MAX) {
+            throw new IllegalArgumentException("La période ne peut pas dépasser " + PERIODE_JOURS_MAX + " jours");
+        }
+    }
+
+    private void validerId(Long id, String libelle) {
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException(libelle + " doit être un nombre positif");
+        }
+    }
+
+    private double arrondir(double valeur) {
+        return Math.round(valeur * 100.0) / 100.0;
+    }
+
+    private double calories(Food food) {
+        if (food.getCaloriesTotales() != null) {
+            return food.getCaloriesTotales();
+        }
+        return food.getCalories() != null ? food.getCalories() : 0.0;
+    }
+}
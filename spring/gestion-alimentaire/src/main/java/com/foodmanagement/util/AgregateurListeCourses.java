@@ -0,0 +1,79 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.dao.FoodIngredientDao;
+import com.foodmanagement.dto.QuantiteIngredientDto;
+import com.foodmanagement.enums.UniteBase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Agrégation des listes de courses (buffets, plans de repas)
+ *
+ * Les aliments sont réduits à un ensemble (ID -> portions) avant d'interroger la base :
+ * une seule requête groupée sur food_ingredient, quel que soit le nombre de plats.
+ * Les quantités sont déjà normalisées à l'écriture (unite_base, quantite_base) : la base
+ * renvoie une ligne par ingrédient et unité de base, sans analyse d'unité ici.
+ * Quand un ingrédient apparaît à la fois en masse et en volume et que sa densité est
+ * connue, le volume est converti en grammes : "200 g" et "10 cl" de crème donnent un seul total.
+ */
+@Component
+public class AgregateurListeCourses {
+
+    @Autowired
+    private FoodIngredientDao foodIngredientDao;
+
+    /**
+     * Générer la liste de courses d'un ensemble d'aliments
+     *
+     * @param portionsParFood Nombre de portions par ID d'aliment
+     * @return Quantités par "Ingrédient (unité)", triées par nom, arrondies au centième
+     */
+    public Map<String, Double> agreger(Map<Long, Double> portionsParFood) {
+        List<QuantiteIngredientDto> lignes = foodIngredientDao.sommerQuantitesParIngredient(portionsParFood);
+
+        Set<Long> avecMasse = new HashSet<>();
+        for (QuantiteIngredientDto ligne : lignes) {
+            if (ligne.getUniteBase() == UniteBase.GRAMME) {
+                avecMasse.add(ligne.getIngredientId());
+            }
+        }
+
+        Map<String, Double> listeCourses = new TreeMap<>();
+        for (QuantiteIngredientDto ligne : lignes) {
+            UniteBase uniteBase = ligne.getUniteBase();
+            double quantite = ligne.getQuantite();
+            if (uniteBase == UniteBase.MILLILITRE && ligne.getDensite() != null
+                && avecMasse.contains(ligne.getIngredientId())) {
+                uniteBase = UniteBase.GRAMME;
+                quantite *= ligne.getDensite();
+            }
+            String cle = ligne.getIngredientNom() + " (" + ConvertisseurUnites.libelle(uniteBase, ligne.getUnite()) + ")";
+            listeCourses.merge(cle, quantite, Double::sum);
+        }
+        listeCourses.replaceAll((ingredient, quantite) -> Math.round(quantite * 100.0) / 100.0);
+        return listeCourses;
+    }
+
+    /**
+     * Compter les occurrences de chaque aliment (une portion par occurrence)
+     *
+     * @param foodIds IDs des aliments, répétés autant de fois qu'ils sont servis
+     * @return Nombre de portions par ID d'aliment
+     */
+    public static Map<Long, Double> compterPortions(Iterable<Long> foodIds) {
+        Map<Long, Double> portions = new HashMap<>();
+        for (Long foodId : foodIds) {
+            if (foodId != null) {
+                portions.merge(foodId, 1.0, Double::sum);
+            }
+        }
+        return portions;
+    }
+}
@@ -0,0 +1,47 @@
+package com.foodmanagement.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Actions rattachées à l'issue de la transaction en cours
+ */
+public final class ApresCommit {
+
+    private ApresCommit() {
+    }
+
+    /**
+     * Exécuter l'action une fois la transaction validée
+     * Hors transaction, l'action est exécutée immédiatement
+     */
+    public static void executer(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Exécuter l'action seulement si la transaction est annulée
+     * Hors transaction, il n'y a rien à annuler : l'action n'est pas exécutée
+     */
+    public static void siAnnulation(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int statut) {
+                    if (statut == STATUS_ROLLED_BACK) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+}
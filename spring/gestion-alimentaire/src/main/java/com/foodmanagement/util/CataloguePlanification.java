@@ -0,0 +1,76 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.dao.FoodDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalogue de planification partagé par les générations de plans (PlanificateurRepas)
+ *
+ * Relu depuis la base à la première demande suivant une modification des aliments,
+ * puis partagé par toutes les générations (il n'est jamais modifié).
+ * IndexCatalogue le périme à chaque modification appliquée.
+ */
+@Component
+public class CataloguePlanification {
+
+    private static final int TAILLE_PAGE_CHARGEMENT = 500;
+
+    @Autowired
+    private FoodDao foodDao;
+
+    @Autowired
+    private PlanificateurRepas planificateurRepas;
+
+    /**
+     * Version des aliments, incrémentée à chaque modification appliquée
+     */
+    private final AtomicLong versionAliments = new AtomicLong();
+
+    private volatile CatalogueRepas catalogueRepas;
+
+    private final Object verrouCatalogueRepas = new Object();
+
+    /**
+     * Catalogue de planification et version des aliments qu'il reflète
+     */
+    private static class CatalogueRepas {
+        private final long version;
+        private final PlanificateurRepas.Catalogue catalogue;
+
+        private CatalogueRepas(long version, PlanificateurRepas.Catalogue catalogue) {
+            this.version = version;
+            this.catalogue = catalogue;
+        }
+    }
+
+    /**
+     * Les aliments ont changé : le catalogue sera relu à la prochaine demande
+     */
+    public void perimer() {
+        versionAliments.incrementAndGet();
+    }
+
+    /**
+     * Catalogue préparé pour la génération de plans
+     */
+    public PlanificateurRepas.Catalogue obtenir() {
+        CatalogueRepas prepare = catalogueRepas;
+        if (prepare != null && prepare.version == versionAliments.get()) {
+            return prepare.catalogue;
+        }
+        synchronized (verrouCatalogueRepas) {
+            long version = versionAliments.get();
+            prepare = catalogueRepas;
+            if (prepare == null || prepare.version != version) {
+                // Une modification pendant la lecture change la version : le catalogue sera relu
+                prepare = new CatalogueRepas(version,
+                    planificateurRepas.construireCatalogue(foodDao.findTousParPages(TAILLE_PAGE_CHARGEMENT)));
+                catalogueRepas = prepare;
+            }
+            return prepare.catalogue;
+        }
+    }
+}
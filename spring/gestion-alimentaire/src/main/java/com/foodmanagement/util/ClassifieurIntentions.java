@@ -0,0 +1,403 @@
+package com.foodmanagement.util;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Classification des messages du chatbot par intention
+ *
+ * Les expressions de chaque intention (fichier app.chatbot.intentions.fichier) sont
+ * compilées en un automate d'Aho-Corasick sur l'alphabet normalisé : 26 lettres,
+ * 10 chiffres et l'espace. Le message est parcouru une seule fois, caractère par
+ * caractère : accents, casse et ponctuation sont repliés à la volée par une table,
+ * sans construire de chaîne normalisée. Chaque expression reconnue ajoute son poids
+ * au score de son intention ; une expression ne se reconnaît qu'en début de mot.
+ *
+ * L'automate est immuable : un rechargement en compile un nouveau et le publie
+ * d'un bloc, les classifications en cours terminent sur l'ancien.
+ */
+@Component
+public class ClassifieurIntentions {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassifieurIntentions.class);
+
+    /**
+     * Intention retenue quand aucune expression n'est reconnue
+     */
+    public static final String INTENTION_GENERAL = "GENERAL";
+
+    /**
+     * Symboles de l'alphabet : a-z (0-25), 0-9 (26-35), espace (36)
+     */
+    private static final int TAILLE_ALPHABET = 37;
+    private static final int ESPACE = 36;
+
+    /**
+     * Repli des caractères latins courants (accents, casse) vers un symbole
+     */
+    private static final byte[] SYMBOLES = new byte[0x250];
+
+    static {
+        for (char c = 0; c < SYMBOLES.length; c++) {
+            String replie = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+            char base = replie.isEmpty() ? ' ' : replie.charAt(0);
+            if (base >= 'a' && base <= 'z') {
+                SYMBOLES[c] = (byte) (base - 'a');
+            } else if (base >= '0' && base <= '9') {
+                SYMBOLES[c] = (byte) (26 + base - '0');
+            } else {
+                SYMBOLES[c] = ESPACE;
+            }
+        }
+    }
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${app.chatbot.intentions.fichier:classpath:chatbot/intentions.txt}")
+    private String fichier;
+
+    @Value("${app.chatbot.intentions.verification-secondes:30}")
+    private int verificationSecondes;
+
+    private volatile Automate automate = new Automate(List.of(), List.of());
+
+    // Scores par intention, réutilisés d'un message à l'autre
+    private final ThreadLocal<double[]> scores = ThreadLocal.withInitial(() -> new double[0]);
+
+    // Rechargement à la modification du fichier
+    private volatile long derniereModification;
+    private volatile long prochaineVerification;
+    private final AtomicBoolean verificationEnCours = new AtomicBoolean();
+
+    @PostConstruct
+    public void initialiser() {
+        try {
+            recharger();
+        } catch (Exception e) {
+            // Sans dictionnaire, tous les messages relèvent de l'intention générale
+            logger.error("Erreur lors du chargement des intentions du chatbot", e);
+        }
+    }
+
+    /**
+     * Relire le dictionnaire et remplacer l'automate
+     * En cas d'erreur, l'automate courant reste en service
+     *
+     * @return Intentions et nombre d'expressions chargées
+     * @throws IllegalArgumentException Si le fichier est illisible ou mal formé
+     */
+    public synchronized Map<String, Object> recharger() {
+        long debut = System.nanoTime();
+        Resource resource = resourceLoader.getResource(fichier);
+        List<String> intentions = new ArrayList<>();
+        List<Expression> expressions = new ArrayList<>();
+        try (BufferedReader lecteur = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            lire(lecteur, intentions, expressions);
+            derniereModification = derniereModification(resource);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Dictionnaire des intentions illisible : " + fichier, e);
+        }
+
+        automate = new Automate(intentions, expressions);
+        prochaineVerification = System.currentTimeMillis() + verificationSecondes * 1000L;
+        logger.info("Intentions du chatbot chargées : {} intentions, {} expressions en {} ms",
+            intentions.size(), expressions.size(), (System.nanoTime() - debut) / 1_000_000);
+
+        Map<String, Object> resultat = new LinkedHashMap<>();
+        resultat.put("intentions", intentions);
+        resultat.put("expressions", expressions.size());
+        resultat.put("etats", automate.nombreEtats);
+        return resultat;
+    }
+
+    /**
+     * Intention d'un message et confiance (part du score total qui revient à l'intention)
+     * À score égal, l'intention déclarée la première ; GENERAL si aucune expression reconnue
+     */
+    public Map.Entry<String, Double> classer(String message) {
+        verifierModification();
+        Automate courant = automate;
+        int nombreIntentions = courant.intentions.length;
+        if (message == null || nombreIntentions == 0) {
+            return Map.entry(INTENTION_GENERAL, 0.0);
+        }
+
+        double[] score = scores.get();
+        if (score.length < nombreIntentions) {
+            score = new double[nombreIntentions];
+            scores.set(score);
+        } else {
+            Arrays.fill(score, 0, nombreIntentions, 0.0);
+        }
+
+        // Espace initial : une expression commence toujours après un espace
+        int etat = courant.transitions[ESPACE];
+        boolean espacePrecedent = true;
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == 'œ' || c == 'Œ' || c == 'æ' || c == 'Æ') {
+                // Ligatures : deux symboles
+                etat = courant.avancer(etat, c == 'œ' || c == 'Œ' ? 'o' - 'a' : 0, score);
+                etat = courant.avancer(etat, 'e' - 'a', score);
+                espacePrecedent = false;
+                continue;
+            }
+            int symbole = symbole(c);
+            if (symbole == ESPACE) {
+                if (espacePrecedent) {
+                    continue;
+                }
+                espacePrecedent = true;
+            } else {
+                espacePrecedent = false;
+            }
+            etat = courant.avancer(etat, symbole, score);
+        }
+
+        int meilleure = -1;
+        double total = 0.0;
+        for (int k = 0; k < nombreIntentions; k++) {
+            total += score[k];
+            if (score[k] > 0 && (meilleure < 0 || score[k] > score[meilleure])) {
+                meilleure = k;
+            }
+        }
+        if (meilleure < 0) {
+            return Map.entry(INTENTION_GENERAL, 0.0);
+        }
+        return Map.entry(courant.intentions[meilleure], score[meilleure] / total);
+    }
+
+    /**
+     * Intentions du dictionnaire, dans l'ordre de déclaration
+     */
+    public List<String> getIntentions() {
+        return List.of(automate.intentions);
+    }
+
+    private static int symbole(char c) {
+        return c < SYMBOLES.length ? SYMBOLES[c] : ESPACE;
+    }
+
+    /**
+     * Recharger si le fichier a changé, au plus une fois par période de vérification
+     * (un seul thread vérifie, les autres classent avec l'automate courant)
+     */
+    private void verifierModification() {
+        if (verificationSecondes <= 0 || System.currentTimeMillis() < prochaineVerification
+                || !verificationEnCours.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            prochaineVerification = System.currentTimeMillis() + verificationSecondes * 1000L;
+            long modification = derniereModification(resourceLoader.getResource(fichier));
+            if (modification > derniereModification) {
+                recharger();
+            }
+        } catch (Exception e) {
+            logger.error("Erreur lors du rechargement des intentions du chatbot", e);
+        } finally {
+            verificationEnCours.set(false);
+        }
+    }
+
+    /**
+     * Date de modification du fichier, 0 si la ressource n'en a pas (archive)
+     */
+    private long derniereModification(Resource resource) {
+        try {
+            return resource.isFile() ? resource.lastModified() : 0L;
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * Lire les sections [INTENTION] et leurs expressions "texte = poids"
+     */
+    private void lire(BufferedReader lecteur, List<String> intentions, List<Expression> expressions) throws IOException {
+        String ligne;
+        int numero = 0;
+        int intention = -1;
+        while ((ligne = lecteur.readLine()) != null) {
+            numero++;
+            ligne = ligne.trim();
+            if (ligne.isEmpty() || ligne.startsWith("#")) {
+                continue;
+            }
+            if (ligne.startsWith("[") && ligne.endsWith("]")) {
+                String nom = ligne.substring(1, ligne.length() - 1).trim().toUpperCase(Locale.ROOT);
+                intention = intentions.indexOf(nom);
+                if (intention < 0) {
+                    intentions.add(nom);
+                    intention = intentions.size() - 1;
+                }
+                continue;
+            }
+            if (intention < 0) {
+                throw new IllegalArgumentException("Ligne " + numero + " : expression hors d'une section [INTENTION]");
+            }
+
+            double poids = 1.0;
+            int egal = ligne.lastIndexOf('=');
+            if (egal >= 0) {
+                try {
+                    poids = Double.parseDouble(ligne.substring(egal + 1).trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Ligne " + numero + " : poids invalide");
+                }
+                if (poids <= 0) {
+                    throw new IllegalArgumentException("Ligne " + numero + " : le poids doit être positif");
+                }
+                ligne = ligne.substring(0, egal);
+            }
+            String texte = IndexRecherche.normaliser(ligne);
+            if (!texte.isEmpty()) {
+                expressions.add(new Expression(texte, intention, poids));
+            }
+        }
+    }
+
+    /**
+     * Expression normalisée d'une intention
+     */
+    private static class Expression {
+        private final String texte;
+        private final int intention;
+        private final double poids;
+
+        private Expression(String texte, int intention, double poids) {
+            this.texte = texte;
+            this.intention = intention;
+            this.poids = poids;
+        }
+    }
+
+    /**
+     * Automate compilé (immuable)
+     * Transitions complètes : un état et un symbole donnent directement l'état suivant,
+     * les liens d'échec sont déjà résolus à la construction
+     */
+    private static class Automate {
+        private final String[] intentions;
+        private final int nombreEtats;
+        private final int[] transitions;
+        // Première expression terminée dans l'état, -1 sinon
+        private final int[] sortie;
+        // État suffixe le plus proche qui termine une expression, -1 sinon
+        private final int[] sortieSuffixe;
+        // Expression suivante terminée dans le même état (doublons entre intentions)
+        private final int[] expressionSuivante;
+        private final int[] intentionExpression;
+        private final double[] poidsExpression;
+
+        private Automate(List<String> intentions, List<Expression> expressions) {
+            this.intentions = intentions.toArray(new String[0]);
+
+            // Trie des expressions, précédées d'un espace (début de mot)
+            List<int[]> fils = new ArrayList<>();
+            fils.add(nouveauNoeud());
+            int[] fin = new int[expressions.size()];
+            for (int e = 0; e < expressions.size(); e++) {
+                String texte = " " + expressions.get(e).texte;
+                int noeud = 0;
+                for (int i = 0; i < texte.length(); i++) {
+                    int symbole = symbole(texte.charAt(i));
+                    if (fils.get(noeud)[symbole] < 0) {
+                        fils.get(noeud)[symbole] = fils.size();
+                        fils.add(nouveauNoeud());
+                    }
+                    noeud = fils.get(noeud)[symbole];
+                }
+                fin[e] = noeud;
+            }
+
+            this.nombreEtats = fils.size();
+            this.transitions = new int[nombreEtats * TAILLE_ALPHABET];
+            this.sortie = new int[nombreEtats];
+            this.sortieSuffixe = new int[nombreEtats];
+            this.expressionSuivante = new int[expressions.size()];
+            this.intentionExpression = new int[expressions.size()];
+            this.poidsExpression = new double[expressions.size()];
+            Arrays.fill(sortie, -1);
+            Arrays.fill(sortieSuffixe, -1);
+
+            for (int e = expressions.size() - 1; e >= 0; e--) {
+                expressionSuivante[e] = sortie[fin[e]];
+                sortie[fin[e]] = e;
+                intentionExpression[e] = expressions.get(e).intention;
+                poidsExpression[e] = expressions.get(e).poids;
+            }
+
+            // Parcours en largeur : le lien d'échec d'un état est traité avant lui
+            int[] echec = new int[nombreEtats];
+            ArrayDeque<Integer> file = new ArrayDeque<>();
+            for (int s = 0; s < TAILLE_ALPHABET; s++) {
+                int suivant = fils.get(0)[s];
+                if (suivant < 0) {
+                    transitions[s] = 0;
+                } else {
+                    transitions[s] = suivant;
+                    echec[suivant] = 0;
+                    file.add(suivant);
+                }
+            }
+            while (!file.isEmpty()) {
+                int etat = file.poll();
+                int lien = echec[etat];
+                sortieSuffixe[etat] = sortie[lien] >= 0 ? lien : sortieSuffixe[lien];
+                for (int s = 0; s < TAILLE_ALPHABET; s++) {
+                    int suivant = fils.get(etat)[s];
+                    if (suivant < 0) {
+                        transitions[etat * TAILLE_ALPHABET + s] = transitions[lien * TAILLE_ALPHABET + s];
+                    } else {
+                        transitions[etat * TAILLE_ALPHABET + s] = suivant;
+                        echec[suivant] = transitions[lien * TAILLE_ALPHABET + s];
+                        file.add(suivant);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Transition sur un symbole et report des expressions terminées dans le score
+         */
+        private int avancer(int etat, int symbole, double[] score) {
+            int suivant = transitions[etat * TAILLE_ALPHABET + symbole];
+            for (int s = suivant; s > 0; s = sortieSuffixe[s]) {
+                for (int e = sortie[s]; e >= 0; e = expressionSuivante[e]) {
+                    score[intentionExpression[e]] += poidsExpression[e];
+                }
+            }
+            return suivant;
+        }
+
+        private static int[] nouveauNoeud() {
+            int[] noeud = new int[TAILLE_ALPHABET];
+            Arrays.fill(noeud, -1);
+            return noeud;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.enums.UniteBase;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Registre des unités saisies librement ("g", "grammes", "kg", "cl", "cuillère à soupe"...)
+ *
+ * Chaque unité connue est ramenée à une unité de base avec un facteur :
+ * - masse : gramme (GRAMME)
+ * - volume : millilitre (MILLILITRE)
+ * - dénombrement : pièce (PIECE)
+ * Une unité inconnue est classée AUTRE et garde son libellé saisi.
+ *
+ * La normalisation a lieu une seule fois, à l'écriture (food_ingredient.unite_base,
+ * quantite_base) : les agrégations travaillent ensuite sur des doubles sans analyser
+ * de texte. La table des densités (g/ml) permet de passer du volume à la masse.
+ */
+@Component
+public class ConvertisseurUnites {
+
+    private static final Map<String, UniteNormalisee> ALIAS = new HashMap<>();
+
+    /**
+     * Densités en g/ml, par mot-clé du nom d'ingrédient (premier mot-clé trouvé)
+     */
+    private static final Map<String, Double> DENSITES = new LinkedHashMap<>();
+
+    static {
+        enregistrer(UniteBase.GRAMME, 1.0, "g", "gr", "gramme", "grammes");
+        enregistrer(UniteBase.GRAMME, 1000.0, "kg", "kilo", "kilos", "kilogramme", "kilogrammes");
+        enregistrer(UniteBase.GRAMME, 0.001, "mg", "milligramme", "milligrammes");
+        enregistrer(UniteBase.MILLILITRE, 1.0, "ml", "millilitre", "millilitres");
+        enregistrer(UniteBase.MILLILITRE, 10.0, "cl", "centilitre", "centilitres");
+        enregistrer(UniteBase.MILLILITRE, 100.0, "dl", "decilitre", "decilitres");
+        enregistrer(UniteBase.MILLILITRE, 1000.0, "l", "litre", "litres");
+        enregistrer(UniteBase.MILLILITRE, 15.0, "cuillere", "cuilleres", "cuillere a soupe", "cuilleres a soupe",
+            "c a soupe", "cas", "cs");
+        enregistrer(UniteBase.MILLILITRE, 5.0, "cuillere a cafe", "cuilleres a cafe", "c a cafe", "cac", "cc");
+        enregistrer(UniteBase.MILLILITRE, 250.0, "tasse", "tasses");
+        enregistrer(UniteBase.MILLILITRE, 200.0, "verre", "verres");
+        enregistrer(UniteBase.PIECE, 1.0, "piece", "pieces", "unite", "unites", "u", "pc", "pcs");
+
+        // Les mots-clés les plus spécifiques d'abord ("huile" avant "lait" pour "huile de lait"...)
+        DENSITES.put("huile", 0.92);
+        DENSITES.put("miel", 1.42);
+        DENSITES.put("sirop", 1.33);
+        DENSITES.put("creme", 1.01);
+        DENSITES.put("lait", 1.03);
+        DENSITES.put("beurre", 0.91);
+        DENSITES.put("farine", 0.53);
+        DENSITES.put("sucre", 0.85);
+        DENSITES.put("sel", 1.20);
+        DENSITES.put("riz", 0.85);
+        DENSITES.put("vinaigre", 1.01);
+        DENSITES.put("vin", 0.99);
+        DENSITES.put("jus", 1.04);
+        DENSITES.put("sauce", 1.05);
+        DENSITES.put("bouillon", 1.0);
+        DENSITES.put("eau", 1.0);
+    }
+
+    /**
+     * Unité de base et facteur de conversion d'une unité saisie
+     */
+    public static class UniteNormalisee {
+        private final UniteBase uniteBase;
+        private final double facteur;
+        private final String libelle;
+
+        public UniteNormalisee(UniteBase uniteBase, double facteur, String libelle) {
+            this.uniteBase = uniteBase;
+            this.facteur = facteur;
+            this.libelle = libelle;
+        }
+
+        public UniteBase getUniteBase() {
+            return uniteBase;
+        }
+
+        public double getFacteur() {
+            return facteur;
+        }
+
+        /**
+         * Libellé affiché : symbole de l'unité de base, ou unité saisie pour AUTRE
+         */
+        public String getLibelle() {
+            return libelle;
+        }
+
+        /**
+         * Convertir une quantité exprimée dans l'unité saisie vers l'unité de base
+         */
+        public double versBase(double quantite) {
+            return quantite * facteur;
+        }
+    }
+
+    /**
+     * Normaliser une unité saisie
+     *
+     * @param unite Unité telle que saisie (casse, accents et points ignorés)
+     * @return Unité de base et facteur ; AUTRE (facteur 1) si l'unité est inconnue
+     */
+    public UniteNormalisee normaliser(String unite) {
+        if (unite == null || unite.isBlank()) {
+            return ALIAS.get("piece");
+        }
+        UniteNormalisee connue = ALIAS.get(cle(unite));
+        if (connue != null) {
+            return connue;
+        }
+        return new UniteNormalisee(UniteBase.AUTRE, 1.0, unite.trim().toLowerCase());
+    }
+
+    /**
+     * Densité d'un ingrédient d'après son nom
+     *
+     * @param nomIngredient Nom de l'ingrédient
+     * @return Densité en g/ml, null si inconnue
+     */
+    public Double densite(String nomIngredient) {
+        if (nomIngredient == null) {
+            return null;
+        }
+        String nom = " " + cle(nomIngredient) + " ";
+        for (Map.Entry<String, Double> entree : DENSITES.entrySet()) {
+            if (nom.contains(" " + entree.getKey() + " ") || nom.contains(" " + entree.getKey() + "s ")) {
+                return entree.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Libellé affiché d'une unité de base (unité saisie pour AUTRE)
+     */
+    public static String libelle(UniteBase uniteBase, String uniteSaisie) {
+        return uniteBase == UniteBase.AUTRE || uniteBase == null
+            ? (uniteSaisie != null ? uniteSaisie.trim().toLowerCase() : "")
+            : uniteBase.getSymbole();
+    }
+
+    private static void enregistrer(UniteBase uniteBase, double facteur, String... alias) {
+        UniteNormalisee unite = new UniteNormalisee(uniteBase, facteur, uniteBase.getSymbole());
+        for (String nom : alias) {
+            ALIAS.put(nom, unite);
+        }
+    }
+
+    private static String cle(String texte) {
+        String sansAccents = Normalizer.normalize(texte.trim().toLowerCase(), Normalizer.Form.NFD)
+            .replaceAll("\\p{M}", "");
+        return sansAccents.replace('.', ' ').replace('\'', ' ').replaceAll("\\s+", " ").trim();
+    }
+}
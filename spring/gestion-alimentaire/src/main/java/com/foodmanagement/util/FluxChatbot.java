@@ -0,0 +1,137 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.service.ChatbotService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Réponses du chatbot en flux (Server-Sent Events)
+ *
+ * La requête HTTP est rendue au conteneur dès l'ouverture du flux : aucun thread Tomcat
+ * n'est retenu pendant le traitement. Les messages sont traités par un pool dédié et borné ;
+ * chaque étape de la réponse (intention, puis chaque partie) est envoyée comme un événement,
+ * suivie de "fin" avec la réponse complète, ou d'"erreur".
+ *
+ * File pleine : le flux reçoit immédiatement une erreur plutôt que d'attendre.
+ * Client déconnecté : le traitement s'arrête à l'étape suivante.
+ */
+@Component
+public class FluxChatbot {
+
+    private static final Logger logger = LoggerFactory.getLogger(FluxChatbot.class);
+
+    @Autowired
+    private ChatbotService chatbotService;
+
+    private final ThreadPoolExecutor executeur;
+    private final long delaiMs;
+
+    private final AtomicLong fluxTermines = new AtomicLong();
+    private final AtomicLong fluxRefuses = new AtomicLong();
+    private final AtomicLong fluxInterrompus = new AtomicLong();
+
+    public FluxChatbot(@Value("${app.chatbot.flux.threads:8}") int nombreThreads,
+                       @Value("${app.chatbot.flux.file-max:1000}") int tailleFile,
+                       @Value("${app.chatbot.flux.delai-ms:30000}") long delaiMs) {
+        AtomicInteger compteur = new AtomicInteger();
+        this.delaiMs = delaiMs;
+        this.executeur = new ThreadPoolExecutor(nombreThreads, nombreThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(tailleFile),
+            tache -> {
+                Thread thread = new Thread(tache, "chatbot-flux-" + compteur.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Ouvrir le flux de réponse d'un message
+     */
+    public SseEmitter ouvrir(String message, Long userId) {
+        SseEmitter emetteur = new SseEmitter(delaiMs);
+        try {
+            executeur.execute(() -> traiter(emetteur, message, userId));
+        } catch (RejectedExecutionException e) {
+            fluxRefuses.incrementAndGet();
+            terminerEnErreur(emetteur, "Le chatbot est très sollicité, veuillez réessayer dans un instant");
+        }
+        return emetteur;
+    }
+
+    /**
+     * État du pool de traitement des flux
+     */
+    public Map<String, Object> obtenirEtat() {
+        Map<String, Object> etat = new LinkedHashMap<>();
+        etat.put("flux_en_cours", executeur.getActiveCount());
+        etat.put("flux_en_attente", executeur.getQueue().size());
+        etat.put("flux_termines", fluxTermines.get());
+        etat.put("flux_refuses", fluxRefuses.get());
+        etat.put("flux_interrompus", fluxInterrompus.get());
+        return etat;
+    }
+
+    @PreDestroy
+    public void arreter() {
+        executeur.shutdownNow();
+    }
+
+    // ================ MÉTHODES INTERNES ================
+
+    private void traiter(SseEmitter emetteur, String message, Long userId) {
+        try {
+            Map<String, Object> reponse = chatbotService.traiterMessageParEtapes(message, userId,
+                (nom, contenu) -> envoyer(emetteur, nom, contenu));
+            envoyer(emetteur, "fin", reponse);
+            emetteur.complete();
+            fluxTermines.incrementAndGet();
+        } catch (UncheckedIOException e) {
+            // Client parti : rien à lui envoyer
+            fluxInterrompus.incrementAndGet();
+            emetteur.completeWithError(e.getCause());
+        } catch (IllegalArgumentException e) {
+            terminerEnErreur(emetteur, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Erreur lors du traitement d'un message du chatbot en flux", e);
+            terminerEnErreur(emetteur, "Une erreur s'est produite lors du traitement : " + e.getMessage());
+        }
+    }
+
+    private void envoyer(SseEmitter emetteur, String nom, Object contenu) {
+        try {
+            emetteur.send(SseEmitter.event().name(nom).data(contenu, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void terminerEnErreur(SseEmitter emetteur, String message) {
+        try {
+            Map<String, Object> erreur = new LinkedHashMap<>();
+            erreur.put("message", message);
+            erreur.put("timestamp", LocalDateTime.now());
+            emetteur.send(SseEmitter.event().name("erreur").data(erreur, MediaType.APPLICATION_JSON));
+            emetteur.complete();
+        } catch (IOException | IllegalStateException e) {
+            emetteur.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.dao.ImageDao;
+import com.foodmanagement.entity.Image;
+import com.foodmanagement.enums.TypeImage;
+import com.foodmanagement.enums.VarianteImage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Génération en arrière-plan des dérivées d'une image uploadée
+ * - MINIATURE : 150 px, type MINIATURE
+ * - WEB : 800 px, même type que l'originale (seulement si l'originale est plus grande)
+ *
+ * Les dérivées sont écrites à côté du fichier original ("empreinte-min.jpg",
+ * "empreinte-800.jpg") et enregistrées comme lignes image rattachées à l'originale
+ * (image_source_id). Un contenu déjà dérivé pour une autre image n'est pas
+ * recalculé : seule la ligne est créée.
+ * Les sources avec transparence restent en PNG, tout le reste est encodé en JPEG.
+ *
+ * File d'attente bornée : quand elle est pleine, la tâche est abandonnée
+ * (l'originale reste servie) plutôt que de bloquer la requête d'upload.
+ */
+@Component
+public class GenerateurDeriveesImages {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenerateurDeriveesImages.class);
+
+    @Autowired
+    private ImageDao imageDao;
+
+    @Autowired
+    private ImageUtils imageUtils;
+
+    private final ThreadPoolExecutor executeur;
+
+    private final AtomicLong nombreGenerees = new AtomicLong();
+    private final AtomicLong nombreAbandonnees = new AtomicLong();
+    private final AtomicLong nombreEchecs = new AtomicLong();
+
+    public GenerateurDeriveesImages(@Value("${app.images.derivees.threads:2}") int nombreThreads,
+                                    @Value("${app.images.derivees.file-max:100}") int tailleFile) {
+        AtomicInteger compteur = new AtomicInteger();
+        this.executeur = new ThreadPoolExecutor(nombreThreads, nombreThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(tailleFile),
+            tache -> {
+                Thread thread = new Thread(tache, "derivees-image-" + compteur.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            (tache, executor) -> {
+                nombreAbandonnees.incrementAndGet();
+                logger.warn("File des dérivées d'images pleine : génération abandonnée");
+            });
+    }
+
+    /**
+     * Planifier la génération des dérivées d'une image originale
+     * Dans une transaction, la tâche n'est soumise qu'après le commit :
+     * le worker doit voir la ligne et le fichier de l'originale
+     */
+    public void soumettreApresCommit(Image originale) {
+        ApresCommit.executer(() -> executeur.execute(() -> genererDerivees(originale)));
+    }
+
+    /**
+     * Nombre de tâches en attente dans la file
+     */
+    public int obtenirTailleFile() {
+        return executeur.getQueue().size();
+    }
+
+    public long obtenirNombreGenerees() {
+        return nombreGenerees.get();
+    }
+
+    public long obtenirNombreAbandonnees() {
+        return nombreAbandonnees.get();
+    }
+
+    public long obtenirNombreEchecs() {
+        return nombreEchecs.get();
+    }
+
+    @PreDestroy
+    public void arreter() {
+        executeur.shutdownNow();
+    }
+
+    // ================ MÉTHODES INTERNES ================
+
+    private void genererDerivees(Image originale) {
+        Path cheminOriginal = Paths.get(originale.getCheminFichier());
+        try {
+            if (creerDeriveesExistantes(originale, cheminOriginal)) {
+                return;
+            }
+
+            // Dimensions depuis l'en-tête, puis décodage sous-échantillonné : la mémoire
+            // du worker est bornée par la taille des dérivées, pas par celle de l'originale
+            ImageUtils.InfoImage info = imageUtils.obtenirInfoImage(cheminOriginal);
+            if ((long) info.getLargeur() * info.getHauteur() > ImageUtils.PIXELS_MAX) {
+                logger.warn("Dérivées non générées, image trop grande : {}", originale.getNomFichier());
+                nombreEchecs.incrementAndGet();
+                return;
+            }
+            BufferedImage source = imageUtils.lireImageReduite(cheminOriginal, ImageUtils.TAILLE_NORMALE_DEFAUT);
+
+            boolean transparence = source.getColorModel().hasAlpha();
+            String format = transparence ? "png" : "jpg";
+
+            if (Math.max(info.getLargeur(), info.getHauteur()) > ImageUtils.TAILLE_NORMALE_DEFAUT) {
+                creerDerivee(originale, source, cheminOriginal, VarianteImage.WEB, originale.getTypeImage(),
+                    ImageUtils.TAILLE_NORMALE_DEFAUT, "-" + ImageUtils.TAILLE_NORMALE_DEFAUT, format, transparence);
+            }
+
+            // Miniature en dernier : sa présence signale un contenu entièrement dérivé
+            creerDerivee(originale, source, cheminOriginal, VarianteImage.MINIATURE, TypeImage.MINIATURE,
+                ImageUtils.TAILLE_MINIATURE_DEFAUT, "-min", format, transparence);
+        } catch (Exception e) {
+            // L'originale a pu être supprimée entre-temps : la dérivée n'a plus lieu d'être
+            nombreEchecs.incrementAndGet();
+            logger.warn("Erreur lors de la génération des dérivées de {}", originale.getNomFichier(), e);
+        }
+    }
+
+    /**
+     * Contenu déjà dérivé (même fichier partagé par une autre image) : enregistrer les lignes
+     * en réutilisant les fichiers présents
+     *
+     * @return true si la miniature existait déjà
+     */
+    private boolean creerDeriveesExistantes(Image originale, Path cheminOriginal) throws IOException {
+        Path miniature = trouverDerivee(cheminOriginal, "-min");
+        if (miniature == null) {
+            return false;
+        }
+
+        Path web = trouverDerivee(cheminOriginal, "-" + ImageUtils.TAILLE_NORMALE_DEFAUT);
+        if (web != null) {
+            enregistrerDerivee(originale, web, VarianteImage.WEB, originale.getTypeImage(), imageUtils.obtenirInfoImage(web));
+        }
+        enregistrerDerivee(originale, miniature, VarianteImage.MINIATURE, TypeImage.MINIATURE,
+            imageUtils.obtenirInfoImage(miniature));
+        return true;
+    }
+
+    private Path trouverDerivee(Path cheminOriginal, String suffixe) {
+        for (String format : new String[] { "jpg", "png" }) {
+            Path chemin = cheminOriginal.resolveSibling(nomBase(cheminOriginal.getFileName().toString()) + suffixe + "." + format);
+            if (Files.isRegularFile(chemin)) {
+                return chemin;
+            }
+        }
+        return null;
+    }
+
+    private void creerDerivee(Image originale, BufferedImage source, Path cheminOriginal, VarianteImage variante,
+                              TypeImage type, int tailleMax, String suffixe, String format, boolean transparence)
+            throws IOException {
+        Path destination = cheminOriginal.resolveSibling(
+            nomBase(cheminOriginal.getFileName().toString()) + suffixe + "." + format);
+
+        // Même contenu dérivé entre-temps pour une autre image : le fichier est réutilisé
+        if (Files.isRegularFile(destination)) {
+            enregistrerDerivee(originale, destination, variante, type, imageUtils.obtenirInfoImage(destination));
+            return;
+        }
+
+        // Écriture dans un fichier temporaire propre à cette tâche puis déplacement :
+        // une dérivée partagée n'est jamais lue à moitié écrite, même si deux tâches la produisent
+        BufferedImage redimensionnee = imageUtils.redimensionnerProgressivement(source, tailleMax, tailleMax, transparence);
+        Path temporaire = Files.createTempFile(destination.getParent(), destination.getFileName().toString(), ".part");
+        long taille;
+        try {
+            taille = imageUtils.ecrireImage(redimensionnee, temporaire, format);
+            Files.move(temporaire, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaire);
+        }
+
+        enregistrerDerivee(originale, destination, variante, type,
+            new ImageUtils.InfoImage(redimensionnee.getWidth(), redimensionnee.getHeight(), taille, format));
+    }
+
+    private void enregistrerDerivee(Image originale, Path destination, VarianteImage variante, TypeImage type,
+                                    ImageUtils.InfoImage info) throws IOException {
+        String suffixe = variante == VarianteImage.MINIATURE ? "-min" : "-" + ImageUtils.TAILLE_NORMALE_DEFAUT;
+        String nomDestination = destination.getFileName().toString();
+        String nomFichier = nomBase(originale.getNomFichier()) + suffixe
+            + nomDestination.substring(nomDestination.lastIndexOf('.'));
+
+        Image derivee = new Image();
+        derivee.setNomFichier(nomFichier);
+        derivee.setCheminFichier(destination.toString());
+        derivee.setTypeImage(type);
+        derivee.setTailleFichier(info.getTaille());
+        derivee.setLargeur(info.getLargeur());
+        derivee.setHauteur(info.getHauteur());
+        derivee.setDateUpload(LocalDateTime.now());
+        derivee.setVariante(variante);
+        derivee.setImageSourceId(originale.getId());
+        derivee.setEmpreinte(originale.getEmpreinte());
+        derivee.setFood(originale.getFood());
+        derivee.setIngredient(originale.getIngredient());
+
+        try {
+            imageDao.create(derivee);
+            nombreGenerees.incrementAndGet();
+        } catch (RuntimeException e) {
+            // Un fichier partagé peut servir à d'autres images : seul un fichier non partagé est retiré
+            if (originale.getEmpreinte() == null) {
+                Files.deleteIfExists(destination);
+            }
+            throw e;
+        }
+    }
+
+    private static String nomBase(String nomFichier) {
+        int point = nomFichier.lastIndexOf('.');
+        return point > 0 ? nomFichier.substring(0, point) : nomFichier;
+    }
+}
@@ -0,0 +1,274 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.dao.FoodDao;
+import com.foodmanagement.dao.LotGenerationPlanDao;
+import com.foodmanagement.dao.MenuPlanificationDao;
+import com.foodmanagement.dao.PlanRepasAgregatDao;
+import com.foodmanagement.entity.LotGenerationPlan;
+import com.foodmanagement.entity.MenuPlanification;
+import com.foodmanagement.enums.StatutGeneration;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Génération en arrière-plan des plans de repas d'une cohorte (établissement, cantine...)
+ *
+ * Un thread coordinateur charge le catalogue une seule fois, découpe les personnes en
+ * attente en paquets et les répartit sur un pool de threads. Chaque paquet planifie
+ * ses personnes en mémoire puis écrit tout en une transaction : suppression des plans
+ * de la période, lot JDBC des lignes, recalcul des agrégats et statut des personnes.
+ *
+ * L'état de chaque personne est en base (generation_plan_lot_personne) : un lot
+ * interrompu reprend au démarrage suivant avec les seules personnes encore en attente.
+ * Un lot dont un paquet n'a pas pu être enregistré passe en échec, ses personnes restant en attente.
+ * La graine du tirage ne dépend que de la personne et de la date : un paquet rejoué
+ * réécrit exactement les mêmes plans.
+ */
+@Component
+public class GenerateurPlansLot {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenerateurPlansLot.class);
+
+    /**
+     * Taille des pages lues pour charger le catalogue
+     */
+    private static final int TAILLE_PAGE_CHARGEMENT = 1000;
+
+    /**
+     * Nombre d'échecs détaillés dans l'avancement
+     */
+    private static final int ECHECS_AFFICHES = 20;
+
+    @Autowired
+    private LotGenerationPlanDao lotGenerationPlanDao;
+
+    @Autowired
+    private MenuPlanificationDao menuPlanificationDao;
+
+    @Autowired
+    private PlanRepasAgregatDao planRepasAgregatDao;
+
+    @Autowired
+    private FoodDao foodDao;
+
+    @Autowired
+    private PlanificateurRepas planificateurRepas;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.planification.lot.taille-paquet:200}")
+    private int taillePaquet;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final ExecutorService coordinateur = Executors.newSingleThreadExecutor(tache -> {
+        Thread thread = new Thread(tache, "generation-plans-lot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ExecutorService travailleurs;
+
+    /**
+     * Avancement des lots traités depuis le démarrage (débit)
+     */
+    private final Map<Long, Avancement> avancements = new ConcurrentHashMap<>();
+
+    public GenerateurPlansLot(@Value("${app.planification.lot.paralleles:0}") int paralleles) {
+        int nombreThreads = paralleles > 0 ? paralleles : Runtime.getRuntime().availableProcessors();
+        AtomicInteger compteur = new AtomicInteger();
+        this.travailleurs = Executors.newFixedThreadPool(nombreThreads, tache -> {
+            Thread thread = new Thread(tache, "generation-plans-paquet-" + compteur.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void initialiser() {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reprendre les lots interrompus par un arrêt du serveur
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reprendreAuDemarrage() {
+        try {
+            for (LotGenerationPlan lot : lotGenerationPlanDao.findByStatut(StatutGeneration.EN_COURS)) {
+                logger.info("Reprise de la génération de plans du lot {} ({} personnes restantes)",
+                    lot.getId(), lot.getNombreRestantes());
+                coordinateur.submit(() -> executer(lot));
+            }
+        } catch (Exception e) {
+            logger.error("Erreur lors de la reprise des générations de plans", e);
+        }
+    }
+
+    /**
+     * Créer un lot et lancer sa génération en arrière-plan
+     *
+     * @param personneIds IDs des personnes, null pour toutes les personnes
+     * @return Lot créé (la génération n'est pas terminée au retour)
+     */
+    public LotGenerationPlan lancer(LocalDate dateDebut, int nombreJours, Collection<Long> personneIds) {
+        LotGenerationPlan lot = transactionTemplate.execute(statut ->
+            lotGenerationPlanDao.creer(dateDebut, nombreJours, personneIds));
+        if (lot.getNombrePersonnes() == 0) {
+            lotGenerationPlanDao.terminer(lot.getId(), StatutGeneration.TERMINE);
+            lot.setStatut(StatutGeneration.TERMINE);
+            return lot;
+        }
+        coordinateur.submit(() -> executer(lot));
+        return lot;
+    }
+
+    /**
+     * Débit et détail des échecs d'un lot (complète les compteurs stockés)
+     */
+    public Map<String, Object> obtenirAvancement(LotGenerationPlan lot) {
+        Map<String, Object> avancement = new LinkedHashMap<>();
+        Avancement courant = avancements.get(lot.getId());
+        if (courant != null) {
+            long fin = courant.finNanos > 0 ? courant.finNanos : System.nanoTime();
+            double secondes = Math.max((fin - courant.debutNanos) / 1e9, 0.001);
+            avancement.put("dureeSecondes", Math.round(secondes * 10) / 10.0);
+            avancement.put("personnesParSeconde", Math.round(courant.traitees.get() / secondes));
+        }
+        if (lot.getNombreEchecs() != null && lot.getNombreEchecs() > 0) {
+            avancement.put("echecs", lotGenerationPlanDao.findEchecs(lot.getId(), ECHECS_AFFICHES));
+        }
+        return avancement;
+    }
+
+    @PreDestroy
+    public void arreter() {
+        coordinateur.shutdownNow();
+        travailleurs.shutdownNow();
+    }
+
+    /**
+     * Traitement complet d'un lot, exécuté sur le thread coordinateur
+     */
+    private void executer(LotGenerationPlan lot) {
+        Avancement avancement = new Avancement();
+        avancements.put(lot.getId(), avancement);
+        try {
+            PlanificateurRepas.Catalogue catalogue = planificateurRepas.construireCatalogue(
+                foodDao.findTousParPages(TAILLE_PAGE_CHARGEMENT));
+            if (catalogue.getTaille() == 0) {
+                logger.error("Lot {} : aucun aliment disponible pour générer les plans", lot.getId());
+                lotGenerationPlanDao.terminer(lot.getId(), StatutGeneration.ECHEC);
+                return;
+            }
+
+            List<Long> enAttente = lotGenerationPlanDao.findPersonnesEnAttente(lot.getId());
+            List<Future<?>> paquets = new ArrayList<>();
+            for (int i = 0; i < enAttente.size(); i += taillePaquet) {
+                List<Long> paquet = new ArrayList<>(enAttente.subList(i, Math.min(i + taillePaquet, enAttente.size())));
+                paquets.add(travailleurs.submit(() -> traiterPaquet(lot, catalogue, paquet, avancement)));
+            }
+            int paquetsNonEnregistres = 0;
+            for (Future<?> paquet : paquets) {
+                try {
+                    paquet.get();
+                } catch (ExecutionException e) {
+                    paquetsNonEnregistres++;
+                    logger.error("Lot {} : résultats d'un paquet non enregistrés", lot.getId(), e.getCause());
+                }
+            }
+
+            // Des personnes sont restées en attente : le lot n'est pas terminé
+            StatutGeneration statut = paquetsNonEnregistres > 0 ? StatutGeneration.ECHEC : StatutGeneration.TERMINE;
+            lotGenerationPlanDao.terminer(lot.getId(), statut);
+            logger.info("Lot {} {} : {} personnes en {} ms ({} paquets sur {} non enregistrés)", lot.getId(),
+                statut == StatutGeneration.TERMINE ? "terminé" : "en échec", avancement.traitees.get(),
+                (System.nanoTime() - avancement.debutNanos) / 1_000_000, paquetsNonEnregistres, paquets.size());
+        } catch (InterruptedException e) {
+            // Arrêt du serveur : le lot reste EN_COURS et reprendra au démarrage
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Erreur lors de la génération des plans du lot {}", lot.getId(), e);
+            lotGenerationPlanDao.terminer(lot.getId(), StatutGeneration.ECHEC);
+        } finally {
+            avancement.finNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Planifier un paquet de personnes et l'écrire en une transaction
+     * Une personne dont le plan échoue n'empêche pas l'écriture des autres ;
+     * si l'écriture échoue, tout le paquet passe en échec. Si même cet échec ne peut
+     * être enregistré, l'exception remonte et le lot entier passe en échec.
+     */
+    private void traiterPaquet(LotGenerationPlan lot, PlanificateurRepas.Catalogue catalogue, List<Long> paquet,
+                               Avancement avancement) {
+        LocalDate dateDebut = lot.getDateDebut();
+        LocalDate dateFin = dateDebut.plusDays(lot.getNombreJours() - 1);
+        List<MenuPlanification> lignes = new ArrayList<>();
+        List<Long> generees = new ArrayList<>(paquet.size());
+        Map<Long, String> echecs = new LinkedHashMap<>();
+
+        for (Long personneId : paquet) {
+            try {
+                PlanificateurRepas.Resultat resultat = planificateurRepas.planifier(catalogue, dateDebut,
+                    lot.getNombreJours(), null, PlanificateurRepas.graine(personneId, dateDebut));
+                lignes.addAll(planificateurRepas.versLignes(personneId, resultat.getPlan()));
+                generees.add(personneId);
+            } catch (RuntimeException e) {
+                echecs.put(personneId, e.getMessage());
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(statut -> {
+                menuPlanificationDao.deleteByPersonneIdsAndPeriode(generees, dateDebut, dateFin);
+                menuPlanificationDao.ajouterTous(lignes);
+                planRepasAgregatDao.recalculer(generees, dateDebut, dateFin);
+                lotGenerationPlanDao.enregistrerResultats(lot.getId(), generees, echecs);
+            });
+        } catch (RuntimeException e) {
+            logger.error("Lot {} : écriture d'un paquet de {} personnes impossible : {}",
+                lot.getId(), paquet.size(), e.getMessage());
+            Map<Long, String> tous = new LinkedHashMap<>(echecs);
+            for (Long personneId : generees) {
+                tous.put(personneId, "Écriture du plan impossible : " + e.getMessage());
+            }
+            transactionTemplate.executeWithoutResult(statut ->
+                lotGenerationPlanDao.enregistrerResultats(lot.getId(), List.of(), tous));
+        }
+        avancement.traitees.addAndGet(paquet.size());
+    }
+
+    /**
+     * Progression en mémoire d'un lot (lue depuis d'autres threads)
+     */
+    private static class Avancement {
+        private final long debutNanos = System.nanoTime();
+        private volatile long finNanos;
+        private final AtomicInteger traitees = new AtomicInteger();
+    }
+}
@@ -2,13 +2,24 @@ package com.foodmanagement.util;
 
 import org.springframework.stereotype.Component;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -33,18 +44,28 @@ public class ImageUtils {
     /**
      * Taille maximale par défaut pour les miniatures
      */
-    private static final int TAILLE_MINIATURE_DEFAUT = 150;
+    public static final int TAILLE_MINIATURE_DEFAUT = 150;
 
     /**
      * Taille maximale par défaut pour les images normales
      */
-    private static final int TAILLE_NORMALE_DEFAUT = 800;
+    public static final int TAILLE_NORMALE_DEFAUT = 800;
 
     /**
      * Qualité de compression JPEG par défaut
      */
     private static final float QUALITE_COMPRESSION_DEFAUT = 0.85f;
 
+    /**
+     * Nombre maximum de pixels accepté (un petit fichier peut déclarer une image géante)
+     */
+    public static final long PIXELS_MAX = 40_000_000L;
+
+    /**
+     * Nombre d'octets d'en-tête nécessaires pour reconnaître un format
+     */
+    public static final int TAILLE_SIGNATURE = 12;
+
     /**
      * Valider une extension de fichier
      * 
@@ -107,30 +128,8 @@ public class ImageUtils {
             throw new IOException("Impossible de lire l'image");
         }
 
-        // Calcul des nouvelles dimensions en conservant le ratio
-        Dimension nouvellesTailles = calculerNouvellesTailles(
-            imageOriginale.getWidth(), 
-            imageOriginale.getHeight(), 
-            largeurMax, 
-            hauteurMax
-        );
-
-        // Redimensionnement
-        BufferedImage imageRedimensionnee = new BufferedImage(
-            nouvellesTailles.width, 
-            nouvellesTailles.height, 
-            BufferedImage.TYPE_INT_RGB
-        );
-
-        Graphics2D graphics = imageRedimensionnee.createGraphics();
-        
-        // Configuration pour une meilleure qualité
-        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        graphics.drawImage(imageOriginale, 0, 0, nouvellesTailles.width, nouvellesTailles.height, null);
-        graphics.dispose();
+        BufferedImage imageRedimensionnee = redimensionnerProgressivement(
+            imageOriginale, largeurMax, hauteurMax, "png".equals(format) || "gif".equals(format));
 
         // Conversion en bytes
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -139,6 +138,84 @@ public class ImageUtils {
         return outputStream.toByteArray();
     }
 
+    /**
+     * Redimensionner une image en conservant le ratio, par divisions successives par deux
+     * Chaque étape bilinéaire ne fait que moyenner des pixels voisins : le résultat est
+     * proche d'un filtre de surface, sans le crénelage d'une seule réduction bilinéaire
+     * 
+     * @param source Image décodée
+     * @param largeurMax Largeur maximale
+     * @param hauteurMax Hauteur maximale
+     * @param conserverTransparence true pour garder le canal alpha (sortie PNG)
+     * @return Image redimensionnée
+     */
+    public BufferedImage redimensionnerProgressivement(BufferedImage source, int largeurMax, int hauteurMax,
+                                                       boolean conserverTransparence) {
+        Dimension cible = calculerNouvellesTailles(source.getWidth(), source.getHeight(), largeurMax, hauteurMax);
+        int type = conserverTransparence ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage courante = source;
+        int largeur = source.getWidth();
+        int hauteur = source.getHeight();
+        while (largeur / 2 >= cible.width && hauteur / 2 >= cible.height) {
+            largeur /= 2;
+            hauteur /= 2;
+            courante = dessiner(courante, largeur, hauteur, type);
+        }
+        return dessiner(courante, cible.width, cible.height, type);
+    }
+
+    private BufferedImage dessiner(BufferedImage source, int largeur, int hauteur, int type) {
+        BufferedImage resultat = new BufferedImage(largeur, hauteur, type);
+        Graphics2D graphics = resultat.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        if (type == BufferedImage.TYPE_INT_RGB) {
+            // Fond blanc pour les sources transparentes converties en JPEG
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, largeur, hauteur);
+        }
+        graphics.drawImage(source, 0, 0, largeur, hauteur, null);
+        graphics.dispose();
+        return resultat;
+    }
+
+    /**
+     * Écrire une image sur disque
+     * Le JPEG est compressé avec la qualité par défaut (0.85)
+     * 
+     * @param image Image à écrire
+     * @param destination Fichier de destination
+     * @param format Format de sortie (jpg ou png)
+     * @return Taille du fichier écrit en octets
+     * @throws IOException Si erreur d'écriture
+     */
+    public long ecrireImage(BufferedImage image, Path destination, String format) throws IOException {
+        try (OutputStream sortie = Files.newOutputStream(destination);
+             ImageOutputStream imageSortie = ImageIO.createImageOutputStream(sortie)) {
+
+            if ("jpg".equals(format) || "jpeg".equals(format)) {
+                Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+                if (!writers.hasNext()) {
+                    throw new IOException("Aucun encodeur JPEG disponible");
+                }
+                ImageWriter writer = writers.next();
+                try {
+                    ImageWriteParam parametres = writer.getDefaultWriteParam();
+                    parametres.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    parametres.setCompressionQuality(QUALITE_COMPRESSION_DEFAUT);
+                    writer.setOutput(imageSortie);
+                    writer.write(null, new IIOImage(image, null, null), parametres);
+                } finally {
+                    writer.dispose();
+                }
+            } else if (!ImageIO.write(image, format, imageSortie)) {
+                throw new IOException("Format de sortie non supporté : " + format);
+            }
+        }
+        return Files.size(destination);
+    }
+
     /**
      * Générer une miniature
      * 
@@ -199,18 +276,110 @@ public class ImageUtils {
      * @throws IOException Si erreur de lecture
      */
     public InfoImage obtenirInfoImage(byte[] imageBytes) throws IOException {
-        BufferedImage image = ImageIO.read(new ByteArrayInputStream(imageBytes));
-        if (image == null) {
-            throw new IOException("Impossible de lire l'image");
+        try (ImageInputStream entree = ImageIO.createImageInputStream(new ByteArrayInputStream(imageBytes))) {
+            InfoImage info = lireEnTete(entree);
+            info.setTaille(imageBytes.length);
+            info.setFormat(determinerFormat(imageBytes));
+            return info;
         }
+    }
 
-        InfoImage info = new InfoImage();
-        info.setLargeur(image.getWidth());
-        info.setHauteur(image.getHeight());
-        info.setTaille(imageBytes.length);
-        info.setFormat(determinerFormat(imageBytes));
+    /**
+     * Obtenir les informations d'une image stockée sur disque
+     * Les dimensions sont lues dans l'en-tête par l'ImageReader, sans décoder les pixels
+     * 
+     * @param fichier Chemin du fichier
+     * @return Informations sur l'image
+     * @throws IOException Si aucun décodeur ne reconnaît le fichier
+     */
+    public InfoImage obtenirInfoImage(Path fichier) throws IOException {
+        try (ImageInputStream entree = ImageIO.createImageInputStream(fichier.toFile())) {
+            InfoImage info = lireEnTete(entree);
+            info.setTaille(Files.size(fichier));
+            return info;
+        }
+    }
+
+    /**
+     * Lire une image en sous-échantillonnant au décodage
+     * Le raster décodé fait au plus ~2 fois la taille cible : la mémoire utilisée
+     * ne dépend plus de la résolution de l'originale
+     * 
+     * @param fichier Chemin du fichier
+     * @param tailleCible Plus grande dimension souhaitée après redimensionnement
+     * @return Image décodée, déjà réduite d'un facteur entier
+     * @throws IOException Si aucun décodeur ne reconnaît le fichier
+     */
+    public BufferedImage lireImageReduite(Path fichier, int tailleCible) throws IOException {
+        try (ImageInputStream entree = ImageIO.createImageInputStream(fichier.toFile())) {
+            ImageReader reader = obtenirReader(entree);
+            try {
+                reader.setInput(entree, true, true);
+                int plusGrandCote = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int facteur = Math.max(1, plusGrandCote / (2 * tailleCible));
+
+                ImageReadParam parametres = reader.getDefaultReadParam();
+                parametres.setSourceSubsampling(facteur, facteur, 0, 0);
+                return reader.read(0, parametres);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Reconnaître le format d'une image à partir de ses premiers octets
+     * 
+     * @param entete Premiers octets du fichier
+     * @param longueur Nombre d'octets valides dans entete
+     * @return Extension du format (jpg, png, gif, webp), null si non reconnu
+     */
+    public String detecterFormat(byte[] entete, int longueur) {
+        if (longueur >= 3 && entete[0] == (byte) 0xFF && entete[1] == (byte) 0xD8 && entete[2] == (byte) 0xFF) {
+            return "jpg";
+        }
+        if (longueur >= 8 && entete[0] == (byte) 0x89 && entete[1] == 0x50 && entete[2] == 0x4E && entete[3] == 0x47
+                && entete[4] == 0x0D && entete[5] == 0x0A && entete[6] == 0x1A && entete[7] == 0x0A) {
+            return "png";
+        }
+        if (longueur >= 6 && entete[0] == 0x47 && entete[1] == 0x49 && entete[2] == 0x46 && entete[3] == 0x38) {
+            return "gif";
+        }
+        if (longueur >= 12 && entete[0] == 0x52 && entete[1] == 0x49 && entete[2] == 0x46 && entete[3] == 0x46
+                && entete[8] == 0x57 && entete[9] == 0x45 && entete[10] == 0x42 && entete[11] == 0x50) {
+            return "webp";
+        }
+        return null;
+    }
+
+    private InfoImage lireEnTete(ImageInputStream entree) throws IOException {
+        ImageReader reader = obtenirReader(entree);
+        try {
+            reader.setInput(entree, true, true);
+            InfoImage info = new InfoImage();
+            info.setLargeur(reader.getWidth(0));
+            info.setHauteur(reader.getHeight(0));
+            info.setFormat(normaliserFormat(reader.getFormatName()));
+            return info;
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private ImageReader obtenirReader(ImageInputStream entree) throws IOException {
+        if (entree == null) {
+            throw new IOException("Impossible de lire l'image");
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(entree);
+        if (!readers.hasNext()) {
+            throw new IOException("Format d'image non reconnu");
+        }
+        return readers.next();
+    }
 
-        return info;
+    private String normaliserFormat(String nomFormat) {
+        String format = nomFormat.toLowerCase();
+        return "jpeg".equals(format) ? "jpg" : format;
     }
 
     /**
@@ -220,30 +389,8 @@ public class ImageUtils {
      * @return Format de l'image (jpg, png, etc.)
      */
     private String determinerFormat(byte[] imageBytes) {
-        // Vérification des signatures de fichiers (magic numbers)
-        if (imageBytes.length >= 3) {
-            // JPEG
-            if (imageBytes[0] == (byte) 0xFF && imageBytes[1] == (byte) 0xD8 && imageBytes[2] == (byte) 0xFF) {
-                return "jpg";
-            }
-        }
-        
-        if (imageBytes.length >= 8) {
-            // PNG
-            if (imageBytes[0] == (byte) 0x89 && imageBytes[1] == 0x50 && imageBytes[2] == 0x4E && imageBytes[3] == 0x47) {
-                return "png";
-            }
-        }
-        
-        if (imageBytes.length >= 6) {
-            // GIF
-            if (imageBytes[0] == 0x47 && imageBytes[1] == 0x49 && imageBytes[2] == 0x46) {
-                return "gif";
-            }
-        }
-        
-        // Par défaut
-        return "jpg";
+        String format = detecterFormat(imageBytes, imageBytes.length);
+        return format != null ? format : "jpg";
     }
 
     /**
@@ -0,0 +1,463 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.entity.Food;
+import com.foodmanagement.enums.CategorieFood;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index des plus proches voisins pour les aliments de remplacement
+ *
+ * Chaque aliment est un point (calories, prix, catégorie, ensemble d'ingrédients) ;
+ * la distance combine :
+ * - l'écart de calories et de prix, rapportés à leur écart-type sur le catalogue,
+ * - la distance de Jaccard entre ensembles d'ingrédients (bitsets, un bit par ingrédient),
+ * - une pénalité fixe si la catégorie diffère.
+ *
+ * Une partition par catégorie, triée par calories : la recherche part du voisin
+ * calorique de la référence et s'étend des deux côtés tant que le seul écart de
+ * calories peut encore battre le k-ième meilleur candidat (parcours borné, sans
+ * examiner toute la catégorie). Les filtres (prix maximum, ingrédients exclus)
+ * s'appliquent pendant le parcours ; un plafond de calories borne le parcours lui-même.
+ *
+ * Mises à jour unitaires (une partition reconstruite), lectures concurrentes.
+ */
+public class IndexAlternatives {
+
+    private static final double POIDS_CALORIES = 1.0;
+    private static final double POIDS_PRIX = 0.5;
+    private static final double POIDS_INGREDIENTS = 1.5;
+    private static final double PENALITE_CATEGORIE = 2.0;
+
+    /**
+     * Écart de prix retenu (en écarts-types) quand l'un des deux prix est inconnu
+     */
+    private static final double ECART_PRIX_INCONNU = 1.0;
+
+    /**
+     * Aliment indexé avec ses caractéristiques
+     */
+    private static class Point {
+        final Food food;
+        final double calories;
+        final double prix;
+        final long[] ingredients;
+
+        Point(Food food, double calories, double prix, long[] ingredients) {
+            this.food = food;
+            this.calories = calories;
+            this.prix = prix;
+            this.ingredients = ingredients;
+        }
+    }
+
+    /**
+     * Aliments d'une catégorie, triés par calories (tableaux parallèles)
+     */
+    private static class Partition {
+        final double[] calories;
+        final Point[] points;
+
+        Partition(List<Point> liste) {
+            this.points = liste.toArray(new Point[0]);
+            Arrays.sort(points, (a, b) -> Double.compare(a.calories, b.calories));
+            this.calories = new double[points.length];
+            for (int i = 0; i < points.length; i++) {
+                calories[i] = points[i].calories;
+            }
+        }
+    }
+
+    /**
+     * k meilleurs candidats (tas max sur la distance, le pire en tête)
+     */
+    private static class Meilleurs {
+        final Point[] points;
+        final double[] distances;
+        int taille = 0;
+
+        Meilleurs(int k) {
+            this.points = new Point[k];
+            this.distances = new double[k];
+        }
+
+        boolean complet() {
+            return taille == points.length;
+        }
+
+        double pire() {
+            return complet() ? distances[0] : Double.POSITIVE_INFINITY;
+        }
+
+        void proposer(Point point, double distance) {
+            if (!complet()) {
+                int i = taille++;
+                points[i] = point;
+                distances[i] = distance;
+                while (i > 0 && distances[(i - 1) / 2] < distances[i]) {
+                    echanger(i, (i - 1) / 2);
+                    i = (i - 1) / 2;
+                }
+            } else if (distance < distances[0]) {
+                points[0] = point;
+                distances[0] = distance;
+                int i = 0;
+                while (true) {
+                    int plusGrand = i;
+                    int gauche = 2 * i + 1;
+                    int droite = gauche + 1;
+                    if (gauche < taille && distances[gauche] > distances[plusGrand]) {
+                        plusGrand = gauche;
+                    }
+                    if (droite < taille && distances[droite] > distances[plusGrand]) {
+                        plusGrand = droite;
+                    }
+                    if (plusGrand == i) {
+                        break;
+                    }
+                    echanger(i, plusGrand);
+                    i = plusGrand;
+                }
+            }
+        }
+
+        List<Food> trier() {
+            Integer[] ordre = new Integer[taille];
+            for (int i = 0; i < taille; i++) {
+                ordre[i] = i;
+            }
+            Arrays.sort(ordre, (a, b) -> Double.compare(distances[a], distances[b]));
+            List<Food> resultat = new ArrayList<>(taille);
+            for (Integer i : ordre) {
+                resultat.add(points[i].food);
+            }
+            return resultat;
+        }
+
+        private void echanger(int a, int b) {
+            Point point = points[a];
+            points[a] = points[b];
+            points[b] = point;
+            double distance = distances[a];
+            distances[a] = distances[b];
+            distances[b] = distance;
+        }
+    }
+
+    private final Map<Long, Point> points = new HashMap<>();
+    private final Map<Long, Integer> bitsIngredients = new HashMap<>();
+    private final Map<CategorieFood, Partition> partitions = new EnumMap<>(CategorieFood.class);
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    private double echelleCalories = 1.0;
+    private double echellePrix = 1.0;
+
+    /**
+     * Remplacer tout le contenu de l'index
+     * Les échelles (écarts-types des calories et des prix) sont recalculées ici seulement
+     *
+     * @param aliments Aliments du catalogue
+     * @param ingredientsParFood ID d'aliment → IDs de ses ingrédients
+     */
+    public void remplacerTout(Collection<Food> aliments, Map<Long, Set<Long>> ingredientsParFood) {
+        verrou.writeLock().lock();
+        try {
+            points.clear();
+            bitsIngredients.clear();
+            for (Food food : aliments) {
+                if (food.getId() != null && food.getCategorie() != null) {
+                    points.put(food.getId(), creerPoint(food, ingredientsParFood.getOrDefault(food.getId(), Set.of())));
+                }
+            }
+            echelleCalories = ecartType(points.values(), true);
+            echellePrix = ecartType(points.values(), false);
+            partitions.clear();
+            for (CategorieFood categorie : CategorieFood.values()) {
+                reconstruirePartition(categorie);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ajouter ou remplacer un aliment
+     */
+    public void indexer(Food food, Set<Long> ingredientIds) {
+        if (food == null || food.getId() == null || food.getCategorie() == null) {
+            return;
+        }
+        verrou.writeLock().lock();
+        try {
+            Point ancien = points.put(food.getId(), creerPoint(food, ingredientIds));
+            reconstruirePartition(food.getCategorie());
+            if (ancien != null && ancien.food.getCategorie() != food.getCategorie()) {
+                reconstruirePartition(ancien.food.getCategorie());
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public void retirer(Long foodId) {
+        verrou.writeLock().lock();
+        try {
+            Point ancien = points.remove(foodId);
+            if (ancien != null) {
+                reconstruirePartition(ancien.food.getCategorie());
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retirer un ingrédient de tous les aliments qui le contiennent
+     */
+    public void retirerIngredient(Long ingredientId) {
+        verrou.writeLock().lock();
+        try {
+            Integer bit = bitsIngredients.get(ingredientId);
+            if (bit == null) {
+                return;
+            }
+            int mot = bit >>> 6;
+            long masque = 1L << bit;
+            for (Point point : points.values()) {
+                if (mot < point.ingredients.length) {
+                    point.ingredients[mot] &= ~masque;
+                }
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public boolean contient(Long foodId) {
+        verrou.readLock().lock();
+        try {
+            return points.containsKey(foodId);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rechercher les aliments les plus proches d'un aliment indexé
+     *
+     * @param foodId Aliment de référence (exclu des résultats)
+     * @param categories Catégories acceptées (null ou vide : toutes, pénalité si différente de la référence)
+     * @param prixMax Prix maximum (null : pas de limite ; sinon les aliments sans prix sont exclus)
+     * @param caloriesMax Calories strictement inférieures à ce plafond (null : pas de limite)
+     * @param ingredientsExclus IDs d'ingrédients à éviter (allergies, goûts)
+     * @param k Nombre d'aliments retournés
+     * @return Aliments du plus proche au moins proche, liste vide si la référence n'est pas indexée
+     */
+    public List<Food> plusProches(Long foodId, Set<CategorieFood> categories, Double prixMax, Double caloriesMax,
+                                  Collection<Long> ingredientsExclus, int k) {
+        if (k <= 0) {
+            return Collections.emptyList();
+        }
+        verrou.readLock().lock();
+        try {
+            Point reference = points.get(foodId);
+            if (reference == null) {
+                return Collections.emptyList();
+            }
+            long[] exclus = masque(ingredientsExclus);
+            Meilleurs meilleurs = new Meilleurs(k);
+            for (Map.Entry<CategorieFood, Partition> entree : partitions.entrySet()) {
+                if (categories != null && !categories.isEmpty() && !categories.contains(entree.getKey())) {
+                    continue;
+                }
+                double penalite = entree.getKey() == reference.food.getCategorie() ? 0.0 : PENALITE_CATEGORIE;
+                parcourir(entree.getValue(), reference, penalite, prixMax, caloriesMax, exclus, meilleurs);
+            }
+            return meilleurs.trier();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public int taille() {
+        verrou.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    // ================ MÉTHODES UTILITAIRES ================
+
+    /**
+     * Parcours borné d'une partition à partir du voisin calorique de la référence
+     * Le plafond de calories arrête le parcours vers les calories croissantes
+     */
+    private void parcourir(Partition partition, Point reference, double penalite, Double prixMax, Double caloriesMax,
+                           long[] exclus, Meilleurs meilleurs) {
+        int fin = caloriesMax == null ? partition.points.length : premierAuMoins(partition.calories, caloriesMax);
+        int droite = Arrays.binarySearch(partition.calories, reference.calories);
+        if (droite < 0) {
+            droite = -droite - 1;
+        }
+        int gauche = Math.min(droite, fin) - 1;
+
+        while (gauche >= 0 || droite < fin) {
+            double ecartGauche = gauche >= 0 ? reference.calories - partition.calories[gauche] : Double.POSITIVE_INFINITY;
+            double ecartDroite = droite < fin
+                ? partition.calories[droite] - reference.calories : Double.POSITIVE_INFINITY;
+            int i = ecartGauche <= ecartDroite ? gauche-- : droite++;
+            double ecart = Math.min(ecartGauche, ecartDroite) / echelleCalories;
+
+            // Les écarts de calories ne font que croître : plus aucun candidat ne peut entrer
+            if (POIDS_CALORIES * ecart * ecart + penalite >= meilleurs.pire()) {
+                break;
+            }
+
+            Point candidat = partition.points[i];
+            if (candidat == reference || !accepte(candidat, prixMax, exclus)) {
+                continue;
+            }
+            meilleurs.proposer(candidat, penalite + distance(reference, candidat));
+        }
+    }
+
+    /**
+     * Premier indice dont les calories atteignent la valeur (longueur du tableau si aucun)
+     */
+    private static int premierAuMoins(double[] calories, double valeur) {
+        int bas = 0;
+        int haut = calories.length;
+        while (bas < haut) {
+            int milieu = (bas + haut) >>> 1;
+            if (calories[milieu] < valeur) {
+                bas = milieu + 1;
+            } else {
+                haut = milieu;
+            }
+        }
+        return bas;
+    }
+
+    private boolean accepte(Point candidat, Double prixMax, long[] exclus) {
+        if (prixMax != null && (Double.isNaN(candidat.prix) || candidat.prix > prixMax)) {
+            return false;
+        }
+        int n = Math.min(exclus.length, candidat.ingredients.length);
+        for (int i = 0; i < n; i++) {
+            if ((candidat.ingredients[i] & exclus[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double distance(Point a, Point b) {
+        double ecartCalories = (a.calories - b.calories) / echelleCalories;
+        double ecartPrix = Double.isNaN(a.prix) || Double.isNaN(b.prix)
+            ? ECART_PRIX_INCONNU : (a.prix - b.prix) / echellePrix;
+        double ecartIngredients = 1.0 - jaccard(a.ingredients, b.ingredients);
+        return POIDS_CALORIES * ecartCalories * ecartCalories
+            + POIDS_PRIX * ecartPrix * ecartPrix
+            + POIDS_INGREDIENTS * ecartIngredients * ecartIngredients;
+    }
+
+    /**
+     * Similarité de Jaccard entre deux bitsets ; deux recettes vides ne se ressemblent pas
+     */
+    private static double jaccard(long[] a, long[] b) {
+        int communs = 0;
+        int union = 0;
+        int n = Math.max(a.length, b.length);
+        for (int i = 0; i < n; i++) {
+            long x = i < a.length ? a[i] : 0L;
+            long y = i < b.length ? b[i] : 0L;
+            communs += Long.bitCount(x & y);
+            union += Long.bitCount(x | y);
+        }
+        return union == 0 ? 0.0 : (double) communs / union;
+    }
+
+    private Point creerPoint(Food food, Set<Long> ingredientIds) {
+        double calories = food.getCaloriesTotales() != null ? food.getCaloriesTotales()
+            : food.getCalories() != null ? food.getCalories() : 0.0;
+        double prix = food.getPrix() != null ? food.getPrix() : Double.NaN;
+
+        long[] ingredients = new long[0];
+        for (Long ingredientId : ingredientIds) {
+            int bit = bitsIngredients.computeIfAbsent(ingredientId, id -> bitsIngredients.size());
+            if ((bit >>> 6) >= ingredients.length) {
+                ingredients = Arrays.copyOf(ingredients, (bit >>> 6) + 1);
+            }
+            ingredients[bit >>> 6] |= 1L << bit;
+        }
+        return new Point(food, calories, prix, ingredients);
+    }
+
+    /**
+     * Bitset des ingrédients exclus (ingrédients absents du catalogue ignorés)
+     */
+    private long[] masque(Collection<Long> ingredientIds) {
+        long[] masque = new long[0];
+        if (ingredientIds == null) {
+            return masque;
+        }
+        for (Long ingredientId : ingredientIds) {
+            Integer bit = bitsIngredients.get(ingredientId);
+            if (bit == null) {
+                continue;
+            }
+            if ((bit >>> 6) >= masque.length) {
+                masque = Arrays.copyOf(masque, (bit >>> 6) + 1);
+            }
+            masque[bit >>> 6] |= 1L << bit;
+        }
+        return masque;
+    }
+
+    private void reconstruirePartition(CategorieFood categorie) {
+        List<Point> liste = new ArrayList<>();
+        for (Point point : points.values()) {
+            if (point.food.getCategorie() == categorie) {
+                liste.add(point);
+            }
+        }
+        if (liste.isEmpty()) {
+            partitions.remove(categorie);
+        } else {
+            partitions.put(categorie, new Partition(liste));
+        }
+    }
+
+    private static double ecartType(Collection<Point> liste, boolean calories) {
+        double somme = 0.0;
+        double sommeCarres = 0.0;
+        int n = 0;
+        for (Point point : liste) {
+            double valeur = calories ? point.calories : point.prix;
+            if (Double.isNaN(valeur)) {
+                continue;
+            }
+            somme += valeur;
+            sommeCarres += valeur * valeur;
+            n++;
+        }
+        if (n < 2) {
+            return 1.0;
+        }
+        double moyenne = somme / n;
+        double ecart = Math.sqrt(Math.max(0.0, sommeCarres / n - moyenne * moyenne));
+        // Catalogue uniforme : on garde une échelle d'une unité
+        return ecart > 1e-9 ? ecart : 1.0;
+    }
+}
@@ -0,0 +1,289 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.dao.FoodDao;
+import com.foodmanagement.dao.FoodIngredientDao;
+import com.foodmanagement.dao.IngredientDao;
+import com.foodmanagement.entity.Food;
+import com.foodmanagement.entity.Ingredient;
+import com.foodmanagement.enums.CategorieFood;
+import com.foodmanagement.enums.TypeEntite;
+import com.foodmanagement.enums.TypeIngredient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Index de recherche en mémoire du catalogue
+ * - aliments : nom (poids 3) et description (poids 1)
+ * - ingrédients : nom
+ * - aliments de remplacement : plus proches voisins (calories, prix, catégorie, ingrédients)
+ * - recettes : aliments réalisables avec un ensemble d'ingrédients (bitsets)
+ * - entités : noms d'aliments et d'ingrédients cités dans un message, fautes de frappe comprises
+ *
+ * Construit au démarrage par pages (le JdbcTemplate applicatif limite les résultats),
+ * puis tenu à jour par les services à chaque création, modification et suppression
+ * (appliquées après le commit quand une transaction est en cours).
+ * Les mises à jour relisent la base hors verrou, puis s'appliquent sous le verrou de
+ * la reconstruction : celles qui arrivent pendant une reconstruction sont rejouées
+ * sur le nouvel index, qui ne peut donc pas les écraser avec une lecture plus ancienne.
+ * Tant qu'il n'est pas prêt, les services se rabattent sur les requêtes SQL.
+ * Chaque modification des aliments périme le catalogue de planification.
+ */
+@Component
+public class IndexCatalogue {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexCatalogue.class);
+
+    private static final int TAILLE_PAGE_CHARGEMENT = 500;
+
+    @Autowired
+    private FoodDao foodDao;
+
+    @Autowired
+    private IngredientDao ingredientDao;
+
+    @Autowired
+    private FoodIngredientDao foodIngredientDao;
+
+    @Autowired
+    private CataloguePlanification cataloguePlanification;
+
+    private final IndexRecherche<Food> indexAliments =
+        new IndexRecherche<>(Food::getId, List.<Function<Food, String>>of(Food::getNom, Food::getDescription), 3, 1);
+
+    private final IndexRecherche<Ingredient> indexIngredients =
+        new IndexRecherche<>(Ingredient::getId, List.<Function<Ingredient, String>>of(Ingredient::getNom), 1);
+
+    private final IndexAlternatives indexAlternatives = new IndexAlternatives();
+
+    private final IndexRecettes indexRecettes = new IndexRecettes();
+
+    private final IndexEntites indexEntites = new IndexEntites();
+
+    private volatile boolean pret = false;
+
+    /**
+     * Verrou des écritures dans les index : reconstruction et mises à jour
+     */
+    private final Object verrouIndex = new Object();
+
+    /**
+     * Mises à jour appliquées pendant la lecture d'une reconstruction (null hors reconstruction)
+     */
+    private List<Runnable> misesAJourARejouer;
+
+    /**
+     * Construction initiale une fois l'application démarrée
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void construireAuDemarrage() {
+        reconstruire();
+    }
+
+    /**
+     * Recharger entièrement l'index depuis la base
+     * À appeler après une écriture qui contourne les services (import en masse)
+     */
+    public synchronized void reconstruire() {
+        long debut = System.nanoTime();
+        synchronized (verrouIndex) {
+            misesAJourARejouer = new ArrayList<>();
+        }
+
+        List<Food> aliments = foodDao.findTousParPages(TAILLE_PAGE_CHARGEMENT);
+
+        List<Ingredient> ingredients = new ArrayList<>();
+        List<Ingredient> pageIngredients = ingredientDao.findPageApres(null, TAILLE_PAGE_CHARGEMENT);
+        while (!pageIngredients.isEmpty()) {
+            ingredients.addAll(pageIngredients);
+            Long dernierId = pageIngredients.get(pageIngredients.size() - 1).getId();
+            pageIngredients = pageIngredients.size() < TAILLE_PAGE_CHARGEMENT ? List.of()
+                : ingredientDao.findPageApres(dernierId, TAILLE_PAGE_CHARGEMENT);
+        }
+
+        Map<Long, Set<Long>> ingredientsParFood = foodIngredientDao.findIngredientIdsParFood();
+
+        synchronized (verrouIndex) {
+            indexAliments.remplacerTout(aliments);
+            indexIngredients.remplacerTout(ingredients);
+            indexAlternatives.remplacerTout(aliments, ingredientsParFood);
+            indexRecettes.remplacerTout(aliments, ingredientsParFood);
+            indexEntites.remplacerTout(aliments, ingredients);
+            // Une modification validée pendant la lecture peut manquer aux lignes relues
+            misesAJourARejouer.forEach(Runnable::run);
+            misesAJourARejouer = null;
+            cataloguePlanification.perimer();
+            pret = true;
+        }
+
+        logger.info("Index de recherche construit : {} aliments, {} ingrédients en {} ms",
+            aliments.size(), ingredients.size(), (System.nanoTime() - debut) / 1_000_000);
+    }
+
+    public boolean estPret() {
+        return pret;
+    }
+
+    // ================ ALIMENTS ================
+
+    public void indexerAliment(Food food) {
+        appliquerApresCommit(() -> {
+            Set<Long> ingredientIds = foodIngredientDao.findIngredientIdsByFoodId(food.getId());
+            return () -> {
+                indexerRecetteLue(food, ingredientIds);
+                indexEntites.indexer(TypeEntite.ALIMENT, food.getId(), food.getNom());
+            };
+        });
+    }
+
+    public void retirerAliment(Long foodId) {
+        appliquerApresCommit(() -> () -> {
+            indexAliments.retirer(foodId);
+            indexAlternatives.retirer(foodId);
+            indexRecettes.retirer(foodId);
+            indexEntites.retirer(TypeEntite.ALIMENT, foodId);
+            cataloguePlanification.perimer();
+        });
+    }
+
+    /**
+     * Recette modifiée : ingrédients et calories (agrégat) relus après le commit
+     */
+    public void indexerRecette(Long foodId) {
+        appliquerApresCommit(() -> {
+            Optional<Food> food = foodDao.findById(foodId);
+            Set<Long> ingredientIds = food.isPresent() ? foodIngredientDao.findIngredientIdsByFoodId(foodId) : Set.of();
+            return () -> food.ifPresent(lu -> indexerRecetteLue(lu, ingredientIds));
+        });
+    }
+
+    /**
+     * Recettes utilisant un ingrédient dont les agrégats ont été recalculés (densité modifiée)
+     * Les aliments sont relus après le commit : leurs calories ont changé en base
+     */
+    public void indexerRecettesAvecIngredient(Long ingredientId) {
+        appliquerApresCommit(() -> {
+            List<Food> aliments = foodDao.findByIngredientId(ingredientId);
+            Map<Long, Set<Long>> ingredientsParFood = foodIngredientDao.findIngredientIdsParFoodUtilisant(ingredientId);
+            return () -> aliments.forEach(food ->
+                indexerRecetteLue(food, ingredientsParFood.getOrDefault(food.getId(), Set.of())));
+        });
+    }
+
+    /**
+     * Rechercher des aliments par nom ou description, classés par pertinence
+     */
+    public List<Food> rechercherAliments(String texte, int limite) {
+        return indexAliments.rechercher(texte, null, limite);
+    }
+
+    /**
+     * Aliments les plus proches d'un aliment (calories, prix, ingrédients communs)
+     *
+     * @param foodId Aliment à remplacer
+     * @param categories Catégories acceptées (null : toutes, la même catégorie étant favorisée)
+     * @param prixMax Prix maximum (null : pas de limite)
+     * @param caloriesMax Calories strictement inférieures à ce plafond (null : pas de limite)
+     * @param ingredientsExclus Ingrédients à éviter
+     * @param limite Nombre d'aliments retournés
+     * @return Alternatives, vide si l'aliment n'est pas indexé
+     */
+    public List<Food> rechercherAlternatives(Long foodId, Set<CategorieFood> categories, Double prixMax,
+                                             Double caloriesMax, Collection<Long> ingredientsExclus, int limite) {
+        return indexAlternatives.plusProches(foodId, categories, prixMax, caloriesMax, ingredientsExclus, limite);
+    }
+
+    public boolean contientAlternative(Long foodId) {
+        return indexAlternatives.contient(foodId);
+    }
+
+    /**
+     * Aliments réalisables avec des ingrédients disponibles : ceux qui en utilisent le plus,
+     * puis ceux auxquels il en manque le moins
+     */
+    public List<IndexRecettes.Correspondance> rechercherRecettes(Collection<Long> ingredientsDisponibles, int limite) {
+        return indexRecettes.rechercher(ingredientsDisponibles, limite);
+    }
+
+    // ================ INGRÉDIENTS ================
+
+    public void indexerIngredient(Ingredient ingredient) {
+        appliquerApresCommit(() -> () -> {
+            indexIngredients.indexer(ingredient);
+            indexEntites.indexer(TypeEntite.INGREDIENT, ingredient.getId(), ingredient.getNom());
+        });
+    }
+
+    public void retirerIngredient(Long ingredientId) {
+        appliquerApresCommit(() -> () -> {
+            indexIngredients.retirer(ingredientId);
+            indexAlternatives.retirerIngredient(ingredientId);
+            indexRecettes.retirerIngredient(ingredientId);
+            indexEntites.retirer(TypeEntite.INGREDIENT, ingredientId);
+            cataloguePlanification.perimer();
+        });
+    }
+
+    public Optional<Ingredient> obtenirIngredient(Long ingredientId) {
+        return indexIngredients.obtenir(ingredientId);
+    }
+
+    /**
+     * Rechercher des ingrédients par nom, filtrés par type si fourni
+     */
+    public List<Ingredient> rechercherIngredients(String texte, TypeIngredient type, int limite) {
+        return indexIngredients.rechercher(texte, type == null ? null : ingredient -> type == ingredient.getType(), limite);
+    }
+
+    // ================ ENTITÉS ================
+
+    /**
+     * Aliments, ingrédients et quantités cités dans un message, résolus sans requête
+     */
+    public List<IndexEntites.Entite> extraireEntites(String message) {
+        return indexEntites.extraire(message);
+    }
+
+    // ================ MISES À JOUR ================
+
+    /**
+     * Aliment relu (agrégats compris) et ses ingrédients : index des aliments, alternatives et recettes
+     */
+    private void indexerRecetteLue(Food food, Set<Long> ingredientIds) {
+        indexAliments.indexer(food);
+        indexAlternatives.indexer(food, ingredientIds);
+        indexRecettes.indexer(food, ingredientIds);
+        cataloguePlanification.perimer();
+    }
+
+    /**
+     * Appliquer une mise à jour une fois la transaction validée
+     *
+     * @param lecture Lectures en base, faites hors verrou (une connexion est encore tenue
+     *                après le commit : attendre la reconstruction en la gardant épuiserait le pool) ;
+     *                retourne l'écriture dans les index, appliquée sous le verrou
+     */
+    private void appliquerApresCommit(Supplier<Runnable> lecture) {
+        ApresCommit.executer(() -> {
+            Runnable ecriture = lecture.get();
+            synchronized (verrouIndex) {
+                ecriture.run();
+                if (misesAJourARejouer != null) {
+                    misesAJourARejouer.add(ecriture);
+                }
+            }
+        });
+    }
+}
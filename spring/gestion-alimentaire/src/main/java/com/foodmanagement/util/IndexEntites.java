@@ -0,0 +1,608 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.entity.Food;
+import com.foodmanagement.entity.Ingredient;
+import com.foodmanagement.enums.TypeEntite;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Dictionnaire des noms du catalogue pour l'extraction d'entités des messages du chatbot
+ *
+ * Les noms d'aliments et d'ingrédients sont découpés en mots normalisés et rangés dans un arbre
+ * de mots par type : la plus longue suite de mots du message formant un nom est reconnue.
+ * Un mot absent du vocabulaire est d'abord corrigé par suppressions symétriques : chaque mot du
+ * vocabulaire est rangé sous ses variantes à une ou deux lettres supprimées, et un mot du message
+ * n'est comparé (distance de Damerau-Levenshtein) qu'aux mots partageant une de ses variantes.
+ *
+ * Un mot significatif qui n'est qu'une partie d'un nom (« épinards » pour « Épinards sautés »)
+ * désigne le nom le plus court qui le contient. Les quantités (chiffres ou nombres en lettres,
+ * suivis d'une unité éventuelle) sont lues dans le même parcours du message.
+ */
+public class IndexEntites {
+
+    private static final Pattern JETON = Pattern.compile("\\d+(?:[.,]\\d+)?|\\p{L}+");
+
+    private static final int LONGUEUR_MIN_CORRECTION = 4;
+    private static final int LONGUEUR_DISTANCE_DEUX = 8;
+    private static final int DISTANCE_MAX = 2;
+    private static final int LONGUEUR_MIN_PARTIEL = 3;
+
+    /**
+     * Mots jamais corrigés ni reconnus seuls comme partie d'un nom
+     */
+    private static final Set<String> MOTS_OUTILS = Set.of(
+        "le", "la", "les", "un", "une", "des", "du", "de", "au", "aux", "et", "ou", "en", "pour", "avec", "sans",
+        "dans", "sur", "que", "qui", "quoi", "est", "sont", "peux", "peut", "tu", "je", "moi", "mon", "ma", "mes",
+        "ton", "ta", "tes", "vous", "nous", "infos", "info", "aliment", "aliments", "plat", "plats", "donner",
+        "donne", "place", "remplacer", "calories", "calorie", "combien", "quelle", "quelles", "quel", "quels",
+        "recette", "recettes", "cuisiner", "preparer", "faire", "manger", "mange", "avoir", "ingredient",
+        "ingredients", "buffet", "repas", "menu", "semaine", "mariage", "anniversaire", "cocktail", "entreprise",
+        "aide", "aider", "planifier", "organiser", "conseil", "conseils", "apporte", "contient");
+
+    private static final Map<String, Integer> NOMBRES = Map.ofEntries(
+        Map.entry("deux", 2), Map.entry("trois", 3), Map.entry("quatre", 4), Map.entry("cinq", 5),
+        Map.entry("six", 6), Map.entry("sept", 7), Map.entry("huit", 8), Map.entry("neuf", 9),
+        Map.entry("dix", 10), Map.entry("onze", 11), Map.entry("douze", 12), Map.entry("treize", 13),
+        Map.entry("quatorze", 14), Map.entry("quinze", 15), Map.entry("seize", 16), Map.entry("vingt", 20),
+        Map.entry("vingts", 20), Map.entry("trente", 30), Map.entry("quarante", 40), Map.entry("cinquante", 50),
+        Map.entry("soixante", 60), Map.entry("cent", 100), Map.entry("cents", 100), Map.entry("mille", 1000));
+
+    private static final Map<String, Integer> NOMBRES_APPROCHES = Map.of(
+        "dizaine", 10, "douzaine", 12, "quinzaine", 15, "vingtaine", 20, "trentaine", 30,
+        "cinquantaine", 50, "centaine", 100);
+
+    private static final Map<String, String> UNITES = Map.ofEntries(
+        Map.entry("g", "g"), Map.entry("gr", "g"), Map.entry("gramme", "g"), Map.entry("grammes", "g"),
+        Map.entry("kg", "kg"), Map.entry("kilo", "kg"), Map.entry("kilos", "kg"), Map.entry("mg", "mg"),
+        Map.entry("l", "l"), Map.entry("litre", "l"), Map.entry("litres", "l"), Map.entry("cl", "cl"),
+        Map.entry("ml", "ml"), Map.entry("personne", "personnes"), Map.entry("personnes", "personnes"),
+        Map.entry("invite", "personnes"), Map.entry("invites", "personnes"), Map.entry("convive", "personnes"),
+        Map.entry("convives", "personnes"), Map.entry("gens", "personnes"), Map.entry("part", "portions"),
+        Map.entry("parts", "portions"), Map.entry("portion", "portions"), Map.entry("portions", "portions"));
+
+    /**
+     * Entité reconnue dans un message
+     */
+    public static class Entite {
+        private final TypeEntite type;
+        private final Long id;
+        private final String nom;
+        private final Double valeur;
+        private final String unite;
+        private final int position;
+        private final int corrections;
+        private final boolean complete;
+
+        private Entite(TypeEntite type, Long id, String nom, Double valeur, String unite,
+                       int position, int corrections, boolean complete) {
+            this.type = type;
+            this.id = id;
+            this.nom = nom;
+            this.valeur = valeur;
+            this.unite = unite;
+            this.position = position;
+            this.corrections = corrections;
+            this.complete = complete;
+        }
+
+        public TypeEntite getType() {
+            return type;
+        }
+
+        /**
+         * ID de l'aliment ou de l'ingrédient (null pour une quantité)
+         */
+        public Long getId() {
+            return id;
+        }
+
+        /**
+         * Nom du catalogue (null pour une quantité)
+         */
+        public String getNom() {
+            return nom;
+        }
+
+        public Double getValeur() {
+            return valeur;
+        }
+
+        /**
+         * Unité d'une quantité : g, kg, mg, l, cl, ml, personnes, portions (null si aucune)
+         */
+        public String getUnite() {
+            return unite;
+        }
+
+        /**
+         * Rang du premier mot de l'entité dans le message
+         */
+        public int getPosition() {
+            return position;
+        }
+
+        /**
+         * Nombre de lettres corrigées pour reconnaître le nom
+         */
+        public int getCorrections() {
+            return corrections;
+        }
+
+        /**
+         * Vrai si le message contient le nom entier, faux s'il n'en contient qu'un mot
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+
+    private static class Noeud {
+        final Map<String, Noeud> enfants = new HashMap<>();
+        final TreeSet<Long> ids = new TreeSet<>();
+    }
+
+    /**
+     * Noms d'un type d'entité
+     */
+    private static class Dictionnaire {
+        final Noeud racine = new Noeud();
+        final Map<Long, String[]> motsParId = new HashMap<>();
+        final Map<Long, String> nomParId = new HashMap<>();
+        final Map<String, TreeSet<Long>> idsParMot = new HashMap<>();
+    }
+
+    /**
+     * Mots d'un message et leurs corrections, calculées à la demande
+     */
+    private class Analyse {
+        final List<String> jetons;
+        final String[] corriges;
+        final int[] distances;
+        final boolean[] calcules;
+
+        Analyse(List<String> jetons) {
+            this.jetons = jetons;
+            this.corriges = new String[jetons.size()];
+            this.distances = new int[jetons.size()];
+            this.calcules = new boolean[jetons.size()];
+        }
+
+        String mot(int rang) {
+            if (!calcules[rang]) {
+                corriger(jetons.get(rang), rang);
+                calcules[rang] = true;
+            }
+            return corriges[rang];
+        }
+
+        private void corriger(String jeton, int rang) {
+            if (vocabulaire.containsKey(jeton)) {
+                corriges[rang] = jeton;
+                return;
+            }
+            if (jeton.length() < LONGUEUR_MIN_CORRECTION || MOTS_OUTILS.contains(jeton)
+                || UNITES.containsKey(jeton) || NOMBRES.containsKey(jeton) || !Character.isLetter(jeton.charAt(0))) {
+                return;
+            }
+            int distanceMax = jeton.length() >= LONGUEUR_DISTANCE_DEUX ? 2 : 1;
+            String meilleur = null;
+            int meilleureDistance = distanceMax + 1;
+            for (String variante : variantes(jeton, distanceMax)) {
+                Set<String> candidats = suppressions.get(variante);
+                if (candidats == null) {
+                    continue;
+                }
+                for (String candidat : candidats) {
+                    if (Math.abs(candidat.length() - jeton.length()) > distanceMax) {
+                        continue;
+                    }
+                    int distance = distance(jeton, candidat, distanceMax);
+                    if (distance < meilleureDistance || (distance == meilleureDistance && meilleur != null
+                        && preferer(candidat, meilleur))) {
+                        meilleur = candidat;
+                        meilleureDistance = distance;
+                    }
+                }
+            }
+            if (meilleur != null) {
+                corriges[rang] = meilleur;
+                distances[rang] = meilleureDistance;
+            }
+        }
+    }
+
+    private final Map<TypeEntite, Dictionnaire> dictionnaires = new EnumMap<>(TypeEntite.class);
+
+    // Vocabulaire commun aux noms : mot → nombre de noms qui l'utilisent
+    private final Map<String, Integer> vocabulaire = new HashMap<>();
+    private final Map<String, Set<String>> suppressions = new HashMap<>();
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    public IndexEntites() {
+        dictionnaires.put(TypeEntite.ALIMENT, new Dictionnaire());
+        dictionnaires.put(TypeEntite.INGREDIENT, new Dictionnaire());
+    }
+
+    /**
+     * Remplacer tout le contenu du dictionnaire
+     */
+    public void remplacerTout(Collection<Food> aliments, Collection<Ingredient> ingredients) {
+        verrou.writeLock().lock();
+        try {
+            dictionnaires.put(TypeEntite.ALIMENT, new Dictionnaire());
+            dictionnaires.put(TypeEntite.INGREDIENT, new Dictionnaire());
+            vocabulaire.clear();
+            suppressions.clear();
+            for (Food food : aliments) {
+                indexerSansVerrou(TypeEntite.ALIMENT, food.getId(), food.getNom());
+            }
+            for (Ingredient ingredient : ingredients) {
+                indexerSansVerrou(TypeEntite.INGREDIENT, ingredient.getId(), ingredient.getNom());
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ajouter un nom ou remplacer le nom d'un aliment ou d'un ingrédient
+     */
+    public void indexer(TypeEntite type, Long id, String nom) {
+        verrou.writeLock().lock();
+        try {
+            indexerSansVerrou(type, id, nom);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public void retirer(TypeEntite type, Long id) {
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(type, id);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Extraire les aliments, ingrédients et quantités d'un message, dans l'ordre du message
+     * Un même aliment ou ingrédient n'est retourné qu'une fois
+     */
+    public List<Entite> extraire(String message) {
+        Analyse analyse = new Analyse(decouper(message));
+        List<Entite> entites = new ArrayList<>();
+        Set<String> dejaVues = new HashSet<>();
+        verrou.readLock().lock();
+        try {
+            int rang = 0;
+            while (rang < analyse.jetons.size()) {
+                int lus = lireQuantite(analyse.jetons, rang, entites);
+                if (lus == 0) {
+                    lus = lireNom(analyse, rang, entites, dejaVues);
+                }
+                rang += Math.max(1, lus);
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+        return entites;
+    }
+
+    // ================ MÉTHODES UTILITAIRES ================
+
+    private void indexerSansVerrou(TypeEntite type, Long id, String nom) {
+        if (id == null) {
+            return;
+        }
+        retirerSansVerrou(type, id);
+        String[] mots = decouper(nom).toArray(new String[0]);
+        if (mots.length == 0) {
+            return;
+        }
+        Dictionnaire dictionnaire = dictionnaires.get(type);
+        dictionnaire.motsParId.put(id, mots);
+        dictionnaire.nomParId.put(id, nom);
+
+        Noeud noeud = dictionnaire.racine;
+        for (String mot : mots) {
+            noeud = noeud.enfants.computeIfAbsent(mot, cle -> new Noeud());
+        }
+        noeud.ids.add(id);
+
+        for (String mot : new LinkedHashSet<>(List.of(mots))) {
+            dictionnaire.idsParMot.computeIfAbsent(mot, cle -> new TreeSet<>()).add(id);
+            if (vocabulaire.merge(mot, 1, Integer::sum) == 1 && corrigeable(mot)) {
+                for (String variante : variantes(mot, DISTANCE_MAX)) {
+                    suppressions.computeIfAbsent(variante, cle -> new HashSet<>()).add(mot);
+                }
+            }
+        }
+    }
+
+    private void retirerSansVerrou(TypeEntite type, Long id) {
+        Dictionnaire dictionnaire = dictionnaires.get(type);
+        String[] mots = dictionnaire.motsParId.remove(id);
+        if (mots == null) {
+            return;
+        }
+        dictionnaire.nomParId.remove(id);
+
+        // Branche de l'arbre élaguée tant que ses nœuds ne servent plus
+        Noeud[] chemin = new Noeud[mots.length + 1];
+        chemin[0] = dictionnaire.racine;
+        for (int i = 0; i < mots.length; i++) {
+            chemin[i + 1] = chemin[i].enfants.get(mots[i]);
+        }
+        chemin[mots.length].ids.remove(id);
+        for (int i = mots.length; i > 0 && chemin[i].ids.isEmpty() && chemin[i].enfants.isEmpty(); i--) {
+            chemin[i - 1].enfants.remove(mots[i - 1]);
+        }
+
+        for (String mot : new LinkedHashSet<>(List.of(mots))) {
+            TreeSet<Long> ids = dictionnaire.idsParMot.get(mot);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                dictionnaire.idsParMot.remove(mot);
+            }
+            int restants = vocabulaire.get(mot) - 1;
+            if (restants > 0) {
+                vocabulaire.put(mot, restants);
+                continue;
+            }
+            vocabulaire.remove(mot);
+            if (corrigeable(mot)) {
+                for (String variante : variantes(mot, DISTANCE_MAX)) {
+                    Set<String> candidats = suppressions.get(variante);
+                    if (candidats != null && candidats.remove(mot) && candidats.isEmpty()) {
+                        suppressions.remove(variante);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Lire une quantité : « 50 », « 1,5 kg », « vingt et un invités », « une dizaine de personnes »
+     *
+     * @return Nombre de mots lus (0 si le mot n'est pas un nombre)
+     */
+    private int lireQuantite(List<String> jetons, int debut, List<Entite> entites) {
+        String jeton = jetons.get(debut);
+        double valeur;
+        int rang = debut;
+        if (Character.isDigit(jeton.charAt(0))) {
+            valeur = Double.parseDouble(jeton);
+            rang++;
+        } else if (NOMBRES_APPROCHES.containsKey(jeton)) {
+            valeur = NOMBRES_APPROCHES.get(jeton);
+            rang++;
+        } else if (NOMBRES.containsKey(jeton)) {
+            long total = 0;
+            long courant = 0;
+            while (rang < jetons.size()) {
+                String mot = jetons.get(rang);
+                Integer nombre = NOMBRES.get(mot);
+                if (nombre == null && rang > debut && "et".equals(mot) && rang + 1 < jetons.size()
+                    && ("un".equals(jetons.get(rang + 1)) || "une".equals(jetons.get(rang + 1)))) {
+                    courant += 1;
+                    rang += 2;
+                    continue;
+                }
+                if (nombre == null) {
+                    break;
+                }
+                if (nombre == 1000) {
+                    total += Math.max(1, courant) * 1000;
+                    courant = 0;
+                } else if (nombre == 100) {
+                    courant = Math.max(1, courant) * 100;
+                } else if (nombre == 20 && courant % 100 == 4) {
+                    // quatre-vingt(s)
+                    courant += 76;
+                } else {
+                    courant += nombre;
+                }
+                rang++;
+            }
+            valeur = total + courant;
+        } else {
+            return 0;
+        }
+
+        String unite = null;
+        if (rang < jetons.size() && UNITES.containsKey(jetons.get(rang))) {
+            unite = UNITES.get(jetons.get(rang++));
+        } else if (rang + 1 < jetons.size() && ("de".equals(jetons.get(rang)) || "d".equals(jetons.get(rang)))
+            && UNITES.containsKey(jetons.get(rang + 1))) {
+            unite = UNITES.get(jetons.get(rang + 1));
+            rang += 2;
+        }
+        entites.add(new Entite(TypeEntite.QUANTITE, null, null, valeur, unite, debut, 0, true));
+        return rang - debut;
+    }
+
+    /**
+     * Lire le plus long nom du catalogue commençant au mot donné, sinon un nom dont ce mot fait partie
+     *
+     * @return Nombre de mots lus (0 si aucun nom n'est reconnu)
+     */
+    private int lireNom(Analyse analyse, int debut, List<Entite> entites, Set<String> dejaVues) {
+        Map<TypeEntite, Noeud> trouves = new EnumMap<>(TypeEntite.class);
+        int longueurMax = 0;
+        for (Map.Entry<TypeEntite, Dictionnaire> entree : dictionnaires.entrySet()) {
+            Noeud noeud = entree.getValue().racine;
+            Noeud trouve = null;
+            int longueur = 0;
+            for (int rang = debut; rang < analyse.jetons.size(); rang++) {
+                String mot = analyse.mot(rang);
+                noeud = mot == null ? null : noeud.enfants.get(mot);
+                if (noeud == null) {
+                    break;
+                }
+                if (!noeud.ids.isEmpty()) {
+                    trouve = noeud;
+                    longueur = rang - debut + 1;
+                }
+            }
+            if (longueur > longueurMax) {
+                trouves.clear();
+                longueurMax = longueur;
+            }
+            if (longueur > 0 && longueur == longueurMax) {
+                trouves.put(entree.getKey(), trouve);
+            }
+        }
+
+        if (longueurMax > 0) {
+            int corrections = 0;
+            for (int rang = debut; rang < debut + longueurMax; rang++) {
+                corrections += analyse.distances[rang];
+            }
+            for (Map.Entry<TypeEntite, Noeud> trouve : trouves.entrySet()) {
+                Long id = trouve.getValue().ids.first();
+                ajouter(entites, dejaVues, trouve.getKey(), id, debut, corrections, true);
+            }
+            return longueurMax;
+        }
+
+        String mot = analyse.mot(debut);
+        if (mot == null || mot.length() < LONGUEUR_MIN_PARTIEL || MOTS_OUTILS.contains(mot)
+            || MOTS_OUTILS.contains(analyse.jetons.get(debut))) {
+            return 0;
+        }
+        for (Map.Entry<TypeEntite, Dictionnaire> entree : dictionnaires.entrySet()) {
+            TreeSet<Long> ids = entree.getValue().idsParMot.get(mot);
+            if (ids == null) {
+                continue;
+            }
+            // Le nom le plus court, à égalité le premier créé
+            Long meilleur = null;
+            for (Long id : ids) {
+                if (meilleur == null
+                    || entree.getValue().motsParId.get(id).length < entree.getValue().motsParId.get(meilleur).length) {
+                    meilleur = id;
+                }
+            }
+            ajouter(entites, dejaVues, entree.getKey(), meilleur, debut, analyse.distances[debut], false);
+        }
+        return 1;
+    }
+
+    private void ajouter(List<Entite> entites, Set<String> dejaVues, TypeEntite type, Long id,
+                         int position, int corrections, boolean complete) {
+        if (dejaVues.add(type.name() + ":" + id)) {
+            String nom = dictionnaires.get(type).nomParId.get(id);
+            entites.add(new Entite(type, id, nom, null, null, position, corrections, complete));
+        }
+    }
+
+    /**
+     * Mots normalisés d'un texte ; les nombres décimaux gardent leur partie décimale
+     */
+    private static List<String> decouper(String texte) {
+        List<String> jetons = new ArrayList<>();
+        if (texte == null) {
+            return jetons;
+        }
+        Matcher matcher = JETON.matcher(texte.toLowerCase(Locale.ROOT));
+        while (matcher.find()) {
+            String jeton = matcher.group();
+            if (Character.isDigit(jeton.charAt(0))) {
+                jetons.add(jeton.replace(',', '.'));
+                continue;
+            }
+            for (String mot : IndexRecherche.normaliser(jeton).split(" ")) {
+                if (!mot.isEmpty()) {
+                    jetons.add(mot);
+                }
+            }
+        }
+        return jetons;
+    }
+
+    private static boolean corrigeable(String mot) {
+        return mot.length() >= LONGUEUR_MIN_CORRECTION && Character.isLetter(mot.charAt(0));
+    }
+
+    /**
+     * Le mot lui-même et ses variantes à une lettre supprimée, puis deux, etc.
+     */
+    private static Set<String> variantes(String mot, int suppressionsMax) {
+        Set<String> resultat = new HashSet<>();
+        resultat.add(mot);
+        List<String> niveau = List.of(mot);
+        for (int profondeur = 0; profondeur < suppressionsMax; profondeur++) {
+            List<String> suivant = new ArrayList<>();
+            for (String variante : niveau) {
+                for (int i = 0; i < variante.length(); i++) {
+                    String plusCourte = variante.substring(0, i) + variante.substring(i + 1);
+                    if (resultat.add(plusCourte)) {
+                        suivant.add(plusCourte);
+                    }
+                }
+            }
+            niveau = suivant;
+        }
+        return resultat;
+    }
+
+    /**
+     * Correction préférée à distance égale : le mot le plus utilisé, puis l'ordre alphabétique
+     */
+    private boolean preferer(String candidat, String actuel) {
+        int utilisations = vocabulaire.getOrDefault(candidat, 0);
+        int utilisationsActuel = vocabulaire.getOrDefault(actuel, 0);
+        return utilisations > utilisationsActuel || (utilisations == utilisationsActuel && candidat.compareTo(actuel) < 0);
+    }
+
+    /**
+     * Distance de Damerau-Levenshtein restreinte (transpositions de lettres voisines),
+     * arrêtée dès qu'elle dépasse le maximum
+     *
+     * @return Distance, ou maximum + 1 si elle le dépasse
+     */
+    private static int distance(String a, String b, int max) {
+        int[] avantDerniere = new int[b.length() + 1];
+        int[] derniere = new int[b.length() + 1];
+        int[] courante = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            derniere[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            courante[0] = i;
+            int minimumLigne = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cout = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int valeur = Math.min(Math.min(derniere[j] + 1, courante[j - 1] + 1), derniere[j - 1] + cout);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    valeur = Math.min(valeur, avantDerniere[j - 2] + 1);
+                }
+                courante[j] = valeur;
+                minimumLigne = Math.min(minimumLigne, valeur);
+            }
+            if (minimumLigne > max) {
+                return max + 1;
+            }
+            int[] libre = avantDerniere;
+            avantDerniere = derniere;
+            derniere = courante;
+            courante = libre;
+        }
+        return Math.min(derniere[b.length()], max + 1);
+    }
+}
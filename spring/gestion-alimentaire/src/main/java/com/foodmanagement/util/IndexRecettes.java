@@ -0,0 +1,344 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.entity.Food;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index « que puis-je cuisiner avec ce que j'ai ? »
+ *
+ * Chaque ingrédient du catalogue reçoit un bit ; la recette d'un aliment est un bitset.
+ * Les bitsets sont rangés par colonnes : colonnes[mot][position] est le mot de 64 bits
+ * numéro « mot » de l'aliment rangé à « position ». Pour un garde-manger, seules les
+ * colonnes de ses mots non nuls sont lues, séquentiellement, et chaque aliment coûte
+ * un ET et un comptage de bits par mot : quelques milliers d'aliments sont parcourus
+ * en une fraction de milliseconde, sans requête.
+ *
+ * Les aliments sont rangés de façon contiguë (un retrait déplace le dernier aliment
+ * dans la place libérée) ; les bits des ingrédients supprimés sont réutilisés.
+ */
+public class IndexRecettes {
+
+    private static final int CAPACITE_INITIALE = 256;
+
+    /**
+     * Aliment trouvé pour un garde-manger
+     */
+    public static class Correspondance {
+        private final Food food;
+        private final int ingredientsDisponibles;
+        private final int ingredientsManquants;
+        private final List<Long> idsManquants;
+
+        private Correspondance(Food food, int ingredientsDisponibles, int ingredientsManquants, List<Long> idsManquants) {
+            this.food = food;
+            this.ingredientsDisponibles = ingredientsDisponibles;
+            this.ingredientsManquants = ingredientsManquants;
+            this.idsManquants = idsManquants;
+        }
+
+        public Food getFood() {
+            return food;
+        }
+
+        /**
+         * Ingrédients de la recette présents dans le garde-manger
+         */
+        public int getIngredientsDisponibles() {
+            return ingredientsDisponibles;
+        }
+
+        public int getIngredientsManquants() {
+            return ingredientsManquants;
+        }
+
+        /**
+         * IDs des ingrédients de la recette absents du garde-manger
+         */
+        public List<Long> getIdsManquants() {
+            return idsManquants;
+        }
+    }
+
+    private Food[] aliments = new Food[CAPACITE_INITIALE];
+    private int[] nombreIngredients = new int[CAPACITE_INITIALE];
+    private long[][] colonnes = new long[0][];
+    private int taille;
+
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private final Map<Long, Integer> bitsIngredients = new HashMap<>();
+    private final List<Long> ingredientsParBit = new ArrayList<>();
+    private final ArrayDeque<Integer> bitsLibres = new ArrayDeque<>();
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    /**
+     * Remplacer tout le contenu de l'index
+     *
+     * @param tous Aliments du catalogue
+     * @param ingredientsParFood ID d'aliment → IDs de ses ingrédients
+     */
+    public void remplacerTout(Collection<Food> tous, Map<Long, Set<Long>> ingredientsParFood) {
+        verrou.writeLock().lock();
+        try {
+            int capacite = Math.max(CAPACITE_INITIALE, Integer.highestOneBit(Math.max(1, tous.size())) << 1);
+            aliments = new Food[capacite];
+            nombreIngredients = new int[capacite];
+            colonnes = new long[0][];
+            taille = 0;
+            positions.clear();
+            bitsIngredients.clear();
+            ingredientsParBit.clear();
+            bitsLibres.clear();
+            for (Food food : tous) {
+                if (food.getId() != null) {
+                    indexerSansVerrou(food, ingredientsParFood.getOrDefault(food.getId(), Set.of()));
+                }
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ajouter un aliment ou remplacer sa recette
+     */
+    public void indexer(Food food, Set<Long> ingredientIds) {
+        if (food == null || food.getId() == null) {
+            return;
+        }
+        verrou.writeLock().lock();
+        try {
+            indexerSansVerrou(food, ingredientIds);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public void retirer(Long foodId) {
+        verrou.writeLock().lock();
+        try {
+            Integer position = positions.remove(foodId);
+            if (position == null) {
+                return;
+            }
+            int derniere = taille - 1;
+            if (position != derniere) {
+                aliments[position] = aliments[derniere];
+                nombreIngredients[position] = nombreIngredients[derniere];
+                for (long[] colonne : colonnes) {
+                    colonne[position] = colonne[derniere];
+                }
+                positions.put(aliments[position].getId(), position);
+            }
+            aliments[derniere] = null;
+            nombreIngredients[derniere] = 0;
+            for (long[] colonne : colonnes) {
+                colonne[derniere] = 0L;
+            }
+            taille--;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retirer un ingrédient de toutes les recettes ; son bit est libéré
+     */
+    public void retirerIngredient(Long ingredientId) {
+        verrou.writeLock().lock();
+        try {
+            Integer bit = bitsIngredients.remove(ingredientId);
+            if (bit == null) {
+                return;
+            }
+            long[] colonne = colonnes[bit >>> 6];
+            long masque = 1L << bit;
+            for (int i = 0; i < taille; i++) {
+                if ((colonne[i] & masque) != 0) {
+                    colonne[i] &= ~masque;
+                    nombreIngredients[i]--;
+                }
+            }
+            ingredientsParBit.set(bit, null);
+            bitsLibres.add(bit);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aliments utilisant le plus d'ingrédients du garde-manger, puis auxquels il en manque le moins
+     * (à égalité, le premier indexé)
+     *
+     * @param disponibles IDs des ingrédients disponibles
+     * @param limite Nombre d'aliments retournés
+     * @return Aliments utilisant au moins un ingrédient disponible
+     */
+    public List<Correspondance> rechercher(Collection<Long> disponibles, int limite) {
+        if (disponibles == null || disponibles.isEmpty() || limite <= 0) {
+            return Collections.emptyList();
+        }
+        verrou.readLock().lock();
+        try {
+            long[] gardeManger = new long[colonnes.length];
+            for (Long ingredientId : disponibles) {
+                Integer bit = bitsIngredients.get(ingredientId);
+                if (bit != null) {
+                    gardeManger[bit >>> 6] |= 1L << bit;
+                }
+            }
+            int nombreMots = 0;
+            for (long mot : gardeManger) {
+                if (mot != 0) {
+                    nombreMots++;
+                }
+            }
+            if (nombreMots == 0) {
+                return Collections.emptyList();
+            }
+            long[][] colonnesLues = new long[nombreMots][];
+            long[] masques = new long[nombreMots];
+            for (int mot = 0, j = 0; mot < gardeManger.length; mot++) {
+                if (gardeManger[mot] != 0) {
+                    colonnesLues[j] = colonnes[mot];
+                    masques[j++] = gardeManger[mot];
+                }
+            }
+
+            // Meilleurs aliments, triés du meilleur au moins bon (insertion, limite petite)
+            int[] meilleurs = new int[limite];
+            int[] couverts = new int[limite];
+            int[] manquants = new int[limite];
+            int nombre = 0;
+            for (int i = 0; i < taille; i++) {
+                int couvert = 0;
+                for (int j = 0; j < nombreMots; j++) {
+                    couvert += Long.bitCount(colonnesLues[j][i] & masques[j]);
+                }
+                if (couvert == 0) {
+                    continue;
+                }
+                int manquant = nombreIngredients[i] - couvert;
+                if (nombre == limite && !meilleur(couvert, manquant, couverts[limite - 1], manquants[limite - 1])) {
+                    continue;
+                }
+                int rang = Math.min(nombre, limite - 1);
+                while (rang > 0 && meilleur(couvert, manquant, couverts[rang - 1], manquants[rang - 1])) {
+                    meilleurs[rang] = meilleurs[rang - 1];
+                    couverts[rang] = couverts[rang - 1];
+                    manquants[rang] = manquants[rang - 1];
+                    rang--;
+                }
+                meilleurs[rang] = i;
+                couverts[rang] = couvert;
+                manquants[rang] = manquant;
+                nombre = Math.min(nombre + 1, limite);
+            }
+
+            List<Correspondance> resultats = new ArrayList<>(nombre);
+            for (int r = 0; r < nombre; r++) {
+                resultats.add(new Correspondance(aliments[meilleurs[r]], couverts[r], manquants[r],
+                    idsManquants(meilleurs[r], gardeManger)));
+            }
+            return resultats;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public int taille() {
+        verrou.readLock().lock();
+        try {
+            return taille;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    // ================ MÉTHODES UTILITAIRES ================
+
+    private static boolean meilleur(int couvert, int manquant, int couvertAutre, int manquantAutre) {
+        return couvert > couvertAutre || (couvert == couvertAutre && manquant < manquantAutre);
+    }
+
+    private void indexerSansVerrou(Food food, Set<Long> ingredientIds) {
+        Integer position = positions.get(food.getId());
+        if (position == null) {
+            if (taille == aliments.length) {
+                agrandir(aliments.length * 2);
+            }
+            position = taille++;
+            positions.put(food.getId(), position);
+        } else {
+            for (long[] colonne : colonnes) {
+                colonne[position] = 0L;
+            }
+        }
+        aliments[position] = food;
+
+        int nombre = 0;
+        for (Long ingredientId : ingredientIds) {
+            int bit = bit(ingredientId);
+            colonnes[bit >>> 6][position] |= 1L << bit;
+            nombre++;
+        }
+        nombreIngredients[position] = nombre;
+    }
+
+    /**
+     * Bit d'un ingrédient, attribué à sa première apparition (bit libéré réutilisé d'abord)
+     */
+    private int bit(Long ingredientId) {
+        Integer existant = bitsIngredients.get(ingredientId);
+        if (existant != null) {
+            return existant;
+        }
+        int bit;
+        if (!bitsLibres.isEmpty()) {
+            bit = bitsLibres.poll();
+            ingredientsParBit.set(bit, ingredientId);
+        } else {
+            bit = ingredientsParBit.size();
+            ingredientsParBit.add(ingredientId);
+        }
+        bitsIngredients.put(ingredientId, bit);
+        if ((bit >>> 6) >= colonnes.length) {
+            colonnes = Arrays.copyOf(colonnes, (bit >>> 6) + 1);
+            colonnes[bit >>> 6] = new long[aliments.length];
+        }
+        return bit;
+    }
+
+    private void agrandir(int capacite) {
+        aliments = Arrays.copyOf(aliments, capacite);
+        nombreIngredients = Arrays.copyOf(nombreIngredients, capacite);
+        for (int mot = 0; mot < colonnes.length; mot++) {
+            colonnes[mot] = Arrays.copyOf(colonnes[mot], capacite);
+        }
+    }
+
+    /**
+     * IDs des ingrédients d'un aliment absents du garde-manger
+     */
+    private List<Long> idsManquants(int position, long[] gardeManger) {
+        List<Long> ids = new ArrayList<>();
+        for (int mot = 0; mot < colonnes.length; mot++) {
+            long absents = colonnes[mot][position] & ~(mot < gardeManger.length ? gardeManger[mot] : 0L);
+            while (absents != 0) {
+                int bit = (mot << 6) + Long.numberOfTrailingZeros(absents);
+                ids.add(ingredientsParBit.get(bit));
+                absents &= absents - 1;
+            }
+        }
+        return ids;
+    }
+}
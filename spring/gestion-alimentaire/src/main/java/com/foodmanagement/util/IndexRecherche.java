@@ -0,0 +1,316 @@
+package com.foodmanagement.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversé en mémoire pour la recherche textuelle
+ *
+ * Les textes sont normalisés (minuscules, sans accents ni ponctuation) puis
+ * découpés en trigrammes ; les requêtes de moins de 3 caractères passent par
+ * un index des préfixes de mots. Les candidats sont ensuite vérifiés (la requête
+ * doit apparaître telle quelle dans le texte normalisé) puis classés :
+ * égalité > début du texte > début d'un mot > milieu d'un mot, pondéré par champ.
+ *
+ * Lectures concurrentes, écritures exclusives.
+ *
+ * @param <T> Type des éléments indexés
+ */
+public class IndexRecherche<T> {
+
+    private static final Pattern MARQUES_DIACRITIQUES = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIQUE = Pattern.compile("[^a-z0-9]+");
+    private static final int TAILLE_NGRAMME = 3;
+
+    /**
+     * Élément indexé avec ses champs déjà normalisés
+     */
+    private static class Document<T> {
+        final T valeur;
+        final String[] champs;
+
+        Document(T valeur, String[] champs) {
+            this.valeur = valeur;
+            this.champs = champs;
+        }
+    }
+
+    private final Function<T, Long> extracteurId;
+    private final List<Function<T, String>> extracteursChamps;
+    private final int[] poids;
+
+    private final Map<Long, Document<T>> documents = new HashMap<>();
+    private final Map<String, Set<Long>> ngrammes = new HashMap<>();
+    private final Map<String, Set<Long>> prefixes = new HashMap<>();
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    /**
+     * @param extracteurId Fonction retournant l'ID d'un élément
+     * @param extracteursChamps Champs textuels à indexer, par ordre d'importance
+     * @param poids Poids de chaque champ dans le classement
+     */
+    public IndexRecherche(Function<T, Long> extracteurId, List<Function<T, String>> extracteursChamps, int... poids) {
+        if (extracteursChamps.size() != poids.length) {
+            throw new IllegalArgumentException("Un poids est attendu par champ indexé");
+        }
+        this.extracteurId = extracteurId;
+        this.extracteursChamps = extracteursChamps;
+        this.poids = poids;
+    }
+
+    /**
+     * Normaliser un texte pour la comparaison : "Crème brûlée !" -> "creme brulee"
+     */
+    public static String normaliser(String texte) {
+        if (texte == null) {
+            return "";
+        }
+        String sansLigatures = texte.replace("œ", "oe").replace("Œ", "OE").replace("æ", "ae").replace("Æ", "AE");
+        String sansAccents = MARQUES_DIACRITIQUES.matcher(Normalizer.normalize(sansLigatures, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIQUE.matcher(sansAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Ajouter ou remplacer un élément
+     */
+    public void indexer(T element) {
+        verrou.writeLock().lock();
+        try {
+            ajouterSansVerrou(element);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retirer un élément par ID
+     */
+    public void retirer(Long id) {
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(id);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remplacer tout le contenu de l'index
+     */
+    public void remplacerTout(Collection<T> elements) {
+        verrou.writeLock().lock();
+        try {
+            documents.clear();
+            ngrammes.clear();
+            prefixes.clear();
+            for (T element : elements) {
+                ajouterSansVerrou(element);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Nombre d'éléments indexés
+     */
+    public int taille() {
+        verrou.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Élément indexé sous un ID
+     */
+    public Optional<T> obtenir(Long id) {
+        verrou.readLock().lock();
+        try {
+            Document<T> document = documents.get(id);
+            return document == null ? Optional.empty() : Optional.of(document.valeur);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rechercher les éléments correspondant à une requête, du plus pertinent au moins pertinent
+     *
+     * @param requete Texte recherché (accents et casse ignorés)
+     * @param filtre Filtre supplémentaire sur les éléments (null pour aucun)
+     * @param limite Nombre maximum de résultats (0 ou moins pour tous)
+     * @return Éléments classés
+     */
+    public List<T> rechercher(String requete, Predicate<T> filtre, int limite) {
+        String requeteNormalisee = normaliser(requete);
+        if (requeteNormalisee.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Object[]> resultats = new ArrayList<>();
+        verrou.readLock().lock();
+        try {
+            for (Long id : candidats(requeteNormalisee)) {
+                Document<T> document = documents.get(id);
+                if (filtre != null && !filtre.test(document.valeur)) {
+                    continue;
+                }
+                double score = score(document, requeteNormalisee);
+                if (score > 0) {
+                    resultats.add(new Object[] { score, document.champs[0], document.valeur });
+                }
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+
+        resultats.sort(Comparator.<Object[]>comparingDouble(resultat -> -(Double) resultat[0])
+            .thenComparing(resultat -> (String) resultat[1]));
+
+        int nombre = limite > 0 ? Math.min(limite, resultats.size()) : resultats.size();
+        List<T> elements = new ArrayList<>(nombre);
+        for (int i = 0; i < nombre; i++) {
+            @SuppressWarnings("unchecked")
+            T valeur = (T) resultats.get(i)[2];
+            elements.add(valeur);
+        }
+        return elements;
+    }
+
+    // ================ MÉTHODES INTERNES ================
+
+    private void ajouterSansVerrou(T element) {
+        Long id = extracteurId.apply(element);
+        if (id == null) {
+            return;
+        }
+        retirerSansVerrou(id);
+
+        String[] champs = new String[extracteursChamps.size()];
+        for (int i = 0; i < champs.length; i++) {
+            champs[i] = normaliser(extracteursChamps.get(i).apply(element));
+            for (String ngramme : ngrammesDe(champs[i])) {
+                ngrammes.computeIfAbsent(ngramme, cle -> new HashSet<>()).add(id);
+            }
+            for (String prefixe : prefixesDe(champs[i])) {
+                prefixes.computeIfAbsent(prefixe, cle -> new HashSet<>()).add(id);
+            }
+        }
+        documents.put(id, new Document<>(element, champs));
+    }
+
+    private void retirerSansVerrou(Long id) {
+        Document<T> ancien = documents.remove(id);
+        if (ancien == null) {
+            return;
+        }
+        for (String champ : ancien.champs) {
+            for (String ngramme : ngrammesDe(champ)) {
+                retirerDeListe(ngrammes, ngramme, id);
+            }
+            for (String prefixe : prefixesDe(champ)) {
+                retirerDeListe(prefixes, prefixe, id);
+            }
+        }
+    }
+
+    private void retirerDeListe(Map<String, Set<Long>> listes, String cle, Long id) {
+        Set<Long> ids = listes.get(cle);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                listes.remove(cle);
+            }
+        }
+    }
+
+    /**
+     * Intersection des listes de trigrammes, en partant de la plus courte
+     */
+    private Set<Long> candidats(String requete) {
+        if (requete.length() < TAILLE_NGRAMME) {
+            return prefixes.getOrDefault(requete, Collections.emptySet());
+        }
+
+        List<Set<Long>> listes = new ArrayList<>();
+        for (String ngramme : ngrammesDe(requete)) {
+            Set<Long> ids = ngrammes.get(ngramme);
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            listes.add(ids);
+        }
+        listes.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> intersection = new HashSet<>(listes.get(0));
+        for (int i = 1; i < listes.size() && !intersection.isEmpty(); i++) {
+            intersection.retainAll(listes.get(i));
+        }
+        return intersection;
+    }
+
+    private double score(Document<T> document, String requete) {
+        double meilleur = 0;
+        for (int i = 0; i < document.champs.length; i++) {
+            String champ = document.champs[i];
+            int position = champ.indexOf(requete);
+            if (position < 0) {
+                continue;
+            }
+
+            double score;
+            if (champ.length() == requete.length()) {
+                score = 1000;
+            } else if (position == 0) {
+                score = 500;
+            } else if (champ.contains(" " + requete)) {
+                score = 200;
+            } else if (requete.length() < TAILLE_NGRAMME) {
+                // Requête courte : seuls les débuts de mots sont retenus
+                continue;
+            } else {
+                score = 50;
+            }
+
+            // À pertinence égale, les textes courts passent devant
+            score = score * poids[i] - champ.length() * 0.01;
+            meilleur = Math.max(meilleur, score);
+        }
+        return meilleur;
+    }
+
+    private static Set<String> ngrammesDe(String texte) {
+        Set<String> resultat = new HashSet<>();
+        for (int i = 0; i + TAILLE_NGRAMME <= texte.length(); i++) {
+            resultat.add(texte.substring(i, i + TAILLE_NGRAMME));
+        }
+        return resultat;
+    }
+
+    private static Set<String> prefixesDe(String texte) {
+        Set<String> resultat = new HashSet<>();
+        for (String mot : texte.split(" ")) {
+            for (int longueur = 1; longueur < TAILLE_NGRAMME && longueur <= mot.length(); longueur++) {
+                resultat.add(mot.substring(0, longueur));
+            }
+        }
+        return resultat;
+    }
+}
@@ -8,6 +8,7 @@ import com.foodmanagement.enums.CategorieFood;
 import com.foodmanagement.enums.TypeIngredient;
 import com.foodmanagement.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
@@ -21,6 +22,7 @@ import java.util.Optional;
 /**
  * Utilitaire pour importer des données JSON d'exemple
  * Implémente CommandLineRunner pour s'exécuter au démarrage de l'application
+ * Pour les gros catalogues, voir JsonStreamingImporter (app.import.flux.actif=true)
  */
 @Component
 public class JsonDataImporter implements CommandLineRunner {
@@ -34,6 +36,9 @@ public class JsonDataImporter implements CommandLineRunner {
     @Autowired
     private FoodService foodService;
 
+    @Value("${app.import.flux.actif:false}")
+    private boolean importFluxActif;
+
     private final ObjectMapper objectMapper;
 
     /**
@@ -50,6 +55,11 @@ public class JsonDataImporter implements CommandLineRunner {
      */
     @Override
     public void run(String... args) throws Exception {
+        if (importFluxActif) {
+            System.out.println("Import en flux activé : l'import sera lancé après le démarrage.");
+            return;
+        }
+
         System.out.println("=== Début de l'import des données d'exemple ===");
         
         try {
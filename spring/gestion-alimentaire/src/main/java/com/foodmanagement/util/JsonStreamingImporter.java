@@ -0,0 +1,550 @@
+package com.foodmanagement.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.foodmanagement.dao.FoodDao;
+import com.foodmanagement.enums.CategorieFood;
+import com.foodmanagement.enums.TypeIngredient;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Import en flux de gros catalogues JSON
+ *
+ * Le fichier est lu token par token avec le parser de Jackson (jamais chargé en entier),
+ * les clés étrangères sont résolues par des tables d'IDs en mémoire (email -> personne,
+ * nom -> ingrédient) et les écritures partent en lots JDBC, un commit par lot.
+ * L'import tourne sur un seul thread dédié une fois le serveur web démarré : chaque section
+ * résout ses clés avec les IDs écrits par la précédente, les lots s'enchaînent donc dans l'ordre.
+ * La progression est lisible via obtenirProgression() et tracée en DEBUG après chaque lot.
+ *
+ * Format attendu (sections lues dans cet ordre) :
+ * { "personnes": [...], "ingredients": [...], "foods": [ {..., "createurEmail": "...",
+ *   "ingredients": [ {"nom": "...", "quantite": 200, "unite": "g"} ] } ] }
+ */
+@Component
+public class JsonStreamingImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonStreamingImporter.class);
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired
+    private IndexCatalogue indexCatalogue;
+
+    @Autowired
+    private ConvertisseurUnites convertisseurUnites;
+
+    @Autowired
+    private FoodDao foodDao;
+
+    @Value("${app.import.flux.actif:false}")
+    private boolean actif;
+
+    @Value("${app.import.flux.fichier:classpath:data/sample-data.json}")
+    private String fichier;
+
+    @Value("${app.import.flux.taille-lot:500}")
+    private int tailleLot;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    // JdbcTemplate dédié : celui de l'application limite les résultats (maxRows) et la durée des requêtes
+    @Autowired
+    @Qualifier("jdbcTemplateSansLimite")
+    private JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService executeur = Executors.newSingleThreadExecutor(tache -> {
+        Thread thread = new Thread(tache, "import-json-flux");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Tables de résolution des clés étrangères
+    private final Map<String, Long> idsPersonnes = new HashMap<>();
+    private final Map<String, Long> idsIngredients = new HashMap<>();
+    private final Set<String> alimentsExistants = new HashSet<>();
+
+    // Progression (lue depuis d'autres threads)
+    private volatile String statut = "INACTIF";
+    private volatile long debutNanos;
+    private volatile long finNanos;
+    private final AtomicLong personnesImportees = new AtomicLong();
+    private final AtomicLong ingredientsImportes = new AtomicLong();
+    private final AtomicLong alimentsImportes = new AtomicLong();
+    private final AtomicLong liaisonsImportees = new AtomicLong();
+    private final AtomicLong elementsIgnores = new AtomicLong();
+
+    /**
+     * Démarrage asynchrone une fois l'application prête à servir des requêtes
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void demarrerApresDemarrage() {
+        if (actif) {
+            lancerImport(fichier);
+        }
+    }
+
+    /**
+     * Lancer un import en arrière-plan
+     *
+     * @param emplacement Ressource à importer (classpath:..., file:...)
+     * @return false si un import est déjà en cours
+     */
+    public synchronized boolean lancerImport(String emplacement) {
+        if ("EN_COURS".equals(statut)) {
+            return false;
+        }
+        statut = "EN_COURS";
+        executeur.submit(() -> importer(emplacement));
+        return true;
+    }
+
+    /**
+     * État courant de l'import : compteurs et débit
+     */
+    public Map<String, Object> obtenirProgression() {
+        long fin = "EN_COURS".equals(statut) ? System.nanoTime() : finNanos;
+        double secondes = debutNanos > 0 ? Math.max((fin - debutNanos) / 1e9, 0.001) : 0.0;
+        long total = personnesImportees.get() + ingredientsImportes.get() + alimentsImportes.get();
+
+        Map<String, Object> progression = new LinkedHashMap<>();
+        progression.put("statut", statut);
+        progression.put("personnes", personnesImportees.get());
+        progression.put("ingredients", ingredientsImportes.get());
+        progression.put("aliments", alimentsImportes.get());
+        progression.put("liaisonsIngredients", liaisonsImportees.get());
+        progression.put("ignores", elementsIgnores.get());
+        progression.put("dureeSecondes", Math.round(secondes * 10) / 10.0);
+        progression.put("elementsParSeconde", secondes > 0 ? Math.round(total / secondes) : 0);
+        return progression;
+    }
+
+    @PreDestroy
+    public void arreter() {
+        executeur.shutdownNow();
+    }
+
+    /**
+     * Import complet d'un fichier, exécuté sur le thread dédié
+     */
+    private void importer(String emplacement) {
+        reinitialiserCompteurs();
+        logger.info("Début de l'import en flux : {}", emplacement);
+
+        Resource resource = resourceLoader.getResource(emplacement);
+        try (InputStream inputStream = resource.getInputStream();
+             JsonParser parser = jsonFactory.createParser(inputStream)) {
+
+            chargerIdsExistants();
+
+            JsonToken racine = parser.nextToken();
+            if (racine == null) {
+                logger.info("Fichier vide, rien à importer");
+            } else if (racine != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Le fichier doit contenir un objet JSON racine");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String section = parser.currentName();
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                switch (section) {
+                    case "personnes":
+                        importerPersonnes(parser);
+                        break;
+                    case "ingredients":
+                        importerIngredients(parser);
+                        break;
+                    case "foods":
+                        importerAliments(parser);
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+
+            // Les écritures en lot contournent les services : agrégats des aliments importés
+            // et index de recherche sont recalculés ici
+            foodDao.recalculerTousLesAgregats(true);
+            indexCatalogue.reconstruire();
+
+            finNanos = System.nanoTime();
+            statut = "TERMINE";
+            logger.info("Import en flux terminé : {}", obtenirProgression());
+
+        } catch (Exception e) {
+            finNanos = System.nanoTime();
+            statut = "ECHEC";
+            logger.error("Erreur lors de l'import en flux de {}", emplacement, e);
+        } finally {
+            idsPersonnes.clear();
+            idsIngredients.clear();
+            alimentsExistants.clear();
+        }
+    }
+
+    private void reinitialiserCompteurs() {
+        debutNanos = System.nanoTime();
+        finNanos = 0;
+        personnesImportees.set(0);
+        ingredientsImportes.set(0);
+        alimentsImportes.set(0);
+        liaisonsImportees.set(0);
+        elementsIgnores.set(0);
+    }
+
+    /**
+     * Pré-remplir les tables de résolution avec ce qui est déjà en base
+     * (une requête par table, pas de recherche ligne à ligne)
+     */
+    private void chargerIdsExistants() {
+        jdbcTemplate.query("SELECT id, email FROM personne",
+            rs -> { idsPersonnes.put(rs.getString("email"), rs.getLong("id")); });
+        jdbcTemplate.query("SELECT id, nom FROM ingredient",
+            rs -> { idsIngredients.put(rs.getString("nom"), rs.getLong("id")); });
+        jdbcTemplate.query("SELECT personne_id, nom FROM food",
+            rs -> { alimentsExistants.add(cleAliment(rs.getLong("personne_id"), rs.getString("nom"))); });
+    }
+
+    // ==================== Personnes ====================
+
+    private void importerPersonnes(JsonParser parser) throws IOException {
+        List<Map<String, String>> lot = new ArrayList<>(tailleLot);
+        Set<String> emailsDuLot = new HashSet<>();
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            Map<String, String> personne = lireObjetSimple(parser);
+            String email = personne.get("email");
+
+            if (email == null || personne.get("nom") == null || personne.get("motDePasse") == null
+                    || idsPersonnes.containsKey(email) || !emailsDuLot.add(email)) {
+                elementsIgnores.incrementAndGet();
+                continue;
+            }
+
+            lot.add(personne);
+            if (lot.size() >= tailleLot) {
+                ecrirePersonnes(lot);
+                lot.clear();
+                emailsDuLot.clear();
+            }
+        }
+        ecrirePersonnes(lot);
+    }
+
+    private void ecrirePersonnes(List<Map<String, String>> lot) {
+        if (lot.isEmpty()) {
+            return;
+        }
+        Timestamp maintenant = Timestamp.valueOf(LocalDateTime.now());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(etat -> {
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO personne (nom, email, mot_de_passe, telephone, date_creation) VALUES (?, ?, ?, ?, ?)",
+                lot, lot.size(), (ps, personne) -> {
+                    ps.setString(1, personne.get("nom"));
+                    ps.setString(2, personne.get("email"));
+                    ps.setString(3, personne.get("motDePasse"));
+                    ps.setString(4, personne.get("telephone"));
+                    ps.setTimestamp(5, maintenant);
+                });
+
+            List<String> emails = new ArrayList<>(lot.size());
+            lot.forEach(personne -> emails.add(personne.get("email")));
+            jdbcTemplate.query("SELECT id, email FROM personne WHERE email IN (" + placeholders(emails.size()) + ")",
+                rs -> { idsPersonnes.put(rs.getString("email"), rs.getLong("id")); }, emails.toArray());
+        });
+
+        personnesImportees.addAndGet(lot.size());
+        journaliserProgression("personnes", personnesImportees.get());
+    }
+
+    // ==================== Ingrédients ====================
+
+    private void importerIngredients(JsonParser parser) throws IOException {
+        List<Map<String, String>> lot = new ArrayList<>(tailleLot);
+        Set<String> nomsDuLot = new HashSet<>();
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            Map<String, String> ingredient = lireObjetSimple(parser);
+            String nom = ingredient.get("nom");
+
+            if (nom == null || !typeIngredientValide(ingredient.get("type")) || !nombreValide(ingredient.get("quantite"))
+                    || idsIngredients.containsKey(nom) || !nomsDuLot.add(nom)) {
+                elementsIgnores.incrementAndGet();
+                continue;
+            }
+
+            lot.add(ingredient);
+            if (lot.size() >= tailleLot) {
+                ecrireIngredients(lot);
+                lot.clear();
+                nomsDuLot.clear();
+            }
+        }
+        ecrireIngredients(lot);
+    }
+
+    private void ecrireIngredients(List<Map<String, String>> lot) {
+        if (lot.isEmpty()) {
+            return;
+        }
+        Timestamp maintenant = Timestamp.valueOf(LocalDateTime.now());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(etat -> {
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO ingredient (nom, description, type, quantite, unite, unite_base, quantite_base, densite, " +
+                "date_creation) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                lot, lot.size(), (ps, ingredient) -> {
+                    double quantite = ingredient.get("quantite") != null ? Double.parseDouble(ingredient.get("quantite")) : 0.0;
+                    ConvertisseurUnites.UniteNormalisee unite = convertisseurUnites.normaliser(ingredient.get("unite"));
+                    ps.setString(1, ingredient.get("nom"));
+                    ps.setString(2, ingredient.get("description"));
+                    ps.setString(3, ingredient.get("type"));
+                    ps.setDouble(4, quantite);
+                    ps.setString(5, ingredient.get("unite"));
+                    ps.setString(6, unite.getUniteBase().name());
+                    ps.setDouble(7, unite.versBase(quantite));
+                    ps.setObject(8, convertisseurUnites.densite(ingredient.get("nom")), Types.DOUBLE);
+                    ps.setTimestamp(9, maintenant);
+                });
+
+            List<String> noms = new ArrayList<>(lot.size());
+            lot.forEach(ingredient -> noms.add(ingredient.get("nom")));
+            jdbcTemplate.query("SELECT id, nom FROM ingredient WHERE nom IN (" + placeholders(noms.size()) + ")",
+                rs -> { idsIngredients.put(rs.getString("nom"), rs.getLong("id")); }, noms.toArray());
+        });
+
+        ingredientsImportes.addAndGet(lot.size());
+        journaliserProgression("ingrédients", ingredientsImportes.get());
+    }
+
+    // ==================== Aliments ====================
+
+    /**
+     * Aliment en attente d'écriture, avec ses ingrédients déjà résolus en IDs
+     */
+    private static class AlimentEnAttente {
+        final Map<String, String> champs = new HashMap<>();
+        final Map<Long, Object[]> ingredients = new LinkedHashMap<>();
+        Long personneId;
+    }
+
+    private void importerAliments(JsonParser parser) throws IOException {
+        List<AlimentEnAttente> lot = new ArrayList<>(tailleLot);
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            AlimentEnAttente aliment = lireAliment(parser);
+            String nom = aliment.champs.get("nom");
+            aliment.personneId = idsPersonnes.get(aliment.champs.get("createurEmail"));
+
+            if (nom == null || aliment.personneId == null || !categorieValide(aliment.champs.get("categorie"))
+                    || !nombreValide(aliment.champs.get("calories")) || !nombreValide(aliment.champs.get("prix"))
+                    || !alimentsExistants.add(cleAliment(aliment.personneId, nom))) {
+                elementsIgnores.incrementAndGet();
+                continue;
+            }
+
+            lot.add(aliment);
+            if (lot.size() >= tailleLot) {
+                ecrireAliments(lot);
+                lot.clear();
+            }
+        }
+        ecrireAliments(lot);
+    }
+
+    /**
+     * Lire un aliment, y compris son tableau imbriqué d'ingrédients
+     */
+    private AlimentEnAttente lireAliment(JsonParser parser) throws IOException {
+        AlimentEnAttente aliment = new AlimentEnAttente();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String champ = parser.currentName();
+            JsonToken valeur = parser.nextToken();
+
+            if ("ingredients".equals(champ) && valeur == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    Map<String, String> ligne = lireObjetSimple(parser);
+                    Long ingredientId = idsIngredients.get(ligne.get("nom"));
+                    if (ingredientId == null || ligne.get("quantite") == null || !nombreValide(ligne.get("quantite"))
+                            || ligne.get("unite") == null
+                            || aliment.ingredients.containsKey(ingredientId)) {
+                        elementsIgnores.incrementAndGet();
+                        continue;
+                    }
+                    aliment.ingredients.put(ingredientId,
+                        new Object[] { Double.parseDouble(ligne.get("quantite")), ligne.get("unite").trim() });
+                }
+            } else if (valeur.isStructStart()) {
+                parser.skipChildren();
+            } else if (valeur != JsonToken.VALUE_NULL) {
+                aliment.champs.put(champ, parser.getText());
+            }
+        }
+        return aliment;
+    }
+
+    private void ecrireAliments(List<AlimentEnAttente> lot) {
+        if (lot.isEmpty()) {
+            return;
+        }
+        Timestamp maintenant = Timestamp.valueOf(LocalDateTime.now());
+
+        long liaisons = new TransactionTemplate(transactionManager).execute(etat -> {
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO food (nom, description, categorie, calories, prix, temps_preparation, personne_id, date_creation) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                lot, lot.size(), (ps, aliment) -> {
+                    ps.setString(1, aliment.champs.get("nom"));
+                    ps.setString(2, aliment.champs.get("description"));
+                    ps.setString(3, aliment.champs.get("categorie"));
+                    definirDecimal(ps, 4, aliment.champs.get("calories"));
+                    definirDecimal(ps, 5, aliment.champs.get("prix"));
+                    ps.setString(6, aliment.champs.get("tempsPreparation"));
+                    ps.setLong(7, aliment.personneId);
+                    ps.setTimestamp(8, maintenant);
+                });
+
+            // Récupération des IDs générés en une requête, clé (créateur, nom)
+            Map<String, Long> idsAliments = new HashMap<>();
+            List<String> noms = new ArrayList<>(lot.size());
+            lot.forEach(aliment -> noms.add(aliment.champs.get("nom")));
+            jdbcTemplate.query("SELECT id, personne_id, nom FROM food WHERE nom IN (" + placeholders(noms.size()) + ")",
+                rs -> { idsAliments.put(cleAliment(rs.getLong("personne_id"), rs.getString("nom")), rs.getLong("id")); },
+                noms.toArray());
+
+            List<Object[]> lignes = new ArrayList<>();
+            for (AlimentEnAttente aliment : lot) {
+                Long foodId = idsAliments.get(cleAliment(aliment.personneId, aliment.champs.get("nom")));
+                aliment.ingredients.forEach((ingredientId, quantiteEtUnite) -> {
+                    double quantite = (Double) quantiteEtUnite[0];
+                    ConvertisseurUnites.UniteNormalisee unite = convertisseurUnites.normaliser((String) quantiteEtUnite[1]);
+                    lignes.add(new Object[] { foodId, ingredientId, quantite, quantiteEtUnite[1],
+                        unite.getUniteBase().name(), unite.versBase(quantite) });
+                });
+            }
+            if (!lignes.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                    "INSERT INTO food_ingredient (food_id, ingredient_id, quantite_utilisee, unite, unite_base, quantite_base) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)",
+                    lignes);
+            }
+            return (long) lignes.size();
+        });
+
+        alimentsImportes.addAndGet(lot.size());
+        liaisonsImportees.addAndGet(liaisons);
+        journaliserProgression("aliments", alimentsImportes.get());
+    }
+
+    // ==================== Utilitaires ====================
+
+    /**
+     * Lire un objet JSON plat (les valeurs imbriquées sont ignorées)
+     * Le parser doit être positionné sur START_OBJECT
+     */
+    private Map<String, String> lireObjetSimple(JsonParser parser) throws IOException {
+        Map<String, String> champs = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String champ = parser.currentName();
+            JsonToken valeur = parser.nextToken();
+            if (valeur.isStructStart()) {
+                parser.skipChildren();
+            } else if (valeur != JsonToken.VALUE_NULL) {
+                champs.put(champ, parser.getText());
+            }
+        }
+        return champs;
+    }
+
+    private void definirDecimal(java.sql.PreparedStatement ps, int index, String valeur) throws java.sql.SQLException {
+        if (valeur == null) {
+            ps.setNull(index, Types.DECIMAL);
+        } else {
+            ps.setDouble(index, Double.parseDouble(valeur));
+        }
+    }
+
+    private boolean nombreValide(String valeur) {
+        if (valeur == null) {
+            return true;
+        }
+        try {
+            Double.parseDouble(valeur);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private boolean typeIngredientValide(String type) {
+        try {
+            return type != null && TypeIngredient.valueOf(type) != null;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private boolean categorieValide(String categorie) {
+        try {
+            return categorie != null && CategorieFood.valueOf(categorie) != null;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private String cleAliment(Long personneId, String nom) {
+        return personneId + "|" + nom;
+    }
+
+    private String placeholders(int nombre) {
+        return String.join(", ", Collections.nCopies(nombre, "?"));
+    }
+
+    private void journaliserProgression(String section, long nombre) {
+        if (logger.isDebugEnabled()) {
+            double secondes = Math.max((System.nanoTime() - debutNanos) / 1e9, 0.001);
+            logger.debug("Import en flux : {} {} ({} éléments/s au total)", nombre, section,
+                Math.round((personnesImportees.get() + ingredientsImportes.get() + alimentsImportes.get()) / secondes));
+        }
+    }
+}
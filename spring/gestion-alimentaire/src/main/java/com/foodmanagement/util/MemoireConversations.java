@@ -0,0 +1,370 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.dao.ConversationChatbotDao;
+import com.foodmanagement.entity.MessageChatbot;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mémoire des conversations du chatbot
+ *
+ * Chaque utilisateur actif a un tampon circulaire de ses derniers échanges (taille fixe) :
+ * l'historique récent est servi sans requête. Les sessions inactives sont évincées,
+ * et le nombre de sessions est plafonné (les moins récemment utilisées partent d'abord).
+ *
+ * Les échanges sont aussi placés dans une file d'écriture différée, vidée par lots JDBC
+ * sur un thread dédié (table chatbot_message). Si la base est indisponible, le lot revient
+ * en tête de file ; au-delà de la taille maximum de la file, les plus anciens sont abandonnés.
+ * Un lot refusé pour une ligne invalide est coupé en deux jusqu'à isoler cette ligne,
+ * qui est abandonnée : elle ne bloque pas les écritures suivantes.
+ */
+@Component
+public class MemoireConversations {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemoireConversations.class);
+
+    @Autowired
+    private ConversationChatbotDao conversationChatbotDao;
+
+    @Value("${app.chatbot.memoire.tours-par-utilisateur:20}")
+    private int toursParUtilisateur;
+
+    @Value("${app.chatbot.memoire.inactivite-minutes:30}")
+    private int inactiviteMinutes;
+
+    @Value("${app.chatbot.memoire.utilisateurs-max:10000}")
+    private int utilisateursMax;
+
+    @Value("${app.chatbot.memoire.ecriture.delai-ms:1000}")
+    private long delaiEcritureMs;
+
+    @Value("${app.chatbot.memoire.ecriture.taille-lot:500}")
+    private int tailleLot;
+
+    @Value("${app.chatbot.memoire.ecriture.file-max:50000}")
+    private int fileMax;
+
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+
+    // File d'écriture différée : verrou court pour les ajouts, verrou d'écriture pendant les accès base
+    private final ArrayDeque<MessageChatbot> enAttente = new ArrayDeque<>();
+    private final Object verrouFile = new Object();
+    private final Object verrouEcriture = new Object();
+
+    private final ScheduledExecutorService ecrivain = Executors.newSingleThreadScheduledExecutor(tache -> {
+        Thread thread = new Thread(tache, "conversations-ecriture");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong echangesEcrits = new AtomicLong();
+    private final AtomicLong echangesAbandonnes = new AtomicLong();
+    private final AtomicLong sessionsEvincees = new AtomicLong();
+
+    @PostConstruct
+    public void initialiser() {
+        ecrivain.scheduleWithFixedDelay(this::entretenir, delaiEcritureMs, delaiEcritureMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Mémoriser un échange et le mettre en file d'écriture
+     * Une session absente est d'abord chargée : les lectures suivantes sont servies depuis la mémoire
+     */
+    public void enregistrer(Long userId, String message, String reponse, String intention) {
+        MessageChatbot echange = new MessageChatbot(userId, message, reponse, intention);
+        Session session = sessions.get(userId);
+        if (session == null) {
+            try {
+                session = installer(userId, historique(userId, toursParUtilisateur), toursParUtilisateur);
+            } catch (RuntimeException e) {
+                // Base indisponible : l'écriture différée continue, les lectures passeront par la base
+                logger.warn("Historique du chatbot illisible pour l'utilisateur {} : {}", userId, e.getMessage());
+                session = sessions.computeIfAbsent(userId, id -> new Session(toursParUtilisateur, false));
+            }
+        }
+        session.ajouter(echange);
+        synchronized (verrouFile) {
+            if (enAttente.size() >= fileMax) {
+                enAttente.pollFirst();
+                echangesAbandonnes.incrementAndGet();
+            }
+            enAttente.addLast(echange);
+        }
+    }
+
+    /**
+     * Derniers échanges d'un utilisateur, du plus ancien au plus récent
+     * Servis depuis la mémoire quand elle en contient assez (ou tout l'historique),
+     * sinon depuis la base complétée par les échanges encore en file
+     */
+    public List<MessageChatbot> derniers(Long userId, int limite) {
+        Session session = sessions.get(userId);
+        if (session != null) {
+            List<MessageChatbot> recents = session.derniers(limite);
+            if (recents.size() >= limite || session.estComplete()) {
+                return recents;
+            }
+        }
+
+        List<MessageChatbot> historique = historique(userId, limite);
+        if (session == null) {
+            installer(userId, historique, limite);
+        }
+        return historique;
+    }
+
+    /**
+     * Oublier la conversation d'un utilisateur (mémoire, file d'attente et base)
+     *
+     * @return Nombre d'échanges supprimés en base
+     */
+    public int reinitialiser(Long userId) {
+        sessions.remove(userId);
+        // Le verrou d'écriture attend la fin d'un lot en cours, qui pourrait contenir l'utilisateur
+        synchronized (verrouEcriture) {
+            synchronized (verrouFile) {
+                enAttente.removeIf(echange -> echange.getUserId().equals(userId));
+            }
+            return conversationChatbotDao.deleteByUserId(userId);
+        }
+    }
+
+    /**
+     * Écrire tous les échanges en attente
+     */
+    public void vider() {
+        while (ecrireLot() > 0) {
+            // lot suivant
+        }
+    }
+
+    /**
+     * État de la mémoire et de la file d'écriture
+     */
+    public Map<String, Object> obtenirEtat() {
+        int attente;
+        synchronized (verrouFile) {
+            attente = enAttente.size();
+        }
+        Map<String, Object> etat = new LinkedHashMap<>();
+        etat.put("sessions_actives", sessions.size());
+        etat.put("echanges_en_attente", attente);
+        etat.put("echanges_ecrits", echangesEcrits.get());
+        etat.put("echanges_abandonnes", echangesAbandonnes.get());
+        etat.put("sessions_evincees", sessionsEvincees.get());
+        return etat;
+    }
+
+    @PreDestroy
+    public void arreter() {
+        ecrivain.shutdownNow();
+        try {
+            vider();
+        } catch (Exception e) {
+            logger.error("Erreur lors de l'écriture des derniers échanges du chatbot", e);
+        }
+    }
+
+    /**
+     * Tâche périodique : écriture différée puis éviction des sessions
+     */
+    private void entretenir() {
+        try {
+            vider();
+        } catch (Exception e) {
+            // Le lot est revenu en file : nouvel essai au prochain passage
+            logger.warn("Base indisponible pour l'historique du chatbot, nouvel essai dans {} ms : {}",
+                delaiEcritureMs, e.getMessage());
+        }
+        try {
+            evincer();
+        } catch (Exception e) {
+            logger.error("Erreur lors de l'éviction des conversations", e);
+        }
+    }
+
+    /**
+     * Écrire un lot de la file
+     * Base indisponible : ce qui reste du lot revient en tête de file, dans l'ordre.
+     * Autre refus : le lot est coupé en deux jusqu'à isoler les lignes refusées, abandonnées.
+     *
+     * @return Nombre d'échanges traités, écrits ou abandonnés (0 si la file est vide)
+     */
+    private int ecrireLot() {
+        synchronized (verrouEcriture) {
+            List<MessageChatbot> lot = new ArrayList<>(Math.min(tailleLot, 64));
+            synchronized (verrouFile) {
+                while (lot.size() < tailleLot && !enAttente.isEmpty()) {
+                    lot.add(enAttente.pollFirst());
+                }
+            }
+            if (lot.isEmpty()) {
+                return 0;
+            }
+
+            ArrayDeque<List<MessageChatbot>> parties = new ArrayDeque<>();
+            parties.add(lot);
+            while (!parties.isEmpty()) {
+                List<MessageChatbot> partie = parties.peekFirst();
+                try {
+                    conversationChatbotDao.enregistrerTous(partie);
+                    echangesEcrits.addAndGet(partie.size());
+                    parties.pollFirst();
+                } catch (DataAccessResourceFailureException | TransientDataAccessException e) {
+                    synchronized (verrouFile) {
+                        while (!parties.isEmpty()) {
+                            List<MessageChatbot> restante = parties.pollLast();
+                            for (int i = restante.size() - 1; i >= 0; i--) {
+                                enAttente.addFirst(restante.get(i));
+                            }
+                        }
+                    }
+                    throw e;
+                } catch (RuntimeException e) {
+                    parties.pollFirst();
+                    if (partie.size() == 1) {
+                        abandonner(partie.get(0), e);
+                    } else {
+                        int milieu = partie.size() / 2;
+                        parties.addFirst(partie.subList(milieu, partie.size()));
+                        parties.addFirst(partie.subList(0, milieu));
+                    }
+                }
+            }
+            return lot.size();
+        }
+    }
+
+    private void abandonner(MessageChatbot echange, RuntimeException e) {
+        echangesAbandonnes.incrementAndGet();
+        logger.error("Échange du chatbot abandonné (utilisateur {}, intention {}) : {}",
+            echange.getUserId(), echange.getIntention(), e.getMessage());
+    }
+
+    /**
+     * Derniers échanges d'un utilisateur : lignes en base, puis échanges encore en file
+     * Le verrou d'écriture empêche un lot de passer de la file à la base entre les deux lectures
+     */
+    private List<MessageChatbot> historique(Long userId, int limite) {
+        synchronized (verrouEcriture) {
+            List<MessageChatbot> historique = new ArrayList<>(conversationChatbotDao.findDerniersByUserId(userId, limite));
+            synchronized (verrouFile) {
+                for (MessageChatbot echange : enAttente) {
+                    if (echange.getUserId().equals(userId)) {
+                        historique.add(echange);
+                    }
+                }
+            }
+            if (historique.size() > limite) {
+                return new ArrayList<>(historique.subList(historique.size() - limite, historique.size()));
+            }
+            return historique;
+        }
+    }
+
+    /**
+     * Créer la session d'un utilisateur à partir de son historique
+     *
+     * @return Session de l'utilisateur (celle d'un autre thread si elle a été installée entre-temps)
+     */
+    private Session installer(Long userId, List<MessageChatbot> historique, int limite) {
+        // Moins de lignes que demandé : il n'y a rien de plus
+        boolean complete = historique.size() < limite && historique.size() <= toursParUtilisateur;
+        Session chargee = new Session(toursParUtilisateur, complete);
+        int debut = Math.max(0, historique.size() - toursParUtilisateur);
+        for (MessageChatbot echange : historique.subList(debut, historique.size())) {
+            chargee.ajouter(echange);
+        }
+        Session existante = sessions.putIfAbsent(userId, chargee);
+        return existante != null ? existante : chargee;
+    }
+
+    /**
+     * Évincer les sessions inactives, puis les moins récentes au-delà du plafond
+     */
+    private void evincer() {
+        long limite = System.currentTimeMillis() - inactiviteMinutes * 60_000L;
+        int avant = sessions.size();
+        sessions.values().removeIf(session -> session.getDernierAcces() < limite);
+        int evincees = avant - sessions.size();
+
+        int excedent = sessions.size() - utilisateursMax;
+        if (excedent > 0) {
+            List<Map.Entry<Long, Session>> parAcces = new ArrayList<>(sessions.entrySet());
+            parAcces.sort(Comparator.comparingLong(entree -> entree.getValue().getDernierAcces()));
+            for (int i = 0; i < excedent; i++) {
+                sessions.remove(parAcces.get(i).getKey(), parAcces.get(i).getValue());
+            }
+            evincees += excedent;
+        }
+        if (evincees > 0) {
+            sessionsEvincees.addAndGet(evincees);
+        }
+    }
+
+    /**
+     * Derniers échanges d'un utilisateur : tampon circulaire de taille fixe
+     */
+    private static class Session {
+        private final MessageChatbot[] tours;
+        private int suivant;
+        private int taille;
+        // Vrai si le tampon contient tout l'historique de l'utilisateur
+        private final boolean complete;
+        private volatile long dernierAcces = System.currentTimeMillis();
+
+        private Session(int capacite, boolean complete) {
+            this.tours = new MessageChatbot[Math.max(1, capacite)];
+            this.complete = complete;
+        }
+
+        private synchronized void ajouter(MessageChatbot echange) {
+            tours[suivant] = echange;
+            suivant = (suivant + 1) % tours.length;
+            if (taille < tours.length) {
+                taille++;
+            }
+            dernierAcces = System.currentTimeMillis();
+        }
+
+        private synchronized List<MessageChatbot> derniers(int limite) {
+            dernierAcces = System.currentTimeMillis();
+            int nombre = Math.min(limite, taille);
+            List<MessageChatbot> resultat = new ArrayList<>(nombre);
+            for (int i = nombre; i >= 1; i--) {
+                resultat.add(tours[(suivant - i + tours.length) % tours.length]);
+            }
+            return resultat;
+        }
+
+        /**
+         * Un tampon plein a pu perdre des échanges anciens
+         */
+        private synchronized boolean estComplete() {
+            return complete && taille < tours.length;
+        }
+
+        private long getDernierAcces() {
+            return dernierAcces;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.foodmanagement.util;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métriques d'utilisation du chatbot, mises à jour sans verrou à chaque message
+ *
+ * - un compteur LongAdder et un histogramme de latence par intention
+ * - un histogramme à seaux log-linéaires (8 sous-seaux par puissance de deux, erreur
+ *   relative inférieure à 12,5 %) : mémoire fixe quel que soit le trafic
+ * - les phrases non reconnues (intention générale) comptées dans une esquisse
+ *   count-min, dont les plus fréquentes sont gardées comme candidates
+ * - le débit sur les dernières secondes, par tranches d'une seconde
+ *
+ * Un instantané lit des tableaux de taille fixe : son coût ne dépend pas du trafic.
+ */
+@Component
+public class MetriquesChatbot {
+
+    private static final int FENETRE_SECONDES = 60;
+    private static final int PHRASES_AFFICHEES = 10;
+    private static final int PHRASES_CANDIDATES = 64;
+    private static final int LONGUEUR_PHRASE_MAX = 80;
+
+    private final Map<String, MetriquesIntention> parIntention = new ConcurrentHashMap<>();
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder erreurs = new LongAdder();
+    private final Histogramme latenceGlobale = new Histogramme();
+    private final Debit debit = new Debit();
+    private final EsquisseCountMin phrasesInconnues = new EsquisseCountMin();
+
+    // Phrases inconnues les plus fréquentes (estimation de l'esquisse)
+    private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+    private volatile long seuilCandidates;
+    private final AtomicBoolean elagageEnCours = new AtomicBoolean();
+
+    private final long debut = System.currentTimeMillis();
+    private final LocalDateTime dateDebut = LocalDateTime.now();
+
+    /**
+     * Enregistrer un message traité
+     *
+     * @param intention Intention reconnue
+     * @param dureeNanos Durée du traitement
+     * @param texteNormalise Message normalisé, compté comme phrase inconnue si l'intention est générale
+     */
+    public void enregistrer(String intention, long dureeNanos, String texteNormalise) {
+        long micros = dureeNanos / 1000;
+        messages.increment();
+        latenceGlobale.enregistrer(micros);
+        debit.enregistrer(System.currentTimeMillis());
+
+        MetriquesIntention metriques = parIntention.get(intention);
+        if (metriques == null) {
+            metriques = parIntention.computeIfAbsent(intention, cle -> new MetriquesIntention());
+        }
+        metriques.compteur.increment();
+        metriques.latence.enregistrer(micros);
+
+        if (ClassifieurIntentions.INTENTION_GENERAL.equals(intention) && texteNormalise != null
+                && !texteNormalise.isEmpty()) {
+            enregistrerPhraseInconnue(texteNormalise.length() > LONGUEUR_PHRASE_MAX
+                ? texteNormalise.substring(0, LONGUEUR_PHRASE_MAX) : texteNormalise);
+        }
+    }
+
+    /**
+     * Enregistrer un message dont le traitement a échoué
+     */
+    public void enregistrerErreur() {
+        erreurs.increment();
+    }
+
+    /**
+     * Instantané des métriques
+     */
+    public Map<String, Object> instantane() {
+        long maintenant = System.currentTimeMillis();
+        double secondes = Math.max((maintenant - debut) / 1000.0, 0.001);
+        long total = messages.sum();
+
+        Map<String, Object> intentions = new LinkedHashMap<>();
+        parIntention.forEach((intention, metriques) -> {
+            Map<String, Object> detail = new LinkedHashMap<>();
+            detail.put("messages", metriques.compteur.sum());
+            detail.put("latence_ms", metriques.latence.resume());
+            intentions.put(intention, detail);
+        });
+
+        Map<String, Object> parSeconde = new LinkedHashMap<>();
+        parSeconde.put("10s", arrondir(debit.somme(maintenant, 10) / 10.0));
+        parSeconde.put("60s", arrondir(debit.somme(maintenant, FENETRE_SECONDES - 1) / (FENETRE_SECONDES - 1.0)));
+        parSeconde.put("depuis_demarrage", arrondir(total / secondes));
+
+        Map<String, Object> instantane = new LinkedHashMap<>();
+        instantane.put("depuis", dateDebut);
+        instantane.put("messages", total);
+        instantane.put("erreurs", erreurs.sum());
+        instantane.put("messages_par_seconde", parSeconde);
+        instantane.put("latence_ms", latenceGlobale.resume());
+        instantane.put("par_intention", intentions);
+        instantane.put("phrases_inconnues", phrasesFrequentes());
+        return instantane;
+    }
+
+    /**
+     * Compter une phrase inconnue ; elle devient candidate si son estimation dépasse
+     * le seuil des candidates (l'élagage est fait par un seul thread à la fois)
+     */
+    private void enregistrerPhraseInconnue(String phrase) {
+        long estimation = phrasesInconnues.ajouter(phrase);
+        if (estimation > seuilCandidates || candidates.containsKey(phrase)) {
+            candidates.put(phrase, estimation);
+        }
+        if (candidates.size() > 2 * PHRASES_CANDIDATES && elagageEnCours.compareAndSet(false, true)) {
+            try {
+                List<Map.Entry<String, Long>> triees = new ArrayList<>(candidates.entrySet());
+                triees.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+                for (int i = PHRASES_CANDIDATES; i < triees.size(); i++) {
+                    candidates.remove(triees.get(i).getKey());
+                }
+                seuilCandidates = triees.get(PHRASES_CANDIDATES - 1).getValue();
+            } finally {
+                elagageEnCours.set(false);
+            }
+        }
+    }
+
+    private List<Map<String, Object>> phrasesFrequentes() {
+        List<Map.Entry<String, Long>> triees = new ArrayList<>(candidates.entrySet());
+        triees.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        List<Map<String, Object>> phrases = new ArrayList<>();
+        for (Map.Entry<String, Long> entree : triees.subList(0, Math.min(PHRASES_AFFICHEES, triees.size()))) {
+            phrases.add(Map.of("phrase", entree.getKey(), "occurrences", phrasesInconnues.estimer(entree.getKey())));
+        }
+        return phrases;
+    }
+
+    private static double arrondir(double valeur) {
+        return Math.round(valeur * 100.0) / 100.0;
+    }
+
+    private static class MetriquesIntention {
+        private final LongAdder compteur = new LongAdder();
+        private final Histogramme latence = new Histogramme();
+    }
+
+    /**
+     * Histogramme de latences en microsecondes, seaux log-linéaires
+     * Seaux 0 à 15 : une microseconde chacun ; au-delà, 8 seaux par puissance de deux
+     * (jusqu'à 2^36 µs, environ 19 heures)
+     */
+    private static class Histogramme {
+        private static final int BITS_SOUS_SEAUX = 3;
+        private static final int SOUS_SEAUX = 1 << BITS_SOUS_SEAUX;
+        private static final int EXPOSANT_MAX = 36;
+        private static final int NOMBRE_SEAUX = (EXPOSANT_MAX - BITS_SOUS_SEAUX + 1) * SOUS_SEAUX;
+
+        private final AtomicLongArray seaux = new AtomicLongArray(NOMBRE_SEAUX);
+        private final LongAdder nombre = new LongAdder();
+        private final LongAdder somme = new LongAdder();
+        private final LongAccumulator maximum = new LongAccumulator(Math::max, 0L);
+
+        private void enregistrer(long micros) {
+            long valeur = Math.max(0L, micros);
+            seaux.incrementAndGet(seau(valeur));
+            nombre.increment();
+            somme.add(valeur);
+            maximum.accumulate(valeur);
+        }
+
+        private static int seau(long valeur) {
+            if (valeur < 2 * SOUS_SEAUX) {
+                return (int) valeur;
+            }
+            int decalage = 63 - Long.numberOfLeadingZeros(valeur) - BITS_SOUS_SEAUX;
+            int indice = (decalage + 1) * SOUS_SEAUX + (int) (valeur >>> decalage) - SOUS_SEAUX;
+            return Math.min(indice, NOMBRE_SEAUX - 1);
+        }
+
+        /**
+         * Borne haute d'un seau (valeur rapportée pour un percentile)
+         */
+        private static long borneHaute(int seau) {
+            if (seau < 2 * SOUS_SEAUX) {
+                return seau;
+            }
+            int decalage = seau / SOUS_SEAUX - 1;
+            long mantisse = seau % SOUS_SEAUX + SOUS_SEAUX;
+            return ((mantisse + 1) << decalage) - 1;
+        }
+
+        /**
+         * Moyenne, percentiles et maximum en millisecondes
+         */
+        private Map<String, Object> resume() {
+            long[] copie = new long[NOMBRE_SEAUX];
+            long total = 0;
+            for (int i = 0; i < NOMBRE_SEAUX; i++) {
+                copie[i] = seaux.get(i);
+                total += copie[i];
+            }
+            long compte = nombre.sum();
+
+            Map<String, Object> resume = new LinkedHashMap<>();
+            resume.put("moyenne", compte > 0 ? arrondir(somme.sum() / (double) compte / 1000.0) : 0.0);
+            resume.put("p50", percentile(copie, total, 0.50));
+            resume.put("p90", percentile(copie, total, 0.90));
+            resume.put("p99", percentile(copie, total, 0.99));
+            resume.put("max", arrondir(maximum.get() / 1000.0));
+            return resume;
+        }
+
+        private static double percentile(long[] copie, long total, double rang) {
+            if (total == 0) {
+                return 0.0;
+            }
+            long cible = (long) Math.ceil(total * rang);
+            long cumul = 0;
+            for (int i = 0; i < copie.length; i++) {
+                cumul += copie[i];
+                if (cumul >= cible) {
+                    return arrondir(borneHaute(i) / 1000.0);
+                }
+            }
+            return arrondir(borneHaute(copie.length - 1) / 1000.0);
+        }
+    }
+
+    /**
+     * Messages par seconde sur une fenêtre glissante : une tranche par seconde,
+     * remplacée par une tranche neuve au premier message de la seconde qui la réutilise
+     * (un compteur par seconde : aucune remise à zéro ne peut effacer un message compté)
+     */
+    private static class Debit {
+        private final AtomicReferenceArray<Tranche> tranches = new AtomicReferenceArray<>(FENETRE_SECONDES);
+
+        private void enregistrer(long maintenantMs) {
+            long seconde = maintenantMs / 1000;
+            int indice = (int) (seconde % FENETRE_SECONDES);
+            Tranche tranche = tranches.get(indice);
+            while (tranche == null || tranche.seconde < seconde) {
+                Tranche neuve = new Tranche(seconde);
+                tranche = tranches.compareAndSet(indice, tranche, neuve) ? neuve : tranches.get(indice);
+            }
+            // Une tranche plus récente (thread en retard d'une fenêtre entière) : message hors fenêtre
+            if (tranche.seconde == seconde) {
+                tranche.compte.increment();
+            }
+        }
+
+        /**
+         * Messages des dernières secondes révolues (la seconde en cours est exclue)
+         */
+        private long somme(long maintenantMs, int nombreSecondes) {
+            long courante = maintenantMs / 1000;
+            long total = 0;
+            for (int i = 0; i < FENETRE_SECONDES; i++) {
+                Tranche tranche = tranches.get(i);
+                if (tranche != null && tranche.seconde < courante && tranche.seconde >= courante - nombreSecondes) {
+                    total += tranche.compte.sum();
+                }
+            }
+            return total;
+        }
+    }
+
+    private static class Tranche {
+        private final long seconde;
+        private final LongAdder compte = new LongAdder();
+
+        private Tranche(long seconde) {
+            this.seconde = seconde;
+        }
+    }
+
+    /**
+     * Esquisse count-min : 4 lignes de 2048 compteurs, estimation par excès
+     * Chaque ligne hache les caractères avec sa propre graine : deux phrases qui partagent
+     * un hashCode() ne tombent pas pour autant dans la même colonne sur toutes les lignes
+     */
+    private static class EsquisseCountMin {
+        private static final int PROFONDEUR = 4;
+        private static final int LARGEUR = 1 << 11;
+        private static final int BITS_LARGEUR = 11;
+        private static final long PREMIER_FNV = 0x100000001B3L;
+        // Base FNV-1a 64 bits propre à chaque ligne
+        private static final long[] GRAINES = {
+            0xCBF29CE484222325L, 0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L };
+
+        private final AtomicLongArray compteurs = new AtomicLongArray(PROFONDEUR * LARGEUR);
+
+        /**
+         * Compter une occurrence et retourner la nouvelle estimation
+         */
+        private long ajouter(String cle) {
+            long estimation = Long.MAX_VALUE;
+            for (int ligne = 0; ligne < PROFONDEUR; ligne++) {
+                long valeur = compteurs.incrementAndGet(ligne * LARGEUR + colonne(cle, ligne));
+                estimation = Math.min(estimation, valeur);
+            }
+            return estimation;
+        }
+
+        private long estimer(String cle) {
+            long estimation = Long.MAX_VALUE;
+            for (int ligne = 0; ligne < PROFONDEUR; ligne++) {
+                estimation = Math.min(estimation, compteurs.get(ligne * LARGEUR + colonne(cle, ligne)));
+            }
+            return estimation;
+        }
+
+        private static int colonne(String cle, int ligne) {
+            long hachage = GRAINES[ligne];
+            for (int i = 0; i < cle.length(); i++) {
+                hachage = (hachage ^ cle.charAt(i)) * PREMIER_FNV;
+            }
+            // Mélange final : les bits de poids fort dépendent de tous les caractères
+            hachage ^= hachage >>> 33;
+            hachage *= 0xFF51AFD7ED558CCDL;
+            hachage ^= hachage >>> 33;
+            return (int) (hachage >>> (64 - BITS_LARGEUR));
+        }
+    }
+}
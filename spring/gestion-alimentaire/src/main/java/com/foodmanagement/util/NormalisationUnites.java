@@ -0,0 +1,97 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.dao.FoodDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rattrapage des unités normalisées pour les lignes antérieures à la migration V12
+ *
+ * Une requête UPDATE par unité saisie distincte (quelques dizaines au plus), puis
+ * la densité des ingrédients d'après leur nom. Les lignes déjà normalisées
+ * (unite_base renseignée) ne sont pas relues : au démarrage suivant, il n'y a plus rien à faire.
+ *
+ * Les agrégats de recette des aliments (V13) dépendent des quantités normalisées :
+ * ils sont calculés ensuite, pour tous les aliments si des lignes viennent d'être
+ * normalisées, sinon pour ceux qui n'ont jamais été calculés.
+ */
+@Component
+public class NormalisationUnites {
+
+    private static final Logger logger = LoggerFactory.getLogger(NormalisationUnites.class);
+
+    @Autowired
+    private ConvertisseurUnites convertisseurUnites;
+
+    @Autowired
+    private FoodDao foodDao;
+
+    /**
+     * JdbcTemplate sans limite de lignes (le template global est plafonné)
+     */
+    @Autowired
+    @Qualifier("jdbcTemplateSansLimite")
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void normaliserAuDemarrage() {
+        try {
+            long debut = System.nanoTime();
+            int ingredients = normaliserIngredients();
+            int liaisons = normaliserTable("food_ingredient", "quantite_utilisee");
+            int aliments = foodDao.recalculerTousLesAgregats(ingredients + liaisons == 0);
+            if (ingredients + liaisons + aliments > 0) {
+                logger.info("Unités normalisées : {} ingrédients, {} liaisons aliment-ingrédient, "
+                    + "{} agrégats d'aliments recalculés en {} ms",
+                    ingredients, liaisons, aliments, (System.nanoTime() - debut) / 1_000_000);
+            }
+        } catch (Exception e) {
+            // Les lignes non normalisées restent lisibles (conversion à la volée)
+            logger.error("Erreur lors de la normalisation des unités", e);
+        }
+    }
+
+    private int normaliserIngredients() {
+        // Densité d'abord : le filtre porte sur unite_base, renseignée à l'étape suivante
+        List<Object[]> densites = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, nom FROM ingredient WHERE unite_base IS NULL AND densite IS NULL", rs -> {
+            Double densite = convertisseurUnites.densite(rs.getString("nom"));
+            if (densite != null) {
+                densites.add(new Object[] { densite, rs.getLong("id") });
+            }
+        });
+        if (!densites.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE ingredient SET densite = ? WHERE id = ?", densites);
+        }
+        return normaliserTable("ingredient", "quantite");
+    }
+
+    /**
+     * Renseigner unite_base et quantite_base, une requête par unité saisie distincte
+     */
+    private int normaliserTable(String table, String colonneQuantite) {
+        List<String> unites = jdbcTemplate.queryForList(
+            "SELECT DISTINCT unite FROM " + table + " WHERE unite_base IS NULL", String.class);
+
+        int total = 0;
+        for (String unite : unites) {
+            ConvertisseurUnites.UniteNormalisee normalisee = convertisseurUnites.normaliser(unite);
+            String condition = unite != null ? "unite = ?" : "unite IS NULL";
+            Object[] parametres = unite != null
+                ? new Object[] { normalisee.getUniteBase().name(), normalisee.getFacteur(), unite }
+                : new Object[] { normalisee.getUniteBase().name(), normalisee.getFacteur() };
+            total += jdbcTemplate.update("UPDATE " + table + " SET unite_base = ?, quantite_base = " + colonneQuantite
+                + " * ? WHERE " + condition + " AND unite_base IS NULL", parametres);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,464 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.entity.Food;
+import com.foodmanagement.enums.CategorieFood;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optimiseur de buffet sous contrainte de budget (sac à dos borné à choix multiples)
+ *
+ * Variables : x_i portions servies de l'aliment i, 0 ≤ x_i ≤ plafond_i
+ * Couverture : pour chaque catégorie c, Σ x_i = demande_c
+ * Budget     : Σ prix_i × x_i ≤ B
+ * Objectif   : maximiser Σ valeur_i × x_i
+ *
+ * Résolution par relaxation lagrangienne de la contrainte de budget : pour un
+ * multiplicateur λ, chaque catégorie se remplit gloutonnement par (valeur − λ × prix)
+ * décroissant, ce qui est optimal pour le sous-problème. L(λ) est une borne supérieure
+ * de l'optimum ; λ est ajusté par dichotomie sur le coût de la solution obtenue.
+ * La meilleure solution réalisable est ensuite améliorée par échanges de portions
+ * dans le budget restant, jusqu'à l'échéance.
+ *
+ * L'écart entre la solution et la borne mesure la qualité du résultat : comme une
+ * seule contrainte est relâchée, il se limite à quelques portions.
+ */
+@Component
+public class OptimiseurBuffet {
+
+    /**
+     * Statut d'une optimisation : solution prouvée optimale
+     */
+    public static final String STATUT_OPTIMAL = "OPTIMAL";
+
+    /**
+     * Statut d'une optimisation : solution dans le budget, écart à l'optimum borné
+     */
+    public static final String STATUT_REALISABLE = "REALISABLE";
+
+    /**
+     * Statut d'une optimisation : la couverture minimale dépasse le budget
+     */
+    public static final String STATUT_IRREALISABLE = "IRREALISABLE";
+
+    private static final double EPSILON = 1e-9;
+    private static final int ITERATIONS_DICHOTOMIE_MAX = 60;
+    private static final int ITERATIONS_ECHANGES_MAX = 10_000;
+    private static final double GAIN_GRATUIT = 1e12;
+
+    @Value("${app.buffets.optimisation.delai-ms:50}")
+    private long delaiMs;
+
+    /**
+     * Aliment candidat : prix et valeur par portion, plafond de portions
+     */
+    public static class Candidat {
+        private final Food food;
+        private final double valeur;
+        private final int plafond;
+        private final Integer priorite;
+
+        /**
+         * @param food Aliment (catégorie et prix par portion renseignés)
+         * @param valeur Valeur d'une portion servie
+         * @param plafond Nombre maximum de portions de cet aliment
+         * @param priorite Priorité dans le buffet (null pour une alternative du catalogue)
+         * @throws IllegalArgumentException Si l'aliment n'a pas de prix
+         */
+        public Candidat(Food food, double valeur, int plafond, Integer priorite) {
+            if (food.getPrix() == null) {
+                throw new IllegalArgumentException("L'aliment " + food.getNom() + " n'a pas de prix");
+            }
+            this.food = food;
+            this.valeur = valeur;
+            this.plafond = plafond;
+            this.priorite = priorite;
+        }
+
+        public Food getFood() {
+            return food;
+        }
+
+        public double getValeur() {
+            return valeur;
+        }
+
+        public int getPlafond() {
+            return plafond;
+        }
+
+        public Integer getPriorite() {
+            return priorite;
+        }
+
+        public boolean isDansBuffet() {
+            return priorite != null;
+        }
+
+        private double getPrix() {
+            return food.getPrix();
+        }
+    }
+
+    /**
+     * Résultat d'une optimisation
+     */
+    public static class Resultat {
+        private final String statut;
+        private final Map<Candidat, Integer> portions;
+        private final double cout;
+        private final double valeur;
+        private final double borneSuperieure;
+        private final double coutMinimal;
+        private final int iterations;
+        private final long dureeNanos;
+
+        public Resultat(String statut, Map<Candidat, Integer> portions, double cout, double valeur,
+                        double borneSuperieure, double coutMinimal, int iterations, long dureeNanos) {
+            this.statut = statut;
+            this.portions = portions;
+            this.cout = cout;
+            this.valeur = valeur;
+            this.borneSuperieure = borneSuperieure;
+            this.coutMinimal = coutMinimal;
+            this.iterations = iterations;
+            this.dureeNanos = dureeNanos;
+        }
+
+        public String getStatut() {
+            return statut;
+        }
+
+        public boolean isRealisable() {
+            return !STATUT_IRREALISABLE.equals(statut);
+        }
+
+        /**
+         * Portions retenues par candidat (candidats à zéro portion exclus)
+         * Pour un problème irréalisable : la couverture la moins chère
+         */
+        public Map<Candidat, Integer> getPortions() {
+            return portions;
+        }
+
+        public double getCout() {
+            return cout;
+        }
+
+        public double getValeur() {
+            return valeur;
+        }
+
+        public double getBorneSuperieure() {
+            return borneSuperieure;
+        }
+
+        /**
+         * Coût de la couverture la moins chère (budget minimum nécessaire)
+         */
+        public double getCoutMinimal() {
+            return coutMinimal;
+        }
+
+        /**
+         * Écart relatif à la borne supérieure : 0 pour une solution optimale
+         */
+        public double getEcartOptimalite() {
+            if (!isRealisable() || borneSuperieure <= EPSILON) {
+                return 0.0;
+            }
+            return Math.max(0.0, (borneSuperieure - valeur) / borneSuperieure);
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public double getDureeMs() {
+            return dureeNanos / 1_000_000.0;
+        }
+    }
+
+    /**
+     * Optimiser la composition d'un buffet dans le délai configuré
+     *
+     * @param candidats Aliments candidats (prix par portion renseigné)
+     * @param demandes Portions à servir par catégorie
+     * @param budget Budget maximum
+     * @return Résultat avec statut, solution et borne supérieure
+     * @throws IllegalArgumentException Si une catégorie ne peut pas être couverte
+     */
+    public Resultat optimiser(List<Candidat> candidats, Map<CategorieFood, Integer> demandes, double budget) {
+        return new Resolution(candidats, demandes, budget, delaiMs).resoudre();
+    }
+
+    // ================ RÉSOLUTION ================
+
+    /**
+     * État d'une résolution : tableaux indexés par candidat, regroupés par catégorie
+     */
+    private static class Resolution {
+        private final Candidat[] candidats;
+        private final double[] prix;
+        private final double[] valeurs;
+        private final int[] plafonds;
+        private final int[][] parCategorie;
+        private final int[] demandes;
+        private final double budget;
+        private final long debut;
+        private final long echeance;
+        private int iterations;
+
+        Resolution(List<Candidat> liste, Map<CategorieFood, Integer> demandesParCategorie, double budget, long delaiMs) {
+            this.debut = System.nanoTime();
+            this.echeance = debut + delaiMs * 1_000_000L;
+            this.budget = budget;
+
+            List<int[]> groupes = new ArrayList<>();
+            List<Integer> demandesRetenues = new ArrayList<>();
+            List<Candidat> retenus = new ArrayList<>();
+
+            for (Map.Entry<CategorieFood, Integer> demande : demandesParCategorie.entrySet()) {
+                if (demande.getValue() == null || demande.getValue() <= 0) {
+                    continue;
+                }
+                List<Integer> indices = new ArrayList<>();
+                long capacite = 0;
+                for (Candidat candidat : liste) {
+                    if (candidat.getFood().getCategorie() == demande.getKey() && candidat.getPlafond() > 0) {
+                        indices.add(retenus.size());
+                        retenus.add(candidat);
+                        capacite += candidat.getPlafond();
+                    }
+                }
+                if (capacite < demande.getValue()) {
+                    throw new IllegalArgumentException("Pas assez d'aliments pour couvrir la catégorie "
+                        + demande.getKey().getLibelle() + " (" + demande.getValue() + " portions)");
+                }
+                groupes.add(indices.stream().mapToInt(Integer::intValue).toArray());
+                demandesRetenues.add(demande.getValue());
+            }
+
+            this.candidats = retenus.toArray(new Candidat[0]);
+            this.prix = new double[candidats.length];
+            this.valeurs = new double[candidats.length];
+            this.plafonds = new int[candidats.length];
+            for (int i = 0; i < candidats.length; i++) {
+                prix[i] = candidats[i].getPrix();
+                valeurs[i] = candidats[i].getValeur();
+                plafonds[i] = candidats[i].getPlafond();
+            }
+            this.parCategorie = groupes.toArray(new int[0][]);
+            this.demandes = demandesRetenues.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        Resultat resoudre() {
+            // Couverture la moins chère : si elle dépasse le budget, aucun buffet n'est possible
+            int[] moinsChere = remplir(Double.POSITIVE_INFINITY);
+            double coutMinimal = cout(moinsChere);
+            if (coutMinimal > budget + EPSILON) {
+                return resultat(STATUT_IRREALISABLE, moinsChere, Double.NaN, coutMinimal);
+            }
+
+            // Sans contrainte de budget : si la meilleure solution tient dans le budget, elle est optimale
+            int[] libre = remplir(0.0);
+            if (cout(libre) <= budget + EPSILON) {
+                return resultat(STATUT_OPTIMAL, libre, valeur(libre), coutMinimal);
+            }
+
+            // Dichotomie sur λ : bas donne une solution hors budget, haut une solution réalisable
+            double borne = valeur(libre);
+            int[] meilleure = moinsChere;
+            double bas = 0.0;
+            double haut = 1.0;
+            int[] solutionHaute = null;
+            for (int i = 0; i < ITERATIONS_DICHOTOMIE_MAX && !echu(); i++) {
+                int[] x = remplir(haut);
+                borne = Math.min(borne, lagrangien(x, haut));
+                if (cout(x) <= budget + EPSILON) {
+                    solutionHaute = x;
+                    break;
+                }
+                bas = haut;
+                haut *= 2.0;
+            }
+            if (solutionHaute != null) {
+                meilleure = meilleure(meilleure, solutionHaute);
+                for (int i = 0; i < ITERATIONS_DICHOTOMIE_MAX && !echu() && haut - bas > EPSILON * haut; i++) {
+                    double milieu = (bas + haut) / 2.0;
+                    int[] x = remplir(milieu);
+                    borne = Math.min(borne, lagrangien(x, milieu));
+                    if (cout(x) <= budget + EPSILON) {
+                        meilleure = meilleure(meilleure, x);
+                        haut = milieu;
+                    } else {
+                        bas = milieu;
+                    }
+                }
+            }
+
+            ameliorerParEchanges(meilleure);
+
+            double valeurFinale = valeur(meilleure);
+            String statut = borne - valeurFinale <= EPSILON * Math.max(1.0, borne) ? STATUT_OPTIMAL : STATUT_REALISABLE;
+            return resultat(statut, meilleure, Math.max(borne, valeurFinale), coutMinimal);
+        }
+
+        /**
+         * Sous-problème lagrangien : chaque catégorie est remplie par (valeur − λ × prix) décroissant,
+         * à égalité par prix croissant. λ infini revient à remplir par prix croissant.
+         */
+        private int[] remplir(double lambda) {
+            iterations++;
+            int[] x = new int[candidats.length];
+            for (int c = 0; c < parCategorie.length; c++) {
+                Integer[] ordre = Arrays.stream(parCategorie[c]).boxed().toArray(Integer[]::new);
+                Comparator<Integer> parPrix = Comparator.comparingDouble(i -> prix[i]);
+                Comparator<Integer> comparateur = Double.isInfinite(lambda)
+                    ? parPrix.thenComparing(Comparator.comparingDouble((Integer i) -> valeurs[i]).reversed())
+                    : Comparator.comparingDouble((Integer i) -> -(valeurs[i] - lambda * prix[i])).thenComparing(parPrix);
+                Arrays.sort(ordre, comparateur);
+
+                int restant = demandes[c];
+                for (int k = 0; k < ordre.length && restant > 0; k++) {
+                    int i = ordre[k];
+                    int portions = Math.min(plafonds[i], restant);
+                    x[i] = portions;
+                    restant -= portions;
+                }
+            }
+            return x;
+        }
+
+        /**
+         * L(λ) = λ × B + Σ (valeur − λ × prix) × x : borne supérieure de l'optimum pour tout λ ≥ 0
+         */
+        private double lagrangien(int[] x, double lambda) {
+            return lambda * budget + valeur(x) - lambda * cout(x);
+        }
+
+        /**
+         * Échanges de portions à l'intérieur d'une catégorie : à chaque tour, le transfert
+         * j → i au meilleur gain par euro dépensé qui tient dans le budget restant
+         */
+        private void ameliorerParEchanges(int[] x) {
+            double reste = budget - cout(x);
+            for (int tour = 0; tour < ITERATIONS_ECHANGES_MAX && !echu(); tour++) {
+                iterations++;
+                int meilleurI = -1;
+                int meilleurJ = -1;
+                double meilleurScore = 0.0;
+
+                for (int[] groupe : parCategorie) {
+                    for (int i : groupe) {
+                        if (x[i] >= plafonds[i]) {
+                            continue;
+                        }
+                        for (int j : groupe) {
+                            if (i == j || x[j] == 0) {
+                                continue;
+                            }
+                            double gain = valeurs[i] - valeurs[j];
+                            double surcout = prix[i] - prix[j];
+                            double score = score(gain, surcout, reste);
+                            if (score > meilleurScore) {
+                                meilleurScore = score;
+                                meilleurI = i;
+                                meilleurJ = j;
+                            }
+                        }
+                    }
+                }
+
+                if (meilleurI < 0) {
+                    return;
+                }
+                double surcout = prix[meilleurI] - prix[meilleurJ];
+                int portions = Math.min(x[meilleurJ], plafonds[meilleurI] - x[meilleurI]);
+                if (surcout > EPSILON) {
+                    portions = (int) Math.min(portions, Math.floor((reste + EPSILON) / surcout));
+                }
+                x[meilleurI] += portions;
+                x[meilleurJ] -= portions;
+                reste -= portions * surcout;
+            }
+        }
+
+        /**
+         * Intérêt d'un transfert d'une portion : gain gratuit en tête, puis gain par euro,
+         * puis simple économie (qui libère du budget pour d'autres échanges)
+         */
+        private static double score(double gain, double surcout, double reste) {
+            if (gain > EPSILON) {
+                if (surcout <= EPSILON) {
+                    return GAIN_GRATUIT + gain;
+                }
+                return surcout <= reste + EPSILON ? 1.0 + gain / surcout : 0.0;
+            }
+            if (gain > -EPSILON && surcout < -EPSILON) {
+                return -surcout / (1.0 + Math.abs(surcout)) * EPSILON;
+            }
+            return 0.0;
+        }
+
+        private int[] meilleure(int[] actuelle, int[] candidate) {
+            double valeurActuelle = valeur(actuelle);
+            double valeurCandidate = valeur(candidate);
+            if (valeurCandidate > valeurActuelle + EPSILON
+                || (valeurCandidate > valeurActuelle - EPSILON && cout(candidate) < cout(actuelle))) {
+                return candidate.clone();
+            }
+            return actuelle;
+        }
+
+        private double cout(int[] x) {
+            double total = 0.0;
+            for (int i = 0; i < x.length; i++) {
+                total += prix[i] * x[i];
+            }
+            return total;
+        }
+
+        private double valeur(int[] x) {
+            double total = 0.0;
+            for (int i = 0; i < x.length; i++) {
+                total += valeurs[i] * x[i];
+            }
+            return total;
+        }
+
+        private boolean echu() {
+            return System.nanoTime() >= echeance;
+        }
+
+        private Resultat resultat(String statut, int[] x, double borne, double coutMinimal) {
+            Map<Candidat, Integer> portions = new LinkedHashMap<>();
+            for (int i = 0; i < x.length; i++) {
+                if (x[i] > 0) {
+                    portions.put(candidats[i], x[i]);
+                }
+            }
+            return new Resultat(statut, portions, cout(x), valeur(x), borne, coutMinimal,
+                iterations, System.nanoTime() - debut);
+        }
+    }
+
+    /**
+     * Regrouper des portions par catégorie (utilitaire pour les rapports de couverture)
+     */
+    public static Map<CategorieFood, Integer> portionsParCategorie(Map<Candidat, Integer> portions) {
+        Map<CategorieFood, Integer> resultat = new EnumMap<>(CategorieFood.class);
+        for (Map.Entry<Candidat, Integer> entree : portions.entrySet()) {
+            resultat.merge(entree.getKey().getFood().getCategorie(), entree.getValue(), Integer::sum);
+        }
+        return resultat;
+    }
+}
@@ -0,0 +1,418 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.entity.Food;
+import com.foodmanagement.entity.MenuPlanification;
+import com.foodmanagement.entity.Personne;
+import com.foodmanagement.enums.CategorieFood;
+import com.foodmanagement.enums.TypeRepas;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Générateur de plans de repas sous contraintes
+ *
+ * Contraintes :
+ * - chaque repas sert un plat par catégorie de sa composition (TypeRepas), plus une
+ *   catégorie préférée quand le repas l'accepte
+ * - l'apport de la journée vise l'objectif calorique, à la tolérance près
+ * - un aliment n'est pas resservi dans la fenêtre sans répétition (jours glissants)
+ *
+ * Le catalogue est préparé une fois : un tableau d'indices par catégorie, trié par
+ * calories. Chaque plat se choisit par recherche dichotomique de sa cible calorique,
+ * parmi les plus proches candidats non interdits (tirage pour varier les jours).
+ * Les aliments servis pendant la fenêtre forment un BitSet par jour ; leur union
+ * donne les interdits du jour. Si la journée s'écarte de l'objectif, des échanges
+ * dans la même catégorie la rapprochent de la cible.
+ */
+@Component
+public class PlanificateurRepas {
+
+    /**
+     * Candidats les plus proches de la cible entre lesquels le tirage a lieu
+     */
+    private static final int CANDIDATS_TIRAGE = 3;
+
+    private static final int ITERATIONS_ECHANGES_MAX = 20;
+
+    @Value("${app.planification.calories-jour:2000}")
+    private double caloriesJour;
+
+    @Value("${app.planification.tolerance:0.10}")
+    private double tolerance;
+
+    @Value("${app.planification.fenetre-sans-repetition:3}")
+    private int fenetreSansRepetition;
+
+    /**
+     * Catalogue préparé : aliments par catégorie, triés par calories croissantes
+     */
+    public static class Catalogue {
+        private final Food[] aliments;
+        private final double[] calories;
+        private final int[][] indicesParCategorie;
+        private final double[][] caloriesParCategorie;
+
+        private Catalogue(Food[] aliments, double[] calories, int[][] indicesParCategorie,
+                          double[][] caloriesParCategorie) {
+            this.aliments = aliments;
+            this.calories = calories;
+            this.indicesParCategorie = indicesParCategorie;
+            this.caloriesParCategorie = caloriesParCategorie;
+        }
+
+        public int getTaille() {
+            return aliments.length;
+        }
+
+        public int getTaille(CategorieFood categorie) {
+            return indicesParCategorie[categorie.ordinal()].length;
+        }
+    }
+
+    /**
+     * Plan généré et indicateurs de la recherche
+     */
+    public static class Resultat {
+        private final Map<LocalDate, Map<String, List<Food>>> plan;
+        private final Map<LocalDate, Double> caloriesParJour;
+        private final int joursHorsCible;
+        private final int relachements;
+        private final long dureeNanos;
+
+        private Resultat(Map<LocalDate, Map<String, List<Food>>> plan, Map<LocalDate, Double> caloriesParJour,
+                         int joursHorsCible, int relachements, long dureeNanos) {
+            this.plan = plan;
+            this.caloriesParJour = caloriesParJour;
+            this.joursHorsCible = joursHorsCible;
+            this.relachements = relachements;
+            this.dureeNanos = dureeNanos;
+        }
+
+        /**
+         * Plan par jour, puis par libellé de repas (tous les repas présents, éventuellement vides)
+         */
+        public Map<LocalDate, Map<String, List<Food>>> getPlan() {
+            return plan;
+        }
+
+        public Map<LocalDate, Double> getCaloriesParJour() {
+            return caloriesParJour;
+        }
+
+        /**
+         * Jours dont l'apport reste hors de la tolérance après échanges
+         */
+        public int getJoursHorsCible() {
+            return joursHorsCible;
+        }
+
+        /**
+         * Plats servis malgré la fenêtre sans répétition (catégorie trop petite)
+         */
+        public int getRelachements() {
+            return relachements;
+        }
+
+        public double getDureeMs() {
+            return dureeNanos / 1_000_000.0;
+        }
+    }
+
+    /**
+     * Préparer le catalogue des aliments candidats
+     *
+     * @param aliments Aliments disponibles (catégorie renseignée)
+     */
+    public Catalogue construireCatalogue(List<Food> aliments) {
+        List<Food> valides = new ArrayList<>(aliments.size());
+        for (Food food : aliments) {
+            if (food.getId() != null && food.getCategorie() != null) {
+                valides.add(food);
+            }
+        }
+        valides.sort(Comparator.comparingDouble(PlanificateurRepas::calories));
+
+        Food[] tableau = valides.toArray(new Food[0]);
+        double[] calories = new double[tableau.length];
+        int[] tailles = new int[CategorieFood.values().length];
+        for (int i = 0; i < tableau.length; i++) {
+            calories[i] = calories(tableau[i]);
+            tailles[tableau[i].getCategorie().ordinal()]++;
+        }
+
+        // Parcours dans l'ordre des calories : chaque catégorie est triée d'office
+        int[][] indices = new int[tailles.length][];
+        double[][] caloriesParCategorie = new double[tailles.length][];
+        for (int c = 0; c < tailles.length; c++) {
+            indices[c] = new int[tailles[c]];
+            caloriesParCategorie[c] = new double[tailles[c]];
+        }
+        int[] positions = new int[tailles.length];
+        for (int i = 0; i < tableau.length; i++) {
+            int c = tableau[i].getCategorie().ordinal();
+            indices[c][positions[c]] = i;
+            caloriesParCategorie[c][positions[c]] = calories[i];
+            positions[c]++;
+        }
+        return new Catalogue(tableau, calories, indices, caloriesParCategorie);
+    }
+
+    /**
+     * Générer un plan de repas
+     *
+     * @param catalogue Catalogue préparé
+     * @param dateDebut Premier jour du plan
+     * @param nombreJours Nombre de jours
+     * @param preferences Catégories préférées (ajoutées aux repas qui les acceptent), null ou vide sinon
+     * @param graine Graine du tirage (même graine, même plan)
+     */
+    public Resultat planifier(Catalogue catalogue, LocalDate dateDebut, int nombreJours,
+                              Collection<CategorieFood> preferences, long graine) {
+        long debut = System.nanoTime();
+        TypeRepas[] repas = TypeRepas.values();
+        int[][] plats = composerRepas(repas, preferences);
+
+        Random aleatoire = new Random(graine);
+        int fenetre = Math.max(1, fenetreSansRepetition);
+        BitSet[] servis = new BitSet[fenetre];
+        for (int j = 0; j < fenetre; j++) {
+            servis[j] = new BitSet(catalogue.getTaille());
+        }
+        BitSet interdits = new BitSet(catalogue.getTaille());
+
+        Map<LocalDate, Map<String, List<Food>>> plan = new LinkedHashMap<>();
+        Map<LocalDate, Double> caloriesParJour = new LinkedHashMap<>();
+        int joursHorsCible = 0;
+        int relachements = 0;
+
+        for (int jour = 0; jour < nombreJours; jour++) {
+            // Le jour sorti de la fenêtre libère ses aliments
+            BitSet servisDuJour = servis[jour % fenetre];
+            servisDuJour.clear();
+            interdits.clear();
+            for (BitSet bitSet : servis) {
+                interdits.or(bitSet);
+            }
+
+            int[][] choix = new int[repas.length][];
+            double total = 0.0;
+            for (int r = 0; r < repas.length; r++) {
+                choix[r] = new int[plats[r].length];
+                double cible = plats[r].length == 0 ? 0.0 : caloriesJour * repas[r].getPartCalories() / plats[r].length;
+                for (int p = 0; p < plats[r].length; p++) {
+                    int categorie = plats[r][p];
+                    int indice = choisir(catalogue, categorie, cible, interdits, CANDIDATS_TIRAGE, aleatoire);
+                    if (indice < 0) {
+                        // Catégorie épuisée par la fenêtre : seule la répétition dans la journée reste interdite
+                        indice = choisir(catalogue, categorie, cible, servisDuJour, CANDIDATS_TIRAGE, aleatoire);
+                        if (indice >= 0) {
+                            relachements++;
+                        }
+                    }
+                    choix[r][p] = indice;
+                    if (indice >= 0) {
+                        servisDuJour.set(indice);
+                        interdits.set(indice);
+                        total += catalogue.calories[indice];
+                    }
+                }
+            }
+
+            total = rapprocherDeLaCible(catalogue, plats, choix, total, interdits, servis, jour % fenetre);
+            if (Math.abs(total - caloriesJour) > tolerance * caloriesJour) {
+                joursHorsCible++;
+            }
+
+            LocalDate date = dateDebut.plusDays(jour);
+            Map<String, List<Food>> planJour = new LinkedHashMap<>();
+            for (int r = 0; r < repas.length; r++) {
+                List<Food> aliments = new ArrayList<>(choix[r].length);
+                for (int indice : choix[r]) {
+                    if (indice >= 0) {
+                        aliments.add(catalogue.aliments[indice]);
+                    }
+                }
+                planJour.put(repas[r].getLibelle(), aliments);
+            }
+            plan.put(date, planJour);
+            caloriesParJour.put(date, total);
+        }
+
+        return new Resultat(plan, caloriesParJour, joursHorsCible, relachements, System.nanoTime() - debut);
+    }
+
+    // ================ MÉTHODES INTERNES ================
+
+    /**
+     * Catégorie (ordinal) de chaque plat, par repas : composition du repas,
+     * puis les préférences acceptées par le repas et absentes de sa composition
+     */
+    private int[][] composerRepas(TypeRepas[] repas, Collection<CategorieFood> preferences) {
+        int[][] plats = new int[repas.length][];
+        for (int r = 0; r < repas.length; r++) {
+            List<CategorieFood> categories = new ArrayList<>(repas[r].getComposition());
+            if (preferences != null) {
+                for (CategorieFood preference : preferences) {
+                    if (repas[r].getCategoriesAutorisees().contains(preference) && !categories.contains(preference)) {
+                        categories.add(preference);
+                    }
+                }
+            }
+            plats[r] = categories.stream().mapToInt(CategorieFood::ordinal).toArray();
+        }
+        return plats;
+    }
+
+    /**
+     * Choisir un aliment de la catégorie proche de la cible, hors interdits
+     * Dichotomie sur les calories, puis extension vers le plus proche des deux voisins ;
+     * tirage parmi les premiers candidats retenus
+     *
+     * @param tirage Nombre de candidats retenus (1 : le plus proche)
+     * @return Indice dans le catalogue, -1 si tous les candidats sont interdits
+     */
+    private int choisir(Catalogue catalogue, int categorie, double cible, BitSet interdits, int tirage,
+                        Random aleatoire) {
+        int[] indices = catalogue.indicesParCategorie[categorie];
+        double[] calories = catalogue.caloriesParCategorie[categorie];
+        if (indices.length == 0) {
+            return -1;
+        }
+
+        int position = Arrays.binarySearch(calories, cible);
+        int droite = position >= 0 ? position : -position - 1;
+        int gauche = droite - 1;
+
+        int[] retenus = new int[tirage];
+        int nombre = 0;
+        while (nombre < tirage && (gauche >= 0 || droite < indices.length)) {
+            boolean prendreGauche = droite >= indices.length
+                || (gauche >= 0 && cible - calories[gauche] <= calories[droite] - cible);
+            int indice = prendreGauche ? indices[gauche--] : indices[droite++];
+            if (!interdits.get(indice)) {
+                retenus[nombre++] = indice;
+            }
+        }
+        if (nombre == 0) {
+            return -1;
+        }
+        return nombre == 1 ? retenus[0] : retenus[aleatoire.nextInt(nombre)];
+    }
+
+    /**
+     * Échanges dans la même catégorie tant qu'ils rapprochent la journée de l'objectif
+     *
+     * @return Apport de la journée après échanges
+     */
+    private double rapprocherDeLaCible(Catalogue catalogue, int[][] plats, int[][] choix, double total,
+                                       BitSet interdits, BitSet[] servis, int jourCourant) {
+        BitSet servisDuJour = servis[jourCourant];
+        for (int iteration = 0; iteration < ITERATIONS_ECHANGES_MAX; iteration++) {
+            double ecart = caloriesJour - total;
+            if (Math.abs(ecart) <= tolerance * caloriesJour) {
+                break;
+            }
+
+            int meilleurRepas = -1;
+            int meilleurPlat = -1;
+            int meilleurIndice = -1;
+            double meilleurEcart = Math.abs(ecart);
+            for (int r = 0; r < plats.length; r++) {
+                for (int p = 0; p < plats[r].length; p++) {
+                    int actuel = choix[r][p];
+                    if (actuel < 0) {
+                        continue;
+                    }
+                    double cible = catalogue.calories[actuel] + ecart;
+                    // Un plat déjà relâché peut être échangé contre tout aliment non servi aujourd'hui
+                    BitSet exclus = estServiUnAutreJour(servis, jourCourant, actuel) ? servisDuJour : interdits;
+                    int remplacant = choisir(catalogue, plats[r][p], cible, exclus, 1, null);
+                    if (remplacant < 0) {
+                        continue;
+                    }
+                    double nouvelEcart = Math.abs(ecart - (catalogue.calories[remplacant] - catalogue.calories[actuel]));
+                    if (nouvelEcart < meilleurEcart) {
+                        meilleurEcart = nouvelEcart;
+                        meilleurRepas = r;
+                        meilleurPlat = p;
+                        meilleurIndice = remplacant;
+                    }
+                }
+            }
+            if (meilleurIndice < 0) {
+                break;
+            }
+
+            int ancien = choix[meilleurRepas][meilleurPlat];
+            servisDuJour.clear(ancien);
+            if (!estServiUnAutreJour(servis, jourCourant, ancien)) {
+                interdits.clear(ancien);
+            }
+            choix[meilleurRepas][meilleurPlat] = meilleurIndice;
+            servisDuJour.set(meilleurIndice);
+            interdits.set(meilleurIndice);
+            total += catalogue.calories[meilleurIndice] - catalogue.calories[ancien];
+        }
+        return total;
+    }
+
+    /**
+     * Aliment servi un autre jour de la fenêtre (plat retenu par relâchement)
+     */
+    private boolean estServiUnAutreJour(BitSet[] servis, int jourCourant, int indice) {
+        for (int j = 0; j < servis.length; j++) {
+            if (j != jourCourant && servis[j].get(indice)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Graine du tirage d'une personne : une même demande produit le même plan
+     * (une génération en lot reprise après interruption réécrit les mêmes plans)
+     */
+    public static long graine(Long personneId, LocalDate dateDebut) {
+        return personneId * 31 + dateDebut.toEpochDay();
+    }
+
+    /**
+     * Lignes à enregistrer pour un plan organisé par jour et libellé de repas
+     * (calories de chaque aliment figées dans la ligne)
+     */
+    public List<MenuPlanification> versLignes(Long personneId, Map<LocalDate, Map<String, List<Food>>> plan) {
+        Personne personne = new Personne();
+        personne.setId(personneId);
+        List<MenuPlanification> lignes = new ArrayList<>();
+        plan.forEach((date, repas) -> repas.forEach((libelle, aliments) -> {
+            TypeRepas type = TypeRepas.depuis(libelle);
+            for (Food food : aliments) {
+                MenuPlanification ligne = new MenuPlanification(personne, date, type, food);
+                ligne.setCalories(calories(food));
+                lignes.add(ligne);
+            }
+        }));
+        return lignes;
+    }
+
+    /**
+     * Apport d'un aliment servi : calories de la recette, à défaut pour 100g
+     */
+    private static double calories(Food food) {
+        if (food.getCaloriesTotales() != null) {
+            return food.getCaloriesTotales();
+        }
+        return food.getCalories() != null ? food.getCalories() : 0.0;
+    }
+}
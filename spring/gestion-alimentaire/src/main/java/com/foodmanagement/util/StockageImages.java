@@ -0,0 +1,239 @@
+package com.foodmanagement.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Stockage des fichiers images adressé par contenu
+ *
+ * Un fichier est rangé sous son empreinte SHA-256 : "ab/abcdef….jpg" dans
+ * app.upload.images-dir. Le contenu est d'abord reçu dans un fichier temporaire
+ * par blocs de taille fixe : empreinte, signature du format et taille maximale
+ * sont vérifiées pendant la copie, sans relecture ni tableau à la taille du fichier.
+ * Il est ensuite installé par déplacement atomique s'il n'existe pas encore.
+ * Les dérivées sont rangées à côté : "abcdef…-min.jpg", "abcdef…-800.jpg".
+ *
+ * Le compteur de références est tenu en base (table fichier_image).
+ */
+@Component
+public class StockageImages {
+
+    private static final String ALGORITHME_EMPREINTE = "SHA-256";
+    private static final String REPERTOIRE_TEMPORAIRE = ".tmp";
+    private static final int TAILLE_BLOC = 8192;
+
+    @Autowired
+    private ImageUtils imageUtils;
+
+    @Value("${app.upload.images-dir:uploads/images/}")
+    private String repertoireImages;
+
+    /**
+     * Contenu reçu dans un fichier temporaire, pas encore installé
+     */
+    public static class FichierRecu {
+        private final Path cheminTemporaire;
+        private final String empreinte;
+        private final long taille;
+        private final String format;
+
+        public FichierRecu(Path cheminTemporaire, String empreinte, long taille, String format) {
+            this.cheminTemporaire = cheminTemporaire;
+            this.empreinte = empreinte;
+            this.taille = taille;
+            this.format = format;
+        }
+
+        public Path getCheminTemporaire() {
+            return cheminTemporaire;
+        }
+
+        public String getEmpreinte() {
+            return empreinte;
+        }
+
+        public long getTaille() {
+            return taille;
+        }
+
+        /**
+         * Format reconnu d'après la signature du contenu (jpg, png, gif, webp)
+         */
+        public String getFormat() {
+            return format;
+        }
+    }
+
+    /**
+     * Copier un flux dans un fichier temporaire, en calculant son empreinte au passage
+     * Refuse le contenu dès que la signature n'est pas celle d'une image supportée
+     * ou que la taille maximale est dépassée, sans attendre la fin du flux
+     *
+     * @param entree Flux du fichier uploadé (non fermé par cette méthode)
+     * @param tailleMax Taille maximale acceptée en octets
+     * @return Fichier temporaire avec empreinte, taille et format
+     * @throws IllegalArgumentException Si le contenu n'est pas une image supportée ou est trop gros
+     * @throws IOException Si erreur d'écriture
+     */
+    public FichierRecu recevoir(InputStream entree, long tailleMax) throws IOException {
+        Path repertoireTemporaire = obtenirRacine().resolve(REPERTOIRE_TEMPORAIRE);
+        Files.createDirectories(repertoireTemporaire);
+        Path temporaire = Files.createTempFile(repertoireTemporaire, "upload-", ".part");
+
+        MessageDigest digest = creerDigest();
+        byte[] bloc = new byte[TAILLE_BLOC];
+        byte[] entete = new byte[ImageUtils.TAILLE_SIGNATURE];
+        int longueurEntete = 0;
+        String format = null;
+        long taille = 0;
+
+        try (OutputStream sortie = Files.newOutputStream(temporaire)) {
+            int lus;
+            while ((lus = entree.read(bloc)) != -1) {
+                taille += lus;
+                if (taille > tailleMax) {
+                    throw new IllegalArgumentException("Le fichier dépasse la taille maximale de "
+                        + imageUtils.formaterTaille(tailleMax));
+                }
+
+                if (format == null) {
+                    int copie = Math.min(lus, entete.length - longueurEntete);
+                    System.arraycopy(bloc, 0, entete, longueurEntete, copie);
+                    longueurEntete += copie;
+                    format = imageUtils.detecterFormat(entete, longueurEntete);
+                    if (format == null && longueurEntete == entete.length) {
+                        throw new IllegalArgumentException("Le contenu du fichier n'est pas une image supportée");
+                    }
+                }
+
+                digest.update(bloc, 0, lus);
+                sortie.write(bloc, 0, lus);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaire);
+            throw e;
+        }
+
+        if (format == null) {
+            Files.deleteIfExists(temporaire);
+            throw new IllegalArgumentException("Le contenu du fichier n'est pas une image supportée");
+        }
+        return new FichierRecu(temporaire, HexFormat.of().formatHex(digest.digest()), taille, format);
+    }
+
+    /**
+     * Chemin de stockage d'un contenu
+     *
+     * @param empreinte Empreinte SHA-256 en hexadécimal
+     * @param extension Extension du fichier (sans le point)
+     * @return Chemin absolu, réparti par les deux premiers caractères de l'empreinte
+     */
+    public Path cheminContenu(String empreinte, String extension) {
+        String nom = extension == null || extension.isEmpty() ? empreinte : empreinte + "." + extension;
+        return obtenirRacine().resolve(empreinte.substring(0, 2)).resolve(nom);
+    }
+
+    /**
+     * Installer un fichier reçu à son chemin de contenu
+     * Si le contenu est déjà présent, le fichier temporaire est simplement supprimé
+     *
+     * @param recu Fichier reçu
+     * @param cible Chemin de contenu
+     * @return true si le fichier a été installé, false s'il existait déjà
+     * @throws IOException Si erreur de déplacement
+     */
+    public boolean installer(FichierRecu recu, Path cible) throws IOException {
+        if (Files.exists(cible)) {
+            Files.deleteIfExists(recu.getCheminTemporaire());
+            return false;
+        }
+
+        Files.createDirectories(cible.getParent());
+        try {
+            Files.move(recu.getCheminTemporaire(), cible, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(recu.getCheminTemporaire(), cible);
+            } catch (FileAlreadyExistsException dejaPresent) {
+                Files.deleteIfExists(recu.getCheminTemporaire());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Abandonner un fichier reçu (upload refusé ou annulé)
+     */
+    public void abandonner(FichierRecu recu) {
+        supprimerFichier(recu.getCheminTemporaire());
+    }
+
+    /**
+     * Supprimer un fichier de contenu et toutes ses dérivées
+     *
+     * @param chemin Chemin du fichier original
+     * @return Nombre de fichiers supprimés
+     */
+    public int supprimerContenu(Path chemin) {
+        int supprimes = supprimerFichier(chemin) ? 1 : 0;
+
+        String nom = chemin.getFileName().toString();
+        int point = nom.lastIndexOf('.');
+        String prefixeDerivees = (point > 0 ? nom.substring(0, point) : nom) + "-";
+        Path repertoire = chemin.getParent();
+        if (repertoire == null || !Files.isDirectory(repertoire)) {
+            return supprimes;
+        }
+
+        try (DirectoryStream<Path> derivees = Files.newDirectoryStream(repertoire, prefixeDerivees + "*")) {
+            for (Path derivee : derivees) {
+                if (supprimerFichier(derivee)) {
+                    supprimes++;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Impossible de lister les dérivées de " + chemin + " : " + e.getMessage());
+        }
+        return supprimes;
+    }
+
+    /**
+     * Supprimer un fichier isolé (fichiers stockés avant l'adressage par contenu)
+     */
+    public boolean supprimerFichier(Path fichier) {
+        try {
+            return Files.deleteIfExists(fichier);
+        } catch (IOException e) {
+            System.err.println("Impossible de supprimer le fichier " + fichier + " : " + e.getMessage());
+            return false;
+        }
+    }
+
+    public Path obtenirRacine() {
+        return Paths.get(repertoireImages).toAbsolutePath().normalize();
+    }
+
+    private MessageDigest creerDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHME_EMPREINTE);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ALGORITHME_EMPREINTE + " indisponible", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+-- ===================================================================
+-- Dimensions des images, lues dans l'en-tête du fichier à l'upload
+-- NULL pour les images antérieures ou dont le format n'est pas décodable
+-- ===================================================================
+
+ALTER TABLE image ADD COLUMN IF NOT EXISTS largeur INTEGER;
+ALTER TABLE image ADD COLUMN IF NOT EXISTS hauteur INTEGER;
+
+ALTER TABLE image
+    ADD CONSTRAINT chk_image_dimensions_positives
+    CHECK ((largeur IS NULL OR largeur > 0) AND (hauteur IS NULL OR hauteur > 0));
+
+COMMENT ON COLUMN image.largeur IS 'Largeur en pixels';
+COMMENT ON COLUMN image.hauteur IS 'Hauteur en pixels';
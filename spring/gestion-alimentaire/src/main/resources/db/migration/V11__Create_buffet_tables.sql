@@ -0,0 +1,81 @@
+-- ===================================================================
+-- Script de création des tables BUFFET et BUFFET_FOOD
+-- Buffets d'événements et aliments servis avec leurs quantités
+-- ===================================================================
+
+CREATE TABLE IF NOT EXISTS buffet (
+    id BIGSERIAL PRIMARY KEY,
+    nom_evenement VARCHAR(150) NOT NULL,
+    date_evenement TIMESTAMP NOT NULL,
+    nombre_invites INTEGER NOT NULL,
+    type_evenement VARCHAR(20) NOT NULL,
+    budget DECIMAL(12,2),
+    statut VARCHAR(20) NOT NULL DEFAULT 'PLANIFIE',
+    organisateur_id BIGINT NOT NULL,
+    nombre_invites_reel INTEGER,
+    commentaires VARCHAR(1000),
+    date_creation TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    date_modification TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_buffet_organisateur
+        FOREIGN KEY (organisateur_id)
+        REFERENCES personne(id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT chk_buffet_invites_positif
+        CHECK (nombre_invites > 0),
+
+    CONSTRAINT chk_buffet_budget_positif
+        CHECK (budget IS NULL OR budget > 0),
+
+    CONSTRAINT chk_buffet_type
+        CHECK (type_evenement IN ('MARIAGE', 'ANNIVERSAIRE', 'ENTREPRISE', 'COCKTAIL')),
+
+    CONSTRAINT chk_buffet_statut
+        CHECK (statut IN ('PLANIFIE', 'REALISE'))
+);
+
+CREATE TABLE IF NOT EXISTS buffet_food (
+    id BIGSERIAL PRIMARY KEY,
+    buffet_id BIGINT NOT NULL,
+    food_id BIGINT NOT NULL,
+    quantite_personnes INTEGER NOT NULL,
+    priorite INTEGER NOT NULL DEFAULT 2,
+
+    CONSTRAINT uk_buffet_food UNIQUE (buffet_id, food_id),
+
+    CONSTRAINT fk_buffet_food_buffet
+        FOREIGN KEY (buffet_id)
+        REFERENCES buffet(id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT fk_buffet_food_food
+        FOREIGN KEY (food_id)
+        REFERENCES food(id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT chk_buffet_food_quantite_positive
+        CHECK (quantite_personnes > 0),
+
+    CONSTRAINT chk_buffet_food_priorite
+        CHECK (priorite BETWEEN 1 AND 3)
+);
+
+-- Index pour l'historique d'un organisateur
+CREATE INDEX IF NOT EXISTS idx_buffet_organisateur_date
+    ON buffet(organisateur_id, date_evenement DESC);
+
+-- Index pour retrouver les buffets servant un aliment
+CREATE INDEX IF NOT EXISTS idx_buffet_food_food_id ON buffet_food(food_id);
+
+-- Candidats de l'optimiseur : aliments les moins chers d'une catégorie
+CREATE INDEX IF NOT EXISTS idx_food_categorie_prix
+    ON food(categorie, prix)
+    WHERE prix IS NOT NULL;
+
+COMMENT ON TABLE buffet IS 'Buffets organisés pour des événements';
+COMMENT ON COLUMN buffet.type_evenement IS 'Type d''événement (mariage, anniversaire, entreprise, cocktail)';
+COMMENT ON COLUMN buffet.statut IS 'Statut du buffet (planifié, réalisé)';
+COMMENT ON TABLE buffet_food IS 'Aliments servis dans un buffet';
+COMMENT ON COLUMN buffet_food.quantite_personnes IS 'Nombre de portions prévues pour cet aliment';
+COMMENT ON COLUMN buffet_food.priorite IS 'Priorité de l''aliment (1 = haute, 3 = basse)';
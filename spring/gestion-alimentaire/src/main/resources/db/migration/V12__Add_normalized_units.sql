@@ -0,0 +1,37 @@
+-- ===================================================================
+-- Quantités normalisées à l'écriture
+-- L'unité saisie (texte libre) est conservée ; la quantité est aussi
+-- stockée dans son unité de base (g, ml, pièce) pour les agrégations
+-- ===================================================================
+
+ALTER TABLE food_ingredient
+    ADD COLUMN IF NOT EXISTS unite_base VARCHAR(12),
+    ADD COLUMN IF NOT EXISTS quantite_base DOUBLE PRECISION;
+
+ALTER TABLE ingredient
+    ADD COLUMN IF NOT EXISTS unite_base VARCHAR(12),
+    ADD COLUMN IF NOT EXISTS quantite_base DOUBLE PRECISION,
+    ADD COLUMN IF NOT EXISTS densite DOUBLE PRECISION;
+
+ALTER TABLE food_ingredient
+    ADD CONSTRAINT chk_food_ingredient_unite_base
+    CHECK (unite_base IS NULL OR unite_base IN ('GRAMME', 'MILLILITRE', 'PIECE', 'AUTRE'));
+
+ALTER TABLE ingredient
+    ADD CONSTRAINT chk_ingredient_unite_base
+    CHECK (unite_base IS NULL OR unite_base IN ('GRAMME', 'MILLILITRE', 'PIECE', 'AUTRE'));
+
+ALTER TABLE ingredient
+    ADD CONSTRAINT chk_ingredient_densite_positive
+    CHECK (densite IS NULL OR densite > 0);
+
+-- Lignes existantes : normalisées au démarrage par l'application (unite_base IS NULL)
+CREATE INDEX IF NOT EXISTS idx_food_ingredient_a_normaliser
+    ON food_ingredient(unite)
+    WHERE unite_base IS NULL;
+
+COMMENT ON COLUMN food_ingredient.unite_base IS 'Unité de base de la quantité normalisée (GRAMME, MILLILITRE, PIECE, AUTRE)';
+COMMENT ON COLUMN food_ingredient.quantite_base IS 'Quantité utilisée exprimée dans l''unité de base';
+COMMENT ON COLUMN ingredient.unite_base IS 'Unité de base de la quantité normalisée';
+COMMENT ON COLUMN ingredient.quantite_base IS 'Quantité de base exprimée dans l''unité de base';
+COMMENT ON COLUMN ingredient.densite IS 'Densité en g/ml pour convertir volume et masse (null si inconnue)';
@@ -0,0 +1,18 @@
+-- ===================================================================
+-- Agrégats de recette stockés avec l'aliment
+-- Recalculés par l'application à chaque ajout / suppression d'ingrédient
+-- (et changement de densité) : les lectures n'ont plus à parcourir
+-- food_ingredient
+-- ===================================================================
+
+ALTER TABLE food
+    ADD COLUMN IF NOT EXISTS calories_totales DOUBLE PRECISION,
+    ADD COLUMN IF NOT EXISTS masse_totale_g DOUBLE PRECISION,
+    ADD COLUMN IF NOT EXISTS nombre_ingredients INTEGER;
+
+-- Lignes existantes : calculées au démarrage par l'application (calories_totales IS NULL),
+-- une fois les quantités normalisées (V12)
+
+COMMENT ON COLUMN food.calories_totales IS 'Calories de la recette : calories pour 100g rapportées à la masse des ingrédients';
+COMMENT ON COLUMN food.masse_totale_g IS 'Masse des ingrédients en grammes (volumes convertis par densité)';
+COMMENT ON COLUMN food.nombre_ingredients IS 'Nombre d''ingrédients de la recette';
@@ -0,0 +1,39 @@
+-- ===================================================================
+-- Script de création de la table MENU_PLANIFICATION
+-- Plans de repas : une ligne par personne, jour, type de repas et aliment
+-- ===================================================================
+
+CREATE TABLE IF NOT EXISTS menu_planification (
+    id BIGSERIAL PRIMARY KEY,
+    personne_id BIGINT NOT NULL,
+    date_repas DATE NOT NULL,
+    type_repas VARCHAR(20) NOT NULL,
+    food_id BIGINT NOT NULL,
+    date_creation TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    -- Sert aussi d'index de lecture : toutes les requêtes portent sur (personne_id, date_repas)
+    CONSTRAINT uk_menu_planification UNIQUE (personne_id, date_repas, type_repas, food_id),
+
+    CONSTRAINT fk_menu_planification_personne
+        FOREIGN KEY (personne_id)
+        REFERENCES personne(id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT fk_menu_planification_food
+        FOREIGN KEY (food_id)
+        REFERENCES food(id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT chk_menu_planification_type_repas
+        CHECK (type_repas IN ('PETIT_DEJEUNER', 'DEJEUNER', 'DINER', 'COLLATION'))
+);
+
+-- Lignes d'une même personne rangées par date : un plan de période se lit
+-- en quelques pages contiguës (ordre à reprendre par CLUSTER après de gros volumes)
+CLUSTER menu_planification USING uk_menu_planification;
+
+-- Suppression en cascade d'un aliment
+CREATE INDEX IF NOT EXISTS idx_menu_planification_food_id ON menu_planification(food_id);
+
+COMMENT ON TABLE menu_planification IS 'Plans de repas des personnes';
+COMMENT ON COLUMN menu_planification.type_repas IS 'Type de repas (petit-déjeuner, déjeuner, dîner, collation)';
@@ -0,0 +1,65 @@
+-- ===================================================================
+-- Agrégats caloriques des plans de repas
+-- Par personne et par jour, semaine ISO (lundi) et mois (1er du mois),
+-- mis à jour à chaque ajout / retrait d'aliment dans un plan
+-- ===================================================================
+
+-- Calories de l'aliment au moment de la planification : le retrait soustrait
+-- exactement ce qui a été ajouté, même si la recette a changé entre-temps
+ALTER TABLE menu_planification
+    ADD COLUMN IF NOT EXISTS calories DOUBLE PRECISION NOT NULL DEFAULT 0;
+
+UPDATE menu_planification mp
+SET calories = COALESCE(f.calories_totales, f.calories, 0)
+FROM food f
+WHERE f.id = mp.food_id;
+
+CREATE TABLE IF NOT EXISTS plan_repas_agregat (
+    id BIGSERIAL PRIMARY KEY,
+    personne_id BIGINT NOT NULL,
+    granularite VARCHAR(10) NOT NULL,
+    debut DATE NOT NULL,
+    calories DOUBLE PRECISION NOT NULL DEFAULT 0,
+    nombre_aliments INTEGER NOT NULL DEFAULT 0,
+    nombre_legumes INTEGER NOT NULL DEFAULT 0,
+    nombre_fruits INTEGER NOT NULL DEFAULT 0,
+    nombre_viandes INTEGER NOT NULL DEFAULT 0,
+    nombre_cereales INTEGER NOT NULL DEFAULT 0,
+    nombre_desserts INTEGER NOT NULL DEFAULT 0,
+
+    -- Lecture d'une période : parcours de l'index sur (personne, granularité, début)
+    CONSTRAINT uk_plan_repas_agregat UNIQUE (personne_id, granularite, debut),
+
+    CONSTRAINT fk_plan_repas_agregat_personne
+        FOREIGN KEY (personne_id)
+        REFERENCES personne(id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT chk_plan_repas_agregat_granularite
+        CHECK (granularite IN ('JOUR', 'SEMAINE', 'MOIS'))
+);
+
+-- Agrégats des plans existants
+INSERT INTO plan_repas_agregat (personne_id, granularite, debut, calories, nombre_aliments,
+                                nombre_legumes, nombre_fruits, nombre_viandes, nombre_cereales, nombre_desserts)
+SELECT mp.personne_id, g.granularite,
+       CASE g.granularite
+           WHEN 'JOUR' THEN mp.date_repas
+           WHEN 'SEMAINE' THEN date_trunc('week', mp.date_repas)::date
+           ELSE date_trunc('month', mp.date_repas)::date
+       END as debut,
+       SUM(mp.calories), COUNT(*),
+       COUNT(*) FILTER (WHERE f.categorie = 'LEGUMES'),
+       COUNT(*) FILTER (WHERE f.categorie = 'FRUITS'),
+       COUNT(*) FILTER (WHERE f.categorie = 'VIANDES'),
+       COUNT(*) FILTER (WHERE f.categorie = 'CEREALES'),
+       COUNT(*) FILTER (WHERE f.categorie = 'DESSERTS')
+FROM menu_planification mp
+JOIN food f ON f.id = mp.food_id
+CROSS JOIN (VALUES ('JOUR'), ('SEMAINE'), ('MOIS')) as g(granularite)
+GROUP BY mp.personne_id, g.granularite, debut
+ON CONFLICT (personne_id, granularite, debut) DO NOTHING;
+
+COMMENT ON TABLE plan_repas_agregat IS 'Calories et répartition par catégorie des plans de repas, par jour, semaine et mois';
+COMMENT ON COLUMN plan_repas_agregat.debut IS 'Premier jour de la période (jour, lundi de la semaine ISO, 1er du mois)';
+COMMENT ON COLUMN menu_planification.calories IS 'Calories de l''aliment au moment de la planification';
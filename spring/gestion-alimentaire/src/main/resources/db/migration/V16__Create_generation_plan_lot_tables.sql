@@ -0,0 +1,57 @@
+-- ===================================================================
+-- Génération de plans de repas en lot (cantines, établissements)
+-- Un lot = une cohorte de personnes, une période ; une ligne par personne
+-- permet de reprendre un lot interrompu là où il s'est arrêté
+-- ===================================================================
+
+CREATE TABLE IF NOT EXISTS generation_plan_lot (
+    id BIGSERIAL PRIMARY KEY,
+    date_debut DATE NOT NULL,
+    nombre_jours INTEGER NOT NULL,
+    statut VARCHAR(10) NOT NULL DEFAULT 'EN_COURS',
+    nombre_personnes INTEGER NOT NULL DEFAULT 0,
+    nombre_generees INTEGER NOT NULL DEFAULT 0,
+    nombre_echecs INTEGER NOT NULL DEFAULT 0,
+    date_creation TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    date_fin TIMESTAMP,
+
+    CONSTRAINT chk_generation_plan_lot_statut
+        CHECK (statut IN ('EN_ATTENTE', 'EN_COURS', 'TERMINE', 'ECHEC')),
+
+    CONSTRAINT chk_generation_plan_lot_nombre_jours
+        CHECK (nombre_jours > 0)
+);
+
+CREATE TABLE IF NOT EXISTS generation_plan_lot_personne (
+    lot_id BIGINT NOT NULL,
+    personne_id BIGINT NOT NULL,
+    statut VARCHAR(10) NOT NULL DEFAULT 'EN_ATTENTE',
+    message VARCHAR(255),
+
+    PRIMARY KEY (lot_id, personne_id),
+
+    CONSTRAINT fk_generation_plan_lot_personne_lot
+        FOREIGN KEY (lot_id)
+        REFERENCES generation_plan_lot(id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT fk_generation_plan_lot_personne_personne
+        FOREIGN KEY (personne_id)
+        REFERENCES personne(id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT chk_generation_plan_lot_personne_statut
+        CHECK (statut IN ('EN_ATTENTE', 'TERMINE', 'ECHEC'))
+);
+
+-- Reprise : seules les personnes restant à traiter sont relues
+CREATE INDEX IF NOT EXISTS idx_generation_plan_lot_personne_attente
+    ON generation_plan_lot_personne(lot_id, personne_id)
+    WHERE statut = 'EN_ATTENTE';
+
+-- Suppression en cascade d'une personne
+CREATE INDEX IF NOT EXISTS idx_generation_plan_lot_personne_personne_id
+    ON generation_plan_lot_personne(personne_id);
+
+COMMENT ON TABLE generation_plan_lot IS 'Lots de génération de plans de repas pour une cohorte de personnes';
+COMMENT ON TABLE generation_plan_lot_personne IS 'Avancement de chaque personne d''un lot de génération';
@@ -0,0 +1,21 @@
+-- ===================================================================
+-- Historique des conversations du chatbot
+-- Une ligne par échange (message de l'utilisateur et réponse) ; les échanges
+-- récents sont servis depuis la mémoire, la table est écrite par lots en différé
+-- ===================================================================
+
+CREATE TABLE IF NOT EXISTS chatbot_message (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    message TEXT NOT NULL,
+    reponse TEXT,
+    intention VARCHAR(30) NOT NULL,
+    date_message TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Derniers échanges d'un utilisateur (historique, du plus récent au plus ancien)
+CREATE INDEX IF NOT EXISTS idx_chatbot_message_user_date
+    ON chatbot_message(user_id, date_message DESC, id DESC);
+
+COMMENT ON TABLE chatbot_message IS 'Échanges entre les utilisateurs et le chatbot';
+COMMENT ON COLUMN chatbot_message.user_id IS 'Identifiant transmis par le client (pas de clé étrangère : utilisateurs anonymes acceptés)';
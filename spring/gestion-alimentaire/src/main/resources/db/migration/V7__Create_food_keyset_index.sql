@@ -0,0 +1,8 @@
+-- ===================================================================
+-- Script d'index pour la pagination par curseur des aliments
+-- Couvre l'ordre (date_creation DESC, id DESC) utilisé par /foods/page et /foods/flux
+-- ===================================================================
+
+-- Index composé pour la pagination keyset
+CREATE INDEX IF NOT EXISTS idx_food_date_creation_id
+    ON food(date_creation DESC, id DESC);
@@ -0,0 +1,33 @@
+-- ===================================================================
+-- Images dérivées (miniature, version web) générées en arrière-plan
+-- Chaque dérivée référence son image originale
+-- ===================================================================
+
+ALTER TABLE image ADD COLUMN IF NOT EXISTS image_source_id BIGINT;
+ALTER TABLE image ADD COLUMN IF NOT EXISTS variante VARCHAR(20) NOT NULL DEFAULT 'ORIGINALE';
+
+-- Les dérivées disparaissent avec leur originale
+ALTER TABLE image
+    ADD CONSTRAINT fk_image_source
+    FOREIGN KEY (image_source_id)
+    REFERENCES image(id)
+    ON DELETE CASCADE;
+
+ALTER TABLE image
+    ADD CONSTRAINT chk_image_variante
+    CHECK (
+        (variante = 'ORIGINALE' AND image_source_id IS NULL) OR
+        (variante IN ('WEB', 'MINIATURE') AND image_source_id IS NOT NULL)
+    );
+
+-- Index pour retrouver les dérivées d'une image
+CREATE INDEX IF NOT EXISTS idx_image_source_id ON image(image_source_id);
+
+-- L'unicité de l'image principale ne porte que sur les originales
+DROP INDEX IF EXISTS idx_image_principale_food;
+CREATE UNIQUE INDEX IF NOT EXISTS idx_image_principale_food
+    ON image(food_id)
+    WHERE type_image = 'PRINCIPALE' AND food_id IS NOT NULL AND variante = 'ORIGINALE';
+
+COMMENT ON COLUMN image.image_source_id IS 'Image originale dont celle-ci est dérivée (NULL pour une originale)';
+COMMENT ON COLUMN image.variante IS 'Variante du fichier (originale, web, miniature)';
@@ -0,0 +1,39 @@
+-- ===================================================================
+-- Stockage des fichiers images adressé par contenu
+-- Un fichier par contenu distinct (empreinte SHA-256), partagé par toutes
+-- les images qui le référencent ; libéré quand son compteur tombe à zéro
+-- ===================================================================
+
+CREATE TABLE IF NOT EXISTS fichier_image (
+    empreinte VARCHAR(64) PRIMARY KEY,
+    chemin_fichier VARCHAR(500) NOT NULL,
+    taille_fichier BIGINT NOT NULL,
+    nombre_references INTEGER NOT NULL DEFAULT 0,
+    date_creation TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    date_liberation TIMESTAMP,
+
+    CONSTRAINT chk_fichier_image_references
+        CHECK (nombre_references >= 0)
+);
+
+-- Les originales et leurs dérivées portent l'empreinte du fichier source
+-- (NULL pour les images stockées avant l'adressage par contenu)
+ALTER TABLE image ADD COLUMN IF NOT EXISTS empreinte VARCHAR(64);
+
+ALTER TABLE image
+    ADD CONSTRAINT fk_image_empreinte
+    FOREIGN KEY (empreinte)
+    REFERENCES fichier_image(empreinte);
+
+CREATE INDEX IF NOT EXISTS idx_image_empreinte ON image(empreinte);
+
+-- File du balayage : seuls les fichiers libérés sont indexés
+CREATE INDEX IF NOT EXISTS idx_fichier_image_liberes
+    ON fichier_image(date_liberation)
+    WHERE nombre_references = 0;
+
+COMMENT ON TABLE fichier_image IS 'Fichiers images stockés une seule fois par contenu';
+COMMENT ON COLUMN fichier_image.empreinte IS 'Empreinte SHA-256 (hexadécimal) du contenu';
+COMMENT ON COLUMN fichier_image.nombre_references IS 'Nombre d''images originales utilisant ce fichier';
+COMMENT ON COLUMN fichier_image.date_liberation IS 'Date à laquelle le compteur est tombé à zéro';
+COMMENT ON COLUMN image.empreinte IS 'Empreinte du fichier partagé (NULL pour les anciens fichiers)';
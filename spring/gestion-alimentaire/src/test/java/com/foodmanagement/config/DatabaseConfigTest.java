@@ -0,0 +1,42 @@
+package com.foodmanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Tests de la construction des pools de connexions
+ */
+class DatabaseConfigTest {
+
+    @Test
+    void metriquesDuPoolPublieesDansLeRegistre() {
+        DatabaseConfig config = new DatabaseConfig();
+        ReflectionTestUtils.setField(config, "databaseUrl", "jdbc:postgresql://localhost:1/inexistante");
+        ReflectionTestUtils.setField(config, "databaseUsername", "test");
+        ReflectionTestUtils.setField(config, "databasePassword", "test");
+        ReflectionTestUtils.setField(config, "driverClassName", "org.postgresql.Driver");
+        ReflectionTestUtils.setField(config, "delaiAcquisitionMs", 250L);
+        ReflectionTestUtils.setField(config, "seuilDetectionFuiteMs", 20000L);
+        ReflectionTestUtils.setField(config, "requetesPrepareesEnCache", 256);
+        // Pas de base dans les tests : le pool démarre sans première connexion
+        ReflectionTestUtils.setField(config, "delaiEchecInitialisationMs", -1L);
+        MeterRegistry registre = new SimpleMeterRegistry();
+        StaticListableBeanFactory fabrique = new StaticListableBeanFactory(Map.of("registre", registre));
+
+        try (HikariDataSource dataSource = (HikariDataSource) config.dataSourceDev(
+                fabrique.getBeanProvider(MeterRegistry.class))) {
+
+            assertNotNull(registre.find("hikaricp.connections").tag("pool", "FoodManagement-Dev-Pool").gauge());
+            assertNotNull(registre.find("hikaricp.connections.active").gauge());
+            assertNotNull(registre.find("hikaricp.connections.acquire").timer());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.foodmanagement.dao;
+
+import com.foodmanagement.entity.Food;
+import com.foodmanagement.entity.FoodIngredient;
+import com.foodmanagement.entity.Ingredient;
+import com.foodmanagement.util.ConvertisseurUnites;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests de l'insertion par lot des associations aliment-ingrédient
+ */
+class FoodIngredientDaoImplTest {
+
+    @Test
+    void quantiteAbsenteInsereeCommeNull() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenReturn(new int[] {1, 1});
+        FoodIngredientDaoImpl dao = new FoodIngredientDaoImpl();
+        ReflectionTestUtils.setField(dao, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(dao, "convertisseurUnites", new ConvertisseurUnites());
+
+        List<FoodIngredient> liaisons = List.of(
+            new FoodIngredient(aliment(1L), ingredient(10L), null, "g"),
+            new FoodIngredient(aliment(1L), ingredient(11L), 2.0, "kg"));
+
+        assertEquals(2, dao.createAll(liaisons));
+
+        ArgumentCaptor<BatchPreparedStatementSetter> lot = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), lot.capture());
+        PreparedStatement sansQuantite = mock(PreparedStatement.class);
+        lot.getValue().setValues(sansQuantite, 0);
+        verify(sansQuantite).setObject(3, null, Types.DOUBLE);
+        verify(sansQuantite).setObject(6, null, Types.DOUBLE);
+
+        PreparedStatement avecQuantite = mock(PreparedStatement.class);
+        lot.getValue().setValues(avecQuantite, 1);
+        verify(avecQuantite).setObject(3, 2.0, Types.DOUBLE);
+        verify(avecQuantite).setObject(6, liaisons.get(1).getQuantiteBase(), Types.DOUBLE);
+    }
+
+    // ================ MÉTHODES UTILITAIRES ================
+
+    private static Food aliment(Long id) {
+        Food food = new Food();
+        food.setId(id);
+        return food;
+    }
+
+    private static Ingredient ingredient(Long id) {
+        Ingredient ingredient = new Ingredient();
+        ingredient.setId(id);
+        return ingredient;
+    }
+}
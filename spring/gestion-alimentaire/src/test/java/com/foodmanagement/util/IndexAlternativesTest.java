@@ -0,0 +1,147 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.entity.Food;
+import com.foodmanagement.enums.CategorieFood;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests de l'index des aliments de remplacement
+ */
+class IndexAlternativesTest {
+
+    private static final int NOMBRE_ALIMENTS = 600;
+    private static final long INGREDIENT_ALLERGENE = 3L;
+
+    private IndexAlternatives index;
+    private Map<Long, Food> catalogue;
+    private Map<Long, Set<Long>> ingredientsParFood;
+
+    @BeforeEach
+    void preparer() {
+        Random aleatoire = new Random(18L);
+        catalogue = new HashMap<>();
+        ingredientsParFood = new HashMap<>();
+        CategorieFood[] categories = CategorieFood.values();
+        for (long id = 1; id <= NOMBRE_ALIMENTS; id++) {
+            // Un aliment sur dix sans prix
+            Double prix = id % 10 == 0 ? null : 1.0 + aleatoire.nextDouble() * 20.0;
+            Food food = aliment(id, categories[aleatoire.nextInt(categories.length)],
+                50.0 + aleatoire.nextDouble() * 900.0, prix);
+            catalogue.put(id, food);
+            long premier = aleatoire.nextInt(12);
+            ingredientsParFood.put(id, Set.of(premier, (premier + 1 + aleatoire.nextInt(11)) % 12));
+        }
+        index = new IndexAlternatives();
+        index.remplacerTout(catalogue.values(), ingredientsParFood);
+    }
+
+    @Test
+    void referenceNonIndexeeSansResultat() {
+        assertTrue(index.plusProches(NOMBRE_ALIMENTS + 1L, null, null, null, null, 5).isEmpty());
+    }
+
+    @Test
+    void parcoursBorneIdentiqueAuClassementComplet() {
+        for (long reference = 1; reference <= 50; reference++) {
+            List<Food> complet = index.plusProches(reference, null, null, null, null, NOMBRE_ALIMENTS);
+
+            assertEquals(NOMBRE_ALIMENTS - 1, complet.size());
+            assertFalse(complet.contains(catalogue.get(reference)));
+            assertEquals(complet.subList(0, 8), index.plusProches(reference, null, null, null, null, 8));
+        }
+    }
+
+    @Test
+    void filtresAppliquesPendantLeParcours() {
+        for (long reference = 1; reference <= 50; reference++) {
+            Food food = catalogue.get(reference);
+            Set<CategorieFood> categories = EnumSet.of(food.getCategorie(), CategorieFood.DESSERTS);
+            double prixMax = 8.0;
+            List<Food> complet = index.plusProches(reference, null, null, null, null, NOMBRE_ALIMENTS);
+
+            List<Food> attendus = complet.stream()
+                .filter(candidat -> categories.contains(candidat.getCategorie()))
+                .filter(candidat -> candidat.getPrix() != null && candidat.getPrix() <= prixMax)
+                .filter(candidat -> !ingredientsParFood.get(candidat.getId()).contains(INGREDIENT_ALLERGENE))
+                .limit(6)
+                .collect(Collectors.toList());
+
+            assertEquals(attendus, index.plusProches(reference, categories, prixMax, null,
+                List.of(INGREDIENT_ALLERGENE), 6), "référence " + reference);
+        }
+    }
+
+    @Test
+    void alimentsSansPrixGardesSansPlafondDePrix() {
+        List<Food> complet = index.plusProches(1L, null, null, null, null, NOMBRE_ALIMENTS);
+
+        assertTrue(complet.stream().anyMatch(candidat -> candidat.getPrix() == null));
+        assertTrue(index.plusProches(1L, null, 1000.0, null, null, NOMBRE_ALIMENTS).stream()
+            .allMatch(candidat -> candidat.getPrix() != null));
+    }
+
+    @Test
+    void plafondDeCaloriesAppliqueDansLeParcours() {
+        for (long reference = 1; reference <= 50; reference++) {
+            double caloriesMax = catalogue.get(reference).getCalories();
+            List<Food> complet = index.plusProches(reference, null, null, null, null, NOMBRE_ALIMENTS);
+
+            List<Food> attendus = complet.stream()
+                .filter(candidat -> candidat.getCalories() < caloriesMax)
+                .limit(5)
+                .collect(Collectors.toList());
+
+            assertEquals(attendus, index.plusProches(reference, null, null, caloriesMax, null, 5),
+                "référence " + reference);
+        }
+    }
+
+    @Test
+    void plusLegerQuandLesPlusProchesSontPlusCaloriques() {
+        List<Food> aliments = new ArrayList<>();
+        aliments.add(aliment(1L, CategorieFood.VIANDES, 500.0, 10.0));
+        for (long id = 2; id <= 6; id++) {
+            aliments.add(aliment(id, CategorieFood.VIANDES, 500.0 + id, 10.0));
+        }
+        for (long id = 7; id <= 10; id++) {
+            aliments.add(aliment(id, CategorieFood.VIANDES, 100.0 + id, 10.0));
+        }
+        IndexAlternatives petitIndex = new IndexAlternatives();
+        petitIndex.remplacerTout(aliments, Map.of());
+
+        List<Food> alternatives = petitIndex.plusProches(1L, null, null, 500.0, null, 3);
+
+        assertEquals(3, alternatives.size());
+        assertTrue(alternatives.stream().allMatch(candidat -> candidat.getCalories() < 500.0));
+        // Plafond exclusif : un aliment exactement au plafond n'est pas plus léger
+        petitIndex.indexer(aliment(11L, CategorieFood.VIANDES, 500.0, 10.0), Set.of());
+        assertTrue(petitIndex.plusProches(1L, null, null, 500.0, null, 10).stream()
+            .noneMatch(candidat -> candidat.getId() == 11L));
+    }
+
+    // ================ MÉTHODES UTILITAIRES ================
+
+    private static Food aliment(Long id, CategorieFood categorie, double calories, Double prix) {
+        Food food = new Food();
+        food.setId(id);
+        food.setNom("Aliment " + id);
+        food.setCategorie(categorie);
+        food.setCalories(calories);
+        food.setPrix(prix);
+        return food;
+    }
+}
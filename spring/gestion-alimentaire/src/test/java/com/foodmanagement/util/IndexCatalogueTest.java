@@ -0,0 +1,104 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.dao.FoodDao;
+import com.foodmanagement.dao.FoodIngredientDao;
+import com.foodmanagement.dao.IngredientDao;
+import com.foodmanagement.entity.Food;
+import com.foodmanagement.enums.CategorieFood;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests des mises à jour de l'index du catalogue
+ */
+class IndexCatalogueTest {
+
+    private FoodDao foodDao;
+    private FoodIngredientDao foodIngredientDao;
+    private IndexCatalogue index;
+
+    @BeforeEach
+    void preparer() {
+        foodDao = mock(FoodDao.class);
+        foodIngredientDao = mock(FoodIngredientDao.class);
+        IngredientDao ingredientDao = mock(IngredientDao.class);
+        when(ingredientDao.findPageApres(any(), anyInt())).thenReturn(List.of());
+        when(foodIngredientDao.findIngredientIdsParFood())
+            .thenReturn(Map.of(1L, Set.of(1L), 2L, Set.of(1L, 2L), 3L, Set.of(2L)));
+
+        index = new IndexCatalogue();
+        ReflectionTestUtils.setField(index, "foodDao", foodDao);
+        ReflectionTestUtils.setField(index, "ingredientDao", ingredientDao);
+        ReflectionTestUtils.setField(index, "foodIngredientDao", foodIngredientDao);
+        ReflectionTestUtils.setField(index, "cataloguePlanification", new CataloguePlanification());
+    }
+
+    @Test
+    void recettesReindexeesQuandUnIngredientChange() {
+        when(foodDao.findTousParPages(anyInt())).thenReturn(catalogue(400.0));
+        index.reconstruire();
+        assertEquals(List.of(2L, 3L), idsPlusLegers());
+
+        // Densité de l'ingrédient 2 modifiée : l'aliment 2 passe à 600 kcal
+        when(foodDao.findByIngredientId(2L)).thenReturn(List.of(aliment(2L, 600.0), aliment(3L, 300.0)));
+        when(foodIngredientDao.findIngredientIdsParFoodUtilisant(2L)).thenReturn(Map.of(2L, Set.of(1L, 2L), 3L, Set.of(2L)));
+        index.indexerRecettesAvecIngredient(2L);
+
+        assertEquals(List.of(3L), idsPlusLegers());
+        assertEquals(600.0, index.rechercherRecettes(List.of(1L, 2L), 5).stream()
+            .filter(correspondance -> correspondance.getFood().getId() == 2L)
+            .findFirst().orElseThrow().getFood().getCalories());
+    }
+
+    @Test
+    void miseAJourPendantLaReconstructionRejouee() {
+        when(foodDao.findById(2L)).thenReturn(Optional.of(aliment(2L, 600.0)));
+        when(foodIngredientDao.findIngredientIdsByFoodId(2L)).thenReturn(Set.of(1L, 2L));
+        // La recette 2 est validée pendant la lecture : les lignes relues sont antérieures
+        when(foodDao.findTousParPages(anyInt())).thenAnswer(invocation -> {
+            List<Food> lus = catalogue(400.0);
+            index.indexerRecette(2L);
+            return lus;
+        });
+
+        index.reconstruire();
+
+        assertEquals(List.of(3L), idsPlusLegers());
+    }
+
+    // ================ MÉTHODES UTILITAIRES ================
+
+    private List<Long> idsPlusLegers() {
+        return index.rechercherAlternatives(1L, null, null, 500.0, null, 10).stream()
+            .map(Food::getId)
+            .sorted()
+            .collect(Collectors.toList());
+    }
+
+    private static List<Food> catalogue(double caloriesAliment2) {
+        return List.of(aliment(1L, 500.0), aliment(2L, caloriesAliment2), aliment(3L, 300.0));
+    }
+
+    private static Food aliment(Long id, double calories) {
+        Food food = new Food();
+        food.setId(id);
+        food.setNom("Aliment " + id);
+        food.setCategorie(CategorieFood.VIANDES);
+        food.setCalories(calories);
+        food.setPrix(5.0);
+        return food;
+    }
+}
@@ -0,0 +1,99 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.entity.Food;
+import com.foodmanagement.entity.Ingredient;
+import com.foodmanagement.enums.TypeEntite;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests de l'extraction d'entités des messages du chatbot
+ */
+class IndexEntitesTest {
+
+    private IndexEntites index;
+
+    @BeforeEach
+    void preparer() {
+        index = new IndexEntites();
+        index.remplacerTout(
+            List.of(aliment(1L, "Poulet"), aliment(2L, "Poulet DG"), aliment(3L, "Riz au lait")),
+            List.of(ingredient(10L, "Tomate"), ingredient(11L, "Oignon"), ingredient(12L, "Riz")));
+    }
+
+    @Test
+    void motAUneFauteCorrige() {
+        List<IndexEntites.Entite> ingredients = entites("que faire avec un oigon ?", TypeEntite.INGREDIENT);
+
+        assertEquals(1, ingredients.size());
+        assertEquals(11L, ingredients.get(0).getId());
+        assertEquals(1, ingredients.get(0).getCorrections());
+    }
+
+    @Test
+    void motLongADeuxFautesCorrige() {
+        List<IndexEntites.Entite> ingredients = entites("j'ai des tomattes", TypeEntite.INGREDIENT);
+
+        assertEquals(1, ingredients.size());
+        assertEquals("Tomate", ingredients.get(0).getNom());
+        assertEquals(2, ingredients.get(0).getCorrections());
+    }
+
+    @Test
+    void nombreEnLettresAvecEtUn() {
+        List<IndexEntites.Entite> quantites = entites("un buffet pour vingt et un invités", TypeEntite.QUANTITE);
+
+        assertEquals(1, quantites.size());
+        assertEquals(21.0, quantites.get(0).getValeur());
+        assertEquals("personnes", quantites.get(0).getUnite());
+    }
+
+    @Test
+    void decimaleAvecVirguleEtUnite() {
+        List<IndexEntites.Entite> quantites = entites("il me faut 1,5 kg de riz", TypeEntite.QUANTITE);
+
+        assertEquals(1, quantites.size());
+        assertEquals(1.5, quantites.get(0).getValeur());
+        assertEquals("kg", quantites.get(0).getUnite());
+    }
+
+    @Test
+    void nomEnPlusieursMotsPrefereASonPrefixe() {
+        List<IndexEntites.Entite> aliments = entites("combien de calories dans le poulet dg ?", TypeEntite.ALIMENT);
+
+        assertEquals(1, aliments.size());
+        assertEquals(2L, aliments.get(0).getId());
+        assertTrue(aliments.get(0).isComplete());
+
+        List<IndexEntites.Entite> seul = entites("combien de calories dans le poulet ?", TypeEntite.ALIMENT);
+        assertEquals(List.of(1L), seul.stream().map(IndexEntites.Entite::getId).collect(Collectors.toList()));
+    }
+
+    // ================ MÉTHODES UTILITAIRES ================
+
+    private List<IndexEntites.Entite> entites(String message, TypeEntite type) {
+        return index.extraire(message).stream()
+            .filter(entite -> entite.getType() == type)
+            .collect(Collectors.toList());
+    }
+
+    private static Food aliment(Long id, String nom) {
+        Food food = new Food();
+        food.setId(id);
+        food.setNom(nom);
+        return food;
+    }
+
+    private static Ingredient ingredient(Long id, String nom) {
+        Ingredient ingredient = new Ingredient();
+        ingredient.setId(id);
+        ingredient.setNom(nom);
+        return ingredient;
+    }
+}
@@ -0,0 +1,125 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.dao.ConversationChatbotDao;
+import com.foodmanagement.entity.MessageChatbot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests de la mémoire des conversations et de son écriture différée
+ */
+class MemoireConversationsTest {
+
+    private ConversationsEnMemoire dao;
+    private MemoireConversations memoire;
+
+    @BeforeEach
+    void preparer() {
+        dao = new ConversationsEnMemoire();
+        memoire = new MemoireConversations();
+        ReflectionTestUtils.setField(memoire, "conversationChatbotDao", dao);
+        ReflectionTestUtils.setField(memoire, "toursParUtilisateur", 20);
+        ReflectionTestUtils.setField(memoire, "inactiviteMinutes", 30);
+        ReflectionTestUtils.setField(memoire, "utilisateursMax", 100);
+        ReflectionTestUtils.setField(memoire, "delaiEcritureMs", 1000L);
+        ReflectionTestUtils.setField(memoire, "tailleLot", 500);
+        ReflectionTestUtils.setField(memoire, "fileMax", 1000);
+    }
+
+    @Test
+    void ligneRefuseeAbandonneeSansBloquerLesAutres() {
+        for (int i = 0; i < 9; i++) {
+            memoire.enregistrer(1L, "message " + i, "réponse", i == 4 ? "intention_bien_trop_longue_pour_la_colonne" : "recettes");
+        }
+
+        memoire.vider();
+
+        assertEquals(8, dao.lignes.size());
+        assertEquals(List.of("message 0", "message 1", "message 2", "message 3",
+                "message 5", "message 6", "message 7", "message 8"),
+            dao.lignes.stream().map(MessageChatbot::getMessage).collect(Collectors.toList()));
+        assertEquals(1L, memoire.obtenirEtat().get("echanges_abandonnes"));
+        assertEquals(0, memoire.obtenirEtat().get("echanges_en_attente"));
+    }
+
+    @Test
+    void lotRemisEnFileQuandLaBaseEstIndisponible() {
+        for (int i = 0; i < 5; i++) {
+            memoire.enregistrer(1L, "message " + i, "réponse", "recettes");
+        }
+        dao.indisponible = true;
+
+        assertThrows(CannotGetJdbcConnectionException.class, memoire::vider);
+        assertEquals(5, memoire.obtenirEtat().get("echanges_en_attente"));
+
+        dao.indisponible = false;
+        memoire.vider();
+        assertEquals(5, dao.lignes.size());
+        assertEquals("message 0", dao.lignes.get(0).getMessage());
+        assertEquals(0L, memoire.obtenirEtat().get("echanges_abandonnes"));
+    }
+
+    @Test
+    void sessionCreeeParUneEcritureServieDepuisLaMemoire() {
+        dao.lignes.add(new MessageChatbot(2L, "ancien", "réponse", "recettes"));
+
+        memoire.enregistrer(2L, "nouveau", "réponse", "recettes");
+        List<MessageChatbot> premiers = memoire.derniers(2L, 10);
+        List<MessageChatbot> seconds = memoire.derniers(2L, 10);
+
+        assertEquals(List.of("ancien", "nouveau"),
+            premiers.stream().map(MessageChatbot::getMessage).collect(Collectors.toList()));
+        assertEquals(premiers, seconds);
+        // Une seule lecture en base : celle qui a chargé la session avant l'écriture
+        assertEquals(1, dao.lectures);
+    }
+
+    /**
+     * Table chatbot_message simulée : intention limitée à 30 caractères comme en V17
+     */
+    private static class ConversationsEnMemoire implements ConversationChatbotDao {
+        final List<MessageChatbot> lignes = new ArrayList<>();
+        boolean indisponible;
+        int lectures;
+
+        @Override
+        public int enregistrerTous(List<MessageChatbot> messages) {
+            if (indisponible) {
+                throw new CannotGetJdbcConnectionException("Connexion refusée");
+            }
+            for (MessageChatbot message : messages) {
+                if (message.getIntention() != null && message.getIntention().length() > 30) {
+                    throw new DataIntegrityViolationException("valeur trop longue pour le type character varying(30)");
+                }
+            }
+            lignes.addAll(messages);
+            return messages.size();
+        }
+
+        @Override
+        public List<MessageChatbot> findDerniersByUserId(Long userId, int limite) {
+            lectures++;
+            List<MessageChatbot> messages = lignes.stream()
+                .filter(message -> message.getUserId().equals(userId))
+                .collect(Collectors.toList());
+            return new ArrayList<>(messages.subList(Math.max(0, messages.size() - limite), messages.size()));
+        }
+
+        @Override
+        public int deleteByUserId(Long userId) {
+            int avant = lignes.size();
+            lignes.removeIf(message -> message.getUserId().equals(userId));
+            return avant - lignes.size();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.entity.Food;
+import com.foodmanagement.enums.CategorieFood;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests de l'optimiseur de buffet sous contrainte de budget
+ */
+class OptimiseurBuffetTest {
+
+    private static final double EPSILON = 1e-6;
+
+    private OptimiseurBuffet optimiseur;
+    private long prochainId;
+
+    @BeforeEach
+    void preparer() {
+        optimiseur = new OptimiseurBuffet();
+        ReflectionTestUtils.setField(optimiseur, "delaiMs", 1000L);
+        prochainId = 1;
+    }
+
+    @Test
+    void irrealisableQuandLaCouvertureLaMoinsChereDepasseLeBudget() {
+        OptimiseurBuffet.Candidat bonMarche = candidat(CategorieFood.LEGUMES, 2.0, 1.0, 10);
+        OptimiseurBuffet.Candidat cher = candidat(CategorieFood.LEGUMES, 3.0, 5.0, 10);
+
+        OptimiseurBuffet.Resultat resultat = optimiseur.optimiser(List.of(bonMarche, cher),
+            demandes(CategorieFood.LEGUMES, 10), 8.0);
+
+        assertEquals(OptimiseurBuffet.STATUT_IRREALISABLE, resultat.getStatut());
+        assertFalse(resultat.isRealisable());
+        assertEquals(10.0, resultat.getCoutMinimal(), EPSILON);
+        // La couverture la moins chère est rendue pour indiquer le budget nécessaire
+        assertEquals(Map.of(bonMarche, 10), resultat.getPortions());
+    }
+
+    @Test
+    void optimalQuandLeRemplissageSansContrainteTientDansLeBudget() {
+        OptimiseurBuffet.Candidat prefere = candidat(CategorieFood.VIANDES, 4.0, 5.0, 6);
+        OptimiseurBuffet.Candidat secondaire = candidat(CategorieFood.VIANDES, 2.0, 1.0, 10);
+
+        OptimiseurBuffet.Resultat resultat = optimiseur.optimiser(List.of(prefere, secondaire),
+            demandes(CategorieFood.VIANDES, 10), 100.0);
+
+        assertEquals(OptimiseurBuffet.STATUT_OPTIMAL, resultat.getStatut());
+        assertEquals(Map.of(prefere, 6, secondaire, 4), resultat.getPortions());
+        assertEquals(34.0, resultat.getCout(), EPSILON);
+        assertEquals(32.0, resultat.getValeur(), EPSILON);
+        assertEquals(0.0, resultat.getEcartOptimalite(), EPSILON);
+    }
+
+    @Test
+    void budgetSerreAtteintLOptimumDeLaRechercheExhaustive() {
+        List<OptimiseurBuffet.Candidat> candidats = List.of(
+            candidat(CategorieFood.VIANDES, 5.0, 9.0, 4),
+            candidat(CategorieFood.VIANDES, 3.0, 6.0, 4),
+            candidat(CategorieFood.VIANDES, 1.0, 1.0, 4),
+            candidat(CategorieFood.LEGUMES, 4.0, 7.0, 3),
+            candidat(CategorieFood.LEGUMES, 2.0, 4.0, 3),
+            candidat(CategorieFood.LEGUMES, 1.0, 2.0, 3));
+        Map<CategorieFood, Integer> demandes = new EnumMap<>(CategorieFood.class);
+        demandes.put(CategorieFood.VIANDES, 6);
+        demandes.put(CategorieFood.LEGUMES, 5);
+        double budget = 30.0;
+
+        OptimiseurBuffet.Resultat resultat = optimiseur.optimiser(candidats, demandes, budget);
+        double optimum = rechercheExhaustive(candidats, demandes, budget);
+
+        assertTrue(resultat.isRealisable());
+        assertTrue(resultat.getCout() <= budget + EPSILON);
+        assertEquals(optimum, resultat.getValeur(), EPSILON);
+        assertTrue(resultat.getBorneSuperieure() >= optimum - EPSILON);
+    }
+
+    @Test
+    void chaqueCategorieRecoitExactementSesPortions() {
+        List<OptimiseurBuffet.Candidat> candidats = new ArrayList<>();
+        Map<CategorieFood, Integer> demandes = new EnumMap<>(CategorieFood.class);
+        int demande = 7;
+        for (CategorieFood categorie : CategorieFood.values()) {
+            candidats.add(candidat(categorie, 3.0, 4.0, 3));
+            candidats.add(candidat(categorie, 2.0, 2.5, 3));
+            candidats.add(candidat(categorie, 1.0, 1.0, 5));
+            demandes.put(categorie, demande++);
+        }
+
+        for (double budget : new double[] { 1000.0, 120.0, 90.0 }) {
+            OptimiseurBuffet.Resultat resultat = optimiseur.optimiser(candidats, demandes, budget);
+
+            assertTrue(resultat.isRealisable(), "budget " + budget);
+            assertEquals(demandes, OptimiseurBuffet.portionsParCategorie(resultat.getPortions()), "budget " + budget);
+            resultat.getPortions().forEach((candidat, portions) ->
+                assertTrue(portions <= candidat.getPlafond(), candidat.getFood().getNom()));
+        }
+    }
+
+    @Test
+    void candidatSansPrixRefuse() {
+        Food food = aliment(CategorieFood.DESSERTS, null);
+
+        assertThrows(IllegalArgumentException.class, () -> new OptimiseurBuffet.Candidat(food, 1.0, 5, null));
+    }
+
+    // ================ MÉTHODES UTILITAIRES ================
+
+    private OptimiseurBuffet.Candidat candidat(CategorieFood categorie, double valeur, double prix, int plafond) {
+        return new OptimiseurBuffet.Candidat(aliment(categorie, prix), valeur, plafond, 1);
+    }
+
+    private Food aliment(CategorieFood categorie, Double prix) {
+        Food food = new Food();
+        food.setId(prochainId);
+        food.setNom("Aliment " + prochainId++);
+        food.setCategorie(categorie);
+        food.setPrix(prix);
+        return food;
+    }
+
+    private static Map<CategorieFood, Integer> demandes(CategorieFood categorie, int portions) {
+        Map<CategorieFood, Integer> demandes = new EnumMap<>(CategorieFood.class);
+        demandes.put(categorie, portions);
+        return demandes;
+    }
+
+    /**
+     * Meilleure valeur parmi toutes les répartitions couvrant exactement les demandes dans le budget
+     */
+    private static double rechercheExhaustive(List<OptimiseurBuffet.Candidat> candidats,
+                                              Map<CategorieFood, Integer> demandes, double budget) {
+        return explorer(candidats, demandes, new EnumMap<>(CategorieFood.class), 0, 0.0, 0.0, budget);
+    }
+
+    private static double explorer(List<OptimiseurBuffet.Candidat> candidats, Map<CategorieFood, Integer> demandes,
+                                   Map<CategorieFood, Integer> servies, int rang, double cout, double valeur,
+                                   double budget) {
+        if (cout > budget + EPSILON) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        if (rang == candidats.size()) {
+            return servies.equals(demandes) ? valeur : Double.NEGATIVE_INFINITY;
+        }
+        OptimiseurBuffet.Candidat candidat = candidats.get(rang);
+        CategorieFood categorie = candidat.getFood().getCategorie();
+        int dejaServies = servies.getOrDefault(categorie, 0);
+        int maximum = Math.min(candidat.getPlafond(), demandes.getOrDefault(categorie, 0) - dejaServies);
+
+        double meilleure = Double.NEGATIVE_INFINITY;
+        for (int portions = 0; portions <= maximum; portions++) {
+            if (portions > 0) {
+                servies.put(categorie, dejaServies + portions);
+            }
+            meilleure = Math.max(meilleure, explorer(candidats, demandes, servies, rang + 1,
+                cout + portions * candidat.getFood().getPrix(), valeur + portions * candidat.getValeur(), budget));
+        }
+        if (dejaServies == 0) {
+            servies.remove(categorie);
+        } else {
+            servies.put(categorie, dejaServies);
+        }
+        return meilleure;
+    }
+}
@@ -0,0 +1,136 @@
+package com.foodmanagement.util;
+
+import com.foodmanagement.entity.Food;
+import com.foodmanagement.enums.CategorieFood;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests du générateur de plans de repas
+ */
+class PlanificateurRepasTest {
+
+    private static final int FENETRE = 3;
+    private static final LocalDate DEBUT = LocalDate.of(2026, 1, 5);
+
+    private PlanificateurRepas planificateur;
+    private long prochainId;
+
+    @BeforeEach
+    void preparer() {
+        planificateur = new PlanificateurRepas();
+        ReflectionTestUtils.setField(planificateur, "caloriesJour", 2000.0);
+        ReflectionTestUtils.setField(planificateur, "tolerance", 0.10);
+        ReflectionTestUtils.setField(planificateur, "fenetreSansRepetition", FENETRE);
+        prochainId = 1;
+    }
+
+    @Test
+    void aucunAlimentResserviDansLaFenetreQuandLeCatalogueSuffit() {
+        List<Food> aliments = new ArrayList<>();
+        for (CategorieFood categorie : CategorieFood.values()) {
+            aliments.addAll(aliments(categorie, 30, 80.0, 700.0));
+        }
+        PlanificateurRepas.Catalogue catalogue = planificateur.construireCatalogue(aliments);
+
+        PlanificateurRepas.Resultat resultat = planificateur.planifier(catalogue, DEBUT, 21, null, 42L);
+
+        assertEquals(0, resultat.getRelachements());
+        List<Set<Long>> jours = servisParJour(resultat);
+        assertEquals(21, jours.size());
+        for (int jour = 0; jour < jours.size(); jour++) {
+            for (int precedent = Math.max(0, jour - FENETRE + 1); precedent < jour; precedent++) {
+                Set<Long> communs = new HashSet<>(jours.get(jour));
+                communs.retainAll(jours.get(precedent));
+                assertTrue(communs.isEmpty(), "jour " + jour + " reprend " + communs + " du jour " + precedent);
+            }
+        }
+    }
+
+    @Test
+    void categorieTropPetiteCompteLesRelachements() {
+        // Deux viandes pour deux plats de viande par jour : chaque jour après le premier
+        // doit resservir les deux, et jamais deux fois la même le même jour
+        List<Food> aliments = new ArrayList<>(aliments(CategorieFood.VIANDES, 2, 300.0, 400.0));
+        for (CategorieFood categorie : CategorieFood.values()) {
+            if (categorie != CategorieFood.VIANDES) {
+                aliments.addAll(aliments(categorie, 30, 80.0, 700.0));
+            }
+        }
+        PlanificateurRepas.Catalogue catalogue = planificateur.construireCatalogue(aliments);
+        int nombreJours = 7;
+
+        PlanificateurRepas.Resultat resultat = planificateur.planifier(catalogue, DEBUT, nombreJours, null, 42L);
+
+        assertEquals(2 * (nombreJours - 1), resultat.getRelachements());
+        for (Map<String, List<Food>> repas : resultat.getPlan().values()) {
+            List<Long> servis = new ArrayList<>();
+            repas.values().forEach(plats -> plats.forEach(food -> servis.add(food.getId())));
+            assertEquals(servis.size(), new HashSet<>(servis).size(), "aliment servi deux fois le même jour");
+        }
+    }
+
+    @Test
+    void memeGraineMemePlan() {
+        List<Food> aliments = new ArrayList<>();
+        for (CategorieFood categorie : CategorieFood.values()) {
+            aliments.addAll(aliments(categorie, 12, 50.0, 900.0));
+        }
+        PlanificateurRepas.Catalogue catalogue = planificateur.construireCatalogue(aliments);
+        long graine = PlanificateurRepas.graine(7L, DEBUT);
+
+        PlanificateurRepas.Resultat premier = planificateur.planifier(catalogue, DEBUT, 14,
+            List.of(CategorieFood.DESSERTS), graine);
+        PlanificateurRepas.Resultat second = planificateur.planifier(
+            planificateur.construireCatalogue(aliments), DEBUT, 14, List.of(CategorieFood.DESSERTS), graine);
+
+        assertEquals(identifiants(premier), identifiants(second));
+        assertEquals(premier.getCaloriesParJour(), second.getCaloriesParJour());
+    }
+
+    // ================ MÉTHODES UTILITAIRES ================
+
+    /**
+     * Aliments d'une catégorie aux calories réparties régulièrement entre deux bornes
+     */
+    private List<Food> aliments(CategorieFood categorie, int nombre, double caloriesMin, double caloriesMax) {
+        List<Food> aliments = new ArrayList<>(nombre);
+        for (int i = 0; i < nombre; i++) {
+            Food food = new Food();
+            food.setId(prochainId);
+            food.setNom(categorie.getLibelle() + " " + prochainId++);
+            food.setCategorie(categorie);
+            food.setCalories(nombre == 1 ? caloriesMin : caloriesMin + (caloriesMax - caloriesMin) * i / (nombre - 1));
+            aliments.add(food);
+        }
+        return aliments;
+    }
+
+    private static List<Set<Long>> servisParJour(PlanificateurRepas.Resultat resultat) {
+        List<Set<Long>> jours = new ArrayList<>();
+        for (Map<String, List<Food>> repas : resultat.getPlan().values()) {
+            Set<Long> servis = new HashSet<>();
+            repas.values().forEach(plats -> plats.forEach(food -> servis.add(food.getId())));
+            jours.add(servis);
+        }
+        return jours;
+    }
+
+    private static List<List<Long>> identifiants(PlanificateurRepas.Resultat resultat) {
+        List<List<Long>> plats = new ArrayList<>();
+        resultat.getPlan().forEach((date, repas) -> repas.forEach((libelle, aliments) ->
+            plats.add(aliments.stream().map(Food::getId).toList())));
+        return plats;
+    }
+}